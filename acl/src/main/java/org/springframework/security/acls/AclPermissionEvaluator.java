@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,17 @@
 package org.springframework.security.acls;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -108,6 +116,72 @@ public class AclPermissionEvaluator implements PermissionEvaluator {
 		return false;
 	}
 
+	/**
+	 * Determines the permissions of the user on all the domain objects, reading the ACLs
+	 * of every domain object with a single {@link AclService#readAclsById(List, List)}
+	 * call.
+	 */
+	@Override
+	public Map<Object, BitSet> hasPermissions(Authentication authentication, Collection<?> domainObjects,
+			Collection<?> permissions) {
+		List<ObjectIdentity> oids = new ArrayList<>(domainObjects.size());
+		for (Object domainObject : domainObjects) {
+			oids.add((domainObject != null) ? this.objectIdentityRetrievalStrategy.getObjectIdentity(domainObject)
+					: null);
+		}
+		List<Sid> sids = this.sidRetrievalStrategy.getSids(authentication);
+		Map<ObjectIdentity, Acl> acls = readAcls(oids, sids);
+		Map<Object, BitSet> result = new LinkedHashMap<>();
+		for (Object permission : permissions) {
+			List<Permission> requiredPermission = resolvePermission(permission);
+			BitSet granted = new BitSet(oids.size());
+			for (int i = 0; i < oids.size(); i++) {
+				ObjectIdentity oid = oids.get(i);
+				Acl acl = (oid != null) ? acls.get(oid) : null;
+				if (acl != null && isGranted(acl, requiredPermission, sids)) {
+					granted.set(i);
+				}
+			}
+			result.put(permission, granted);
+		}
+		return result;
+	}
+
+	private Map<ObjectIdentity, Acl> readAcls(List<ObjectIdentity> oids, List<Sid> sids) {
+		Set<ObjectIdentity> toRead = new LinkedHashSet<>(oids);
+		toRead.remove(null);
+		if (toRead.isEmpty()) {
+			return new HashMap<>();
+		}
+		this.logger.debug(LogMessage.of(() -> "Checking permissions for " + toRead.size() + " objects"));
+		try {
+			return this.aclService.readAclsById(new ArrayList<>(toRead), sids);
+		}
+		catch (NotFoundException ex) {
+			// Some objects have no ACL; the ACLs that were found are usually cached by now
+			this.logger.debug("Not all ACLs found, reading them one by one");
+		}
+		Map<ObjectIdentity, Acl> acls = new HashMap<>();
+		for (ObjectIdentity oid : toRead) {
+			try {
+				acls.put(oid, this.aclService.readAclById(oid, sids));
+			}
+			catch (NotFoundException ex) {
+				this.logger.debug(LogMessage.of(() -> "No ACLs apply to object '" + oid + "' for this principal"));
+			}
+		}
+		return acls;
+	}
+
+	private boolean isGranted(Acl acl, List<Permission> requiredPermission, List<Sid> sids) {
+		try {
+			return acl.isGranted(requiredPermission, sids, false);
+		}
+		catch (NotFoundException ex) {
+			return false;
+		}
+	}
+
 	List<Permission> resolvePermission(Object permission) {
 		if (permission instanceof Integer) {
 			return Arrays.asList(this.permissionFactory.buildFromMask((Integer) permission));
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.acls.model.AccessControlEntry;
+import org.springframework.security.acls.model.Sid;
+
+/**
+ * An immutable snapshot of the entries of an {@link AclImpl}, grouped by {@link Sid}
+ * while retaining their original order. Used by
+ * {@link DefaultPermissionGrantingStrategy} so that a permission check only considers
+ * the entries of the SIDs being asked about.
+ *
+ * @since 6.2
+ */
+final class AccessControlEntryIndex {
+
+	private final List<AccessControlEntry> source;
+
+	private final int size;
+
+	private final Map<Sid, Entries> entriesBySid;
+
+	AccessControlEntryIndex(List<AccessControlEntry> aces) {
+		this.source = aces;
+		this.size = aces.size();
+		Map<Sid, List<AccessControlEntry>> grouped = new LinkedHashMap<>();
+		for (AccessControlEntry ace : aces) {
+			grouped.computeIfAbsent(ace.getSid(), (sid) -> new ArrayList<>()).add(ace);
+		}
+		Map<Sid, Entries> entriesBySid = new HashMap<>(grouped.size() * 2);
+		grouped.forEach((sid, entries) -> entriesBySid.put(sid, new Entries(entries)));
+		this.entriesBySid = entriesBySid;
+	}
+
+	/**
+	 * Whether this index still reflects the given list of entries. Entries may be added
+	 * to an {@link AclImpl} directly by persistence tools, so the list identity and size
+	 * are compared in addition to the explicit invalidation done by {@link AclImpl}.
+	 * @param aces the current entries of the ACL
+	 * @return {@code true} if this index may still be used
+	 */
+	boolean isCurrent(List<AccessControlEntry> aces) {
+		return this.source == aces && this.size == aces.size();
+	}
+
+	/**
+	 * Returns the entries for the given {@link Sid}, in ACL order.
+	 * @param sid the {@link Sid} to look up
+	 * @return the entries or {@code null} if the ACL has no entry for this {@link Sid}
+	 */
+	Entries getEntries(Sid sid) {
+		return this.entriesBySid.get(sid);
+	}
+
+	/**
+	 * The entries of a single {@link Sid}, with their masks laid out in a flat array.
+	 */
+	static final class Entries {
+
+		private final AccessControlEntry[] aces;
+
+		private final int[] masks;
+
+		private final int foldedMask;
+
+		private Entries(List<AccessControlEntry> aces) {
+			this.aces = aces.toArray(new AccessControlEntry[0]);
+			this.masks = new int[this.aces.length];
+			int foldedMask = 0;
+			for (int i = 0; i < this.aces.length; i++) {
+				this.masks[i] = this.aces[i].getPermission().getMask();
+				foldedMask |= this.masks[i];
+			}
+			this.foldedMask = foldedMask;
+		}
+
+		int size() {
+			return this.aces.length;
+		}
+
+		AccessControlEntry getAce(int index) {
+			return this.aces[index];
+		}
+
+		int getMask(int index) {
+			return this.masks[index];
+		}
+
+		/**
+		 * Whether an entry of this {@link Sid} can have exactly the given mask. This is
+		 * the case only if every bit of the mask is set in at least one entry, which
+		 * quickly rules out most {@link CumulativePermission} masks.
+		 * @param mask the mask to look for
+		 * @return {@code false} if no entry can have exactly this mask
+		 */
+		boolean mayContainMask(int mask) {
+			return (mask & ~this.foldedMask) == 0;
+		}
+
+	}
+
+}
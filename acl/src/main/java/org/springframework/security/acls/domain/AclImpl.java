@@ -61,6 +61,8 @@ public class AclImpl implements Acl, MutableAcl, AuditableAcl, OwnershipAcl {
 
 	private boolean entriesInheriting = true;
 
+	private transient volatile AccessControlEntryIndex entryIndex;
+
 	/**
 	 * Minimal constructor, which should be used
 	 * {@link org.springframework.security.acls.model.MutableAclService#createAcl(ObjectIdentity)}
@@ -127,6 +129,7 @@ public class AclImpl implements Acl, MutableAcl, AuditableAcl, OwnershipAcl {
 		verifyAceIndexExists(aceIndex);
 		synchronized (this.aces) {
 			this.aces.remove(aceIndex);
+			this.entryIndex = null;
 		}
 	}
 
@@ -156,6 +159,7 @@ public class AclImpl implements Acl, MutableAcl, AuditableAcl, OwnershipAcl {
 		AccessControlEntryImpl ace = new AccessControlEntryImpl(null, this, sid, permission, granting, false, false);
 		synchronized (this.aces) {
 			this.aces.add(atIndexLocation, ace);
+			this.entryIndex = null;
 		}
 	}
 
@@ -166,6 +170,23 @@ public class AclImpl implements Acl, MutableAcl, AuditableAcl, OwnershipAcl {
 		return new ArrayList<>(this.aces);
 	}
 
+	/**
+	 * Returns the entries of this ACL grouped by {@link Sid}, building the index on first
+	 * use after the entries have changed.
+	 * @return the index of the current entries
+	 */
+	AccessControlEntryIndex getEntryIndex() {
+		AccessControlEntryIndex entryIndex = this.entryIndex;
+		if (entryIndex != null && entryIndex.isCurrent(this.aces)) {
+			return entryIndex;
+		}
+		synchronized (this.aces) {
+			entryIndex = new AccessControlEntryIndex(this.aces);
+			this.entryIndex = entryIndex;
+		}
+		return entryIndex;
+	}
+
 	@Override
 	public Serializable getId() {
 		return this.id;
@@ -261,6 +282,7 @@ public class AclImpl implements Acl, MutableAcl, AuditableAcl, OwnershipAcl {
 		synchronized (this.aces) {
 			AccessControlEntryImpl ace = (AccessControlEntryImpl) this.aces.get(aceIndex);
 			ace.setPermission(permission);
+			this.entryIndex = null;
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.security.acls.domain;
 
+import java.lang.reflect.Method;
 import java.util.List;
 
 import org.springframework.security.acls.model.AccessControlEntry;
@@ -25,11 +26,18 @@ import org.springframework.security.acls.model.Permission;
 import org.springframework.security.acls.model.PermissionGrantingStrategy;
 import org.springframework.security.acls.model.Sid;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 public class DefaultPermissionGrantingStrategy implements PermissionGrantingStrategy {
 
 	private final transient AuditLogger auditLogger;
 
+	/**
+	 * Whether {@link #isGranted(AccessControlEntry, Permission)} has not been overridden,
+	 * in which case ACE masks can be compared directly.
+	 */
+	private final boolean exactMaskMatching;
+
 	/**
 	 * Creates an instance with the logger which will be used to record granting and
 	 * denial of requested permissions.
@@ -37,6 +45,13 @@ public class DefaultPermissionGrantingStrategy implements PermissionGrantingStra
 	public DefaultPermissionGrantingStrategy(AuditLogger auditLogger) {
 		Assert.notNull(auditLogger, "auditLogger cannot be null");
 		this.auditLogger = auditLogger;
+		this.exactMaskMatching = isExactMaskMatching(getClass());
+	}
+
+	private static boolean isExactMaskMatching(Class<?> strategyClass) {
+		Method isGranted = ReflectionUtils.findMethod(strategyClass, "isGranted", AccessControlEntry.class,
+				Permission.class);
+		return isGranted != null && isGranted.getDeclaringClass() == DefaultPermissionGrantingStrategy.class;
 	}
 
 	/**
@@ -74,7 +89,30 @@ public class DefaultPermissionGrantingStrategy implements PermissionGrantingStra
 	@Override
 	public boolean isGranted(Acl acl, List<Permission> permission, List<Sid> sids, boolean administrativeMode)
 			throws NotFoundException {
-		List<AccessControlEntry> aces = acl.getEntries();
+		AccessControlEntry matchingAce = (acl instanceof AclImpl aclImpl)
+				? findMatchingAce(aclImpl.getEntryIndex(), permission, sids)
+				: findMatchingAce(acl.getEntries(), permission, sids);
+		if (matchingAce != null) {
+			// Either the first granting ACE found, or the first ACE to reject the
+			// request, as no other ACEs were found that granted a different permission
+			if (!administrativeMode) {
+				this.auditLogger.logIfNeeded(matchingAce.isGranting(), matchingAce);
+			}
+			return matchingAce.isGranting();
+		}
+
+		// No matches have been found so far
+		if (acl.isEntriesInheriting() && (acl.getParentAcl() != null)) {
+			// We have a parent, so let them try to find a matching ACE
+			return acl.getParentAcl().isGranted(permission, sids, false);
+		}
+
+		// We either have no parent, or we're the uppermost parent
+		throw new NotFoundException("Unable to locate a matching ACE for passed permissions and SIDs");
+	}
+
+	private AccessControlEntry findMatchingAce(List<AccessControlEntry> aces, List<Permission> permission,
+			List<Sid> sids) {
 		AccessControlEntry firstRejection = null;
 		for (Permission p : permission) {
 			for (Sid sid : sids) {
@@ -86,10 +124,7 @@ public class DefaultPermissionGrantingStrategy implements PermissionGrantingStra
 						// prevail
 						if (ace.isGranting()) {
 							// Success
-							if (!administrativeMode) {
-								this.auditLogger.logIfNeeded(true, ace);
-							}
-							return true;
+							return ace;
 						}
 
 						// Failure for this permission, so stop search
@@ -109,24 +144,44 @@ public class DefaultPermissionGrantingStrategy implements PermissionGrantingStra
 				}
 			}
 		}
+		return firstRejection;
+	}
 
-		if (firstRejection != null) {
-			// We found an ACE to reject the request at this point, as no
-			// other ACEs were found that granted a different permission
-			if (!administrativeMode) {
-				this.auditLogger.logIfNeeded(false, firstRejection);
+	private AccessControlEntry findMatchingAce(AccessControlEntryIndex index, List<Permission> permission,
+			List<Sid> sids) {
+		AccessControlEntry firstRejection = null;
+		for (Permission p : permission) {
+			int mask = p.getMask();
+			for (Sid sid : sids) {
+				// Only the ACEs of this SID can match, in the order they appear in the ACL
+				AccessControlEntryIndex.Entries entries = index.getEntries(sid);
+				if (entries == null || (this.exactMaskMatching && !entries.mayContainMask(mask))) {
+					continue;
+				}
+				AccessControlEntry ace = findMatchingAce(entries, p, mask);
+				if (ace == null) {
+					continue;
+				}
+				if (ace.isGranting()) {
+					return ace;
+				}
+				if (firstRejection == null) {
+					firstRejection = ace;
+				}
+				break; // this permission is rejected for this SID, try the next one
 			}
-			return false;
 		}
+		return firstRejection;
+	}
 
-		// No matches have been found so far
-		if (acl.isEntriesInheriting() && (acl.getParentAcl() != null)) {
-			// We have a parent, so let them try to find a matching ACE
-			return acl.getParentAcl().isGranted(permission, sids, false);
+	private AccessControlEntry findMatchingAce(AccessControlEntryIndex.Entries entries, Permission p, int mask) {
+		for (int i = 0; i < entries.size(); i++) {
+			boolean matches = this.exactMaskMatching ? entries.getMask(i) == mask : isGranted(entries.getAce(i), p);
+			if (matches) {
+				return entries.getAce(i);
+			}
 		}
-
-		// We either have no parent, or we're the uppermost parent
-		throw new NotFoundException("Unable to locate a matching ACE for passed permissions and SIDs");
+		return null;
 	}
 
 	/**
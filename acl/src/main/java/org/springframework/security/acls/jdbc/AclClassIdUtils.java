@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -76,6 +76,23 @@ class AclClassIdUtils {
 		return convertToLong(identifier);
 	}
 
+	/**
+	 * Converts the raw type from the database into the right Java type, using the
+	 * <code>acl_class.class_id_type</code> value that has already been read from the
+	 * current row.
+	 * @param identifier The identifier from the database
+	 * @param classIdType the class id type from the current row (may be null)
+	 * @return The identifier in the appropriate target Java type. Typically Long or UUID.
+	 */
+	Serializable identifierFrom(Serializable identifier, String classIdType) {
+		Class<Serializable> targetType = classIdTypeFrom(classIdType);
+		if (isString(identifier) && targetType != null && canConvertFromStringTo(targetType)) {
+			return convertFromStringTo((String) identifier, targetType);
+		}
+		// Assume it should be a Long type
+		return convertToLong(identifier);
+	}
+
 	private boolean hasValidClassIdType(ResultSet resultSet) {
 		try {
 			return classIdTypeFrom(resultSet) != null;
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.jdbc;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.r2dbc.spi.Row;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.acls.domain.ObjectIdentityRetrievalStrategyImpl;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.NotFoundException;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.ObjectIdentityGenerator;
+import org.springframework.security.acls.model.ReactiveAclService;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.util.Assert;
+
+/**
+ * A R2DBC implementation of {@link ReactiveAclService} that uses a {@link DatabaseClient}
+ * and a {@link ReactiveLookupStrategy}, so that ACLs can be read from WebFlux
+ * applications without blocking.
+ *
+ * <p>
+ * <b>NOTE:</b> This {@code ReactiveAclService} depends on the same table definitions as
+ * {@link JdbcAclService}.
+ *
+ * @since 6.2
+ * @see JdbcAclService
+ * @see R2dbcReactiveLookupStrategy
+ */
+public class R2dbcReactiveAclService implements ReactiveAclService {
+
+	protected static final Log log = LogFactory.getLog(R2dbcReactiveAclService.class);
+
+	private static final String DEFAULT_SELECT_ACL_CLASS_COLUMNS = "class.class as class";
+
+	private static final String DEFAULT_SELECT_ACL_CLASS_COLUMNS_WITH_ID_TYPE = DEFAULT_SELECT_ACL_CLASS_COLUMNS
+			+ ", class.class_id_type as class_id_type";
+
+	private static final String DEFAULT_SELECT_ACL_WITH_PARENT_SQL = "select obj.object_id_identity as obj_id, "
+			+ DEFAULT_SELECT_ACL_CLASS_COLUMNS
+			+ " from acl_object_identity obj, acl_object_identity parent, acl_class class "
+			+ "where obj.parent_object = parent.id and obj.object_id_class = class.id "
+			+ "and parent.object_id_identity = :identifier and parent.object_id_class = ("
+			+ "select id FROM acl_class where acl_class.class = :type)";
+
+	private static final String DEFAULT_SELECT_ACL_WITH_PARENT_SQL_WITH_CLASS_ID_TYPE = "select obj.object_id_identity as obj_id, "
+			+ DEFAULT_SELECT_ACL_CLASS_COLUMNS_WITH_ID_TYPE
+			+ " from acl_object_identity obj, acl_object_identity parent, acl_class class "
+			+ "where obj.parent_object = parent.id and obj.object_id_class = class.id "
+			+ "and parent.object_id_identity = :identifier and parent.object_id_class = ("
+			+ "select id FROM acl_class where acl_class.class = :type)";
+
+	protected final DatabaseClient databaseClient;
+
+	private final ReactiveLookupStrategy lookupStrategy;
+
+	private boolean aclClassIdSupported;
+
+	private String findChildrenSql = DEFAULT_SELECT_ACL_WITH_PARENT_SQL;
+
+	private AclClassIdUtils aclClassIdUtils;
+
+	private ObjectIdentityGenerator objectIdentityGenerator;
+
+	/**
+	 * Constructs a {@code R2dbcReactiveAclService} using the provided parameters.
+	 * @param databaseClient the database client
+	 * @param lookupStrategy the strategy used to read ACLs
+	 */
+	public R2dbcReactiveAclService(DatabaseClient databaseClient, ReactiveLookupStrategy lookupStrategy) {
+		Assert.notNull(databaseClient, "databaseClient cannot be null");
+		Assert.notNull(lookupStrategy, "lookupStrategy cannot be null");
+		this.databaseClient = databaseClient;
+		this.lookupStrategy = lookupStrategy;
+		this.aclClassIdUtils = new AclClassIdUtils();
+		this.objectIdentityGenerator = new ObjectIdentityRetrievalStrategyImpl();
+	}
+
+	@Override
+	public Flux<ObjectIdentity> findChildren(ObjectIdentity parentIdentity) {
+		Assert.notNull(parentIdentity, "parentIdentity cannot be null");
+		// @formatter:off
+		return this.databaseClient.sql(this.findChildrenSql)
+				.bind("identifier", parentIdentity.getIdentifier().toString())
+				.bind("type", parentIdentity.getType())
+				.map((row, metadata) -> mapObjectIdentityRow(row))
+				.all();
+		// @formatter:on
+	}
+
+	private ObjectIdentity mapObjectIdentityRow(Row row) {
+		String javaType = row.get("class", String.class);
+		Serializable identifier = (Serializable) row.get("obj_id");
+		String classIdType = this.aclClassIdSupported ? row.get("class_id_type", String.class) : null;
+		identifier = this.aclClassIdUtils.identifierFrom(identifier, classIdType);
+		return this.objectIdentityGenerator.createObjectIdentity(identifier, javaType);
+	}
+
+	@Override
+	public Mono<Acl> readAclById(ObjectIdentity object, List<Sid> sids) {
+		return readAclsById(Collections.singletonList(object), sids).map((acls) -> acls.get(object));
+	}
+
+	@Override
+	public Mono<Acl> readAclById(ObjectIdentity object) {
+		return readAclById(object, null);
+	}
+
+	@Override
+	public Mono<Map<ObjectIdentity, Acl>> readAclsById(List<ObjectIdentity> objects) {
+		return readAclsById(objects, null);
+	}
+
+	@Override
+	public Mono<Map<ObjectIdentity, Acl>> readAclsById(List<ObjectIdentity> objects, List<Sid> sids) {
+		return this.lookupStrategy.readAclsById(objects, sids).flatMap((result) -> {
+			// Check every requested object identity was found
+			for (ObjectIdentity oid : objects) {
+				if (!result.containsKey(oid)) {
+					return Mono.error(
+							new NotFoundException("Unable to find ACL information for object identity '" + oid + "'"));
+				}
+			}
+			return Mono.just(result);
+		});
+	}
+
+	/**
+	 * Allows customization of the SQL query used to find child object identities. The
+	 * query is given the <code>:identifier</code> and <code>:type</code> named
+	 * parameters of the parent object identity.
+	 * @param findChildrenSql the query
+	 */
+	public void setFindChildrenQuery(String findChildrenSql) {
+		Assert.hasText(findChildrenSql, "findChildrenSql cannot be empty");
+		this.findChildrenSql = findChildrenSql;
+	}
+
+	public void setAclClassIdSupported(boolean aclClassIdSupported) {
+		this.aclClassIdSupported = aclClassIdSupported;
+		if (aclClassIdSupported) {
+			// Change the default children select if it hasn't been overridden
+			if (this.findChildrenSql.equals(DEFAULT_SELECT_ACL_WITH_PARENT_SQL)) {
+				this.findChildrenSql = DEFAULT_SELECT_ACL_WITH_PARENT_SQL_WITH_CLASS_ID_TYPE;
+			}
+			else {
+				log.debug("Find children statement has already been overridden, so not overridding the default");
+			}
+		}
+	}
+
+	public void setConversionService(ConversionService conversionService) {
+		this.aclClassIdUtils = new AclClassIdUtils(conversionService);
+	}
+
+	public void setObjectIdentityGenerator(ObjectIdentityGenerator objectIdentityGenerator) {
+		Assert.notNull(objectIdentityGenerator, "objectIdentityGenerator cannot be null");
+		this.objectIdentityGenerator = objectIdentityGenerator;
+	}
+
+	protected boolean isAclClassIdSupported() {
+		return this.aclClassIdSupported;
+	}
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.jdbc;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.security.acls.domain.AccessControlEntryImpl;
+import org.springframework.security.acls.domain.AclAuthorizationStrategy;
+import org.springframework.security.acls.domain.AclImpl;
+import org.springframework.security.acls.domain.DefaultPermissionFactory;
+import org.springframework.security.acls.domain.GrantedAuthoritySid;
+import org.springframework.security.acls.domain.ObjectIdentityRetrievalStrategyImpl;
+import org.springframework.security.acls.domain.PermissionFactory;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.ObjectIdentityGenerator;
+import org.springframework.security.acls.model.PermissionGrantingStrategy;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.security.util.FieldUtils;
+import org.springframework.util.Assert;
+
+/**
+ * A R2DBC implementation of {@link ReactiveLookupStrategy} that uses a
+ * {@link DatabaseClient} to read ACLs without blocking. It uses the same schema and
+ * performs the same queries as {@link BasicLookupStrategy}: the requested object
+ * identities are read in batches of {@link #setBatchSize(int) batchSize}, each batch with
+ * a single query, followed by one query per level of not yet loaded parent ACLs.
+ *
+ * @since 6.2
+ * @see BasicLookupStrategy
+ * @see R2dbcReactiveAclService
+ */
+public class R2dbcReactiveLookupStrategy implements ReactiveLookupStrategy {
+
+	private static final String DEFAULT_SELECT_CLAUSE_COLUMNS = "select acl_object_identity.object_id_identity, "
+			+ "acl_entry.ace_order,  " + "acl_object_identity.id as acl_id, " + "acl_object_identity.parent_object, "
+			+ "acl_object_identity.entries_inheriting, " + "acl_entry.id as ace_id, " + "acl_entry.mask,  "
+			+ "acl_entry.granting,  " + "acl_entry.audit_success, " + "acl_entry.audit_failure,  "
+			+ "acl_sid.principal as ace_principal, " + "acl_sid.sid as ace_sid,  "
+			+ "acli_sid.principal as acl_principal, " + "acli_sid.sid as acl_sid, " + "acl_class.class ";
+
+	private static final String DEFAULT_SELECT_CLAUSE_ACL_CLASS_ID_TYPE_COLUMN = ", acl_class.class_id_type  ";
+
+	private static final String DEFAULT_SELECT_CLAUSE_FROM = "from acl_object_identity "
+			+ "left join acl_sid acli_sid on acli_sid.id = acl_object_identity.owner_sid "
+			+ "left join acl_class on acl_class.id = acl_object_identity.object_id_class   "
+			+ "left join acl_entry on acl_object_identity.id = acl_entry.acl_object_identity "
+			+ "left join acl_sid on acl_entry.sid = acl_sid.id  " + "where ( ";
+
+	private static final String DEFAULT_SELECT_CLAUSE = DEFAULT_SELECT_CLAUSE_COLUMNS + DEFAULT_SELECT_CLAUSE_FROM;
+
+	private static final String DEFAULT_ACL_CLASS_ID_SELECT_CLAUSE = DEFAULT_SELECT_CLAUSE_COLUMNS
+			+ DEFAULT_SELECT_CLAUSE_ACL_CLASS_ID_TYPE_COLUMN + DEFAULT_SELECT_CLAUSE_FROM;
+
+	private static final String LOOKUP_KEYS_WHERE_CLAUSE = "(acl_object_identity.id = :id%d)";
+
+	private static final String LOOKUP_IDENTITIES_WHERE_CLAUSE = "(acl_object_identity.object_id_identity = :identifier%d and acl_class.class = :type%d)";
+
+	private static final String ORDER_BY_CLAUSE = BasicLookupStrategy.DEFAULT_ORDER_BY_CLAUSE;
+
+	private final DatabaseClient databaseClient;
+
+	private final AclCache aclCache;
+
+	private final AclAuthorizationStrategy aclAuthorizationStrategy;
+
+	private final PermissionGrantingStrategy grantingStrategy;
+
+	private final Field fieldAces = FieldUtils.getField(AclImpl.class, "aces");
+
+	private ObjectIdentityGenerator objectIdentityGenerator = new ObjectIdentityRetrievalStrategyImpl();
+
+	private PermissionFactory permissionFactory = new DefaultPermissionFactory();
+
+	private AclClassIdUtils aclClassIdUtils = new AclClassIdUtils();
+
+	private String selectClause = DEFAULT_SELECT_CLAUSE;
+
+	private boolean aclClassIdSupported;
+
+	private int batchSize = 50;
+
+	/**
+	 * Constructs a {@code R2dbcReactiveLookupStrategy} using the provided parameters.
+	 * @param databaseClient the database client
+	 * @param aclCache the cache where fully-loaded elements can be stored
+	 * @param aclAuthorizationStrategy authorization strategy
+	 * @param grantingStrategy the {@link PermissionGrantingStrategy}
+	 */
+	public R2dbcReactiveLookupStrategy(DatabaseClient databaseClient, AclCache aclCache,
+			AclAuthorizationStrategy aclAuthorizationStrategy, PermissionGrantingStrategy grantingStrategy) {
+		Assert.notNull(databaseClient, "databaseClient cannot be null");
+		Assert.notNull(aclCache, "aclCache cannot be null");
+		Assert.notNull(aclAuthorizationStrategy, "aclAuthorizationStrategy cannot be null");
+		Assert.notNull(grantingStrategy, "grantingStrategy cannot be null");
+		this.databaseClient = databaseClient;
+		this.aclCache = aclCache;
+		this.aclAuthorizationStrategy = aclAuthorizationStrategy;
+		this.grantingStrategy = grantingStrategy;
+		this.fieldAces.setAccessible(true);
+	}
+
+	/**
+	 * Reads the ACLs of the requested object identities, using the {@link AclCache}
+	 * first. As with {@link BasicLookupStrategy}, the "sids" argument is disregarded and
+	 * every loaded ACL contains all of its entries.
+	 * @param objects the identities to lookup (required)
+	 * @param sids the SIDs for which identities are required (ignored by this
+	 * implementation)
+	 * @return the located ACLs, keyed by their {@link ObjectIdentity}
+	 */
+	@Override
+	public Mono<Map<ObjectIdentity, Acl>> readAclsById(List<ObjectIdentity> objects, List<Sid> sids) {
+		Assert.notEmpty(objects, "Objects to lookup required");
+		return Mono.defer(() -> {
+			Map<ObjectIdentity, Acl> result = new HashMap<>();
+			Set<ObjectIdentity> toLoad = new LinkedHashSet<>();
+			for (ObjectIdentity oid : objects) {
+				if (result.containsKey(oid)) {
+					continue;
+				}
+				Acl acl = this.aclCache.getFromCache(oid);
+				if (acl == null) {
+					toLoad.add(oid);
+					continue;
+				}
+				// Ensure any cached element supports all the requested SIDs
+				Assert.state(acl.isSidLoaded(sids),
+						"Error: SID-filtered element detected when implementation does not perform SID filtering "
+								+ "- have you added something to the cache manually?");
+				result.put(acl.getObjectIdentity(), acl);
+			}
+			// @formatter:off
+			return Flux.fromIterable(toLoad)
+					.buffer(this.batchSize)
+					.concatMap((batch) -> lookupObjectIdentities(batch, sids))
+					.doOnNext((loaded) -> loaded.values().forEach((acl) -> this.aclCache.putInCache((MutableAcl) acl)))
+					.reduce(result, (accumulated, loaded) -> {
+						accumulated.putAll(loaded);
+						return accumulated;
+					});
+			// @formatter:on
+		});
+	}
+
+	private Mono<Map<ObjectIdentity, Acl>> lookupObjectIdentities(Collection<ObjectIdentity> objectIdentities,
+			List<Sid> sids) {
+		Map<Long, AclRecord> records = new HashMap<>();
+		Map<Long, Acl> cachedParents = new HashMap<>();
+		List<ObjectIdentity> identities = new ArrayList<>(objectIdentities);
+		String sql = computeRepeatingSql(LOOKUP_IDENTITIES_WHERE_CLAUSE, identities.size());
+		GenericExecuteSpec spec = this.databaseClient.sql(sql);
+		for (int i = 0; i < identities.size(); i++) {
+			ObjectIdentity oid = identities.get(i);
+			spec = spec.bind("identifier" + i, oid.getIdentifier().toString()).bind("type" + i, oid.getType());
+		}
+		// @formatter:off
+		return readRecords(spec, records)
+				.flatMap((parentIds) -> lookupParents(records, cachedParents, parentIds, sids))
+				.then(Mono.fromSupplier(() -> convert(records, cachedParents)));
+		// @formatter:on
+	}
+
+	/**
+	 * Loads the given parent ACLs, and recursively their parents, skipping those which
+	 * have already been read or can be found in the {@link AclCache}.
+	 */
+	private Mono<Void> lookupParents(Map<Long, AclRecord> records, Map<Long, Acl> cachedParents, Set<Long> parentIds,
+			List<Sid> sids) {
+		List<Long> toLoad = new ArrayList<>();
+		for (Long parentId : parentIds) {
+			if (records.containsKey(parentId) || cachedParents.containsKey(parentId)) {
+				continue;
+			}
+			MutableAcl cached = this.aclCache.getFromCache(parentId);
+			if (cached != null && cached.isSidLoaded(sids)) {
+				cachedParents.put(parentId, cached);
+			}
+			else {
+				toLoad.add(parentId);
+			}
+		}
+		if (toLoad.isEmpty()) {
+			return Mono.empty();
+		}
+		String sql = computeRepeatingSql(LOOKUP_KEYS_WHERE_CLAUSE, toLoad.size());
+		GenericExecuteSpec spec = this.databaseClient.sql(sql);
+		for (int i = 0; i < toLoad.size(); i++) {
+			spec = spec.bind("id" + i, toLoad.get(i));
+		}
+		return readRecords(spec, records)
+				.flatMap((grandParentIds) -> lookupParents(records, cachedParents, grandParentIds, sids));
+	}
+
+	/**
+	 * Reads the rows of the given query into {@link AclRecord}s.
+	 * @return the ids of the parents of the ACLs which have been read
+	 */
+	private Mono<Set<Long>> readRecords(GenericExecuteSpec spec, Map<Long, AclRecord> records) {
+		// @formatter:off
+		return spec.map((row, metadata) -> readRow(records, row))
+				.all()
+				.filter((parentId) -> parentId != 0)
+				.collect(Collectors.toSet());
+		// @formatter:on
+	}
+
+	/**
+	 * Accepts the current row and adds its ACL and ACE to the given records.
+	 * @return the id of the parent ACL, or {@code 0} if there is none
+	 */
+	private Long readRow(Map<Long, AclRecord> records, Row row) {
+		Long id = row.get("acl_id", Long.class);
+		AclRecord aclRecord = records.get(id);
+		if (aclRecord == null) {
+			Serializable identifier = (Serializable) row.get("object_id_identity");
+			String classIdType = this.aclClassIdSupported ? row.get("class_id_type", String.class) : null;
+			identifier = this.aclClassIdUtils.identifierFrom(identifier, classIdType);
+			ObjectIdentity objectIdentity = this.objectIdentityGenerator.createObjectIdentity(identifier,
+					row.get("class", String.class));
+			Long parentId = row.get("parent_object", Long.class);
+			Sid owner = createSid(row.get("acl_principal", Boolean.class), row.get("acl_sid", String.class));
+			aclRecord = new AclRecord(objectIdentity, parentId, row.get("entries_inheriting", Boolean.class), owner);
+			records.put(id, aclRecord);
+		}
+		// It is permissible to have no ACEs in an ACL (which is detected by a null
+		// ACE_SID)
+		String aceSid = row.get("ace_sid", String.class);
+		if (aceSid != null) {
+			Long aceId = row.get("ace_id", Long.class);
+			Sid recipient = createSid(row.get("ace_principal", Boolean.class), aceSid);
+			aclRecord.aces.putIfAbsent(aceId,
+					new AceRecord(aceId, recipient, row.get("mask", Integer.class), row.get("granting", Boolean.class),
+							row.get("audit_success", Boolean.class), row.get("audit_failure", Boolean.class)));
+		}
+		return (aclRecord.parentId != null) ? aclRecord.parentId : 0L;
+	}
+
+	private Map<ObjectIdentity, Acl> convert(Map<Long, AclRecord> records, Map<Long, Acl> cachedParents) {
+		Map<Long, Acl> converted = new HashMap<>(cachedParents);
+		Map<ObjectIdentity, Acl> result = new HashMap<>();
+		for (Long id : records.keySet()) {
+			Acl acl = convert(records, converted, id);
+			result.put(acl.getObjectIdentity(), acl);
+		}
+		return result;
+	}
+
+	private Acl convert(Map<Long, AclRecord> records, Map<Long, Acl> converted, Long id) {
+		Acl acl = converted.get(id);
+		if (acl != null) {
+			return acl;
+		}
+		AclRecord aclRecord = records.get(id);
+		Assert.state(aclRecord != null, () -> "Unable to locate the ACL with id " + id);
+		Acl parent = (aclRecord.parentId != null) ? convert(records, converted, aclRecord.parentId) : null;
+		AclImpl result = new AclImpl(aclRecord.objectIdentity, id, this.aclAuthorizationStrategy,
+				this.grantingStrategy, parent, null, aclRecord.entriesInheriting, aclRecord.owner);
+		List<AccessControlEntryImpl> aces = readAces(result);
+		for (AceRecord ace : aclRecord.aces.values()) {
+			aces.add(new AccessControlEntryImpl(ace.id, result, ace.sid, this.permissionFactory.buildFromMask(ace.mask),
+					ace.granting, ace.auditSuccess, ace.auditFailure));
+		}
+		converted.put(id, result);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<AccessControlEntryImpl> readAces(AclImpl acl) {
+		try {
+			return (List<AccessControlEntryImpl>) this.fieldAces.get(acl);
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Could not obtain AclImpl.aces field", ex);
+		}
+	}
+
+	private String computeRepeatingSql(String repeatingSql, int requiredRepetitions) {
+		StringBuilder sql = new StringBuilder(this.selectClause);
+		for (int i = 0; i < requiredRepetitions; i++) {
+			if (i > 0) {
+				sql.append(" or ");
+			}
+			sql.append(repeatingSql.replace("%d", String.valueOf(i)));
+		}
+		sql.append(ORDER_BY_CLAUSE);
+		return sql.toString();
+	}
+
+	/**
+	 * Creates a particular implementation of {@link Sid} depending on the arguments.
+	 * @param isPrincipal whether it's a user or granted authority like role
+	 * @param sid the name of the sid representing its unique identifier
+	 * @return the instance of Sid with the {@code sidName} as an identifier
+	 */
+	protected Sid createSid(boolean isPrincipal, String sid) {
+		if (isPrincipal) {
+			return new PrincipalSid(sid);
+		}
+		return new GrantedAuthoritySid(sid);
+	}
+
+	/**
+	 * Sets the {@code PermissionFactory} instance which will be used to convert loaded
+	 * permission data values to {@code Permission}s. A {@code DefaultPermissionFactory}
+	 * will be used by default.
+	 * @param permissionFactory the {@link PermissionFactory} to use
+	 */
+	public final void setPermissionFactory(PermissionFactory permissionFactory) {
+		Assert.notNull(permissionFactory, "permissionFactory cannot be null");
+		this.permissionFactory = permissionFactory;
+	}
+
+	/**
+	 * Sets the maximum number of object identities read with a single query. The default
+	 * is 50.
+	 * @param batchSize the batch size
+	 */
+	public final void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize >= 1, "batchSize must be >= 1");
+		this.batchSize = batchSize;
+	}
+
+	public final void setAclClassIdSupported(boolean aclClassIdSupported) {
+		this.aclClassIdSupported = aclClassIdSupported;
+		this.selectClause = aclClassIdSupported ? DEFAULT_ACL_CLASS_ID_SELECT_CLAUSE : DEFAULT_SELECT_CLAUSE;
+	}
+
+	public final void setObjectIdentityGenerator(ObjectIdentityGenerator objectIdentityGenerator) {
+		Assert.notNull(objectIdentityGenerator, "objectIdentityGenerator cannot be null");
+		this.objectIdentityGenerator = objectIdentityGenerator;
+	}
+
+	public final void setConversionService(ConversionService conversionService) {
+		this.aclClassIdUtils = new AclClassIdUtils(conversionService);
+	}
+
+	private static final class AclRecord {
+
+		private final ObjectIdentity objectIdentity;
+
+		private final Long parentId;
+
+		private final boolean entriesInheriting;
+
+		private final Sid owner;
+
+		private final Map<Long, AceRecord> aces = new LinkedHashMap<>();
+
+		private AclRecord(ObjectIdentity objectIdentity, Long parentId, boolean entriesInheriting, Sid owner) {
+			this.objectIdentity = objectIdentity;
+			this.parentId = parentId;
+			this.entriesInheriting = entriesInheriting;
+			this.owner = owner;
+		}
+
+	}
+
+	private static final class AceRecord {
+
+		private final Long id;
+
+		private final Sid sid;
+
+		private final int mask;
+
+		private final boolean granting;
+
+		private final boolean auditSuccess;
+
+		private final boolean auditFailure;
+
+		private AceRecord(Long id, Sid sid, int mask, boolean granting, boolean auditSuccess, boolean auditFailure) {
+			this.id = id;
+			this.sid = sid;
+			this.mask = mask;
+			this.granting = granting;
+			this.auditSuccess = auditSuccess;
+			this.auditFailure = auditFailure;
+		}
+
+	}
+
+}
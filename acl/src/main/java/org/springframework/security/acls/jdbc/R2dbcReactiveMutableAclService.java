@@ -0,0 +1,386 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.jdbc;
+
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.acls.domain.AccessControlEntryImpl;
+import org.springframework.security.acls.domain.GrantedAuthoritySid;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.model.AccessControlEntry;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.AlreadyExistsException;
+import org.springframework.security.acls.model.ChildrenExistException;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.NotFoundException;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.ReactiveMutableAclService;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.Assert;
+
+/**
+ * A R2DBC implementation of {@link ReactiveMutableAclService}.
+ * <p>
+ * The primary keys of new <code>acl_sid</code> and <code>acl_class</code> rows are read
+ * back with a query on their unique columns, so no database-specific identity query is
+ * needed. Since an ACL is modified with several statements, callers should run the
+ * returned publishers within a transaction, for example with a
+ * {@code TransactionalOperator}.
+ *
+ * @since 6.2
+ * @see JdbcMutableAclService
+ */
+public class R2dbcReactiveMutableAclService extends R2dbcReactiveAclService implements ReactiveMutableAclService {
+
+	private static final String DEFAULT_INSERT_INTO_ACL_CLASS = "insert into acl_class (class) values (:type)";
+
+	private static final String DEFAULT_INSERT_INTO_ACL_CLASS_WITH_ID = "insert into acl_class (class, class_id_type) values (:type, :classIdType)";
+
+	private static final String DELETE_ENTRY_BY_OBJECT_IDENTITY_FOREIGN_KEY = "delete from acl_entry where acl_object_identity = :id";
+
+	private static final String DELETE_OBJECT_IDENTITY_BY_PRIMARY_KEY = "delete from acl_object_identity where id = :id";
+
+	private static final String INSERT_ENTRY = "insert into acl_entry "
+			+ "(acl_object_identity, ace_order, sid, mask, granting, audit_success, audit_failure) "
+			+ "values (:aclObjectIdentity, :aceOrder, :sid, :mask, :granting, :auditSuccess, :auditFailure)";
+
+	private static final String INSERT_OBJECT_IDENTITY = "insert into acl_object_identity "
+			+ "(object_id_class, object_id_identity, owner_sid, entries_inheriting) "
+			+ "values (:objectIdClass, :objectIdIdentity, :ownerSid, :entriesInheriting)";
+
+	private static final String INSERT_SID = "insert into acl_sid (principal, sid) values (:principal, :sid)";
+
+	private static final String SELECT_CLASS_PRIMARY_KEY = "select id from acl_class where class = :type";
+
+	private static final String SELECT_OBJECT_IDENTITY_PRIMARY_KEY = "select acl_object_identity.id from acl_object_identity, acl_class "
+			+ "where acl_object_identity.object_id_class = acl_class.id and acl_class.class = :type "
+			+ "and acl_object_identity.object_id_identity = :identifier";
+
+	private static final String SELECT_SID_PRIMARY_KEY = "select id from acl_sid where principal = :principal and sid = :sid";
+
+	private static final String UPDATE_OBJECT_IDENTITY = "update acl_object_identity set "
+			+ "parent_object = :parentObject, owner_sid = :ownerSid, entries_inheriting = :entriesInheriting "
+			+ "where id = :id";
+
+	private final AclCache aclCache;
+
+	private boolean foreignKeysInDatabase = true;
+
+	private String insertClass = DEFAULT_INSERT_INTO_ACL_CLASS;
+
+	/**
+	 * Constructs a {@code R2dbcReactiveMutableAclService} using the provided parameters.
+	 * @param databaseClient the database client
+	 * @param lookupStrategy the strategy used to read ACLs
+	 * @param aclCache the cache to evict modified ACLs from
+	 */
+	public R2dbcReactiveMutableAclService(DatabaseClient databaseClient, ReactiveLookupStrategy lookupStrategy,
+			AclCache aclCache) {
+		super(databaseClient, lookupStrategy);
+		Assert.notNull(aclCache, "aclCache cannot be null");
+		this.aclCache = aclCache;
+	}
+
+	/**
+	 * Creates the ACL, owned by the principal found in the
+	 * {@link ReactiveSecurityContextHolder}.
+	 */
+	@Override
+	public Mono<MutableAcl> createAcl(ObjectIdentity objectIdentity) {
+		Assert.notNull(objectIdentity, "Object Identity required");
+		// @formatter:off
+		return retrieveObjectIdentityPrimaryKey(objectIdentity)
+				.flatMap((id) -> Mono.<Authentication>error(
+						new AlreadyExistsException("Object identity '" + objectIdentity + "' already exists")))
+				.switchIfEmpty(Mono.defer(this::currentAuthentication))
+				.flatMap((authentication) -> createObjectIdentity(objectIdentity, new PrincipalSid(authentication)))
+				.then(Mono.defer(() -> readAclById(objectIdentity)))
+				.cast(MutableAcl.class);
+		// @formatter:on
+	}
+
+	private Mono<Authentication> currentAuthentication() {
+		// @formatter:off
+		return ReactiveSecurityContextHolder.getContext()
+				.map(SecurityContext::getAuthentication)
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException(
+						"An Authentication is required in the ReactiveSecurityContextHolder to own the ACL")));
+		// @formatter:on
+	}
+
+	/**
+	 * Creates a new row in acl_entry for every ACE defined in the passed MutableAcl
+	 * object.
+	 * @param acl containing the ACEs to insert
+	 * @return a {@link Mono} that completes once all entries are inserted
+	 */
+	protected Mono<Void> createEntries(MutableAcl acl) {
+		List<AccessControlEntry> entries = acl.getEntries();
+		return Flux.range(0, entries.size()).concatMap((i) -> {
+			AccessControlEntry entry = entries.get(i);
+			Assert.isTrue(entry instanceof AccessControlEntryImpl, "Unknown ACE class");
+			AccessControlEntryImpl ace = (AccessControlEntryImpl) entry;
+			// @formatter:off
+			return createOrRetrieveSidPrimaryKey(ace.getSid(), true)
+					.flatMap((sidId) -> this.databaseClient.sql(INSERT_ENTRY)
+							.bind("aclObjectIdentity", acl.getId())
+							.bind("aceOrder", i)
+							.bind("sid", sidId)
+							.bind("mask", ace.getPermission().getMask())
+							.bind("granting", ace.isGranting())
+							.bind("auditSuccess", ace.isAuditSuccess())
+							.bind("auditFailure", ace.isAuditFailure())
+							.fetch()
+							.rowsUpdated());
+			// @formatter:on
+		}).then();
+	}
+
+	/**
+	 * Creates an entry in the acl_object_identity table for the passed ObjectIdentity.
+	 * @param object to represent an acl_object_identity for
+	 * @param owner for the SID column (will be created if there is no acl_sid entry for
+	 * this particular Sid already)
+	 * @return a {@link Mono} that completes once the row is inserted
+	 */
+	protected Mono<Void> createObjectIdentity(ObjectIdentity object, Sid owner) {
+		// @formatter:off
+		return createOrRetrieveSidPrimaryKey(owner, true)
+				.zipWith(createOrRetrieveClassPrimaryKey(object.getType(), true, object.getIdentifier().getClass()))
+				.flatMap((ids) -> this.databaseClient.sql(INSERT_OBJECT_IDENTITY)
+						.bind("objectIdClass", ids.getT2())
+						.bind("objectIdIdentity", object.getIdentifier().toString())
+						.bind("ownerSid", ids.getT1())
+						.bind("entriesInheriting", Boolean.TRUE)
+						.then());
+		// @formatter:on
+	}
+
+	/**
+	 * Retrieves the primary key from {@code acl_class}, creating a new row if needed and
+	 * the {@code allowCreate} property is {@code true}.
+	 * @param type to find or create an entry for (often the fully-qualified class name)
+	 * @param allowCreate true if creation is permitted if not found
+	 * @param idType the type of the object identifiers of this class
+	 * @return the primary key or empty if not found
+	 */
+	protected Mono<Long> createOrRetrieveClassPrimaryKey(String type, boolean allowCreate, Class<?> idType) {
+		// @formatter:off
+		Mono<Long> classId = this.databaseClient.sql(SELECT_CLASS_PRIMARY_KEY)
+				.bind("type", type)
+				.map((row, metadata) -> row.get("id", Long.class))
+				.first();
+		// @formatter:on
+		if (!allowCreate) {
+			return classId;
+		}
+		DatabaseClient.GenericExecuteSpec insert = this.databaseClient.sql(this.insertClass).bind("type", type);
+		if (isAclClassIdSupported()) {
+			insert = insert.bind("classIdType", idType.getCanonicalName());
+		}
+		return classId.switchIfEmpty(insert.then().then(classId));
+	}
+
+	/**
+	 * Retrieves the primary key from acl_sid, creating a new row if needed and the
+	 * allowCreate property is true.
+	 * @param sid to find or create
+	 * @param allowCreate true if creation is permitted if not found
+	 * @return the primary key or empty if not found
+	 * @throws IllegalArgumentException if the <tt>Sid</tt> is not a recognized
+	 * implementation.
+	 */
+	protected Mono<Long> createOrRetrieveSidPrimaryKey(Sid sid, boolean allowCreate) {
+		Assert.notNull(sid, "Sid required");
+		if (sid instanceof PrincipalSid principalSid) {
+			return createOrRetrieveSidPrimaryKey(principalSid.getPrincipal(), true, allowCreate);
+		}
+		if (sid instanceof GrantedAuthoritySid grantedAuthoritySid) {
+			return createOrRetrieveSidPrimaryKey(grantedAuthoritySid.getGrantedAuthority(), false, allowCreate);
+		}
+		throw new IllegalArgumentException("Unsupported implementation of Sid");
+	}
+
+	/**
+	 * Retrieves the primary key from acl_sid, creating a new row if needed and the
+	 * allowCreate property is true.
+	 * @param sidName name of Sid to find or to create
+	 * @param sidIsPrincipal whether it's a user or granted authority like role
+	 * @param allowCreate true if creation is permitted if not found
+	 * @return the primary key or empty if not found
+	 */
+	protected Mono<Long> createOrRetrieveSidPrimaryKey(String sidName, boolean sidIsPrincipal, boolean allowCreate) {
+		// @formatter:off
+		Mono<Long> sidId = this.databaseClient.sql(SELECT_SID_PRIMARY_KEY)
+				.bind("principal", sidIsPrincipal)
+				.bind("sid", sidName)
+				.map((row, metadata) -> row.get("id", Long.class))
+				.first();
+		// @formatter:on
+		if (!allowCreate) {
+			return sidId;
+		}
+		Mono<Void> insert = this.databaseClient.sql(INSERT_SID).bind("principal", sidIsPrincipal).bind("sid", sidName)
+				.then();
+		return sidId.switchIfEmpty(insert.then(sidId));
+	}
+
+	@Override
+	public Mono<Void> deleteAcl(ObjectIdentity objectIdentity, boolean deleteChildren) {
+		Assert.notNull(objectIdentity, "Object Identity required");
+		Assert.notNull(objectIdentity.getIdentifier(), "Object Identity doesn't provide an identifier");
+		Mono<Void> children;
+		if (deleteChildren) {
+			children = findChildren(objectIdentity).concatMap((child) -> deleteAcl(child, true)).then();
+		}
+		else if (!this.foreignKeysInDatabase) {
+			// We need to perform a manual verification for what a FK would normally do
+			children = findChildren(objectIdentity).count().flatMap((count) -> (count > 0)
+					? Mono.<Void>error(new ChildrenExistException(
+							"Cannot delete '" + objectIdentity + "' (has " + count + " children)"))
+					: Mono.<Void>empty());
+		}
+		else {
+			children = Mono.empty();
+		}
+		// @formatter:off
+		return children
+				.then(retrieveObjectIdentityPrimaryKey(objectIdentity))
+				.flatMap((oidPrimaryKey) -> deleteEntries(oidPrimaryKey).then(deleteObjectIdentity(oidPrimaryKey)))
+				.then(Mono.fromRunnable(() -> this.aclCache.evictFromCache(objectIdentity)));
+		// @formatter:on
+	}
+
+	/**
+	 * Deletes all ACEs defined in the acl_entry table belonging to the presented
+	 * ObjectIdentity primary key.
+	 * @param oidPrimaryKey the rows in acl_entry to delete
+	 * @return a {@link Mono} that completes once the rows are deleted
+	 */
+	protected Mono<Void> deleteEntries(Long oidPrimaryKey) {
+		return this.databaseClient.sql(DELETE_ENTRY_BY_OBJECT_IDENTITY_FOREIGN_KEY).bind("id", oidPrimaryKey).then();
+	}
+
+	/**
+	 * Deletes a single row from acl_object_identity that is associated with the presented
+	 * ObjectIdentity primary key.
+	 * @param oidPrimaryKey to delete the acl_object_identity
+	 * @return a {@link Mono} that completes once the row is deleted
+	 */
+	protected Mono<Void> deleteObjectIdentity(Long oidPrimaryKey) {
+		return this.databaseClient.sql(DELETE_OBJECT_IDENTITY_BY_PRIMARY_KEY).bind("id", oidPrimaryKey).then();
+	}
+
+	/**
+	 * Retrieves the primary key from the acl_object_identity table for the passed
+	 * ObjectIdentity.
+	 * @param oid to find
+	 * @return the primary key or empty if not found
+	 */
+	protected Mono<Long> retrieveObjectIdentityPrimaryKey(ObjectIdentity oid) {
+		// @formatter:off
+		return this.databaseClient.sql(SELECT_OBJECT_IDENTITY_PRIMARY_KEY)
+				.bind("type", oid.getType())
+				.bind("identifier", oid.getIdentifier().toString())
+				.map((row, metadata) -> row.get("id", Long.class))
+				.first();
+		// @formatter:on
+	}
+
+	/**
+	 * This implementation will simply delete all ACEs in the database and recreate them
+	 * on each invocation of this method.
+	 */
+	@Override
+	public Mono<MutableAcl> updateAcl(MutableAcl acl) {
+		Assert.notNull(acl.getId(), "Object Identity doesn't provide an identifier");
+		// @formatter:off
+		return retrieveObjectIdentityPrimaryKey(acl.getObjectIdentity())
+				.switchIfEmpty(Mono.error(() -> new NotFoundException("Unable to locate ACL to update")))
+				.flatMap(this::deleteEntries)
+				.then(Mono.defer(() -> createEntries(acl)))
+				.then(Mono.defer(() -> updateObjectIdentity(acl)))
+				.then(Mono.defer(() -> clearCacheIncludingChildren(acl.getObjectIdentity())))
+				.then(Mono.defer(() -> readAclById(acl.getObjectIdentity())))
+				.cast(MutableAcl.class);
+		// @formatter:on
+	}
+
+	private Mono<Void> clearCacheIncludingChildren(ObjectIdentity objectIdentity) {
+		// @formatter:off
+		return findChildren(objectIdentity)
+				.concatMap(this::clearCacheIncludingChildren)
+				.then(Mono.fromRunnable(() -> this.aclCache.evictFromCache(objectIdentity)));
+		// @formatter:on
+	}
+
+	/**
+	 * Updates an existing acl_object_identity row, with new information presented in the
+	 * passed MutableAcl object. Also will create an acl_sid entry if needed for the Sid
+	 * that owns the MutableAcl.
+	 * @param acl to modify (a row must already exist in acl_object_identity)
+	 * @return a {@link Mono} that completes once the row is updated, or an error signal
+	 * of {@link NotFoundException} if the ACL could not be found to update
+	 */
+	protected Mono<Void> updateObjectIdentity(MutableAcl acl) {
+		Assert.notNull(acl.getOwner(), "Owner is required in this implementation");
+		Acl parentAcl = acl.getParentAcl();
+		Mono<Long> parentId = (parentAcl != null) ? retrieveObjectIdentityPrimaryKey(parentAcl.getObjectIdentity())
+				: Mono.just(0L);
+		// @formatter:off
+		return parentId.defaultIfEmpty(0L)
+				.zipWith(createOrRetrieveSidPrimaryKey(acl.getOwner(), true))
+				.flatMap((ids) -> {
+					DatabaseClient.GenericExecuteSpec update = this.databaseClient.sql(UPDATE_OBJECT_IDENTITY);
+					update = (ids.getT1() != 0L) ? update.bind("parentObject", ids.getT1())
+							: update.bindNull("parentObject", Long.class);
+					return update.bind("ownerSid", ids.getT2())
+							.bind("entriesInheriting", acl.isEntriesInheriting())
+							.bind("id", acl.getId())
+							.fetch()
+							.rowsUpdated();
+				})
+				.flatMap((count) -> (count == 1) ? Mono.<Void>empty()
+						: Mono.<Void>error(new NotFoundException("Unable to locate ACL to update")));
+		// @formatter:on
+	}
+
+	/**
+	 * @param foreignKeysInDatabase if false this class will perform additional FK
+	 * constrain checking (the default is true, so the database is expected to enforce
+	 * FKs)
+	 */
+	public void setForeignKeysInDatabase(boolean foreignKeysInDatabase) {
+		this.foreignKeysInDatabase = foreignKeysInDatabase;
+	}
+
+	@Override
+	public void setAclClassIdSupported(boolean aclClassIdSupported) {
+		super.setAclClassIdSupported(aclClassIdSupported);
+		this.insertClass = aclClassIdSupported ? DEFAULT_INSERT_INTO_ACL_CLASS_WITH_ID
+				: DEFAULT_INSERT_INTO_ACL_CLASS;
+	}
+
+}
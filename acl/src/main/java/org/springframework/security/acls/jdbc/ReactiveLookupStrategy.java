@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.jdbc;
+
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.NotFoundException;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Sid;
+
+/**
+ * Performs non-blocking lookups for
+ * {@link org.springframework.security.acls.model.ReactiveAclService}.
+ *
+ * @since 6.2
+ * @see LookupStrategy
+ */
+public interface ReactiveLookupStrategy {
+
+	/**
+	 * Perform database-specific optimized lookup.
+	 * @param objects the identities to lookup (required)
+	 * @param sids the SIDs for which identities are required (may be <tt>null</tt> -
+	 * implementations may elect not to provide SID optimisations)
+	 * @return a <tt>Map</tt> where keys represent the {@link ObjectIdentity} of the
+	 * located {@link Acl} and values are the located {@link Acl} (never empty although
+	 * some entries may be missing; this method should not signal
+	 * {@link NotFoundException}, as a chain of {@link ReactiveLookupStrategy}s may be
+	 * used to automatically create entries if required)
+	 */
+	Mono<Map<ObjectIdentity, Acl>> readAclsById(List<ObjectIdentity> objects, List<Sid> sids);
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.model;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Provides support for creating and storing <code>Acl</code> instances without blocking.
+ * This is the reactive counterpart of {@link MutableAclService}.
+ *
+ * @since 6.2
+ * @see MutableAclService
+ */
+public interface ReactiveMutableAclService extends ReactiveAclService {
+
+	/**
+	 * Creates an empty <code>Acl</code> object in the database. It will have no entries.
+	 * The returned object will then be used to add entries.
+	 * @param objectIdentity the object identity to create
+	 * @return an ACL object with its ID set, or an error signal of
+	 * {@link AlreadyExistsException} if the passed object identity already has a record
+	 */
+	Mono<MutableAcl> createAcl(ObjectIdentity objectIdentity);
+
+	/**
+	 * Removes the specified entry from the database.
+	 * @param objectIdentity the object identity to remove
+	 * @param deleteChildren whether to cascade the delete to children
+	 * @return a {@link Mono} that completes once the entry is removed, or an error signal
+	 * of {@link ChildrenExistException} if the deleteChildren argument was
+	 * <code>false</code> but children exist
+	 */
+	Mono<Void> deleteAcl(ObjectIdentity objectIdentity, boolean deleteChildren);
+
+	/**
+	 * Changes an existing <code>Acl</code> in the database.
+	 * @param acl to modify
+	 * @return the updated ACL, or an error signal of {@link NotFoundException} if the
+	 * relevant record could not be found (did you remember to use
+	 * {@link #createAcl(ObjectIdentity)} to create the object, rather than creating it
+	 * with the <code>new</code> keyword?)
+	 */
+	Mono<MutableAcl> updateAcl(MutableAcl acl);
+
+}
@@ -16,12 +16,20 @@
 
 package org.springframework.security.acls;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.security.acls.model.Acl;
 import org.springframework.security.acls.model.AclService;
+import org.springframework.security.acls.model.NotFoundException;
 import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.ObjectIdentityRetrievalStrategy;
 import org.springframework.security.acls.model.SidRetrievalStrategy;
@@ -31,8 +39,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Luke Taylor
@@ -73,4 +83,58 @@ public class AclPermissionEvaluatorTests {
 		Locale.setDefault(systemLocale);
 	}
 
+	@Test
+	public void hasPermissionsWhenBatchThenReadsAclsOnce() {
+		AclService service = mock(AclService.class);
+		AclPermissionEvaluator pe = new AclPermissionEvaluator(service);
+		TargetObject first = new TargetObject();
+		TargetObject second = new TargetObject();
+		ObjectIdentity firstOid = new ObjectIdentityImpl(TargetObject.class, 1L);
+		ObjectIdentity secondOid = new ObjectIdentityImpl(TargetObject.class, 2L);
+		ObjectIdentityRetrievalStrategy oidStrategy = mock(ObjectIdentityRetrievalStrategy.class);
+		given(oidStrategy.getObjectIdentity(same(first))).willReturn(firstOid);
+		given(oidStrategy.getObjectIdentity(same(second))).willReturn(secondOid);
+		pe.setObjectIdentityRetrievalStrategy(oidStrategy);
+		pe.setSidRetrievalStrategy(mock(SidRetrievalStrategy.class));
+		Acl firstAcl = mock(Acl.class);
+		Acl secondAcl = mock(Acl.class);
+		given(firstAcl.isGranted(eq(Arrays.asList(BasePermission.READ)), anyList(), eq(false))).willReturn(true);
+		given(firstAcl.isGranted(eq(Arrays.asList(BasePermission.WRITE)), anyList(), eq(false))).willReturn(true);
+		given(secondAcl.isGranted(eq(Arrays.asList(BasePermission.READ)), anyList(), eq(false))).willReturn(true);
+		given(secondAcl.isGranted(eq(Arrays.asList(BasePermission.WRITE)), anyList(), eq(false)))
+				.willThrow(new NotFoundException("no entries"));
+		Map<ObjectIdentity, Acl> acls = new HashMap<>();
+		acls.put(firstOid, firstAcl);
+		acls.put(secondOid, secondAcl);
+		given(service.readAclsById(anyList(), anyList())).willReturn(acls);
+		Map<Object, BitSet> permissions = pe.hasPermissions(mock(Authentication.class),
+				Arrays.asList(first, null, second), Arrays.asList("READ", "write"));
+		assertThat(permissions.get("READ").stream()).containsExactly(0, 2);
+		assertThat(permissions.get("write").stream()).containsExactly(0);
+		verify(service).readAclsById(eq(Arrays.asList(firstOid, secondOid)), anyList());
+	}
+
+	@Test
+	public void hasPermissionsWhenSomeAclsNotFoundThenReadsOneByOne() {
+		AclService service = mock(AclService.class);
+		AclPermissionEvaluator pe = new AclPermissionEvaluator(service);
+		TargetObject first = new TargetObject();
+		TargetObject second = new TargetObject();
+		ObjectIdentity firstOid = new ObjectIdentityImpl(TargetObject.class, 1L);
+		ObjectIdentity secondOid = new ObjectIdentityImpl(TargetObject.class, 2L);
+		ObjectIdentityRetrievalStrategy oidStrategy = mock(ObjectIdentityRetrievalStrategy.class);
+		given(oidStrategy.getObjectIdentity(same(first))).willReturn(firstOid);
+		given(oidStrategy.getObjectIdentity(same(second))).willReturn(secondOid);
+		pe.setObjectIdentityRetrievalStrategy(oidStrategy);
+		pe.setSidRetrievalStrategy(mock(SidRetrievalStrategy.class));
+		Acl secondAcl = mock(Acl.class);
+		given(secondAcl.isGranted(anyList(), anyList(), eq(false))).willReturn(true);
+		given(service.readAclsById(anyList(), anyList())).willThrow(new NotFoundException("not found"));
+		given(service.readAclById(eq(firstOid), anyList())).willThrow(new NotFoundException("not found"));
+		given(service.readAclById(eq(secondOid), anyList())).willReturn(secondAcl);
+		Map<Object, BitSet> permissions = pe.hasPermissions(mock(Authentication.class), List.of(first, second),
+				List.of("READ"));
+		assertThat(permissions.get("READ").stream()).containsExactly(1);
+	}
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.NotFoundException;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.ObjectIdentityRetrievalStrategy;
+import org.springframework.security.acls.model.ReactiveAclService;
+import org.springframework.security.acls.model.SidRetrievalStrategy;
+import org.springframework.security.core.Authentication;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ReactiveAclPermissionEvaluator}.
+ */
+public class ReactiveAclPermissionEvaluatorTests {
+
+	private final ReactiveAclService service = mock(ReactiveAclService.class);
+
+	private final ReactiveAclPermissionEvaluator evaluator = new ReactiveAclPermissionEvaluator(this.service);
+
+	@Test
+	public void hasPermissionWhenAclGrantsPermissionThenTrue() {
+		setUpStrategies();
+		Acl acl = mock(Acl.class);
+		given(this.service.readAclById(any(ObjectIdentity.class), anyList())).willReturn(Mono.just(acl));
+		given(acl.isGranted(anyList(), anyList(), eq(false))).willReturn(true);
+		StepVerifier.create(this.evaluator.hasPermission(mock(Authentication.class), new Object(), "READ"))
+				.expectNext(true)
+				.verifyComplete();
+	}
+
+	@Test
+	public void hasPermissionWhenAclNotFoundThenFalse() {
+		setUpStrategies();
+		given(this.service.readAclById(any(ObjectIdentity.class), anyList()))
+				.willReturn(Mono.error(new NotFoundException("not found")));
+		StepVerifier.create(this.evaluator.hasPermission(mock(Authentication.class), new Object(), "READ"))
+				.expectNext(false)
+				.verifyComplete();
+	}
+
+	@Test
+	public void hasPermissionWhenDomainObjectNullThenFalse() {
+		StepVerifier.create(this.evaluator.hasPermission(mock(Authentication.class), null, "READ"))
+				.expectNext(false)
+				.verifyComplete();
+	}
+
+	private void setUpStrategies() {
+		ObjectIdentityRetrievalStrategy oidStrategy = mock(ObjectIdentityRetrievalStrategy.class);
+		given(oidStrategy.getObjectIdentity(any(Object.class))).willReturn(mock(ObjectIdentity.class));
+		this.evaluator.setObjectIdentityRetrievalStrategy(oidStrategy);
+		this.evaluator.setSidRetrievalStrategy(mock(SidRetrievalStrategy.class));
+	}
+
+}
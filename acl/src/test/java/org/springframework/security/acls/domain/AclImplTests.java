@@ -475,6 +475,67 @@ public class AclImplTests {
 		assertThat(acl.isGranted(permissions, sids, false)).isTrue();
 	}
 
+	@Test
+	public void isGrantedWhenAceUpdatedThenUsesUpdatedPermission() {
+		MutableAcl acl = new AclImpl(this.objectIdentity, 1, this.authzStrategy, this.pgs, null, null, false,
+				new PrincipalSid("joe"));
+		acl.insertAce(0, BasePermission.READ, new PrincipalSid("ben"), true);
+		assertThat(acl.isGranted(READ, BEN, false)).isTrue();
+		acl.updateAce(0, BasePermission.WRITE);
+		assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> acl.isGranted(READ, BEN, false));
+		assertThat(acl.isGranted(WRITE, BEN, false)).isTrue();
+		acl.insertAce(0, BasePermission.WRITE, new PrincipalSid("ben"), false);
+		assertThat(acl.isGranted(WRITE, BEN, false)).isFalse();
+		acl.deleteAce(0);
+		assertThat(acl.isGranted(WRITE, BEN, false)).isTrue();
+	}
+
+	@Test
+	public void isGrantedWhenCumulativePermissionThenMatchesExactMask() {
+		MutableAcl acl = new AclImpl(this.objectIdentity, 1, this.authzStrategy, this.pgs, null, null, false,
+				new PrincipalSid("joe"));
+		Permission readWrite = new CumulativePermission().set(BasePermission.READ).set(BasePermission.WRITE);
+		acl.insertAce(0, BasePermission.READ, new PrincipalSid("ben"), true);
+		acl.insertAce(1, BasePermission.WRITE, new PrincipalSid("ben"), true);
+		assertThatExceptionOfType(NotFoundException.class)
+				.isThrownBy(() -> acl.isGranted(Arrays.asList(readWrite), BEN, false));
+		acl.insertAce(2, readWrite, new PrincipalSid("ben"), true);
+		assertThat(acl.isGranted(Arrays.asList(readWrite), BEN, false)).isTrue();
+		assertThat(acl.isGranted(Arrays.asList(readWrite), SCOTT, true)).isFalse();
+	}
+
+	@Test
+	public void isGrantedWhenAcesAddedDirectlyThenConsidersNewAces() throws Exception {
+		Sid sid = new PrincipalSid("ben");
+		AclImpl acl = new AclImpl(this.objectIdentity, 1, this.authzStrategy, this.pgs, null, null, false,
+				new PrincipalSid("joe"));
+		acl.insertAce(0, BasePermission.READ, sid, true);
+		assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> acl.isGranted(WRITE, BEN, false));
+		Field fieldAces = FieldUtils.getField(AclImpl.class, "aces");
+		fieldAces.setAccessible(true);
+		List<AccessControlEntryImpl> aces = (List<AccessControlEntryImpl>) fieldAces.get(acl);
+		aces.add(new AccessControlEntryImpl(2L, acl, sid, BasePermission.WRITE, true, false, false));
+		assertThat(acl.isGranted(WRITE, BEN, false)).isTrue();
+	}
+
+	@Test
+	public void isGrantedWhenManySidsThenFirstMatchingSidPrevails() {
+		MutableAcl acl = new AclImpl(this.objectIdentity, 1, this.authzStrategy, this.pgs, null, null, false,
+				new PrincipalSid("joe"));
+		for (int i = 0; i < 100; i++) {
+			acl.insertAce(i, BasePermission.READ, new GrantedAuthoritySid("ROLE_" + i), i % 2 == 0);
+		}
+		assertThat(acl.isGranted(READ,
+				Arrays.asList(new GrantedAuthoritySid("ROLE_1"), new GrantedAuthoritySid("ROLE_2")), true))
+				.isFalse();
+		assertThat(acl.isGranted(READ,
+				Arrays.asList(new GrantedAuthoritySid("ROLE_200"), new GrantedAuthoritySid("ROLE_98")), true))
+				.isTrue();
+		assertThat(acl.isGranted(Arrays.asList(BasePermission.WRITE, BasePermission.READ),
+				Arrays.asList(new GrantedAuthoritySid("ROLE_1"), new GrantedAuthoritySid("ROLE_2")), true))
+				.isFalse();
+	}
+
 	@Test
 	public void hashCodeWithoutStackOverFlow() throws Exception {
 		Sid sid = new PrincipalSid("pSid");
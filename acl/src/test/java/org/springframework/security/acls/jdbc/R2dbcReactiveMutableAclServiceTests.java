@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.acls.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.acls.TargetObject;
+import org.springframework.security.acls.domain.AclAuthorizationStrategy;
+import org.springframework.security.acls.domain.AclAuthorizationStrategyImpl;
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.domain.ConsoleAuditLogger;
+import org.springframework.security.acls.domain.DefaultPermissionGrantingStrategy;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.domain.SpringCacheBasedAclCache;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.AlreadyExistsException;
+import org.springframework.security.acls.model.ChildrenExistException;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.NotFoundException;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Permission;
+import org.springframework.security.acls.model.PermissionGrantingStrategy;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link R2dbcReactiveMutableAclService} and
+ * {@link R2dbcReactiveLookupStrategy} against an in-memory H2 database.
+ */
+public class R2dbcReactiveMutableAclServiceTests {
+
+	private static final String TARGET_CLASS = TargetObject.class.getName();
+
+	private final Authentication auth = new TestingAuthenticationToken("ben", "ignored", "ROLE_ADMINISTRATOR");
+
+	private final ObjectIdentity topParentOid = new ObjectIdentityImpl(TARGET_CLASS, 100L);
+
+	private final ObjectIdentity middleParentOid = new ObjectIdentityImpl(TARGET_CLASS, 101L);
+
+	private final ObjectIdentity childOid = new ObjectIdentityImpl(TARGET_CLASS, 102L);
+
+	private final List<Sid> sids = Arrays.asList(new PrincipalSid(this.auth));
+
+	private DatabaseClient databaseClient;
+
+	private AclCache aclCache;
+
+	private R2dbcReactiveLookupStrategy lookupStrategy;
+
+	private R2dbcReactiveMutableAclService aclService;
+
+	@BeforeEach
+	public void setUp() {
+		this.databaseClient = DatabaseClient.create(createDb());
+		AclAuthorizationStrategy authorizationStrategy = new AclAuthorizationStrategyImpl(
+				new SimpleGrantedAuthority("ROLE_ADMINISTRATOR"));
+		PermissionGrantingStrategy grantingStrategy = new DefaultPermissionGrantingStrategy(new ConsoleAuditLogger());
+		this.aclCache = new SpringCacheBasedAclCache(new ConcurrentMapCache("aclCache"), grantingStrategy,
+				authorizationStrategy);
+		this.lookupStrategy = new R2dbcReactiveLookupStrategy(this.databaseClient, this.aclCache,
+				authorizationStrategy, grantingStrategy);
+		this.aclService = new R2dbcReactiveMutableAclService(this.databaseClient, this.lookupStrategy, this.aclCache);
+	}
+
+	@Test
+	public void constructorWhenNullParametersThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new R2dbcReactiveMutableAclService(null, this.lookupStrategy, this.aclCache));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new R2dbcReactiveMutableAclService(this.databaseClient, null, this.aclCache));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new R2dbcReactiveMutableAclService(this.databaseClient, this.lookupStrategy, null));
+	}
+
+	@Test
+	public void readAclByIdWhenNotFoundThenNotFoundException() {
+		StepVerifier.create(this.aclService.readAclById(this.topParentOid)).verifyError(NotFoundException.class);
+	}
+
+	@Test
+	public void createAclWhenNoAuthenticationThenError() {
+		StepVerifier.create(this.aclService.createAcl(this.topParentOid)).verifyError(IllegalStateException.class);
+	}
+
+	@Test
+	public void createAclWhenDuplicateThenAlreadyExistsException() {
+		StepVerifier.create(withAuthentication(this.aclService.createAcl(this.topParentOid)))
+				.expectNextCount(1)
+				.verifyComplete();
+		StepVerifier.create(withAuthentication(this.aclService.createAcl(this.topParentOid)))
+				.verifyError(AlreadyExistsException.class);
+	}
+
+	@Test
+	public void lifecycleWhenAclsUpdatedThenReadBackWithParentsAndEntries() {
+		MutableAcl topParent = withAuthentication(this.aclService.createAcl(this.topParentOid)).block();
+		MutableAcl middleParent = withAuthentication(this.aclService.createAcl(this.middleParentOid)).block();
+		MutableAcl child = withAuthentication(this.aclService.createAcl(this.childOid)).block();
+		assertThat(topParent.getOwner()).isEqualTo(new PrincipalSid(this.auth));
+		middleParent.setParent(topParent);
+		child.setParent(middleParent);
+		topParent.insertAce(0, BasePermission.READ, new PrincipalSid(this.auth), true);
+		topParent.insertAce(1, BasePermission.WRITE, new PrincipalSid(this.auth), false);
+		middleParent.insertAce(0, BasePermission.DELETE, new PrincipalSid(this.auth), true);
+		child.insertAce(0, BasePermission.DELETE, new PrincipalSid(this.auth), false);
+		withAuthentication(this.aclService.updateAcl(topParent)).block();
+		withAuthentication(this.aclService.updateAcl(middleParent)).block();
+		withAuthentication(this.aclService.updateAcl(child)).block();
+		this.aclCache.clearCache();
+		List<ObjectIdentity> oids = Arrays.asList(this.childOid, this.topParentOid);
+		StepVerifier.create(this.aclService.readAclsById(oids, this.sids)).assertNext((acls) -> {
+			Acl retrievedChild = acls.get(this.childOid);
+			Acl retrievedTopParent = acls.get(this.topParentOid);
+			assertThat(retrievedTopParent.getParentAcl()).isNull();
+			assertThat(retrievedTopParent.getEntries()).hasSize(2);
+			assertThat(retrievedChild.getParentAcl().getObjectIdentity()).isEqualTo(this.middleParentOid);
+			assertThat(retrievedChild.getParentAcl().getParentAcl().getObjectIdentity())
+					.isEqualTo(this.topParentOid);
+			assertThat(retrievedChild.getEntries()).hasSize(1);
+			assertThat(retrievedChild.isGranted(permission(BasePermission.DELETE), this.sids, false)).isFalse();
+			assertThat(retrievedChild.isGranted(permission(BasePermission.READ), this.sids, false)).isTrue();
+			assertThat(retrievedChild.isGranted(permission(BasePermission.WRITE), this.sids, false)).isFalse();
+		}).verifyComplete();
+		StepVerifier.create(this.aclService.findChildren(this.topParentOid))
+				.expectNext(this.middleParentOid)
+				.verifyComplete();
+	}
+
+	@Test
+	public void readAclsByIdWhenBatchSizeSmallerThanRequestThenReadsAll() {
+		this.lookupStrategy.setBatchSize(1);
+		withAuthentication(this.aclService.createAcl(this.topParentOid)).block();
+		withAuthentication(this.aclService.createAcl(this.middleParentOid)).block();
+		this.aclCache.clearCache();
+		StepVerifier.create(this.aclService.readAclsById(Arrays.asList(this.topParentOid, this.middleParentOid)))
+				.assertNext((acls) -> assertThat(acls).containsOnlyKeys(this.topParentOid, this.middleParentOid))
+				.verifyComplete();
+	}
+
+	@Test
+	public void deleteAclWhenDeleteChildrenThenChildrenDeleted() {
+		withAuthentication(this.aclService.createAcl(this.topParentOid)).block();
+		MutableAcl middleParent = withAuthentication(this.aclService.createAcl(this.middleParentOid)).block();
+		MutableAcl child = withAuthentication(this.aclService.createAcl(this.childOid)).block();
+		child.setParent(middleParent);
+		withAuthentication(this.aclService.updateAcl(child)).block();
+		StepVerifier.create(this.aclService.deleteAcl(this.middleParentOid, true)).verifyComplete();
+		StepVerifier.create(this.aclService.readAclById(this.middleParentOid)).verifyError(NotFoundException.class);
+		StepVerifier.create(this.aclService.readAclById(this.childOid)).verifyError(NotFoundException.class);
+		StepVerifier.create(this.aclService.readAclById(this.topParentOid)).expectNextCount(1).verifyComplete();
+	}
+
+	@Test
+	public void deleteAclWhenChildrenExistAndForeignKeysNotInDatabaseThenChildrenExistException() {
+		this.aclService.setForeignKeysInDatabase(false);
+		MutableAcl middleParent = withAuthentication(this.aclService.createAcl(this.middleParentOid)).block();
+		MutableAcl child = withAuthentication(this.aclService.createAcl(this.childOid)).block();
+		child.setParent(middleParent);
+		withAuthentication(this.aclService.updateAcl(child)).block();
+		StepVerifier.create(this.aclService.deleteAcl(this.middleParentOid, false))
+				.verifyError(ChildrenExistException.class);
+	}
+
+	private <T> Mono<T> withAuthentication(Mono<T> mono) {
+		return mono.contextWrite(ReactiveSecurityContextHolder.withAuthentication(this.auth));
+	}
+
+	private static List<Permission> permission(Permission permission) {
+		return Arrays.asList(permission);
+	}
+
+	private static ConnectionFactory createDb() {
+		ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("acl-test-" + UUID.randomUUID());
+		ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+		initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("createAclSchema.sql")));
+		initializer.setConnectionFactory(connectionFactory);
+		initializer.afterPropertiesSet();
+		return connectionFactory;
+	}
+
+}
@@ -17,9 +17,20 @@
 package org.springframework.security.config.annotation.web.configurers.oauth2.client;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -38,6 +49,8 @@ import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.util.Assert;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
@@ -47,6 +60,12 @@ import org.springframework.web.util.UriComponentsBuilder;
  * A {@link LogoutHandler} that locates the sessions associated with a given OIDC
  * Back-Channel Logout Token and invalidates each one.
  *
+ * <p>
+ * By default, sessions are invalidated one after another in the request thread and the
+ * response is only written once all of them were invalidated. An {@link Executor} can be
+ * provided to invalidate them in parallel, and the handler can be configured to return
+ * immediately, in which case the outcome is only logged.
+ *
  * @author Josh Cummings
  * @since 6.2
  * @see <a target="_blank" href=
@@ -55,6 +74,8 @@ import org.springframework.web.util.UriComponentsBuilder;
  */
 final class OidcBackChannelLogoutHandler implements LogoutHandler {
 
+	private static final int MAX_PENDING_LOGOUTS = 1000;
+
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private OidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
@@ -65,6 +86,14 @@ final class OidcBackChannelLogoutHandler implements LogoutHandler {
 
 	private String sessionCookieName = "JSESSIONID";
 
+	private Executor executor = Runnable::run;
+
+	private boolean asynchronous = false;
+
+	private int retries = 0;
+
+	private Duration retryBackoff = Duration.ofMillis(100);
+
 	private final OAuth2ErrorHttpMessageConverter errorHttpMessageConverter = new OAuth2ErrorHttpMessageConverter();
 
 	@Override
@@ -77,40 +106,109 @@ final class OidcBackChannelLogoutHandler implements LogoutHandler {
 			return;
 		}
 		Iterable<OidcSessionInformation> sessions = this.sessionRegistry.removeSessionInformation(token.getPrincipal());
-		Collection<String> errors = new ArrayList<>();
-		int totalCount = 0;
-		int invalidatedCount = 0;
+		String logoutUri = UriComponentsBuilder.fromHttpUrl(request.getRequestURL().toString())
+				.replacePath(this.logoutEndpointName).build().toUriString();
+		List<CompletableFuture<String>> logouts = new ArrayList<>();
 		for (OidcSessionInformation session : sessions) {
-			totalCount++;
-			try {
-				eachLogout(request, session);
-				invalidatedCount++;
-			}
-			catch (RestClientException ex) {
-				this.logger.debug("Failed to invalidate session", ex);
-				errors.add(ex.getMessage());
-				this.sessionRegistry.saveSessionInformation(session);
-			}
+			logouts.add(submitLogout(logoutUri, session));
 		}
-		if (this.logger.isTraceEnabled()) {
-			this.logger.trace(String.format("Invalidated %d out of %d sessions", invalidatedCount, totalCount));
+		CompletableFuture<Collection<String>> result = CompletableFuture
+				.allOf(logouts.toArray(new CompletableFuture<?>[0]))
+				.thenApply((ignored) -> logouts.stream()
+					.map(CompletableFuture::join)
+					.filter(Objects::nonNull)
+					.toList());
+		if (this.asynchronous) {
+			result.whenComplete((errors, ex) -> {
+				if (ex != null) {
+					this.logger.debug("Failed to invalidate sessions", ex);
+				}
+				else {
+					logResult(logouts.size(), errors);
+				}
+			});
+			return;
 		}
+		Collection<String> errors = await(result);
+		logResult(logouts.size(), errors);
 		if (!errors.isEmpty()) {
 			handleLogoutFailure(response, oauth2Error(errors));
 		}
 	}
 
-	private void eachLogout(HttpServletRequest request, OidcSessionInformation session) {
+	private CompletableFuture<String> submitLogout(String logoutUri, OidcSessionInformation session) {
+		try {
+			return CompletableFuture.supplyAsync(() -> eachLogout(logoutUri, session), this.executor);
+		}
+		catch (RejectedExecutionException ex) {
+			this.logger.debug("Executor rejected the session logout, so performing it in the calling thread", ex);
+			return CompletableFuture.completedFuture(eachLogout(logoutUri, session));
+		}
+	}
+
+	private String eachLogout(String logoutUri, OidcSessionInformation session) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.add(HttpHeaders.COOKIE, this.sessionCookieName + "=" + session.getSessionId());
 		for (Map.Entry<String, String> credential : session.getAuthorities().entrySet()) {
 			headers.add(credential.getKey(), credential.getValue());
 		}
-		String url = request.getRequestURL().toString();
-		String logout = UriComponentsBuilder.fromHttpUrl(url).replacePath(this.logoutEndpointName).build()
-				.toUriString();
 		HttpEntity<?> entity = new HttpEntity<>(null, headers);
-		this.restOperations.postForEntity(logout, entity, Object.class);
+		for (int attempt = 0;; attempt++) {
+			try {
+				this.restOperations.postForEntity(logoutUri, entity, Object.class);
+				return null;
+			}
+			catch (RestClientException ex) {
+				if (attempt < this.retries && isRetryable(ex) && backOff(attempt, ex)) {
+					continue;
+				}
+				this.logger.debug("Failed to invalidate session", ex);
+				this.sessionRegistry.saveSessionInformation(session);
+				return String.valueOf(ex.getMessage());
+			}
+		}
+	}
+
+	private boolean backOff(int attempt, RestClientException ex) {
+		long delay = this.retryBackoff.toMillis() << Math.min(attempt, 10);
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace(String.format("Failed to invalidate session, retrying in %d ms", delay), ex);
+		}
+		try {
+			Thread.sleep(delay);
+			return true;
+		}
+		catch (InterruptedException interrupted) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private static boolean isRetryable(RestClientException ex) {
+		return ex instanceof ResourceAccessException || ex instanceof HttpServerErrorException;
+	}
+
+	private void logResult(int totalCount, Collection<String> errors) {
+		if (!errors.isEmpty() && this.asynchronous) {
+			this.logger.debug(String.format("Failed to invalidate %d out of %d sessions: %s", errors.size(),
+					totalCount, errors));
+		}
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace(
+					String.format("Invalidated %d out of %d sessions", totalCount - errors.size(), totalCount));
+		}
 	}
 
 	private OAuth2Error oauth2Error(Collection<String> errors) {
@@ -160,6 +258,51 @@ final class OidcBackChannelLogoutHandler implements LogoutHandler {
 		this.logoutEndpointName = logoutUri;
 	}
 
+	/**
+	 * Use this {@link Executor} to perform the per-session back-channel logouts. Defaults
+	 * to running each logout in the calling thread, one after another. A logout that the
+	 * {@link Executor} rejects, for example because it is saturated or shut down, is
+	 * performed in the calling thread instead.
+	 * @param executor the {@link Executor} to use
+	 * @see #boundedExecutor(int)
+	 */
+	void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Whether to return before the per-session back-channel logouts complete. When
+	 * {@code true}, the OIDC Provider is acknowledged right away, failures are only
+	 * logged, and an {@link Executor} other than the default one should be used. Defaults
+	 * to {@code false}.
+	 * @param asynchronous whether to return before the logouts complete
+	 */
+	void setAsynchronous(boolean asynchronous) {
+		this.asynchronous = asynchronous;
+	}
+
+	/**
+	 * Retry a per-session back-channel logout this many times when it fails with an I/O
+	 * error or a server error. Defaults to {@code 0}.
+	 * @param retries the number of retries
+	 */
+	void setRetries(int retries) {
+		Assert.isTrue(retries >= 0, "retries cannot be negative");
+		this.retries = retries;
+	}
+
+	/**
+	 * Wait this long before the first retry of a per-session back-channel logout,
+	 * doubling the wait for each further retry. Defaults to 100 milliseconds.
+	 * @param retryBackoff the wait before the first retry
+	 */
+	void setRetryBackoff(Duration retryBackoff) {
+		Assert.notNull(retryBackoff, "retryBackoff cannot be null");
+		Assert.isTrue(!retryBackoff.isNegative(), "retryBackoff cannot be negative");
+		this.retryBackoff = retryBackoff;
+	}
+
 	/**
 	 * Use this cookie name for the session identifier. Defaults to {@code JSESSIONID}.
 	 *
@@ -172,4 +315,24 @@ final class OidcBackChannelLogoutHandler implements LogoutHandler {
 		this.sessionCookieName = sessionCookieName;
 	}
 
+	/**
+	 * Create an {@link ExecutorService} that runs at most {@code concurrency} per-session
+	 * back-channel logouts at a time, using daemon threads that are released when idle.
+	 * At most 1000 logouts wait for a thread; further ones are rejected and therefore
+	 * performed in the calling thread. The caller is responsible for shutting it down.
+	 * @param concurrency the maximum number of concurrent logouts
+	 * @return the {@link ExecutorService}
+	 */
+	static ExecutorService boundedExecutor(int concurrency) {
+		Assert.isTrue(concurrency > 0, "concurrency must be greater than 0");
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(MAX_PENDING_LOGOUTS), (task) -> {
+					Thread thread = new Thread(task, "oidc-back-channel-logout");
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 }
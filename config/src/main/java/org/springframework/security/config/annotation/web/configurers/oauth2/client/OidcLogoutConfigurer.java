@@ -16,8 +16,15 @@
 
 package org.springframework.security.config.annotation.web.configurers.oauth2.client;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.Customizer;
@@ -30,6 +37,7 @@ import org.springframework.security.web.authentication.AuthenticationConverter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.security.web.csrf.CsrfFilter;
 import org.springframework.util.Assert;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * An {@link AbstractHttpConfigurer} for OIDC Logout flows
@@ -125,6 +133,69 @@ public final class OidcLogoutConfigurer<B extends HttpSecurityBuilder<B>>
 
 		private LogoutHandler logoutHandler;
 
+		private int logoutConcurrency = 1;
+
+		private Duration logoutTimeout;
+
+		private int logoutRetries = 0;
+
+		private boolean asynchronousLogout = false;
+
+		/**
+		 * Invalidate at most this many sessions at a time when a single OIDC Logout Token
+		 * references several sessions. Defaults to {@code 1}, meaning that sessions are
+		 * invalidated one after another.
+		 * @param logoutConcurrency the maximum number of concurrent per-session logouts
+		 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+		 * @since 6.2
+		 */
+		public BackChannelLogoutConfigurer logoutConcurrency(int logoutConcurrency) {
+			Assert.isTrue(logoutConcurrency > 0, "logoutConcurrency must be greater than 0");
+			this.logoutConcurrency = logoutConcurrency;
+			return this;
+		}
+
+		/**
+		 * Use this connect and read timeout for each per-session logout. By default, no
+		 * timeout is applied.
+		 * @param logoutTimeout the timeout to use
+		 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+		 * @since 6.2
+		 */
+		public BackChannelLogoutConfigurer logoutTimeout(Duration logoutTimeout) {
+			Assert.notNull(logoutTimeout, "logoutTimeout cannot be null");
+			Assert.isTrue(!logoutTimeout.isNegative() && !logoutTimeout.isZero(), "logoutTimeout must be positive");
+			this.logoutTimeout = logoutTimeout;
+			return this;
+		}
+
+		/**
+		 * Retry a per-session logout this many times when it fails with an I/O error or a
+		 * server error. Defaults to {@code 0}.
+		 * @param logoutRetries the number of retries
+		 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+		 * @since 6.2
+		 */
+		public BackChannelLogoutConfigurer logoutRetries(int logoutRetries) {
+			Assert.isTrue(logoutRetries >= 0, "logoutRetries cannot be negative");
+			this.logoutRetries = logoutRetries;
+			return this;
+		}
+
+		/**
+		 * Whether to acknowledge the OIDC Provider before the per-session logouts
+		 * complete. When {@code true}, the sessions are invalidated in the background and
+		 * failures are only logged instead of being reported as a {@code partial_logout}
+		 * error. Defaults to {@code false}.
+		 * @param asynchronousLogout whether to invalidate sessions in the background
+		 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+		 * @since 6.2
+		 */
+		public BackChannelLogoutConfigurer asynchronousLogout(boolean asynchronousLogout) {
+			this.asynchronousLogout = asynchronousLogout;
+			return this;
+		}
+
 		private AuthenticationConverter authenticationConverter(B http) {
 			if (this.authenticationConverter == null) {
 				ClientRegistrationRepository clientRegistrationRepository = OAuth2ClientConfigurerUtils
@@ -142,11 +213,31 @@ public final class OidcLogoutConfigurer<B extends HttpSecurityBuilder<B>>
 			if (this.logoutHandler == null) {
 				OidcBackChannelLogoutHandler logoutHandler = new OidcBackChannelLogoutHandler();
 				logoutHandler.setSessionRegistry(OAuth2ClientConfigurerUtils.getOidcSessionRegistry(http));
+				if (this.logoutConcurrency > 1 || this.asynchronousLogout) {
+					ExecutorService executor = OidcBackChannelLogoutHandler.boundedExecutor(this.logoutConcurrency);
+					shutdownOnClose(http, executor);
+					logoutHandler.setExecutor(executor);
+				}
+				if (this.logoutTimeout != null) {
+					SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+					requestFactory.setConnectTimeout((int) this.logoutTimeout.toMillis());
+					requestFactory.setReadTimeout((int) this.logoutTimeout.toMillis());
+					logoutHandler.setRestOperations(new RestTemplate(requestFactory));
+				}
+				logoutHandler.setRetries(this.logoutRetries);
+				logoutHandler.setAsynchronous(this.asynchronousLogout);
 				this.logoutHandler = logoutHandler;
 			}
 			return this.logoutHandler;
 		}
 
+		private void shutdownOnClose(B http, ExecutorService executor) {
+			ApplicationContext context = http.getSharedObject(ApplicationContext.class);
+			if (context instanceof ConfigurableApplicationContext configurable) {
+				configurable.addApplicationListener(new ExecutorShutdownListener(configurable, executor));
+			}
+		}
+
 		void configure(B http) {
 			OidcBackChannelLogoutFilter filter = new OidcBackChannelLogoutFilter(authenticationConverter(http),
 					authenticationManager());
@@ -156,4 +247,24 @@ public final class OidcLogoutConfigurer<B extends HttpSecurityBuilder<B>>
 
 	}
 
+	private static final class ExecutorShutdownListener implements ApplicationListener<ContextClosedEvent> {
+
+		private final ApplicationContext context;
+
+		private final ExecutorService executor;
+
+		private ExecutorShutdownListener(ApplicationContext context, ExecutorService executor) {
+			this.context = context;
+			this.executor = executor;
+		}
+
+		@Override
+		public void onApplicationEvent(ContextClosedEvent event) {
+			if (event.getApplicationContext() == this.context) {
+				this.executor.shutdown();
+			}
+		}
+
+	}
+
 }
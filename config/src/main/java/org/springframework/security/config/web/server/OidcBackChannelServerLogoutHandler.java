@@ -17,8 +17,11 @@
 package org.springframework.security.config.web.server;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,6 +29,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -42,12 +48,19 @@ import org.springframework.security.web.server.WebFilterExchange;
 import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * A {@link ServerLogoutHandler} that locates the sessions associated with a given OIDC
  * Back-Channel Logout Token and invalidates each one.
  *
+ * <p>
+ * By default, sessions are invalidated one after another and the response is only written
+ * once all of them were invalidated. The handler can be configured to invalidate several
+ * sessions at a time and to return immediately, in which case the outcome is only logged.
+ *
  * @author Josh Cummings
  * @since 6.2
  * @see <a target="_blank" href=
@@ -66,6 +79,18 @@ final class OidcBackChannelServerLogoutHandler implements ServerLogoutHandler {
 
 	private String sessionCookieName = "SESSION";
 
+	private int concurrency = 1;
+
+	private Duration logoutTimeout;
+
+	private int retries = 0;
+
+	private Duration retryBackoff = Duration.ofMillis(100);
+
+	private boolean asynchronous = false;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
 	@Override
 	public Mono<Void> logout(WebFilterExchange exchange, Authentication authentication) {
 		if (!(authentication instanceof OidcBackChannelLogoutAuthentication token)) {
@@ -77,12 +102,14 @@ final class OidcBackChannelServerLogoutHandler implements ServerLogoutHandler {
 				return Mono.empty();
 			});
 		}
+		String logoutUri = UriComponentsBuilder.fromHttpUrl(exchange.getExchange().getRequest().getURI().toString())
+				.replacePath(this.logoutEndpointName).build().toUriString();
 		AtomicInteger totalCount = new AtomicInteger(0);
 		AtomicInteger invalidatedCount = new AtomicInteger(0);
-		return this.sessionRegistry.removeSessionInformation(token.getPrincipal())
-			.concatMap((session) -> {
+		Mono<List<Object>> logouts = this.sessionRegistry.removeSessionInformation(token.getPrincipal())
+			.flatMap((session) -> {
 				totalCount.incrementAndGet();
-				return eachLogout(exchange, session)
+				return eachLogout(logoutUri, session)
 						.flatMap((response) -> {
 							invalidatedCount.incrementAndGet();
 							return Mono.empty();
@@ -92,29 +119,55 @@ final class OidcBackChannelServerLogoutHandler implements ServerLogoutHandler {
 							return this.sessionRegistry.saveSessionInformation(session)
 									.then(Mono.just(ex.getMessage()));
 						});
-			}).collectList().flatMap((list) -> {
+			}, this.concurrency).collectList().doOnNext((list) -> {
+				if (!list.isEmpty() && this.asynchronous) {
+					String message = "Failed to invalidate %d out of %d sessions: %s";
+					this.logger.debug(String.format(message, list.size(), totalCount.intValue(), list));
+				}
 				if (this.logger.isTraceEnabled()) {
 					this.logger.trace(String.format("Invalidated %d out of %d sessions", invalidatedCount.intValue(), totalCount.intValue()));
 				}
-				if (!list.isEmpty()) {
-					return handleLogoutFailure(exchange.getExchange().getResponse(), oauth2Error(list));
-				}
-				else {
-					return Mono.empty();
-				}
 			});
+		if (this.asynchronous) {
+			return Mono.fromRunnable(() -> logouts.subscribeOn(this.scheduler)
+					.subscribe(null, (ex) -> this.logger.debug("Failed to invalidate sessions", ex)));
+		}
+		return logouts.flatMap((list) -> {
+			if (!list.isEmpty()) {
+				return handleLogoutFailure(exchange.getExchange().getResponse(), oauth2Error(list));
+			}
+			else {
+				return Mono.empty();
+			}
+		});
 	}
 
-	private Mono<ResponseEntity<Void>> eachLogout(WebFilterExchange exchange, OidcSessionInformation session) {
+	private Mono<ResponseEntity<Void>> eachLogout(String logoutUri, OidcSessionInformation session) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.add(HttpHeaders.COOKIE, this.sessionCookieName + "=" + session.getSessionId());
 		for (Map.Entry<String, String> credential : session.getAuthorities().entrySet()) {
 			headers.add(credential.getKey(), credential.getValue());
 		}
-		String url = exchange.getExchange().getRequest().getURI().toString();
-		String logout = UriComponentsBuilder.fromHttpUrl(url).replacePath(this.logoutEndpointName).build()
-				.toUriString();
-		return this.web.post().uri(logout).headers((h) -> h.putAll(headers)).retrieve().toBodilessEntity();
+		Mono<ResponseEntity<Void>> logout = this.web.post().uri(logoutUri).headers((h) -> h.putAll(headers)).retrieve()
+				.toBodilessEntity();
+		if (this.logoutTimeout != null) {
+			logout = logout.timeout(this.logoutTimeout);
+		}
+		if (this.retries > 0) {
+			// @formatter:off
+			logout = logout.retryWhen(Retry.backoff(this.retries, this.retryBackoff)
+					.filter(OidcBackChannelServerLogoutHandler::isRetryable)
+					.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+			// @formatter:on
+		}
+		return logout;
+	}
+
+	private static boolean isRetryable(Throwable ex) {
+		if (ex instanceof WebClientResponseException response) {
+			return response.getStatusCode().is5xxServerError();
+		}
+		return ex instanceof WebClientRequestException || ex instanceof TimeoutException;
 	}
 
 	private OAuth2Error oauth2Error(Collection<?> errors) {
@@ -168,6 +221,67 @@ final class OidcBackChannelServerLogoutHandler implements ServerLogoutHandler {
 		this.logoutEndpointName = logoutUri;
 	}
 
+	/**
+	 * Invalidate at most this many sessions at a time. Defaults to {@code 1}, meaning
+	 * that sessions are invalidated one after another.
+	 * @param concurrency the maximum number of concurrent per-session logouts
+	 */
+	void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "concurrency must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Fail a per-session logout that takes longer than this. By default, no timeout is
+	 * applied.
+	 * @param logoutTimeout the timeout to use
+	 */
+	void setLogoutTimeout(Duration logoutTimeout) {
+		Assert.notNull(logoutTimeout, "logoutTimeout cannot be null");
+		this.logoutTimeout = logoutTimeout;
+	}
+
+	/**
+	 * Retry a per-session logout this many times when it fails with an I/O error, a
+	 * server error or a timeout. Defaults to {@code 0}.
+	 * @param retries the number of retries
+	 */
+	void setRetries(int retries) {
+		Assert.isTrue(retries >= 0, "retries cannot be negative");
+		this.retries = retries;
+	}
+
+	/**
+	 * Wait at least this long before the first retry of a per-session logout, backing
+	 * off exponentially for each further retry. Defaults to 100 milliseconds.
+	 * @param retryBackoff the minimum wait before the first retry
+	 */
+	void setRetryBackoff(Duration retryBackoff) {
+		Assert.notNull(retryBackoff, "retryBackoff cannot be null");
+		Assert.isTrue(!retryBackoff.isNegative(), "retryBackoff cannot be negative");
+		this.retryBackoff = retryBackoff;
+	}
+
+	/**
+	 * Whether to complete before the per-session logouts complete. When {@code true},
+	 * the OIDC Provider is acknowledged right away and failures are only logged. Defaults
+	 * to {@code false}.
+	 * @param asynchronous whether to complete before the logouts complete
+	 */
+	void setAsynchronous(boolean asynchronous) {
+		this.asynchronous = asynchronous;
+	}
+
+	/**
+	 * Use this {@link Scheduler} to perform the per-session logouts when they are
+	 * asynchronous. Defaults to {@link Schedulers#boundedElastic()}.
+	 * @param scheduler the {@link Scheduler} to use
+	 */
+	void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
 	/**
 	 * Use this cookie name for the session identifier. Defaults to {@code JSESSIONID}.
 	 *
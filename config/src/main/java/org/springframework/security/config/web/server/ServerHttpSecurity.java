@@ -5066,6 +5066,69 @@ public class ServerHttpSecurity {
 
 			private ServerLogoutHandler logoutHandler;
 
+			private int logoutConcurrency = 1;
+
+			private Duration logoutTimeout;
+
+			private int logoutRetries = 0;
+
+			private boolean asynchronousLogout = false;
+
+			/**
+			 * Invalidate at most this many sessions at a time when a single OIDC Logout
+			 * Token references several sessions. Defaults to {@code 1}, meaning that
+			 * sessions are invalidated one after another.
+			 * @param logoutConcurrency the maximum number of concurrent per-session logouts
+			 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+			 * @since 6.2
+			 */
+			public BackChannelLogoutConfigurer logoutConcurrency(int logoutConcurrency) {
+				Assert.isTrue(logoutConcurrency > 0, "logoutConcurrency must be greater than 0");
+				this.logoutConcurrency = logoutConcurrency;
+				return this;
+			}
+
+			/**
+			 * Fail a per-session logout that takes longer than this. By default, no
+			 * timeout is applied.
+			 * @param logoutTimeout the timeout to use
+			 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+			 * @since 6.2
+			 */
+			public BackChannelLogoutConfigurer logoutTimeout(Duration logoutTimeout) {
+				Assert.notNull(logoutTimeout, "logoutTimeout cannot be null");
+				Assert.isTrue(!logoutTimeout.isNegative() && !logoutTimeout.isZero(), "logoutTimeout must be positive");
+				this.logoutTimeout = logoutTimeout;
+				return this;
+			}
+
+			/**
+			 * Retry a per-session logout this many times when it fails with an I/O error,
+			 * a server error or a timeout. Defaults to {@code 0}.
+			 * @param logoutRetries the number of retries
+			 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+			 * @since 6.2
+			 */
+			public BackChannelLogoutConfigurer logoutRetries(int logoutRetries) {
+				Assert.isTrue(logoutRetries >= 0, "logoutRetries cannot be negative");
+				this.logoutRetries = logoutRetries;
+				return this;
+			}
+
+			/**
+			 * Whether to acknowledge the OIDC Provider before the per-session logouts
+			 * complete. When {@code true}, the sessions are invalidated in the background
+			 * and failures are only logged instead of being reported as a
+			 * {@code partial_logout} error. Defaults to {@code false}.
+			 * @param asynchronousLogout whether to invalidate sessions in the background
+			 * @return the {@link BackChannelLogoutConfigurer} for further configuration
+			 * @since 6.2
+			 */
+			public BackChannelLogoutConfigurer asynchronousLogout(boolean asynchronousLogout) {
+				this.asynchronousLogout = asynchronousLogout;
+				return this;
+			}
+
 			private ServerAuthenticationConverter authenticationConverter() {
 				if (this.authenticationConverter == null) {
 					this.authenticationConverter = new OidcLogoutServerAuthenticationConverter(
@@ -5082,6 +5145,12 @@ public class ServerHttpSecurity {
 				if (this.logoutHandler == null) {
 					OidcBackChannelServerLogoutHandler logoutHandler = new OidcBackChannelServerLogoutHandler();
 					logoutHandler.setSessionRegistry(OidcLogoutSpec.this.getSessionRegistry());
+					logoutHandler.setConcurrency(this.logoutConcurrency);
+					if (this.logoutTimeout != null) {
+						logoutHandler.setLogoutTimeout(this.logoutTimeout);
+					}
+					logoutHandler.setRetries(this.logoutRetries);
+					logoutHandler.setAsynchronous(this.asynchronousLogout);
 					this.logoutHandler = logoutHandler;
 				}
 				return this.logoutHandler;
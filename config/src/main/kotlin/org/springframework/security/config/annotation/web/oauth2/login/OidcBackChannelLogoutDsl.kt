@@ -18,6 +18,7 @@ package org.springframework.security.config.annotation.web.oauth2.login
 
 import org.springframework.security.config.annotation.web.builders.HttpSecurity
 import org.springframework.security.config.annotation.web.configurers.oauth2.client.OidcLogoutConfigurer
+import java.time.Duration
 
 /**
  * A Kotlin DSL to configure the OIDC 1.0 Back-Channel configuration using
@@ -25,10 +26,25 @@ import org.springframework.security.config.annotation.web.configurers.oauth2.cli
  *
  * @author Josh Cummings
  * @since 6.2
+ * @property logoutConcurrency the maximum number of sessions to invalidate at a time.
+ * @property logoutTimeout the timeout of each per-session logout.
+ * @property logoutRetries the number of times to retry a failed per-session logout.
+ * @property asynchronousLogout whether to acknowledge the OIDC Provider before the
+ * per-session logouts complete.
  */
 @OAuth2LoginSecurityMarker
 class OidcBackChannelLogoutDsl {
+    var logoutConcurrency: Int? = null
+    var logoutTimeout: Duration? = null
+    var logoutRetries: Int? = null
+    var asynchronousLogout: Boolean? = null
+
     internal fun get(): (OidcLogoutConfigurer<HttpSecurity>.BackChannelLogoutConfigurer) -> Unit {
-        return { backChannel -> }
+        return { backChannel ->
+            logoutConcurrency?.also { backChannel.logoutConcurrency(it) }
+            logoutTimeout?.also { backChannel.logoutTimeout(it) }
+            logoutRetries?.also { backChannel.logoutRetries(it) }
+            asynchronousLogout?.also { backChannel.asynchronousLogout(it) }
+        }
     }
 }
@@ -16,15 +16,32 @@
 
 package org.springframework.security.config.web.server
 
+import java.time.Duration
+
 /**
  * A Kotlin DSL to configure [ServerHttpSecurity] OIDC 1.0 Back-Channel Logout support using idiomatic Kotlin code.
  *
  * @author Josh Cummings
  * @since 6.2
+ * @property logoutConcurrency the maximum number of sessions to invalidate at a time.
+ * @property logoutTimeout the timeout of each per-session logout.
+ * @property logoutRetries the number of times to retry a failed per-session logout.
+ * @property asynchronousLogout whether to acknowledge the OIDC Provider before the
+ * per-session logouts complete.
  */
 @ServerSecurityMarker
 class ServerOidcBackChannelLogoutDsl {
+    var logoutConcurrency: Int? = null
+    var logoutTimeout: Duration? = null
+    var logoutRetries: Int? = null
+    var asynchronousLogout: Boolean? = null
+
     internal fun get(): (ServerHttpSecurity.OidcLogoutSpec.BackChannelLogoutConfigurer) -> Unit {
-        return { backChannel -> }
+        return { backChannel ->
+            logoutConcurrency?.also { backChannel.logoutConcurrency(it) }
+            logoutTimeout?.also { backChannel.logoutTimeout(it) }
+            logoutRetries?.also { backChannel.logoutRetries(it) }
+            asynchronousLogout?.also { backChannel.asynchronousLogout(it) }
+        }
     }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.config.annotation.web.configurers.oauth2.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.client.oidc.authentication.logout.OidcLogoutToken;
+import org.springframework.security.oauth2.client.oidc.authentication.logout.TestOidcLogoutTokens;
+import org.springframework.security.oauth2.client.oidc.session.InMemoryOidcSessionRegistry;
+import org.springframework.security.oauth2.client.oidc.session.OidcSessionInformation;
+import org.springframework.security.oauth2.client.oidc.session.TestOidcSessionInformations;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.oidc.user.TestOidcUsers;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link OidcBackChannelLogoutHandler}.
+ */
+public class OidcBackChannelLogoutHandlerTests {
+
+	private final OidcUser user = TestOidcUsers.create();
+
+	private final InMemoryOidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
+
+	private final RestOperations restOperations = mock(RestOperations.class);
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("POST",
+			"/logout/connect/back-channel/registration-id");
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private OidcBackChannelLogoutHandler logoutHandler;
+
+	@BeforeEach
+	public void setUp() {
+		this.logoutHandler = new OidcBackChannelLogoutHandler();
+		this.logoutHandler.setSessionRegistry(this.sessionRegistry);
+		this.logoutHandler.setRestOperations(this.restOperations);
+	}
+
+	@Test
+	public void setRetriesWhenNegativeThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.logoutHandler.setRetries(-1));
+	}
+
+	@Test
+	public void setRetryBackoffWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.logoutHandler.setRetryBackoff(null));
+	}
+
+	@Test
+	public void logoutWhenBoundedExecutorThenInvalidatesAllSessions() {
+		this.logoutHandler.setExecutor(OidcBackChannelLogoutHandler.boundedExecutor(2));
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willReturn(ResponseEntity.ok().build());
+		saveSessions(5);
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		verify(this.restOperations, times(5)).postForEntity(eq("http://localhost/logout"), any(HttpEntity.class),
+				eq(Object.class));
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(this.sessionRegistry.removeSessionInformation(logoutToken())).isEmpty();
+	}
+
+	@Test
+	public void logoutWhenServerErrorThenRetries() {
+		this.logoutHandler.setRetries(2);
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+				.willReturn(ResponseEntity.ok().build());
+		saveSessions(1);
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		verify(this.restOperations, times(2)).postForEntity(any(String.class), any(), eq(Object.class));
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+	}
+
+	@Test
+	public void logoutWhenServerErrorThenBacksOffBeforeRetrying() {
+		this.logoutHandler.setRetries(1);
+		this.logoutHandler.setRetryBackoff(Duration.ofMillis(50));
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+				.willReturn(ResponseEntity.ok().build());
+		saveSessions(1);
+		long start = System.nanoTime();
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+		verify(this.restOperations, times(2)).postForEntity(any(String.class), any(), eq(Object.class));
+	}
+
+	@Test
+	public void logoutWhenExecutorShutDownThenInvalidatesInCallingThread() {
+		ExecutorService executor = OidcBackChannelLogoutHandler.boundedExecutor(1);
+		executor.shutdown();
+		this.logoutHandler.setExecutor(executor);
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willReturn(ResponseEntity.ok().build());
+		saveSessions(2);
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		verify(this.restOperations, times(2)).postForEntity(any(String.class), any(), eq(Object.class));
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+	}
+
+	@Test
+	public void logoutWhenClientErrorThenDoesNotRetryAndReportsPartialLogout() throws Exception {
+		this.logoutHandler.setRetries(2);
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+		saveSessions(1);
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		verify(this.restOperations).postForEntity(any(String.class), any(), eq(Object.class));
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+		assertThat(this.response.getContentAsString()).contains("partial_logout");
+		assertThat(this.sessionRegistry.removeSessionInformation(logoutToken())).hasSize(1);
+	}
+
+	@Test
+	public void logoutWhenAsynchronousThenReturnsBeforeSessionsAreInvalidated() {
+		List<Runnable> tasks = new ArrayList<>();
+		this.logoutHandler.setExecutor(tasks::add);
+		this.logoutHandler.setAsynchronous(true);
+		given(this.restOperations.postForEntity(any(String.class), any(), eq(Object.class)))
+				.willThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+		saveSessions(3);
+		this.logoutHandler.logout(this.request, this.response, authentication());
+		verifyNoInteractions(this.restOperations);
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(tasks).hasSize(3);
+		tasks.forEach(Runnable::run);
+		verify(this.restOperations, times(3)).postForEntity(any(String.class), any(), eq(Object.class));
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(this.sessionRegistry.removeSessionInformation(logoutToken())).hasSize(3);
+	}
+
+	private void saveSessions(int count) {
+		for (int i = 0; i < count; i++) {
+			OidcSessionInformation session = TestOidcSessionInformations.create("client-" + i, this.user);
+			this.sessionRegistry.saveSessionInformation(session);
+		}
+	}
+
+	private OidcLogoutToken logoutToken() {
+		return TestOidcLogoutTokens.withUser(this.user).build();
+	}
+
+	private OidcBackChannelLogoutAuthentication authentication() {
+		return new OidcBackChannelLogoutAuthentication(logoutToken());
+	}
+
+}
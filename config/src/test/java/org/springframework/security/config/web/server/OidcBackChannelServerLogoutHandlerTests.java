@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.config.web.server;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.client.oidc.authentication.logout.OidcLogoutToken;
+import org.springframework.security.oauth2.client.oidc.authentication.logout.TestOidcLogoutTokens;
+import org.springframework.security.oauth2.client.oidc.server.session.InMemoryReactiveOidcSessionRegistry;
+import org.springframework.security.oauth2.client.oidc.session.OidcSessionInformation;
+import org.springframework.security.oauth2.client.oidc.session.TestOidcSessionInformations;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.oidc.user.TestOidcUsers;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link OidcBackChannelServerLogoutHandler}.
+ */
+public class OidcBackChannelServerLogoutHandlerTests {
+
+	private final OidcUser user = TestOidcUsers.create();
+
+	private final InMemoryReactiveOidcSessionRegistry sessionRegistry = new InMemoryReactiveOidcSessionRegistry();
+
+	private final MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.post("https://localhost/logout/connect/back-channel/registration-id"));
+
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	private OidcBackChannelServerLogoutHandler logoutHandler;
+
+	@BeforeEach
+	public void setUp() {
+		this.logoutHandler = new OidcBackChannelServerLogoutHandler();
+		this.logoutHandler.setSessionRegistry(this.sessionRegistry);
+	}
+
+	@Test
+	public void setConcurrencyWhenZeroThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.logoutHandler.setConcurrency(0));
+	}
+
+	@Test
+	public void setRetryBackoffWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.logoutHandler.setRetryBackoff(null));
+	}
+
+	@Test
+	public void logoutWhenConcurrencyThenInvalidatesAllSessions() {
+		this.logoutHandler.setConcurrency(3);
+		this.logoutHandler.setWebClient(webClient((request) -> respond(HttpStatus.OK)));
+		saveSessions(5);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.requestCount).hasValue(5);
+		assertThat(this.exchange.getResponse().getStatusCode()).isNull();
+		StepVerifier.create(this.sessionRegistry.removeSessionInformation(logoutToken())).verifyComplete();
+	}
+
+	@Test
+	public void logoutWhenServerErrorThenRetries() {
+		this.logoutHandler.setRetries(2);
+		this.logoutHandler.setWebClient(webClient((request) -> (this.requestCount.get() == 1)
+				? respond(HttpStatus.SERVICE_UNAVAILABLE) : respond(HttpStatus.OK)));
+		saveSessions(1);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.requestCount).hasValue(2);
+		assertThat(this.exchange.getResponse().getStatusCode()).isNull();
+	}
+
+	@Test
+	public void logoutWhenClientErrorThenDoesNotRetryAndReportsPartialLogout() {
+		this.logoutHandler.setRetries(2);
+		this.logoutHandler.setWebClient(webClient((request) -> respond(HttpStatus.FORBIDDEN)));
+		saveSessions(1);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.requestCount).hasValue(1);
+		assertThat(this.exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		StepVerifier.create(this.sessionRegistry.removeSessionInformation(logoutToken()))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void logoutWhenTimeoutThenReportsPartialLogout() {
+		this.logoutHandler.setLogoutTimeout(Duration.ofMillis(50));
+		this.logoutHandler.setWebClient(webClient((request) -> Mono.never()));
+		saveSessions(2);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		StepVerifier.create(this.sessionRegistry.removeSessionInformation(logoutToken()))
+				.expectNextCount(2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void logoutWhenAsynchronousThenCompletesBeforeSessionsAreInvalidated() {
+		this.logoutHandler.setConcurrency(2);
+		this.logoutHandler.setAsynchronous(true);
+		this.logoutHandler.setScheduler(Schedulers.immediate());
+		this.logoutHandler.setWebClient(webClient((request) -> Mono.never()));
+		saveSessions(2);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.requestCount).hasValue(2);
+		assertThat(this.exchange.getResponse().getStatusCode()).isNull();
+	}
+
+	@Test
+	public void logoutWhenAsynchronousThenInvalidatesSessionsOnScheduler() {
+		List<Runnable> tasks = new ArrayList<>();
+		this.logoutHandler.setAsynchronous(true);
+		this.logoutHandler.setScheduler(Schedulers.fromExecutor(tasks::add));
+		this.logoutHandler.setWebClient(webClient((request) -> respond(HttpStatus.OK)));
+		saveSessions(2);
+		StepVerifier.create(this.logoutHandler.logout(webFilterExchange(), authentication())).verifyComplete();
+		assertThat(this.requestCount).hasValue(0);
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(this.requestCount).hasValue(2);
+		assertThat(this.exchange.getResponse().getStatusCode()).isNull();
+	}
+
+	@Test
+	public void setSchedulerWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.logoutHandler.setScheduler(null));
+	}
+
+	private WebClient webClient(ExchangeFunction exchangeFunction) {
+		return WebClient.builder().exchangeFunction((request) -> {
+			this.requestCount.incrementAndGet();
+			return exchangeFunction.exchange(request);
+		}).build();
+	}
+
+	private static Mono<ClientResponse> respond(HttpStatus status) {
+		return Mono.just(ClientResponse.create(status).build());
+	}
+
+	private void saveSessions(int count) {
+		for (int i = 0; i < count; i++) {
+			OidcSessionInformation session = TestOidcSessionInformations.create("client-" + i, this.user);
+			this.sessionRegistry.saveSessionInformation(session).block();
+		}
+	}
+
+	private OidcLogoutToken logoutToken() {
+		return TestOidcLogoutTokens.withUser(this.user).build();
+	}
+
+	private OidcBackChannelLogoutAuthentication authentication() {
+		return new OidcBackChannelLogoutAuthentication(logoutToken());
+	}
+
+	private WebFilterExchange webFilterExchange() {
+		return new WebFilterExchange(this.exchange, mock(WebFilterChain.class));
+	}
+
+}
@@ -51,6 +51,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.security.authentication.TestingAuthenticationToken;
@@ -102,6 +103,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockAuthentication;
@@ -223,6 +225,66 @@ public class OidcLogoutSpecTests {
 		verify(sessionRegistry, atLeastOnce()).removeSessionInformation(any(OidcLogoutToken.class));
 	}
 
+	@Test
+	void logoutWhenConcurrentLogoutThenRemotelyInvalidatesAllSessions() {
+		this.spring.register(WebServerConfig.class, OidcProviderConfig.class, WithConcurrentLogoutConfig.class)
+				.autowire();
+		String registrationId = this.clientRegistration.getRegistrationId();
+		String one = login();
+		String two = login();
+		String three = login();
+		String logoutToken = this.test.get().uri("/token/logout/all").cookie("SESSION", one).exchange().expectStatus()
+				.isOk().returnResult(String.class).getResponseBody().blockFirst();
+		this.test.post().uri(this.web.url("/logout/connect/back-channel/" + registrationId).toString())
+				.body(BodyInserters.fromFormData("logout_token", logoutToken)).exchange().expectStatus().isOk();
+		this.test.get().uri("/token/logout").cookie("SESSION", one).exchange().expectStatus().isUnauthorized();
+		this.test.get().uri("/token/logout").cookie("SESSION", two).exchange().expectStatus().isUnauthorized();
+		this.test.get().uri("/token/logout").cookie("SESSION", three).exchange().expectStatus().isUnauthorized();
+	}
+
+	@Test
+	void logoutWhenAsynchronousLogoutThenRemotelyInvalidatesSessionsInBackground() throws Exception {
+		this.spring.register(WebServerConfig.class, OidcProviderConfig.class, WithAsynchronousLogoutConfig.class)
+				.autowire();
+		String registrationId = this.clientRegistration.getRegistrationId();
+		String one = login();
+		String two = login();
+		String logoutToken = this.test.get().uri("/token/logout/all").cookie("SESSION", one).exchange().expectStatus()
+				.isOk().returnResult(String.class).getResponseBody().blockFirst();
+		this.test.post().uri(this.web.url("/logout/connect/back-channel/" + registrationId).toString())
+				.body(BodyInserters.fromFormData("logout_token", logoutToken)).exchange().expectStatus().isOk();
+		awaitLogout(one);
+		awaitLogout(two);
+	}
+
+	@Test
+	void logoutWhenAsynchronousLogoutAndRemoteLogoutFailsThenAcknowledges() {
+		this.spring.register(WebServerConfig.class, OidcProviderConfig.class,
+				WithAsynchronousBrokenLogoutConfig.class).autowire();
+		ServerLogoutHandler logoutHandler = this.spring.getContext().getBean(ServerLogoutHandler.class);
+		given(logoutHandler.logout(any(), any())).willReturn(Mono.error(() -> new IllegalStateException("illegal")));
+		String registrationId = this.clientRegistration.getRegistrationId();
+		String one = login();
+		String logoutToken = this.test.get().uri("/token/logout/all").cookie("SESSION", one).exchange().expectStatus()
+				.isOk().returnResult(String.class).getResponseBody().blockFirst();
+		this.test.post().uri(this.web.url("/logout/connect/back-channel/" + registrationId).toString())
+				.body(BodyInserters.fromFormData("logout_token", logoutToken)).exchange().expectStatus().isOk();
+		verify(logoutHandler, timeout(5000)).logout(any(), any());
+		this.test.get().uri("/token/logout").cookie("SESSION", one).exchange().expectStatus().isOk();
+	}
+
+	private void awaitLogout(String session) throws InterruptedException {
+		for (int attempt = 0; attempt < 50; attempt++) {
+			int status = this.test.get().uri("/token/logout").cookie("SESSION", session).exchange()
+					.returnResult(String.class).getStatus().value();
+			if (status == HttpStatus.UNAUTHORIZED.value()) {
+				return;
+			}
+			Thread.sleep(100);
+		}
+		this.test.get().uri("/token/logout").cookie("SESSION", session).exchange().expectStatus().isUnauthorized();
+	}
+
 	private String login() {
 		this.test.get().uri("/token/logout").exchange().expectStatus().isUnauthorized();
 		String registrationId = this.clientRegistration.getRegistrationId();
@@ -333,6 +395,84 @@ static class WithCustomComponentsConfig {
 
 }
 
+@Configuration
+@EnableWebFluxSecurity
+@Import(RegistrationConfig.class)
+static class WithConcurrentLogoutConfig {
+
+	@Bean
+	@Order(1)
+	SecurityWebFilterChain filters(ServerHttpSecurity http) throws Exception {
+		// @formatter:off
+			http
+					.authorizeExchange((authorize) -> authorize.anyExchange().authenticated())
+					.oauth2Login(Customizer.withDefaults())
+					.oidcLogout((oidc) -> oidc
+						.backChannel((backChannel) -> backChannel
+							.logoutConcurrency(4)
+							.logoutTimeout(Duration.ofSeconds(10))
+							.logoutRetries(2)
+						)
+					);
+			// @formatter:on
+
+		return http.build();
+	}
+
+}
+
+@Configuration
+@EnableWebFluxSecurity
+@Import(RegistrationConfig.class)
+static class WithAsynchronousLogoutConfig {
+
+	@Bean
+	@Order(1)
+	SecurityWebFilterChain filters(ServerHttpSecurity http) throws Exception {
+		// @formatter:off
+			http
+					.authorizeExchange((authorize) -> authorize.anyExchange().authenticated())
+					.oauth2Login(Customizer.withDefaults())
+					.oidcLogout((oidc) -> oidc
+						.backChannel((backChannel) -> backChannel.asynchronousLogout(true))
+					);
+			// @formatter:on
+
+		return http.build();
+	}
+
+}
+
+@Configuration
+@EnableWebFluxSecurity
+@Import(RegistrationConfig.class)
+static class WithAsynchronousBrokenLogoutConfig {
+
+	private final ServerLogoutHandler logoutHandler = mock(ServerLogoutHandler.class);
+
+	@Bean
+	@Order(1)
+	SecurityWebFilterChain filters(ServerHttpSecurity http) throws Exception {
+		// @formatter:off
+			http
+					.authorizeExchange((authorize) -> authorize.anyExchange().authenticated())
+					.logout((logout) -> logout.logoutHandler(this.logoutHandler))
+					.oauth2Login(Customizer.withDefaults())
+					.oidcLogout((oidc) -> oidc
+						.backChannel((backChannel) -> backChannel.asynchronousLogout(true))
+					);
+			// @formatter:on
+
+		return http.build();
+	}
+
+	@Bean
+	ServerLogoutHandler logoutHandler() {
+		return this.logoutHandler;
+	}
+
+}
+
 @Configuration
 @EnableWebFluxSecurity
 @Import(RegistrationConfig.class)
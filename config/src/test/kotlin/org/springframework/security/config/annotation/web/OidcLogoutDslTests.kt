@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,13 @@
 
 package org.springframework.security.config.annotation.web
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.http.client.SimpleClientHttpRequestFactory
 import org.springframework.security.config.annotation.web.builders.HttpSecurity
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity
 import org.springframework.security.config.test.SpringTestContext
@@ -29,9 +31,14 @@ import org.springframework.security.oauth2.client.registration.ClientRegistratio
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository
 import org.springframework.security.oauth2.client.registration.TestClientRegistrations
+import org.springframework.security.web.FilterChainProxy
 import org.springframework.security.web.SecurityFilterChain
+import org.springframework.test.util.ReflectionTestUtils
 import org.springframework.test.web.servlet.MockMvc
 import org.springframework.test.web.servlet.post
+import org.springframework.web.client.RestTemplate
+import java.time.Duration
+import java.util.concurrent.ThreadPoolExecutor
 
 /**
  * Tests for [OAuth2ClientDsl]
@@ -55,6 +62,58 @@ class OidcLogoutDslTests {
         }.andExpect { status { isBadRequest() } }
     }
 
+    @Test
+    fun `oidcLogout when back-channel logout options then configured`() {
+        this.spring.register(BackChannelLogoutOptionsConfig::class.java).autowire()
+        val clientRegistration = this.spring.context.getBean(ClientRegistration::class.java)
+        val filterChain = this.spring.context.getBean(FilterChainProxy::class.java)
+        val filter = filterChain.getFilters("/logout/connect/back-channel/" + clientRegistration.registrationId)
+            .first { it.javaClass.simpleName == "OidcBackChannelLogoutFilter" }
+        val logoutHandler = ReflectionTestUtils.getField(filter, "logoutHandler")!!
+        val executor = ReflectionTestUtils.getField(logoutHandler, "executor") as ThreadPoolExecutor
+        val restTemplate = ReflectionTestUtils.getField(logoutHandler, "restOperations") as RestTemplate
+        assertThat(executor.maximumPoolSize).isEqualTo(4)
+        assertThat(restTemplate.requestFactory).isInstanceOf(SimpleClientHttpRequestFactory::class.java)
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "retries")).isEqualTo(2)
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "asynchronous")).isEqualTo(true)
+        this.spring.context.close()
+        assertThat(executor.isShutdown).isTrue()
+    }
+
+    @Configuration
+    @EnableWebSecurity
+    open class BackChannelLogoutOptionsConfig {
+
+        @Bean
+        open fun securityFilterChain(http: HttpSecurity): SecurityFilterChain {
+            http {
+                oauth2Login { }
+                oidcLogout {
+                    backChannel {
+                        logoutConcurrency = 4
+                        logoutTimeout = Duration.ofSeconds(10)
+                        logoutRetries = 2
+                        asynchronousLogout = true
+                    }
+                }
+                authorizeHttpRequests {
+                    authorize(anyRequest, authenticated)
+                }
+            }
+            return http.build()
+        }
+
+        @Bean
+        open fun clientRegistration(): ClientRegistration {
+            return TestClientRegistrations.clientRegistration().build()
+        }
+
+        @Bean
+        open fun clientRegistrationRepository(clientRegistration: ClientRegistration): ClientRegistrationRepository {
+            return InMemoryClientRegistrationRepository(clientRegistration)
+        }
+    }
+
     @Configuration
     @EnableWebSecurity
     open class ClientRepositoryConfig {
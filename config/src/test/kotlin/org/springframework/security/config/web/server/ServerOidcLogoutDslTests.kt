@@ -16,6 +16,7 @@
 
 package org.springframework.security.config.web.server
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.springframework.beans.factory.annotation.Autowired
@@ -30,9 +31,11 @@ import org.springframework.security.oauth2.client.registration.InMemoryReactiveC
 import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository
 import org.springframework.security.oauth2.client.registration.TestClientRegistrations
 import org.springframework.security.web.server.SecurityWebFilterChain
+import org.springframework.test.util.ReflectionTestUtils
 import org.springframework.test.web.reactive.server.WebTestClient
 import org.springframework.web.reactive.config.EnableWebFlux
 import org.springframework.web.reactive.function.BodyInserters
+import java.time.Duration
 
 /**
  * Tests for [ServerOidcLogoutDsl]
@@ -65,6 +68,52 @@ class ServerOidcLogoutDslTests {
                 .expectStatus().isBadRequest
     }
 
+    @Test
+    fun `oidcLogout when back-channel logout options then configured`() {
+        this.spring.register(BackChannelLogoutOptionsConfig::class.java).autowire()
+        val filterChain = this.spring.context.getBean(SecurityWebFilterChain::class.java)
+        val filter = filterChain.webFilters.filter { it is OidcBackChannelLogoutWebFilter }.blockFirst()!!
+        val logoutHandler = ReflectionTestUtils.getField(filter, "logoutHandler")!!
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "concurrency")).isEqualTo(4)
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "logoutTimeout")).isEqualTo(Duration.ofSeconds(10))
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "retries")).isEqualTo(2)
+        assertThat(ReflectionTestUtils.getField(logoutHandler, "asynchronous")).isEqualTo(true)
+    }
+
+    @Configuration
+    @EnableWebFlux
+    @EnableWebFluxSecurity
+    open class BackChannelLogoutOptionsConfig {
+
+        @Bean
+        open fun securityFilterChain(http: ServerHttpSecurity): SecurityWebFilterChain {
+            return http {
+                oauth2Login { }
+                oidcLogout {
+                    backChannel {
+                        logoutConcurrency = 4
+                        logoutTimeout = Duration.ofSeconds(10)
+                        logoutRetries = 2
+                        asynchronousLogout = true
+                    }
+                }
+                authorizeExchange {
+                    authorize(anyExchange, authenticated)
+                }
+            }
+        }
+
+        @Bean
+        open fun clientRegistration(): ClientRegistration {
+            return TestClientRegistrations.clientRegistration().build()
+        }
+
+        @Bean
+        open fun clientRegistrationRepository(clientRegistration: ClientRegistration): ReactiveClientRegistrationRepository {
+            return InMemoryReactiveClientRegistrationRepository(clientRegistration)
+        }
+    }
+
     @Configuration
     @EnableWebFlux
     @EnableWebFluxSecurity
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,10 @@
 package org.springframework.security.access;
 
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.aop.framework.AopInfrastructureBean;
 import org.springframework.security.core.Authentication;
@@ -54,4 +58,39 @@ public interface PermissionEvaluator extends AopInfrastructureBean {
 	 */
 	boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission);
 
+	/**
+	 * Evaluates several permissions for several domain objects at once. This allows
+	 * implementations to load the information needed for all the objects in one go,
+	 * rather than once per object and permission.
+	 *
+	 * <p>
+	 * The default implementation delegates to
+	 * {@link #hasPermission(Authentication, Object, Object)} for every combination.
+	 * @param authentication represents the user in question. Should not be null.
+	 * @param targetDomainObjects the domain objects for which permissions should be
+	 * checked. May contain null elements, for which no permission is granted.
+	 * @param permissions the representations of the permission objects as supplied by the
+	 * expression system. Not null.
+	 * @return a map with an entry for every permission, in iteration order, whose
+	 * {@link BitSet} has the bit at index {@code i} set if the permission is granted for
+	 * the {@code i}-th domain object
+	 * @since 6.2
+	 */
+	default Map<Object, BitSet> hasPermissions(Authentication authentication, Collection<?> targetDomainObjects,
+			Collection<?> permissions) {
+		Map<Object, BitSet> result = new LinkedHashMap<>();
+		for (Object permission : permissions) {
+			BitSet granted = new BitSet(targetDomainObjects.size());
+			int index = 0;
+			for (Object targetDomainObject : targetDomainObjects) {
+				if (targetDomainObject != null && hasPermission(authentication, targetDomainObject, permission)) {
+					granted.set(index);
+				}
+				index++;
+			}
+			result.put(permission, granted);
+		}
+		return result;
+	}
+
 }
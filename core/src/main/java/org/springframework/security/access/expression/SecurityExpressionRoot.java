@@ -17,7 +17,9 @@
 package org.springframework.security.access.expression;
 
 import java.io.Serializable;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -217,6 +219,21 @@ public abstract class SecurityExpressionRoot implements SecurityExpressionOperat
 				permission);
 	}
 
+	/**
+	 * Determines, in a single call, which of the given permissions the
+	 * {@link #getAuthentication()} has on each of the given domain objects. For example,
+	 * {@code hasPermissions(#messages, {'write', 'delete'})['write'].get(0)}.
+	 * @param targets the domain objects to determine access for
+	 * @param permissions the permissions to check on the domain objects
+	 * @return a map with a {@link BitSet} per permission, in which the bit at index
+	 * {@code i} is set if the permission is granted for the {@code i}-th domain object
+	 * @since 6.2
+	 * @see PermissionEvaluator#hasPermissions(Authentication, Collection, Collection)
+	 */
+	public Map<Object, BitSet> hasPermissions(Collection<?> targets, Collection<?> permissions) {
+		return this.permissionEvaluator.hasPermissions(getAuthentication(), targets, permissions);
+	}
+
 	public void setPermissionEvaluator(PermissionEvaluator permissionEvaluator) {
 		this.permissionEvaluator = permissionEvaluator;
 	}
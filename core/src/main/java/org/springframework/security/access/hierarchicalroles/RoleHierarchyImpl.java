@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -79,6 +81,8 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 
 	private static final Log logger = LogFactory.getLog(RoleHierarchyImpl.class);
 
+	private static final int MAX_CACHED_AUTHORITY_LISTS = 1024;
+
 	/**
 	 * Raw hierarchy configuration where each line represents single or multiple level
 	 * role chain.
@@ -99,6 +103,14 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 	 */
 	private Map<String, Set<GrantedAuthority>> rolesReachableInOneOrMoreStepsMap = null;
 
+	/**
+	 * {@code reachableCache} is a Map that under the key of a list of granted
+	 * authorities contains the authorities reachable from them in zero or more steps. It
+	 * is replaced whenever the hierarchy is set, and only holds a bounded number of
+	 * lists.
+	 */
+	private volatile Map<List<GrantedAuthority>, List<GrantedAuthority>> reachableCache = new ConcurrentHashMap<>();
+
 	/**
 	 * Set the role hierarchy and pre-calculate for every role the set of all reachable
 	 * roles, i.e. all roles lower in the hierarchy of every given role. Pre-calculation
@@ -113,6 +125,7 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 				roleHierarchyStringRepresentation));
 		buildRolesReachableInOneStepMap();
 		buildRolesReachableInOneOrMoreStepsMap();
+		this.reachableCache = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -121,6 +134,11 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 		if (authorities == null || authorities.isEmpty()) {
 			return AuthorityUtils.NO_AUTHORITIES;
 		}
+		Map<List<GrantedAuthority>, List<GrantedAuthority>> cache = this.reachableCache;
+		List<GrantedAuthority> cached = (authorities instanceof List) ? cache.get(authorities) : null;
+		if (cached != null) {
+			return new ArrayList<>(cached);
+		}
 		Set<GrantedAuthority> reachableRoles = new HashSet<>();
 		Set<String> processedNames = new HashSet<>();
 		for (GrantedAuthority authority : authorities) {
@@ -149,6 +167,9 @@ public class RoleHierarchyImpl implements RoleHierarchy {
 		logger.debug(LogMessage.format(
 				"getReachableGrantedAuthorities() - From the roles %s one can reach %s in zero or more steps.",
 				authorities, reachableRoles));
+		if (authorities instanceof List && cache.size() < MAX_CACHED_AUTHORITY_LISTS) {
+			cache.putIfAbsent(List.copyOf(authorities), List.copyOf(reachableRoles));
+		}
 		return new ArrayList<>(reachableRoles);
 	}
 
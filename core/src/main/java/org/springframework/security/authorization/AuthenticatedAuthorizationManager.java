@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,10 @@ import org.springframework.util.Assert;
  */
 public final class AuthenticatedAuthorizationManager<T> implements AuthorizationManager<T> {
 
+	private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+	private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
 	private final AbstractAuthorizationStrategy authorizationStrategy;
 
 	/**
@@ -113,7 +117,7 @@ public final class AuthenticatedAuthorizationManager<T> implements Authorization
 	@Override
 	public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
 		boolean granted = this.authorizationStrategy.isGranted(authentication.get());
-		return new AuthorizationDecision(granted);
+		return granted ? GRANTED : DENIED;
 	}
 
 	private abstract static class AbstractAuthorizationStrategy {
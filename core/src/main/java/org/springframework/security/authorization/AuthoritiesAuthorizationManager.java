@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,7 +61,7 @@ public final class AuthoritiesAuthorizationManager implements AuthorizationManag
 		return new AuthorityAuthorizationDecision(granted, AuthorityUtils.createAuthorityList(authorities));
 	}
 
-	private boolean isGranted(Authentication authentication, Collection<String> authorities) {
+	boolean isGranted(Authentication authentication, Collection<String> authorities) {
 		return authentication != null && isAuthorized(authentication, authorities);
 	}
 
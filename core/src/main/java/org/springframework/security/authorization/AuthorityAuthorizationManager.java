@@ -16,12 +16,16 @@
 
 package org.springframework.security.authorization;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
 
 import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.util.Assert;
 
 /**
@@ -40,8 +44,16 @@ public final class AuthorityAuthorizationManager<T> implements AuthorizationMana
 
 	private final Set<String> authorities;
 
+	private final AuthorityAuthorizationDecision granted;
+
+	private final AuthorityAuthorizationDecision denied;
+
 	private AuthorityAuthorizationManager(String... authorities) {
 		this.authorities = Set.of(authorities);
+		List<GrantedAuthority> grantedAuthorities = Collections
+				.unmodifiableList(AuthorityUtils.createAuthorityList(this.authorities));
+		this.granted = new AuthorityAuthorizationDecision(true, grantedAuthorities);
+		this.denied = new AuthorityAuthorizationDecision(false, grantedAuthorities);
 	}
 
 	/**
@@ -142,7 +154,7 @@ public final class AuthorityAuthorizationManager<T> implements AuthorizationMana
 	 */
 	@Override
 	public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
-		return this.delegate.check(authentication, this.authorities);
+		return this.delegate.isGranted(authentication.get(), this.authorities) ? this.granted : this.denied;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,10 @@ import java.util.List;
  */
 public final class AuthorizationManagers {
 
+	private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+	private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
 	/**
 	 * Creates an {@link AuthorizationManager} that grants access if at least one
 	 * {@link AuthorizationManager} granted or abstained, if <code>managers</code> are
@@ -50,7 +54,7 @@ public final class AuthorizationManagers {
 				decisions.add(decision);
 			}
 			if (decisions.isEmpty()) {
-				return new AuthorizationDecision(false);
+				return DENIED;
 			}
 			return new CompositeAuthorizationDecision(false, decisions);
 		};
@@ -79,7 +83,7 @@ public final class AuthorizationManagers {
 				decisions.add(decision);
 			}
 			if (decisions.isEmpty()) {
-				return new AuthorizationDecision(true);
+				return GRANTED;
 			}
 			return new CompositeAuthorizationDecision(true, decisions);
 		};
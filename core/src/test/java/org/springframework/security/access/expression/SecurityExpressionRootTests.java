@@ -16,9 +16,15 @@
 
 package org.springframework.security.access.expression;
 
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -134,4 +140,26 @@ public class SecurityExpressionRootTests {
 		assertThat(this.root.hasAnyAuthority("ROLE_A", "NOT")).isTrue();
 	}
 
+	@Test
+	public void hasPermissionsWhenDefaultImplementationThenBitSetPerPermission() {
+		this.root.setPermissionEvaluator(new PermissionEvaluator() {
+			@Override
+			public boolean hasPermission(Authentication authentication, Object targetDomainObject,
+					Object permission) {
+				return "read".equals(permission) || "mine".equals(targetDomainObject);
+			}
+
+			@Override
+			public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+					Object permission) {
+				return false;
+			}
+		});
+		Map<Object, BitSet> permissions = this.root.hasPermissions(Arrays.asList("mine", null, "theirs"),
+				Arrays.asList("read", "write"));
+		assertThat(permissions).containsOnlyKeys("read", "write");
+		assertThat(permissions.get("read").stream()).containsExactly(0, 2);
+		assertThat(permissions.get("write").stream()).containsExactly(0);
+	}
+
 }
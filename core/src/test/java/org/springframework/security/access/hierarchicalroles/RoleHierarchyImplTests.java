@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.security.access.hierarchicalroles;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -47,6 +48,29 @@ public class RoleHierarchyImplTests {
 		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities1)).isEmpty();
 	}
 
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCalledTwiceThenIndependentResults() {
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_A");
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		Collection<GrantedAuthority> first = roleHierarchyImpl.getReachableGrantedAuthorities(authorities);
+		first.clear();
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(new ArrayList<>(authorities)))
+				.extracting(GrantedAuthority::getAuthority).containsOnly("ROLE_A", "ROLE_B");
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenHierarchyChangedThenNotStale() {
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_A");
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_B");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.extracting(GrantedAuthority::getAuthority).containsOnly("ROLE_A", "ROLE_B");
+		roleHierarchyImpl.setHierarchy("ROLE_A > ROLE_C");
+		assertThat(roleHierarchyImpl.getReachableGrantedAuthorities(authorities))
+				.extracting(GrantedAuthority::getAuthority).containsOnly("ROLE_A", "ROLE_C");
+	}
+
 	@Test
 	public void testSimpleRoleHierarchy() {
 		List<GrantedAuthority> authorities0 = AuthorityUtils.createAuthorityList("ROLE_0");
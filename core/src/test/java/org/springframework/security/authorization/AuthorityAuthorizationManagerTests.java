@@ -272,4 +272,21 @@ public class AuthorityAuthorizationManagerTests {
 		AuthorityAuthorizationManager.hasAnyRole("", new String[] { "USER" });
 	}
 
+	@Test
+	public void checkWhenCalledTwiceThenSameDecision() {
+		AuthorityAuthorizationManager<Object> manager = AuthorityAuthorizationManager.hasAnyRole("ADMIN", "USER");
+		Supplier<Authentication> user = () -> new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		Supplier<Authentication> anonymous = () -> new TestingAuthenticationToken("anonymous", "password",
+				"ROLE_ANONYMOUS");
+		Object object = new Object();
+		AuthorizationDecision granted = manager.check(user, object);
+		assertThat(granted.isGranted()).isTrue();
+		assertThat(manager.check(user, object)).isSameAs(granted);
+		AuthorizationDecision denied = manager.check(anonymous, object);
+		assertThat(denied.isGranted()).isFalse();
+		assertThat(manager.check(anonymous, object)).isSameAs(denied);
+		assertThat(((AuthorityAuthorizationDecision) denied).getAuthorities())
+				.extracting(GrantedAuthority::getAuthority).containsOnly("ROLE_ADMIN", "ROLE_USER");
+	}
+
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.data.repository.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.spel.spi.EvaluationContextExtension;
+import org.springframework.security.acls.domain.DefaultPermissionFactory;
+import org.springframework.security.acls.domain.GrantedAuthoritySid;
+import org.springframework.security.acls.domain.PermissionFactory;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.domain.SidRetrievalStrategyImpl;
+import org.springframework.security.acls.model.Permission;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.security.acls.model.SidRetrievalStrategy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * By defining this object as a Bean, the {@link Sid}s of the current
+ * {@link Authentication} and the masks of ACL permissions are exposed as SpEL
+ * expressions for creating Spring Data queries. This allows a query to join the ACL
+ * tables itself, so that only the rows the current user has been granted access to are
+ * loaded and pagination still applies, instead of loading every row and discarding most
+ * of them with {@code @PostFilter} or
+ * {@code AclEntryAfterInvocationCollectionFilteringProvider}.
+ *
+ * <p>
+ * For example, using the default ACL schema, the following query only returns the
+ * messages on which the current user, or one of their authorities, has been granted
+ * {@code READ} and none of their {@link Sid}s has been denied it:
+ *
+ * <pre>
+ * &#064;Repository
+ * public interface SecurityMessageRepository extends MessageRepository {
+ *
+ * 	&#064;Query(value = &quot;select m.* from message m where exists (&quot;
+ * 			+ &quot;select 1 from acl_object_identity oi &quot;
+ * 			+ &quot;join acl_class c on c.id = oi.object_id_class &quot;
+ * 			+ &quot;join acl_entry e on e.acl_object_identity = oi.id &quot;
+ * 			+ &quot;join acl_sid s on s.id = e.sid &quot;
+ * 			+ &quot;where c.class = 'sample.Message' and oi.object_id_identity = cast(m.id as varchar(36)) &quot;
+ * 			+ &quot;and s.sid in ?#{ aclSids.isEmpty() ? {''} : aclSids } &quot;
+ * 			+ &quot;and e.mask = ?#{ aclMask('READ') } and e.granting = true &quot;
+ * 			+ &quot;and not exists (select 1 from acl_entry d join acl_sid ds on ds.id = d.sid &quot;
+ * 			+ &quot;where d.acl_object_identity = oi.id and ds.sid in ?#{ aclSids.isEmpty() ? {''} : aclSids } &quot;
+ * 			+ &quot;and d.mask = e.mask and d.granting = false))&quot;,
+ * 			nativeQuery = true)
+ * 	Page&lt;Message&gt; findAll(Pageable pageable);
+ * }
+ * </pre>
+ *
+ * <p>
+ * {@code DefaultPermissionGrantingStrategy} decides with the first entry of the first
+ * {@link Sid}, in the order returned by the {@link SidRetrievalStrategy}, that has an
+ * entry for the permission. That order is not known to the database, so the query
+ * above excludes an object as soon as any of the {@link Sid}s is denied the permission.
+ * It may therefore exclude objects that {@code AclPermissionEvaluator} would grant
+ * access to, but never includes one that it would deny access to. Do not relax it to
+ * only look at earlier entries: for example, an entry granting {@code READ} to
+ * {@code ROLE_USER} followed by one denying it to the principal is a denial.
+ *
+ * <p>
+ * The {@link Sid} lists are empty when there is no {@link Authentication}. Since
+ * {@code in ()} is not valid SQL, the query above replaces an empty list with a single
+ * empty name, which matches no {@link Sid}.
+ *
+ * <p>
+ * Note that, unlike {@code AclPermissionEvaluator}, such a query only considers the
+ * entries of the object itself. If ACL inheritance is used, the query needs to also
+ * consider the entries of the parent objects.
+ *
+ * <p>
+ * {@link #getAclSids()} contains both principal and authority sids. When a principal
+ * and an authority can have the same name, use {@link #getAclPrincipalSids()} and
+ * {@link #getAclAuthoritySids()} together with {@code acl_sid.principal} instead.
+ *
+ * @since 6.2
+ * @see SecurityEvaluationContextExtension
+ */
+public class AclEvaluationContextExtension implements EvaluationContextExtension {
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+			.getContextHolderStrategy();
+
+	private Authentication authentication;
+
+	private SidRetrievalStrategy sidRetrievalStrategy = new SidRetrievalStrategyImpl();
+
+	private PermissionFactory permissionFactory = new DefaultPermissionFactory();
+
+	/**
+	 * Creates a new instance that uses the current {@link Authentication} found on the
+	 * {@link org.springframework.security.core.context.SecurityContextHolder}.
+	 */
+	public AclEvaluationContextExtension() {
+	}
+
+	/**
+	 * Creates a new instance that always uses the same {@link Authentication} object.
+	 * @param authentication the {@link Authentication} to use
+	 */
+	public AclEvaluationContextExtension(Authentication authentication) {
+		this.authentication = authentication;
+	}
+
+	@Override
+	public String getExtensionId() {
+		return "acl";
+	}
+
+	@Override
+	public AclEvaluationContextExtension getRootObject() {
+		return this;
+	}
+
+	/**
+	 * Returns the names of all the {@link Sid}s of the current {@link Authentication}, as
+	 * stored in {@code acl_sid.sid}.
+	 * @return the names of the {@link Sid}s, never empty when authenticated
+	 */
+	public List<String> getAclSids() {
+		List<String> sids = new ArrayList<>();
+		for (Sid sid : getSids()) {
+			if (sid instanceof PrincipalSid principalSid) {
+				sids.add(principalSid.getPrincipal());
+			}
+			else if (sid instanceof GrantedAuthoritySid authoritySid) {
+				sids.add(authoritySid.getGrantedAuthority());
+			}
+		}
+		return sids;
+	}
+
+	/**
+	 * Returns the names of the {@link PrincipalSid}s of the current
+	 * {@link Authentication}.
+	 * @return the names of the principal {@link Sid}s
+	 */
+	public List<String> getAclPrincipalSids() {
+		List<String> sids = new ArrayList<>();
+		for (Sid sid : getSids()) {
+			if (sid instanceof PrincipalSid principalSid) {
+				sids.add(principalSid.getPrincipal());
+			}
+		}
+		return sids;
+	}
+
+	/**
+	 * Returns the names of the {@link GrantedAuthoritySid}s of the current
+	 * {@link Authentication}.
+	 * @return the names of the authority {@link Sid}s
+	 */
+	public List<String> getAclAuthoritySids() {
+		List<String> sids = new ArrayList<>();
+		for (Sid sid : getSids()) {
+			if (sid instanceof GrantedAuthoritySid authoritySid) {
+				sids.add(authoritySid.getGrantedAuthority());
+			}
+		}
+		return sids;
+	}
+
+	/**
+	 * Resolves the mask, as stored in {@code acl_entry.mask}, of the given permission.
+	 * @param permission an {@link Integer} mask, a {@link Permission} or the name of a
+	 * permission known to the configured {@link PermissionFactory}
+	 * @return the mask of the permission
+	 */
+	public int aclMask(Object permission) {
+		if (permission instanceof Integer mask) {
+			return mask;
+		}
+		if (permission instanceof Permission p) {
+			return p.getMask();
+		}
+		if (permission instanceof String name) {
+			return buildPermission(name).getMask();
+		}
+		throw new IllegalArgumentException("Unsupported permission: " + permission);
+	}
+
+	private Permission buildPermission(String name) {
+		try {
+			return this.permissionFactory.buildFromName(name);
+		}
+		catch (IllegalArgumentException ex) {
+			return this.permissionFactory.buildFromName(name.toUpperCase(Locale.ENGLISH));
+		}
+	}
+
+	private List<Sid> getSids() {
+		Authentication authentication = getAuthentication();
+		if (authentication == null) {
+			return Collections.emptyList();
+		}
+		return this.sidRetrievalStrategy.getSids(authentication);
+	}
+
+	private Authentication getAuthentication() {
+		if (this.authentication != null) {
+			return this.authentication;
+		}
+		return this.securityContextHolderStrategy.getContext().getAuthentication();
+	}
+
+	/**
+	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
+	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
+	 * @param securityContextHolderStrategy the {@link SecurityContextHolderStrategy} to
+	 * use
+	 */
+	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	/**
+	 * Sets the {@link SidRetrievalStrategy} to be used. Default is
+	 * {@link SidRetrievalStrategyImpl}. Cannot be null.
+	 * @param sidRetrievalStrategy the {@link SidRetrievalStrategy} to use
+	 */
+	public void setSidRetrievalStrategy(SidRetrievalStrategy sidRetrievalStrategy) {
+		Assert.notNull(sidRetrievalStrategy, "sidRetrievalStrategy cannot be null");
+		this.sidRetrievalStrategy = sidRetrievalStrategy;
+	}
+
+	/**
+	 * Sets the {@link PermissionFactory} used to resolve permission names. Default is
+	 * {@link DefaultPermissionFactory}. Cannot be null.
+	 * @param permissionFactory the {@link PermissionFactory} to use
+	 */
+	public void setPermissionFactory(PermissionFactory permissionFactory) {
+		Assert.notNull(permissionFactory, "permissionFactory cannot be null");
+		this.permissionFactory = permissionFactory;
+	}
+
+}
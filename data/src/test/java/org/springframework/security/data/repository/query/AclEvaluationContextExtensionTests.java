@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.data.repository.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link AclEvaluationContextExtension}.
+ */
+public class AclEvaluationContextExtensionTests {
+
+	private final AclEvaluationContextExtension aclExtension = new AclEvaluationContextExtension();
+
+	@AfterEach
+	public void cleanup() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void getExtensionIdThenAcl() {
+		assertThat(this.aclExtension.getExtensionId()).isEqualTo("acl");
+	}
+
+	@Test
+	public void getAclSidsWhenAuthenticatedThenPrincipalAndAuthorities() {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new TestingAuthenticationToken("user", "password", "ROLE_USER", "ROLE_ADMIN"));
+		assertThat(getRoot().getAclSids()).containsExactly("user", "ROLE_USER", "ROLE_ADMIN");
+		assertThat(getRoot().getAclPrincipalSids()).containsExactly("user");
+		assertThat(getRoot().getAclAuthoritySids()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+	}
+
+	@Test
+	public void getAclSidsWhenNotAuthenticatedThenEmpty() {
+		assertThat(getRoot().getAclSids()).isEmpty();
+	}
+
+	@Test
+	public void getAclSidsWhenExplicitAuthenticationThenUsesIt() {
+		AclEvaluationContextExtension extension = new AclEvaluationContextExtension(
+				new TestingAuthenticationToken("explicit", "password", "ROLE_USER"));
+		SecurityContextHolder.getContext()
+				.setAuthentication(new TestingAuthenticationToken("user", "password", "ROLE_ADMIN"));
+		assertThat(extension.getRootObject().getAclSids()).containsExactly("explicit", "ROLE_USER");
+	}
+
+	@Test
+	public void getAclSidsWhenCustomSecurityContextHolderStrategyThenUsesIt() {
+		SecurityContextHolderStrategy strategy = mock(SecurityContextHolderStrategy.class);
+		given(strategy.getContext()).willReturn(
+				new SecurityContextImpl(new TestingAuthenticationToken("custom", "password", "ROLE_USER")));
+		this.aclExtension.setSecurityContextHolderStrategy(strategy);
+		assertThat(getRoot().getAclPrincipalSids()).containsExactly("custom");
+	}
+
+	@Test
+	public void aclMaskWhenNameThenResolvesMask() {
+		assertThat(getRoot().aclMask("READ")).isEqualTo(BasePermission.READ.getMask());
+		assertThat(getRoot().aclMask("write")).isEqualTo(BasePermission.WRITE.getMask());
+	}
+
+	@Test
+	public void aclMaskWhenPermissionOrIntegerThenMask() {
+		assertThat(getRoot().aclMask(BasePermission.DELETE)).isEqualTo(BasePermission.DELETE.getMask());
+		assertThat(getRoot().aclMask(16)).isEqualTo(16);
+	}
+
+	@Test
+	public void aclMaskWhenUnsupportedThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> getRoot().aclMask(1L));
+	}
+
+	@Test
+	public void setSidRetrievalStrategyWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.aclExtension.setSidRetrievalStrategy(null));
+	}
+
+	@Test
+	public void setPermissionFactoryWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.aclExtension.setPermissionFactory(null));
+	}
+
+	private AclEvaluationContextExtension getRoot() {
+		return this.aclExtension.getRootObject();
+	}
+
+}
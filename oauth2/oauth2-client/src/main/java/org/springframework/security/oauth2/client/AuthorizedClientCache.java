@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded, in-process cache of {@link OAuth2AuthorizedClient Authorized Client(s)}
+ * placed in front of a database-backed authorized client service.
+ *
+ * <p>
+ * Every write made through the service bumps a version. A client loaded from the
+ * database is only cached if no write happened since the load started, so that a slow
+ * load never overwrites the result of a concurrent save or remove. This only covers
+ * writes made through the same service instance: nothing invalidates the cache when
+ * another node writes to the database, so such changes go unnoticed until the entry
+ * expires after its time-to-live.
+ *
+ * <p>
+ * Reads do not lock. Once the cache grows past its maximum size, expired entries are
+ * evicted, then the entries that were cached the longest ago.
+ *
+ * @since 6.2
+ */
+final class AuthorizedClientCache {
+
+	private final long timeToLiveNanos;
+
+	private final int maxSize;
+
+	private final Map<OAuth2AuthorizedClientId, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicLong version = new AtomicLong();
+
+	private final Object evictionMonitor = new Object();
+
+	AuthorizedClientCache(Duration timeToLive, int maxSize) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		Assert.isTrue(maxSize > 0, "maxSize must be positive");
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached client, or {@code null} if there is none or it expired.
+	 * @param id the id of the authorized client
+	 * @return the cached client or {@code null}
+	 */
+	OAuth2AuthorizedClient get(OAuth2AuthorizedClientId id) {
+		Entry entry = this.entries.get(id);
+		if (entry == null) {
+			return null;
+		}
+		if (isExpired(entry, System.nanoTime())) {
+			this.entries.remove(id, entry);
+			return null;
+		}
+		return entry.authorizedClient;
+	}
+
+	/**
+	 * Returns the current version, to be passed to {@link #putIfUnchanged} once a load
+	 * from the database completes.
+	 * @return the current version
+	 */
+	long getVersion() {
+		return this.version.get();
+	}
+
+	/**
+	 * Caches a client loaded from the database, unless a write happened since
+	 * {@code version} was obtained.
+	 * @param id the id of the authorized client
+	 * @param authorizedClient the loaded client
+	 * @param version the version obtained before the load started
+	 */
+	void putIfUnchanged(OAuth2AuthorizedClientId id, OAuth2AuthorizedClient authorizedClient, long version) {
+		// writes to the same id bump the version under the same lock, see put and remove
+		this.entries.compute(id,
+				(key, entry) -> (this.version.get() == version) ? new Entry(authorizedClient) : entry);
+		evictIfNecessary();
+	}
+
+	/**
+	 * Caches a client that is being saved.
+	 * @param id the id of the authorized client
+	 * @param authorizedClient the saved client
+	 */
+	void put(OAuth2AuthorizedClientId id, OAuth2AuthorizedClient authorizedClient) {
+		this.entries.compute(id, (key, entry) -> {
+			this.version.incrementAndGet();
+			return new Entry(authorizedClient);
+		});
+		evictIfNecessary();
+	}
+
+	/**
+	 * Removes a client that is being saved or removed.
+	 * @param id the id of the authorized client
+	 */
+	void remove(OAuth2AuthorizedClientId id) {
+		this.entries.compute(id, (key, entry) -> {
+			this.version.incrementAndGet();
+			return null;
+		});
+	}
+
+	private void evictIfNecessary() {
+		if (this.entries.size() <= this.maxSize) {
+			return;
+		}
+		synchronized (this.evictionMonitor) {
+			if (this.entries.size() <= this.maxSize) {
+				return;
+			}
+			long now = System.nanoTime();
+			this.entries.values().removeIf((entry) -> isExpired(entry, now));
+			// leave some headroom, so that the next puts do not evict again right away
+			int excess = this.entries.size() - this.maxSize + this.maxSize / 10;
+			if (excess <= 0) {
+				return;
+			}
+			// @formatter:off
+			this.entries.entrySet().stream()
+					.sorted(Comparator.comparingLong((e) -> e.getValue().cachedAt))
+					.limit(excess)
+					.collect(Collectors.toList())
+					.forEach((e) -> this.entries.remove(e.getKey(), e.getValue()));
+			// @formatter:on
+		}
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return now - entry.cachedAt > this.timeToLiveNanos;
+	}
+
+	private static final class Entry {
+
+		private final OAuth2AuthorizedClient authorizedClient;
+
+		private final long cachedAt = System.nanoTime();
+
+		private Entry(OAuth2AuthorizedClient authorizedClient) {
+			this.authorizedClient = authorizedClient;
+		}
+
+	}
+
+}
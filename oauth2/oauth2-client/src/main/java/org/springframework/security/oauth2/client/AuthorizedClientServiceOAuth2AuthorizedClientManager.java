@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,9 @@ package org.springframework.security.oauth2.client;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.springframework.lang.Nullable;
@@ -89,6 +92,10 @@ public final class AuthorizedClientServiceOAuth2AuthorizedClientManager implemen
 
 	private OAuth2AuthorizationFailureHandler authorizationFailureHandler;
 
+	private final Map<OAuth2AuthorizedClientId, CompletableFuture<OAuth2AuthorizedClient>> inFlightAuthorizations = new ConcurrentHashMap<>();
+
+	private boolean coalesceAuthorizations;
+
 	/**
 	 * Constructs an {@code AuthorizedClientServiceOAuth2AuthorizedClientManager} using
 	 * the provided parameters.
@@ -115,6 +122,45 @@ public final class AuthorizedClientServiceOAuth2AuthorizedClientManager implemen
 	@Override
 	public OAuth2AuthorizedClient authorize(OAuth2AuthorizeRequest authorizeRequest) {
 		Assert.notNull(authorizeRequest, "authorizeRequest cannot be null");
+		String principalName = authorizeRequest.getPrincipal().getName();
+		if (!this.coalesceAuthorizations || !StringUtils.hasText(principalName)) {
+			return doAuthorize(authorizeRequest);
+		}
+		OAuth2AuthorizedClientId authorizedClientId = new OAuth2AuthorizedClientId(
+				authorizeRequest.getClientRegistrationId(), principalName);
+		CompletableFuture<OAuth2AuthorizedClient> authorization = new CompletableFuture<>();
+		CompletableFuture<OAuth2AuthorizedClient> inFlight = this.inFlightAuthorizations
+				.putIfAbsent(authorizedClientId, authorization);
+		if (inFlight != null) {
+			return await(inFlight);
+		}
+		try {
+			OAuth2AuthorizedClient authorizedClient = doAuthorize(authorizeRequest);
+			authorization.complete(authorizedClient);
+			return authorizedClient;
+		}
+		catch (RuntimeException ex) {
+			authorization.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlightAuthorizations.remove(authorizedClientId, authorization);
+		}
+	}
+
+	private static OAuth2AuthorizedClient await(CompletableFuture<OAuth2AuthorizedClient> authorization) {
+		try {
+			return authorization.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw ex;
+		}
+	}
+
+	private OAuth2AuthorizedClient doAuthorize(OAuth2AuthorizeRequest authorizeRequest) {
 		String clientRegistrationId = authorizeRequest.getClientRegistrationId();
 		OAuth2AuthorizedClient authorizedClient = authorizeRequest.getAuthorizedClient();
 		Authentication principal = authorizeRequest.getPrincipal();
@@ -233,6 +279,20 @@ public final class AuthorizedClientServiceOAuth2AuthorizedClientManager implemen
 		this.authorizationFailureHandler = authorizationFailureHandler;
 	}
 
+	/**
+	 * Sets whether concurrent authorizations for the same client registration and
+	 * principal are coalesced. When {@code true}, a call to {@link #authorize} that
+	 * arrives while another one for the same client registration id and principal name
+	 * is in progress waits for it and returns its result, or throws its exception,
+	 * instead of authorizing on its own. This avoids sending many identical token
+	 * requests when a shared access token expires. Defaults to {@code false}.
+	 * @param coalesceAuthorizations whether concurrent authorizations are coalesced
+	 * @since 6.2
+	 */
+	public void setCoalesceAuthorizations(boolean coalesceAuthorizations) {
+		this.coalesceAuthorizations = coalesceAuthorizations;
+	}
+
 	/**
 	 * The default implementation of the {@link #setContextAttributesMapper(Function)
 	 * contextAttributesMapper}.
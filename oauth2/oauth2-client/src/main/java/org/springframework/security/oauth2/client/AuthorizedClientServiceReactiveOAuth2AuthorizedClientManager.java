@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package org.springframework.security.oauth2.client;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import reactor.core.publisher.Mono;
@@ -27,6 +30,7 @@ import org.springframework.security.oauth2.client.registration.ReactiveClientReg
 import org.springframework.security.oauth2.client.web.DefaultReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
@@ -97,6 +101,10 @@ public final class AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager
 
 	private ReactiveOAuth2AuthorizationFailureHandler authorizationFailureHandler;
 
+	private final Map<AuthorizationKey, Mono<OAuth2AuthorizedClient>> inFlightAuthorizations = new ConcurrentHashMap<>();
+
+	private boolean coalesceAuthorizations;
+
 	/**
 	 * Constructs an {@code AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager}
 	 * using the provided parameters.
@@ -120,6 +128,27 @@ public final class AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager
 	@Override
 	public Mono<OAuth2AuthorizedClient> authorize(OAuth2AuthorizeRequest authorizeRequest) {
 		Assert.notNull(authorizeRequest, "authorizeRequest cannot be null");
+		String principalName = authorizeRequest.getPrincipal().getName();
+		if (!this.coalesceAuthorizations || !StringUtils.hasText(principalName)) {
+			return doAuthorize(authorizeRequest);
+		}
+		AuthorizationKey authorizationKey = new AuthorizationKey(authorizeRequest);
+		return Mono.defer(() -> this.inFlightAuthorizations.computeIfAbsent(authorizationKey,
+				(key) -> coalescedAuthorize(key, authorizeRequest)));
+	}
+
+	private Mono<OAuth2AuthorizedClient> coalescedAuthorize(AuthorizationKey key,
+			OAuth2AuthorizeRequest authorizeRequest) {
+		AtomicReference<Mono<OAuth2AuthorizedClient>> authorization = new AtomicReference<>();
+		// @formatter:off
+		authorization.set(doAuthorize(authorizeRequest)
+				.doFinally((signal) -> this.inFlightAuthorizations.remove(key, authorization.get()))
+				.cache());
+		// @formatter:on
+		return authorization.get();
+	}
+
+	private Mono<OAuth2AuthorizedClient> doAuthorize(OAuth2AuthorizeRequest authorizeRequest) {
 		return createAuthorizationContext(authorizeRequest)
 				.flatMap((authorizationContext) -> authorize(authorizationContext, authorizeRequest.getPrincipal()));
 	}
@@ -230,6 +259,61 @@ public final class AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager
 		this.authorizationFailureHandler = authorizationFailureHandler;
 	}
 
+	/**
+	 * Sets whether concurrent authorizations for the same request are coalesced. When
+	 * {@code true}, a call to {@link #authorize} that arrives while another one with an
+	 * equal client registration id, principal, authorized client and attributes is in
+	 * progress waits for it and returns its result, or throws its exception, instead of
+	 * authorizing on its own. This avoids sending many identical token
+	 * requests when a shared access token expires. Defaults to {@code false}.
+	 * @param coalesceAuthorizations whether concurrent authorizations are coalesced
+	 * @since 6.2
+	 */
+	public void setCoalesceAuthorizations(boolean coalesceAuthorizations) {
+		this.coalesceAuthorizations = coalesceAuthorizations;
+	}
+
+	/**
+	 * The parts of an {@link OAuth2AuthorizeRequest} that determine the result of an
+	 * authorization, including the attributes the context attributes are mapped from.
+	 */
+	private static final class AuthorizationKey {
+
+		private final String clientRegistrationId;
+
+		private final Authentication principal;
+
+		private final OAuth2AuthorizedClient authorizedClient;
+
+		private final Map<String, Object> attributes;
+
+		private AuthorizationKey(OAuth2AuthorizeRequest authorizeRequest) {
+			this.clientRegistrationId = authorizeRequest.getClientRegistrationId();
+			this.principal = authorizeRequest.getPrincipal();
+			this.authorizedClient = authorizeRequest.getAuthorizedClient();
+			this.attributes = authorizeRequest.getAttributes();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof AuthorizationKey other)) {
+				return false;
+			}
+			return this.clientRegistrationId.equals(other.clientRegistrationId)
+					&& this.principal.equals(other.principal) && this.authorizedClient == other.authorizedClient
+					&& this.attributes.equals(other.attributes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.clientRegistrationId, this.principal, this.attributes);
+		}
+
+	}
+
 	/**
 	 * The default implementation of the {@link #setContextAttributesMapper(Function)
 	 * contextAttributesMapper}.
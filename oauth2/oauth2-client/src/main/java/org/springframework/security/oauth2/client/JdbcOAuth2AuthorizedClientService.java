@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,18 +20,34 @@ import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.RowMapper;
@@ -58,6 +74,11 @@ import org.springframework.util.StringUtils;
  * "classpath:org/springframework/security/oauth2/client/oauth2-client-schema.sql" and
  * therefore MUST be defined in the database schema.
  *
+ * <p>
+ * Optionally, loaded and saved authorized clients can be kept in a bounded local cache
+ * (see {@link #setCacheTimeToLive(Duration)}) and saves can be written to the database
+ * in batches in the background (see {@link #setWriteBehindInterval(Duration)}).
+ *
  * @author Joe Grandja
  * @author Stav Shamir
  * @author Craig Andrews
@@ -67,7 +88,11 @@ import org.springframework.util.StringUtils;
  * @see JdbcOperations
  * @see RowMapper
  */
-public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClientService {
+public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClientService, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(JdbcOAuth2AuthorizedClientService.class);
+
+	private static final int MAX_WRITE_ATTEMPTS = 3;
 
 	// @formatter:off
 	private static final String COLUMN_NAMES = "client_registration_id, "
@@ -85,6 +110,8 @@ public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClient
 
 	private static final String PK_FILTER = "client_registration_id = ? AND principal_name = ?";
 
+	private static final String PRINCIPAL_FILTER = "principal_name = ? AND client_registration_id IN ";
+
 	// @formatter:off
 	private static final String LOAD_AUTHORIZED_CLIENT_SQL = "SELECT " + COLUMN_NAMES
 			+ " FROM " + TABLE_NAME
@@ -114,6 +141,30 @@ public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClient
 
 	protected final LobHandler lobHandler;
 
+	private final Map<OAuth2AuthorizedClientId, PendingWrite> pendingWrites = new LinkedHashMap<>();
+
+	private final Object flushMonitor = new Object();
+
+	private final Object writeBehindSchedulerMonitor = new Object();
+
+	private final AtomicBoolean backgroundFlushSubmitted = new AtomicBoolean();
+
+	private Duration cacheTimeToLive = Duration.ZERO;
+
+	private int cacheMaximumSize = 1000;
+
+	private AuthorizedClientCache cache;
+
+	private int writeBehindBatchSize = 100;
+
+	private int writeBehindMaximumPendingWrites = 10000;
+
+	private ScheduledFuture<?> writeBehindFlush;
+
+	private ScheduledExecutorService writeBehindScheduler;
+
+	private volatile ScheduledExecutorService ownedWriteBehindScheduler;
+
 	/**
 	 * Constructs a {@code JdbcOAuth2AuthorizedClientService} using the provided
 	 * parameters.
@@ -153,51 +204,153 @@ public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClient
 			String principalName) {
 		Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
 		Assert.hasText(principalName, "principalName cannot be empty");
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(clientRegistrationId, principalName);
+		OAuth2AuthorizedClient authorizedClient = getLocalAuthorizedClient(id);
+		if (authorizedClient != null) {
+			return (T) authorizedClient;
+		}
+		AuthorizedClientCache cache = this.cache;
+		long version = (cache != null) ? cache.getVersion() : 0;
 		SqlParameterValue[] parameters = new SqlParameterValue[] {
 				new SqlParameterValue(Types.VARCHAR, clientRegistrationId),
 				new SqlParameterValue(Types.VARCHAR, principalName) };
 		PreparedStatementSetter pss = new ArgumentPreparedStatementSetter(parameters);
 		List<OAuth2AuthorizedClient> result = this.jdbcOperations.query(LOAD_AUTHORIZED_CLIENT_SQL, pss,
 				this.authorizedClientRowMapper);
-		return !result.isEmpty() ? (T) result.get(0) : null;
+		if (result.isEmpty()) {
+			return null;
+		}
+		if (cache != null) {
+			cache.putIfUnchanged(id, result.get(0), version);
+		}
+		return (T) result.get(0);
+	}
+
+	/**
+	 * Returns the {@link OAuth2AuthorizedClient Authorized Client(s)} of the given
+	 * principal for several client registrations at once. Clients that are not found in
+	 * the local cache or among the pending writes are loaded with a single query.
+	 * @param clientRegistrationIds the identifiers of the client registrations
+	 * @param principalName the name of the End-User {@code Principal} (Resource Owner)
+	 * @return the authorized clients that exist, keyed by client registration
+	 * identifier, in the order of {@code clientRegistrationIds}
+	 * @since 6.2
+	 */
+	public Map<String, OAuth2AuthorizedClient> loadAuthorizedClients(Collection<String> clientRegistrationIds,
+			String principalName) {
+		Assert.notEmpty(clientRegistrationIds, "clientRegistrationIds cannot be empty");
+		Assert.hasText(principalName, "principalName cannot be empty");
+		Map<String, OAuth2AuthorizedClient> authorizedClients = new LinkedHashMap<>();
+		List<SqlParameterValue> parameters = new ArrayList<>();
+		parameters.add(new SqlParameterValue(Types.VARCHAR, principalName));
+		for (String clientRegistrationId : clientRegistrationIds) {
+			Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
+			authorizedClients.put(clientRegistrationId, null);
+			OAuth2AuthorizedClient authorizedClient = getLocalAuthorizedClient(
+					new OAuth2AuthorizedClientId(clientRegistrationId, principalName));
+			if (authorizedClient != null) {
+				authorizedClients.put(clientRegistrationId, authorizedClient);
+			}
+			else {
+				parameters.add(new SqlParameterValue(Types.VARCHAR, clientRegistrationId));
+			}
+		}
+		if (parameters.size() > 1) {
+			AuthorizedClientCache cache = this.cache;
+			long version = (cache != null) ? cache.getVersion() : 0;
+			StringBuilder sql = new StringBuilder("SELECT ").append(COLUMN_NAMES)
+					.append(" FROM ")
+					.append(TABLE_NAME)
+					.append(" WHERE ")
+					.append(PRINCIPAL_FILTER)
+					.append("(?");
+			sql.append(", ?".repeat(parameters.size() - 2)).append(")");
+			PreparedStatementSetter pss = new ArgumentPreparedStatementSetter(parameters.toArray());
+			for (OAuth2AuthorizedClient authorizedClient : this.jdbcOperations.query(sql.toString(), pss,
+					this.authorizedClientRowMapper)) {
+				String clientRegistrationId = authorizedClient.getClientRegistration().getRegistrationId();
+				authorizedClients.put(clientRegistrationId, authorizedClient);
+				if (cache != null) {
+					cache.putIfUnchanged(new OAuth2AuthorizedClientId(clientRegistrationId, principalName),
+							authorizedClient, version);
+				}
+			}
+		}
+		authorizedClients.values().removeIf((authorizedClient) -> authorizedClient == null);
+		return authorizedClients;
+	}
+
+	private OAuth2AuthorizedClient getLocalAuthorizedClient(OAuth2AuthorizedClientId id) {
+		synchronized (this.pendingWrites) {
+			PendingWrite pendingWrite = this.pendingWrites.get(id);
+			if (pendingWrite != null) {
+				return pendingWrite.authorizedClient;
+			}
+		}
+		AuthorizedClientCache cache = this.cache;
+		return (cache != null) ? cache.get(id) : null;
 	}
 
 	@Override
 	public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
 		Assert.notNull(authorizedClient, "authorizedClient cannot be null");
 		Assert.notNull(principal, "principal cannot be null");
-		boolean existsAuthorizedClient = null != this.loadAuthorizedClient(
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(
 				authorizedClient.getClientRegistration().getRegistrationId(), principal.getName());
-		if (existsAuthorizedClient) {
-			updateAuthorizedClient(authorizedClient, principal);
+		List<SqlParameterValue> parameters = this.authorizedClientParametersMapper
+				.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal));
+		AuthorizedClientCache cache = this.cache;
+		if (this.writeBehindFlush != null) {
+			boolean pending = false;
+			boolean flush = false;
+			synchronized (this.pendingWrites) {
+				if (this.pendingWrites.containsKey(id)
+						|| this.pendingWrites.size() < this.writeBehindMaximumPendingWrites) {
+					this.pendingWrites.put(id, new PendingWrite(id, authorizedClient, parameters));
+					pending = true;
+					flush = this.pendingWrites.size() >= this.writeBehindBatchSize;
+				}
+			}
+			if (pending) {
+				if (cache != null) {
+					cache.put(id, authorizedClient);
+				}
+				if (flush) {
+					submitBackgroundFlush();
+				}
+				return;
+			}
+			// the database does not keep up, write this save immediately
+		}
+		if (cache != null) {
+			cache.remove(id);
+		}
+		saveAuthorizedClient(parameters);
+		if (cache != null) {
+			cache.put(id, authorizedClient);
 		}
-		else {
+	}
+
+	private void saveAuthorizedClient(List<SqlParameterValue> parameters) {
+		if (updateAuthorizedClient(parameters) == 0) {
 			try {
-				insertAuthorizedClient(authorizedClient, principal);
+				insertAuthorizedClient(parameters);
 			}
 			catch (DuplicateKeyException ex) {
-				updateAuthorizedClient(authorizedClient, principal);
+				updateAuthorizedClient(parameters);
 			}
 		}
 	}
 
-	private void updateAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
-		List<SqlParameterValue> parameters = this.authorizedClientParametersMapper
-				.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal));
-		SqlParameterValue clientRegistrationIdParameter = parameters.remove(0);
-		SqlParameterValue principalNameParameter = parameters.remove(0);
-		parameters.add(clientRegistrationIdParameter);
-		parameters.add(principalNameParameter);
+	private int updateAuthorizedClient(List<SqlParameterValue> parameters) {
 		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
 			PreparedStatementSetter pss = new LobCreatorArgumentPreparedStatementSetter(lobCreator,
-					parameters.toArray());
-			this.jdbcOperations.update(UPDATE_AUTHORIZED_CLIENT_SQL, pss);
+					toUpdateParameters(parameters).toArray());
+			return this.jdbcOperations.update(UPDATE_AUTHORIZED_CLIENT_SQL, pss);
 		}
 	}
 
-	private void insertAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
-		List<SqlParameterValue> parameters = this.authorizedClientParametersMapper
-				.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal));
+	private void insertAuthorizedClient(List<SqlParameterValue> parameters) {
 		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
 			PreparedStatementSetter pss = new LobCreatorArgumentPreparedStatementSetter(lobCreator,
 					parameters.toArray());
@@ -205,15 +358,327 @@ public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClient
 		}
 	}
 
+	private static List<SqlParameterValue> toUpdateParameters(List<SqlParameterValue> parameters) {
+		List<SqlParameterValue> updateParameters = new ArrayList<>(parameters.subList(2, parameters.size()));
+		updateParameters.add(parameters.get(0));
+		updateParameters.add(parameters.get(1));
+		return updateParameters;
+	}
+
 	@Override
 	public void removeAuthorizedClient(String clientRegistrationId, String principalName) {
 		Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
 		Assert.hasText(principalName, "principalName cannot be empty");
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(clientRegistrationId, principalName);
 		SqlParameterValue[] parameters = new SqlParameterValue[] {
 				new SqlParameterValue(Types.VARCHAR, clientRegistrationId),
 				new SqlParameterValue(Types.VARCHAR, principalName) };
 		PreparedStatementSetter pss = new ArgumentPreparedStatementSetter(parameters);
-		this.jdbcOperations.update(REMOVE_AUTHORIZED_CLIENT_SQL, pss);
+		synchronized (this.flushMonitor) {
+			synchronized (this.pendingWrites) {
+				this.pendingWrites.remove(id);
+			}
+			AuthorizedClientCache cache = this.cache;
+			if (cache != null) {
+				cache.remove(id);
+			}
+			this.jdbcOperations.update(REMOVE_AUTHORIZED_CLIENT_SQL, pss);
+			if (cache != null) {
+				// in case a concurrent load cached the row before it was deleted
+				cache.remove(id);
+			}
+		}
+	}
+
+	/**
+	 * Writes the saves that are pending because of
+	 * {@link #setWriteBehindInterval(Duration) write-behind} to the database, in
+	 * batches. Saves that cannot be written are kept for the next flush.
+	 * @since 6.2
+	 */
+	public void flush() {
+		synchronized (this.flushMonitor) {
+			List<PendingWrite> pendingWrites;
+			synchronized (this.pendingWrites) {
+				pendingWrites = new ArrayList<>(this.pendingWrites.values());
+			}
+			if (pendingWrites.isEmpty()) {
+				return;
+			}
+			for (int i = 0; i < pendingWrites.size(); i += this.writeBehindBatchSize) {
+				List<PendingWrite> batch = pendingWrites.subList(i,
+						Math.min(i + this.writeBehindBatchSize, pendingWrites.size()));
+				try {
+					saveAuthorizedClients(batch);
+				}
+				catch (RuntimeException ex) {
+					logger.debug("Failed to write a batch of authorized clients, writing them one by one", ex);
+					saveAuthorizedClientsOneByOne(batch);
+					continue;
+				}
+				synchronized (this.pendingWrites) {
+					for (PendingWrite pendingWrite : batch) {
+						this.pendingWrites.remove(pendingWrite.id, pendingWrite);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the given saves one at a time, so that a row the database rejects does not
+	 * hold back the others. A save that keeps failing is eventually dropped.
+	 */
+	private void saveAuthorizedClientsOneByOne(List<PendingWrite> pendingWrites) {
+		for (PendingWrite pendingWrite : pendingWrites) {
+			boolean done = true;
+			try {
+				saveAuthorizedClient(pendingWrite.parameters);
+			}
+			catch (RuntimeException ex) {
+				if (++pendingWrite.failedAttempts < MAX_WRITE_ATTEMPTS) {
+					logger.debug("Failed to write authorized client, it will be written during the next flush", ex);
+					done = false;
+				}
+				else {
+					logger.warn("Dropping authorized client of registration '"
+							+ pendingWrite.authorizedClient.getClientRegistration().getRegistrationId()
+							+ "' after " + MAX_WRITE_ATTEMPTS + " failed writes", ex);
+					AuthorizedClientCache cache = this.cache;
+					if (cache != null) {
+						cache.remove(pendingWrite.id);
+					}
+				}
+			}
+			if (done) {
+				synchronized (this.pendingWrites) {
+					this.pendingWrites.remove(pendingWrite.id, pendingWrite);
+				}
+			}
+		}
+	}
+
+	private void submitBackgroundFlush() {
+		if (!this.backgroundFlushSubmitted.compareAndSet(false, true)) {
+			// a flush is already on its way
+			return;
+		}
+		try {
+			getWriteBehindScheduler().execute(() -> {
+				this.backgroundFlushSubmitted.set(false);
+				flushInBackground();
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			this.backgroundFlushSubmitted.set(false);
+			logger.debug("Failed to submit a write of authorized clients, they will be written during the next flush",
+					ex);
+		}
+	}
+
+	private void flushInBackground() {
+		try {
+			flush();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to write authorized clients, they will be written during the next flush", ex);
+		}
+	}
+
+	private void saveAuthorizedClients(List<PendingWrite> pendingWrites) {
+		List<List<SqlParameterValue>> updates = new ArrayList<>(pendingWrites.size());
+		for (PendingWrite pendingWrite : pendingWrites) {
+			updates.add(toUpdateParameters(pendingWrite.parameters));
+		}
+		int[] updateCounts = batchUpdate(UPDATE_AUTHORIZED_CLIENT_SQL, updates);
+		List<List<SqlParameterValue>> inserts = new ArrayList<>();
+		List<List<SqlParameterValue>> unknown = new ArrayList<>();
+		for (int i = 0; i < pendingWrites.size(); i++) {
+			List<SqlParameterValue> parameters = pendingWrites.get(i).parameters;
+			if (i >= updateCounts.length || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+				// the driver does not tell whether the row exists
+				unknown.add(parameters);
+			}
+			else if (updateCounts[i] == 0) {
+				inserts.add(parameters);
+			}
+		}
+		if (!inserts.isEmpty()) {
+			try {
+				batchUpdate(SAVE_AUTHORIZED_CLIENT_SQL, inserts);
+			}
+			catch (DuplicateKeyException ex) {
+				unknown.addAll(inserts);
+			}
+		}
+		for (List<SqlParameterValue> parameters : unknown) {
+			saveAuthorizedClient(parameters);
+		}
+	}
+
+	private int[] batchUpdate(String sql, List<List<SqlParameterValue>> batch) {
+		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
+			return this.jdbcOperations.batchUpdate(sql, new BatchPreparedStatementSetter() {
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					new LobCreatorArgumentPreparedStatementSetter(lobCreator, batch.get(i).toArray()).setValues(ps);
+				}
+
+				@Override
+				public int getBatchSize() {
+					return batch.size();
+				}
+
+			});
+		}
+	}
+
+	/**
+	 * Stops the background {@link #setWriteBehindInterval(Duration) write-behind},
+	 * writes the pending saves to the database and shuts down the write-behind thread
+	 * owned by this service, if any.
+	 */
+	@Override
+	public void destroy() {
+		setWriteBehindInterval(Duration.ZERO);
+		synchronized (this.writeBehindSchedulerMonitor) {
+			if (this.ownedWriteBehindScheduler != null) {
+				this.ownedWriteBehindScheduler.shutdown();
+				this.ownedWriteBehindScheduler = null;
+			}
+		}
+	}
+
+	/**
+	 * Sets how long loaded and saved authorized clients are kept in a local cache, so
+	 * that loading them again does not query the database. The default is
+	 * {@link Duration#ZERO}, which disables the cache.
+	 *
+	 * <p>
+	 * The cache is local to this instance: saves and removes made through it update the
+	 * cache immediately, but nothing invalidates it when other applications or nodes
+	 * write to the same database. Those changes only become visible once the entry
+	 * expires, so when several nodes share the table, only enable the cache if serving
+	 * an authorized client that is up to {@code cacheTimeToLive} old is acceptable.
+	 * @param cacheTimeToLive how long authorized clients are cached
+	 * @since 6.2
+	 */
+	public final void setCacheTimeToLive(Duration cacheTimeToLive) {
+		Assert.notNull(cacheTimeToLive, "cacheTimeToLive cannot be null");
+		Assert.isTrue(!cacheTimeToLive.isNegative(), "cacheTimeToLive cannot be negative");
+		this.cacheTimeToLive = cacheTimeToLive;
+		this.cache = createCache();
+	}
+
+	/**
+	 * Sets the maximum number of authorized clients kept in the local cache. Expired
+	 * clients are evicted first, then the ones that were cached the longest ago. The
+	 * default is {@code 1000}.
+	 * @param cacheMaximumSize the maximum number of cached authorized clients
+	 * @since 6.2
+	 * @see #setCacheTimeToLive(Duration)
+	 */
+	public final void setCacheMaximumSize(int cacheMaximumSize) {
+		Assert.isTrue(cacheMaximumSize > 0, "cacheMaximumSize must be positive");
+		this.cacheMaximumSize = cacheMaximumSize;
+		this.cache = createCache();
+	}
+
+	private AuthorizedClientCache createCache() {
+		if (this.cacheTimeToLive.isZero()) {
+			return null;
+		}
+		return new AuthorizedClientCache(this.cacheTimeToLive, this.cacheMaximumSize);
+	}
+
+	/**
+	 * Sets the interval at which saved authorized clients are written to the database in
+	 * the background. When set, {@link #saveAuthorizedClient} only records the client,
+	 * which is returned by subsequent loads and written along with other pending saves
+	 * at the next interval, or as soon as {@link #setWriteBehindBatchSize(int)
+	 * writeBehindBatchSize} saves are pending. Saves are written immediately while
+	 * {@link #setWriteBehindMaximumPendingWrites(int) writeBehindMaximumPendingWrites}
+	 * are pending. When a batch fails, its saves are written one by one, and a save that
+	 * fails three times is dropped. Pending saves are lost if the application stops
+	 * without {@link #flush()} or {@link #destroy()} being called. The default is
+	 * {@link Duration#ZERO}, which writes each save immediately.
+	 * @param writeBehindInterval the interval between two writes to the database
+	 * @since 6.2
+	 */
+	public final void setWriteBehindInterval(Duration writeBehindInterval) {
+		Assert.notNull(writeBehindInterval, "writeBehindInterval cannot be null");
+		Assert.isTrue(!writeBehindInterval.isNegative(), "writeBehindInterval cannot be negative");
+		if (this.writeBehindFlush != null) {
+			this.writeBehindFlush.cancel(false);
+			this.writeBehindFlush = null;
+			flush();
+		}
+		if (!writeBehindInterval.isZero()) {
+			this.writeBehindFlush = getWriteBehindScheduler().scheduleWithFixedDelay(this::flushInBackground,
+					writeBehindInterval.toMillis(), writeBehindInterval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Sets the {@link ScheduledExecutorService} that writes pending saves to the
+	 * database when {@link #setWriteBehindInterval(Duration) write-behind} is enabled.
+	 * It is not shut down by this service. By default, a daemon thread owned by this
+	 * service is used, which is shut down by {@link #destroy()}. Must be set before the
+	 * write-behind interval.
+	 * @param writeBehindScheduler the {@link ScheduledExecutorService} to use
+	 * @since 6.2
+	 */
+	public final void setWriteBehindScheduler(ScheduledExecutorService writeBehindScheduler) {
+		Assert.notNull(writeBehindScheduler, "writeBehindScheduler cannot be null");
+		Assert.state(this.writeBehindFlush == null, "writeBehindScheduler must be set before writeBehindInterval");
+		this.writeBehindScheduler = writeBehindScheduler;
+	}
+
+	private ScheduledExecutorService getWriteBehindScheduler() {
+		if (this.writeBehindScheduler != null) {
+			return this.writeBehindScheduler;
+		}
+		ScheduledExecutorService scheduler = this.ownedWriteBehindScheduler;
+		if (scheduler != null) {
+			return scheduler;
+		}
+		synchronized (this.writeBehindSchedulerMonitor) {
+			if (this.ownedWriteBehindScheduler == null) {
+				this.ownedWriteBehindScheduler = Executors.newSingleThreadScheduledExecutor((task) -> {
+					Thread thread = new Thread(task, "oauth2-authorized-client-write-behind");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			return this.ownedWriteBehindScheduler;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of saves written to the database in a single batch, and
+	 * the number of pending saves that causes a write before the
+	 * {@link #setWriteBehindInterval(Duration) writeBehindInterval} elapses. The default
+	 * is {@code 100}.
+	 * @param writeBehindBatchSize the maximum number of saves per batch
+	 * @since 6.2
+	 */
+	public final void setWriteBehindBatchSize(int writeBehindBatchSize) {
+		Assert.isTrue(writeBehindBatchSize > 0, "writeBehindBatchSize must be positive");
+		this.writeBehindBatchSize = writeBehindBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of saves that wait to be written to the database when
+	 * {@link #setWriteBehindInterval(Duration) write-behind} is enabled. Once reached,
+	 * saves of other authorized clients are written immediately, until the pending saves
+	 * have been written. The default is {@code 10000}.
+	 * @param writeBehindMaximumPendingWrites the maximum number of pending saves
+	 * @since 6.2
+	 */
+	public final void setWriteBehindMaximumPendingWrites(int writeBehindMaximumPendingWrites) {
+		Assert.isTrue(writeBehindMaximumPendingWrites > 0, "writeBehindMaximumPendingWrites must be positive");
+		this.writeBehindMaximumPendingWrites = writeBehindMaximumPendingWrites;
 	}
 
 	/**
@@ -385,6 +850,28 @@ public class JdbcOAuth2AuthorizedClientService implements OAuth2AuthorizedClient
 
 	}
 
+	private static final class PendingWrite {
+
+		private final OAuth2AuthorizedClientId id;
+
+		private final OAuth2AuthorizedClient authorizedClient;
+
+		private final List<SqlParameterValue> parameters;
+
+		/**
+		 * Only accessed while holding the flush monitor.
+		 */
+		private int failedAttempts;
+
+		private PendingWrite(OAuth2AuthorizedClientId id, OAuth2AuthorizedClient authorizedClient,
+				List<SqlParameterValue> parameters) {
+			this.id = id;
+			this.authorizedClient = authorizedClient;
+			this.parameters = parameters;
+		}
+
+	}
+
 	private static final class LobCreatorArgumentPreparedStatementSetter extends ArgumentPreparedStatementSetter {
 
 		protected final LobCreator lobCreator;
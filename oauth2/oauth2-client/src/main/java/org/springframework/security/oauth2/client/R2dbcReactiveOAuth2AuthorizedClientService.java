@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,16 @@ package org.springframework.security.oauth2.client;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -34,6 +39,7 @@ import io.r2dbc.spi.RowMetadata;
 import reactor.core.publisher.Mono;
 
 import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.Parameter;
@@ -55,6 +61,10 @@ import org.springframework.util.StringUtils;
  * "classpath:org/springframework/security/oauth2/client/oauth2-client-schema.sql" and
  * therefore MUST be defined in the database schema.
  *
+ * <p>
+ * Optionally, loaded and saved authorized clients can be kept in a bounded local cache
+ * (see {@link #setCacheTimeToLive(Duration)}).
+ *
  * @author Ovidiu Popa
  * @since 5.5
  * @see ReactiveOAuth2AuthorizedClientService
@@ -93,6 +103,11 @@ public class R2dbcReactiveOAuth2AuthorizedClientService implements ReactiveOAuth
 				" :refreshTokenIssuedAt)";
 	// @formatter:on
 
+	// @formatter:off
+	private static final String LOAD_AUTHORIZED_CLIENTS_SQL = "SELECT " + COLUMN_NAMES + " FROM " + TABLE_NAME
+			+ " WHERE principal_name = :principalName AND client_registration_id IN (:clientRegistrationIds)";
+	// @formatter:on
+
 	private static final String REMOVE_AUTHORIZED_CLIENT_SQL = "DELETE FROM " + TABLE_NAME + " WHERE " + PK_FILTER;
 
 	// @formatter:off
@@ -116,6 +131,12 @@ public class R2dbcReactiveOAuth2AuthorizedClientService implements ReactiveOAuth
 
 	protected BiFunction<Row, RowMetadata, OAuth2AuthorizedClientHolder> authorizedClientRowMapper;
 
+	private Duration cacheTimeToLive = Duration.ZERO;
+
+	private int cacheMaximumSize = 1000;
+
+	private AuthorizedClientCache cache;
+
 	/**
 	 * Constructs a {@code R2dbcReactiveOAuth2AuthorizedClientService} using the provided
 	 * parameters.
@@ -138,12 +159,87 @@ public class R2dbcReactiveOAuth2AuthorizedClientService implements ReactiveOAuth
 			String principalName) {
 		Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
 		Assert.hasText(principalName, "principalName cannot be empty");
+		AuthorizedClientCache cache = this.cache;
+		if (cache == null) {
+			return (Mono<T>) loadAuthorizedClientFromDatabase(clientRegistrationId, principalName);
+		}
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(clientRegistrationId, principalName);
+		return Mono.defer(() -> {
+			OAuth2AuthorizedClient authorizedClient = cache.get(id);
+			if (authorizedClient != null) {
+				return Mono.just((T) authorizedClient);
+			}
+			long version = cache.getVersion();
+			return (Mono<T>) loadAuthorizedClientFromDatabase(clientRegistrationId, principalName)
+					.doOnNext((loaded) -> cache.putIfUnchanged(id, loaded, version));
+		});
+	}
 
-		return (Mono<T>) this.databaseClient.sql(LOAD_AUTHORIZED_CLIENT_SQL)
+	private Mono<OAuth2AuthorizedClient> loadAuthorizedClientFromDatabase(String clientRegistrationId,
+			String principalName) {
+		return this.databaseClient.sql(LOAD_AUTHORIZED_CLIENT_SQL)
 				.bind("clientRegistrationId", clientRegistrationId).bind("principalName", principalName)
 				.map(this.authorizedClientRowMapper).first().flatMap(this::getAuthorizedClient);
 	}
 
+	/**
+	 * Returns the {@link OAuth2AuthorizedClient Authorized Client(s)} of the given
+	 * principal for several client registrations at once. Clients that are not found in
+	 * the local cache are loaded with a single query.
+	 * @param clientRegistrationIds the identifiers of the client registrations
+	 * @param principalName the name of the End-User {@code Principal} (Resource Owner)
+	 * @return the authorized clients that exist, keyed by client registration
+	 * identifier, in the order of {@code clientRegistrationIds}
+	 * @since 6.2
+	 */
+	public Mono<Map<String, OAuth2AuthorizedClient>> loadAuthorizedClients(Collection<String> clientRegistrationIds,
+			String principalName) {
+		Assert.notEmpty(clientRegistrationIds, "clientRegistrationIds cannot be empty");
+		Assert.hasText(principalName, "principalName cannot be empty");
+		return Mono.defer(() -> {
+			AuthorizedClientCache cache = this.cache;
+			Map<String, OAuth2AuthorizedClient> authorizedClients = new LinkedHashMap<>();
+			List<String> uncachedClientRegistrationIds = new ArrayList<>();
+			for (String clientRegistrationId : clientRegistrationIds) {
+				Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
+				authorizedClients.put(clientRegistrationId, null);
+				OAuth2AuthorizedClient authorizedClient = (cache != null)
+						? cache.get(new OAuth2AuthorizedClientId(clientRegistrationId, principalName)) : null;
+				if (authorizedClient != null) {
+					authorizedClients.put(clientRegistrationId, authorizedClient);
+				}
+				else {
+					uncachedClientRegistrationIds.add(clientRegistrationId);
+				}
+			}
+			if (uncachedClientRegistrationIds.isEmpty()) {
+				return Mono.just(authorizedClients);
+			}
+			long version = (cache != null) ? cache.getVersion() : 0;
+			// @formatter:off
+			return this.databaseClient.sql(LOAD_AUTHORIZED_CLIENTS_SQL)
+					.bind("principalName", principalName)
+					.bind("clientRegistrationIds", uncachedClientRegistrationIds)
+					.map(this.authorizedClientRowMapper)
+					.all()
+					.concatMap(this::getAuthorizedClient)
+					.doOnNext((authorizedClient) -> {
+						String clientRegistrationId = authorizedClient.getClientRegistration().getRegistrationId();
+						authorizedClients.put(clientRegistrationId, authorizedClient);
+						if (cache != null) {
+							OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(clientRegistrationId,
+									principalName);
+							cache.putIfUnchanged(id, authorizedClient, version);
+						}
+					})
+					.then(Mono.fromSupplier(() -> {
+						authorizedClients.values().removeIf((authorizedClient) -> authorizedClient == null);
+						return authorizedClients;
+					}));
+			// @formatter:on
+		});
+	}
+
 	private Mono<OAuth2AuthorizedClient> getAuthorizedClient(OAuth2AuthorizedClientHolder authorizedClientHolder) {
 		return this.clientRegistrationRepository.findByRegistrationId(authorizedClientHolder.getClientRegistrationId())
 				.switchIfEmpty(
@@ -162,25 +258,41 @@ public class R2dbcReactiveOAuth2AuthorizedClientService implements ReactiveOAuth
 	public Mono<Void> saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
 		Assert.notNull(authorizedClient, "authorizedClient cannot be null");
 		Assert.notNull(principal, "principal cannot be null");
-		return this
-				.loadAuthorizedClient(authorizedClient.getClientRegistration().getRegistrationId(), principal.getName())
-				.flatMap((dbAuthorizedClient) -> updateAuthorizedClient(authorizedClient, principal))
-				.switchIfEmpty(Mono.defer(() -> insertAuthorizedClient(authorizedClient, principal))).then();
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(
+				authorizedClient.getClientRegistration().getRegistrationId(), principal.getName());
+		return Mono.defer(() -> {
+			Map<String, Parameter> parameters = this.authorizedClientParametersMapper
+					.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal));
+			AuthorizedClientCache cache = this.cache;
+			if (cache != null) {
+				cache.remove(id);
+			}
+			// @formatter:off
+			return updateAuthorizedClient(parameters)
+					.flatMap((rowsUpdated) -> (rowsUpdated != 0) ? Mono.just(rowsUpdated)
+							: insertAuthorizedClient(parameters).onErrorResume(DuplicateKeyException.class,
+									(ex) -> updateAuthorizedClient(parameters)))
+					.doOnSuccess((rowsUpdated) -> {
+						if (cache != null) {
+							cache.put(id, authorizedClient);
+						}
+					})
+					.then();
+			// @formatter:on
+		});
 	}
 
-	private Mono<Long> updateAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+	private Mono<Long> updateAuthorizedClient(Map<String, Parameter> parameters) {
 		GenericExecuteSpec executeSpec = this.databaseClient.sql(UPDATE_AUTHORIZED_CLIENT_SQL);
-		for (Entry<String, Parameter> entry : this.authorizedClientParametersMapper
-				.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal)).entrySet()) {
+		for (Entry<String, Parameter> entry : parameters.entrySet()) {
 			executeSpec = executeSpec.bind(entry.getKey(), entry.getValue());
 		}
 		return executeSpec.fetch().rowsUpdated();
 	}
 
-	private Mono<Long> insertAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+	private Mono<Long> insertAuthorizedClient(Map<String, Parameter> parameters) {
 		GenericExecuteSpec executeSpec = this.databaseClient.sql(SAVE_AUTHORIZED_CLIENT_SQL);
-		for (Entry<String, Parameter> entry : this.authorizedClientParametersMapper
-				.apply(new OAuth2AuthorizedClientHolder(authorizedClient, principal)).entrySet()) {
+		for (Entry<String, Parameter> entry : parameters.entrySet()) {
 			executeSpec = executeSpec.bind(entry.getKey(), entry.getValue());
 		}
 		return executeSpec.fetch().rowsUpdated();
@@ -190,8 +302,55 @@ public class R2dbcReactiveOAuth2AuthorizedClientService implements ReactiveOAuth
 	public Mono<Void> removeAuthorizedClient(String clientRegistrationId, String principalName) {
 		Assert.hasText(clientRegistrationId, "clientRegistrationId cannot be empty");
 		Assert.hasText(principalName, "principalName cannot be empty");
-		return this.databaseClient.sql(REMOVE_AUTHORIZED_CLIENT_SQL).bind("clientRegistrationId", clientRegistrationId)
-				.bind("principalName", principalName).then();
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(clientRegistrationId, principalName);
+		Mono<Void> remove = this.databaseClient.sql(REMOVE_AUTHORIZED_CLIENT_SQL)
+				.bind("clientRegistrationId", clientRegistrationId).bind("principalName", principalName).then();
+		return Mono.defer(() -> {
+			AuthorizedClientCache cache = this.cache;
+			if (cache == null) {
+				return remove;
+			}
+			// removed again once deleted, in case a concurrent load cached the row
+			cache.remove(id);
+			return remove.doOnSuccess((unused) -> cache.remove(id));
+		});
+	}
+
+	/**
+	 * Sets how long loaded and saved authorized clients are kept in a local cache, so
+	 * that loading them again does not query the database. Saves and removes made
+	 * through this service update the cache immediately; changes made by other
+	 * applications or nodes sharing the database become visible once the entry expires.
+	 * The default is {@link Duration#ZERO}, which disables the cache.
+	 * @param cacheTimeToLive how long authorized clients are cached
+	 * @since 6.2
+	 */
+	public final void setCacheTimeToLive(Duration cacheTimeToLive) {
+		Assert.notNull(cacheTimeToLive, "cacheTimeToLive cannot be null");
+		Assert.isTrue(!cacheTimeToLive.isNegative(), "cacheTimeToLive cannot be negative");
+		this.cacheTimeToLive = cacheTimeToLive;
+		this.cache = createCache();
+	}
+
+	/**
+	 * Sets the maximum number of authorized clients kept in the local cache. Expired
+	 * clients are evicted first, then the ones that were cached the longest ago. The
+	 * default is {@code 1000}.
+	 * @param cacheMaximumSize the maximum number of cached authorized clients
+	 * @since 6.2
+	 * @see #setCacheTimeToLive(Duration)
+	 */
+	public final void setCacheMaximumSize(int cacheMaximumSize) {
+		Assert.isTrue(cacheMaximumSize > 0, "cacheMaximumSize must be positive");
+		this.cacheMaximumSize = cacheMaximumSize;
+		this.cache = createCache();
+	}
+
+	private AuthorizedClientCache createCache() {
+		if (this.cacheTimeToLive.isZero()) {
+			return null;
+		}
+		return new AuthorizedClientCache(this.cacheTimeToLive, this.cacheMaximumSize);
 	}
 
 	/**
@@ -0,0 +1,577 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OAuth2AuthorizedClientService} that keeps the access tokens of the
+ * {@link OAuth2AuthorizedClient Authorized Client(s)} it stores fresh in the background,
+ * so that requests find a valid access token instead of re-authorizing inline when it
+ * expires.
+ *
+ * <p>
+ * Every authorized client saved through this service whose registration matches
+ * {@link #setClientRegistrationPredicate(Predicate) clientRegistrationPredicate}, by
+ * default those using the {@code client_credentials} grant, is tracked and, once a
+ * configurable fraction of its access token lifetime has elapsed (minus a random jitter,
+ * so that tokens issued together are not all renewed at the same time), re-authorized
+ * with the configured {@link OAuth2AuthorizedClientProvider} and saved to the delegate
+ * service. At most {@link #setMaxConcurrentRefreshes(int) maxConcurrentRefreshes} clients
+ * are re-authorized at the same time. Access tokens without an issue or expiry time are
+ * not tracked, and authorized clients that have not been loaded or saved for
+ * {@link #setMaxInactivity(Duration) maxInactivity} are no longer tracked. A failed
+ * refresh is retried after {@link #setRetryBackoff(Duration) retryBackoff}, which is
+ * doubled after each consecutive failure of the same authorized client.
+ *
+ * <p>
+ * Unless {@link #setScheduler(ScheduledExecutorService) scheduler} and
+ * {@link #setExecutor(Executor) executor} are provided, the background refresh uses
+ * daemon threads owned by this service, which are shut down by
+ * {@link #stopBackgroundRefresh()} and {@link #destroy()}.
+ *
+ * <p>
+ * The provider is only invoked for authorized clients that are due, and must therefore
+ * re-authorize them even though their access token has not expired yet. By default, the
+ * {@code refresh_token} and {@code client_credentials} grants are used with a clock skew
+ * that exceeds any access token lifetime.
+ *
+ * @since 6.2
+ * @see OAuth2AuthorizedClientService
+ * @see OAuth2AuthorizedClientProvider
+ */
+public final class RefreshAheadOAuth2AuthorizedClientService implements OAuth2AuthorizedClientService, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(RefreshAheadOAuth2AuthorizedClientService.class);
+
+	private static final Duration FORCE_REFRESH_CLOCK_SKEW = Duration.ofDays(365);
+
+	private static final int MAX_RETRY_BACKOFF_DOUBLINGS = 5;
+
+	private final OAuth2AuthorizedClientService delegate;
+
+	private final Map<OAuth2AuthorizedClientId, TrackedAuthorizedClient> trackedClients = new ConcurrentHashMap<>();
+
+	private final LongAdder refreshCount = new LongAdder();
+
+	private final LongAdder refreshFailureCount = new LongAdder();
+
+	private final LongAdder inlineRefreshAvoidedCount = new LongAdder();
+
+	private OAuth2AuthorizedClientProvider authorizedClientProvider;
+
+	private double refreshThreshold = 0.8;
+
+	private double refreshJitter = 0.05;
+
+	private Semaphore refreshPermits = new Semaphore(4);
+
+	private Predicate<ClientRegistration> clientRegistrationPredicate;
+
+	private Duration maxInactivity = Duration.ofHours(1);
+
+	private Duration retryBackoff = Duration.ofSeconds(5);
+
+	private ScheduledExecutorService scheduler;
+
+	private Executor executor;
+
+	private Clock clock = Clock.systemUTC();
+
+	private ScheduledFuture<?> scheduledRefresh;
+
+	private ScheduledExecutorService ownedScheduler;
+
+	private ExecutorService ownedExecutor;
+
+	/**
+	 * Constructs a {@code RefreshAheadOAuth2AuthorizedClientService} using the provided
+	 * parameters.
+	 * @param delegate the service that stores the authorized clients
+	 */
+	public RefreshAheadOAuth2AuthorizedClientService(OAuth2AuthorizedClientService delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+		this.clientRegistrationPredicate = RefreshAheadOAuth2AuthorizedClientService::isClientCredentials;
+		// @formatter:off
+		this.authorizedClientProvider = OAuth2AuthorizedClientProviderBuilder.builder()
+				.refreshToken((refreshToken) -> refreshToken.clockSkew(FORCE_REFRESH_CLOCK_SKEW))
+				.clientCredentials((clientCredentials) -> clientCredentials.clockSkew(FORCE_REFRESH_CLOCK_SKEW))
+				.build();
+		// @formatter:on
+	}
+
+	@Override
+	public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId,
+			String principalName) {
+		T authorizedClient = this.delegate.loadAuthorizedClient(clientRegistrationId, principalName);
+		if (authorizedClient != null) {
+			TrackedAuthorizedClient tracked = this.trackedClients
+					.get(new OAuth2AuthorizedClientId(clientRegistrationId, principalName));
+			if (tracked != null) {
+				tracked.lastAccessedAt = this.clock.instant();
+				if (tracked.refreshedAhead.compareAndSet(true, false)) {
+					this.inlineRefreshAvoidedCount.increment();
+				}
+			}
+		}
+		return authorizedClient;
+	}
+
+	@Override
+	public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+		this.delegate.saveAuthorizedClient(authorizedClient, principal);
+		track(authorizedClient, principal);
+	}
+
+	@Override
+	public void removeAuthorizedClient(String clientRegistrationId, String principalName) {
+		this.trackedClients.remove(new OAuth2AuthorizedClientId(clientRegistrationId, principalName));
+		this.delegate.removeAuthorizedClient(clientRegistrationId, principalName);
+	}
+
+	/**
+	 * Check for authorized clients that are due for a refresh now and then every
+	 * {@code checkInterval}, on a background thread.
+	 * @param checkInterval the interval between two checks
+	 */
+	public synchronized void startBackgroundRefresh(Duration checkInterval) {
+		Assert.notNull(checkInterval, "checkInterval cannot be null");
+		Assert.isTrue(checkInterval.toMillis() > 0, "checkInterval must be positive");
+		stopBackgroundRefresh();
+		ScheduledExecutorService scheduler = this.scheduler;
+		if (scheduler == null) {
+			this.ownedScheduler = Executors.newSingleThreadScheduledExecutor(
+					daemonThreadFactory("oauth2-authorized-client-refresh-scheduler"));
+			scheduler = this.ownedScheduler;
+		}
+		if (this.executor == null) {
+			this.ownedExecutor = Executors.newCachedThreadPool(daemonThreadFactory("oauth2-authorized-client-refresh"));
+		}
+		this.scheduledRefresh = scheduler.scheduleWithFixedDelay(this::refreshDueAuthorizedClients, 0,
+				checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop checking for authorized clients that are due for a refresh, and shut down the
+	 * threads owned by this service. Refreshes that are already running are not
+	 * interrupted.
+	 */
+	public synchronized void stopBackgroundRefresh() {
+		if (this.scheduledRefresh != null) {
+			this.scheduledRefresh.cancel(false);
+			this.scheduledRefresh = null;
+		}
+		if (this.ownedScheduler != null) {
+			this.ownedScheduler.shutdown();
+			this.ownedScheduler = null;
+		}
+		if (this.ownedExecutor != null) {
+			this.ownedExecutor.shutdown();
+			this.ownedExecutor = null;
+		}
+	}
+
+	/**
+	 * Stop the background refresh and forget the tracked authorized clients.
+	 */
+	@Override
+	public void destroy() {
+		stopBackgroundRefresh();
+		this.trackedClients.clear();
+	}
+
+	/**
+	 * Sets the {@link OAuth2AuthorizedClientProvider} used to re-authorize the authorized
+	 * clients that are due. It must re-authorize them even though their access token has
+	 * not expired, for example by configuring a clock skew that exceeds the access token
+	 * lifetime.
+	 * @param authorizedClientProvider the {@link OAuth2AuthorizedClientProvider} used to
+	 * re-authorize the authorized clients
+	 */
+	public void setAuthorizedClientProvider(OAuth2AuthorizedClientProvider authorizedClientProvider) {
+		Assert.notNull(authorizedClientProvider, "authorizedClientProvider cannot be null");
+		this.authorizedClientProvider = authorizedClientProvider;
+	}
+
+	/**
+	 * Sets the fraction of the access token lifetime after which an authorized client is
+	 * refreshed. The default is {@code 0.8}.
+	 * @param refreshThreshold the fraction of the access token lifetime, greater than
+	 * {@code 0} and than the refresh jitter, and at most {@code 1}
+	 */
+	public void setRefreshThreshold(double refreshThreshold) {
+		Assert.isTrue(refreshThreshold > 0 && refreshThreshold <= 1, "refreshThreshold must be in (0, 1]");
+		Assert.isTrue(refreshThreshold > this.refreshJitter, "refreshThreshold must be greater than refreshJitter");
+		this.refreshThreshold = refreshThreshold;
+	}
+
+	/**
+	 * Sets the maximum fraction of the access token lifetime by which a refresh is
+	 * randomly brought forward. The default is {@code 0.05}.
+	 * @param refreshJitter the maximum fraction of the access token lifetime, at least
+	 * {@code 0} and less than the refresh threshold
+	 */
+	public void setRefreshJitter(double refreshJitter) {
+		Assert.isTrue(refreshJitter >= 0 && refreshJitter < this.refreshThreshold,
+				"refreshJitter must be >= 0 and less than refreshThreshold");
+		this.refreshJitter = refreshJitter;
+	}
+
+	/**
+	 * Sets the maximum number of authorized clients that are re-authorized at the same
+	 * time. Clients that are due while this limit is reached are refreshed during a later
+	 * check. The default is {@code 4}.
+	 * @param maxConcurrentRefreshes the maximum number of concurrent refreshes
+	 */
+	public void setMaxConcurrentRefreshes(int maxConcurrentRefreshes) {
+		Assert.isTrue(maxConcurrentRefreshes > 0, "maxConcurrentRefreshes must be positive");
+		this.refreshPermits = new Semaphore(maxConcurrentRefreshes);
+	}
+
+	/**
+	 * Sets which authorized clients are refreshed ahead, by their
+	 * {@link ClientRegistration}. The default only matches registrations using the
+	 * {@code client_credentials} grant, since refreshing an end user's
+	 * {@code refresh_token} grant keeps it alive without the user being around.
+	 * @param clientRegistrationPredicate the predicate matching the client registrations
+	 * to refresh ahead
+	 */
+	public void setClientRegistrationPredicate(Predicate<ClientRegistration> clientRegistrationPredicate) {
+		Assert.notNull(clientRegistrationPredicate, "clientRegistrationPredicate cannot be null");
+		this.clientRegistrationPredicate = clientRegistrationPredicate;
+	}
+
+	/**
+	 * Sets how long an authorized client keeps being refreshed without being loaded or
+	 * saved. Past that, it is no longer tracked until it is saved again. The default is
+	 * one hour.
+	 * @param maxInactivity the maximum inactivity of a tracked authorized client
+	 */
+	public void setMaxInactivity(Duration maxInactivity) {
+		Assert.notNull(maxInactivity, "maxInactivity cannot be null");
+		Assert.isTrue(maxInactivity.toMillis() > 0, "maxInactivity must be positive");
+		this.maxInactivity = maxInactivity;
+	}
+
+	/**
+	 * Sets how long to wait before retrying the refresh of an authorized client that
+	 * failed. The delay is doubled after each consecutive failure of the same authorized
+	 * client, up to {@code 32} times the given delay. The default is five seconds.
+	 * @param retryBackoff the delay before retrying a failed refresh
+	 */
+	public void setRetryBackoff(Duration retryBackoff) {
+		Assert.notNull(retryBackoff, "retryBackoff cannot be null");
+		Assert.isTrue(!retryBackoff.isNegative(), "retryBackoff cannot be negative");
+		this.retryBackoff = retryBackoff;
+	}
+
+	/**
+	 * Sets the {@link ScheduledExecutorService} that checks for authorized clients that
+	 * are due. It is not shut down by this service. By default, a daemon thread owned by
+	 * this service is used.
+	 * @param scheduler the {@link ScheduledExecutorService} that checks for due
+	 * authorized clients
+	 */
+	public void setScheduler(ScheduledExecutorService scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Sets the {@link Executor} that runs the refreshes. It is not shut down by this
+	 * service. By default, refreshes run on daemon threads owned by this service.
+	 * @param executor the {@link Executor} that runs the refreshes
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to decide whether an authorized client is due for a
+	 * refresh.
+	 * @param clock the clock
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns the number of authorized clients that were successfully refreshed in the
+	 * background.
+	 * @return the number of background refreshes
+	 */
+	public long getRefreshCount() {
+		return this.refreshCount.sum();
+	}
+
+	/**
+	 * Returns the number of background refreshes that failed.
+	 * @return the number of failed background refreshes
+	 */
+	public long getRefreshFailureCount() {
+		return this.refreshFailureCount.sum();
+	}
+
+	/**
+	 * Returns the number of background refreshes whose result was loaded by a request,
+	 * that is the number of token requests that did not have to be made inline.
+	 * @return the number of avoided inline refreshes
+	 */
+	public long getInlineRefreshAvoidedCount() {
+		return this.inlineRefreshAvoidedCount.sum();
+	}
+
+	/**
+	 * Refresh the authorized clients that are due now, within the limit of concurrent
+	 * refreshes.
+	 */
+	void refreshDueAuthorizedClients() {
+		Instant now = this.clock.instant();
+		Semaphore refreshPermits = this.refreshPermits;
+		Executor executor = getExecutor();
+		if (executor == null) {
+			// background refresh stopped in the meantime
+			return;
+		}
+		List<TrackedAuthorizedClient> due = new ArrayList<>();
+		for (TrackedAuthorizedClient tracked : this.trackedClients.values()) {
+			if (now.isAfter(tracked.lastAccessedAt.plus(this.maxInactivity))) {
+				this.trackedClients.remove(tracked.id, tracked);
+			}
+			else if (!now.isBefore(tracked.refreshAt)) {
+				due.add(tracked);
+			}
+		}
+		for (TrackedAuthorizedClient tracked : due) {
+			if (!refreshPermits.tryAcquire()) {
+				return;
+			}
+			if (!tracked.refreshing.compareAndSet(false, true)) {
+				refreshPermits.release();
+				continue;
+			}
+			try {
+				executor.execute(() -> refresh(tracked, refreshPermits));
+			}
+			catch (RuntimeException ex) {
+				tracked.refreshing.set(false);
+				refreshPermits.release();
+				logger.debug("Failed to schedule the refresh of an authorized client", ex);
+				return;
+			}
+		}
+	}
+
+	private void refresh(TrackedAuthorizedClient tracked, Semaphore refreshPermits) {
+		OAuth2AuthorizedClientId id = tracked.id;
+		try {
+			// @formatter:off
+			OAuth2AuthorizationContext authorizationContext = OAuth2AuthorizationContext
+					.withAuthorizedClient(tracked.authorizedClient)
+					.principal(tracked.principal)
+					.build();
+			// @formatter:on
+			OAuth2AuthorizedClient authorizedClient = this.authorizedClientProvider.authorize(authorizationContext);
+			if (authorizedClient == null) {
+				this.trackedClients.remove(id, tracked);
+				return;
+			}
+			TrackedAuthorizedClient refreshed = createTracked(authorizedClient, tracked.principal, tracked);
+			boolean current = (refreshed != null) ? this.trackedClients.replace(id, tracked, refreshed)
+					: this.trackedClients.remove(id, tracked);
+			if (!current) {
+				// removed or replaced by a request in the meantime
+				return;
+			}
+			try {
+				this.delegate.saveAuthorizedClient(authorizedClient, tracked.principal);
+			}
+			catch (RuntimeException ex) {
+				// keep refreshing the authorized client that is still stored
+				if (refreshed != null) {
+					this.trackedClients.replace(id, refreshed, tracked);
+				}
+				else {
+					this.trackedClients.putIfAbsent(id, tracked);
+				}
+				throw ex;
+			}
+			this.refreshCount.increment();
+		}
+		catch (ClientAuthorizationException ex) {
+			this.refreshFailureCount.increment();
+			if (OAuth2ErrorCodes.INVALID_GRANT.equals(ex.getError().getErrorCode())) {
+				// leave it to the next request to re-authorize
+				this.trackedClients.remove(id, tracked);
+			}
+			else {
+				backOff(tracked);
+			}
+			logger.debug("Failed to refresh authorized client in the background", ex);
+		}
+		catch (RuntimeException ex) {
+			this.refreshFailureCount.increment();
+			backOff(tracked);
+			logger.debug("Failed to refresh authorized client in the background", ex);
+		}
+		finally {
+			tracked.refreshing.set(false);
+			refreshPermits.release();
+		}
+	}
+
+	/**
+	 * Delay the next refresh of an authorized client whose refresh failed.
+	 */
+	private void backOff(TrackedAuthorizedClient tracked) {
+		int doublings = Math.min(tracked.consecutiveFailures++, MAX_RETRY_BACKOFF_DOUBLINGS);
+		tracked.refreshAt = this.clock.instant().plus(this.retryBackoff.multipliedBy(1L << doublings));
+	}
+
+	/**
+	 * Track the given authorized client saved by a request.
+	 */
+	private void track(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+		TrackedAuthorizedClient tracked = createTracked(authorizedClient, principal, null);
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(
+				authorizedClient.getClientRegistration().getRegistrationId(), principal.getName());
+		if (tracked != null) {
+			this.trackedClients.put(id, tracked);
+		}
+		else {
+			this.trackedClients.remove(id);
+		}
+	}
+
+	/**
+	 * Create the tracking of the given authorized client, either saved by a request or
+	 * refreshed ahead of the {@code previous} tracked one, or {@code null} if it is not
+	 * refreshed ahead.
+	 */
+	private TrackedAuthorizedClient createTracked(OAuth2AuthorizedClient authorizedClient,
+			Authentication principal, TrackedAuthorizedClient previous) {
+		Instant refreshAt = this.clientRegistrationPredicate.test(authorizedClient.getClientRegistration())
+				? getRefreshAt(authorizedClient.getAccessToken()) : null;
+		if (refreshAt == null) {
+			return null;
+		}
+		OAuth2AuthorizedClientId id = new OAuth2AuthorizedClientId(
+				authorizedClient.getClientRegistration().getRegistrationId(), principal.getName());
+		boolean refreshedAhead = previous != null;
+		Instant lastAccessedAt = refreshedAhead ? previous.lastAccessedAt : this.clock.instant();
+		return new TrackedAuthorizedClient(id, authorizedClient, principal, refreshAt, lastAccessedAt,
+				refreshedAhead);
+	}
+
+	private Executor getExecutor() {
+		Executor executor = this.executor;
+		if (executor != null) {
+			return executor;
+		}
+		synchronized (this) {
+			return this.ownedExecutor;
+		}
+	}
+
+	private static boolean isClientCredentials(ClientRegistration clientRegistration) {
+		return AuthorizationGrantType.CLIENT_CREDENTIALS.equals(clientRegistration.getAuthorizationGrantType());
+	}
+
+	private static ThreadFactory daemonThreadFactory(String name) {
+		return (task) -> {
+			Thread thread = new Thread(task, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private Instant getRefreshAt(OAuth2AccessToken accessToken) {
+		Instant issuedAt = accessToken.getIssuedAt();
+		Instant expiresAt = accessToken.getExpiresAt();
+		if (issuedAt == null || expiresAt == null || !expiresAt.isAfter(issuedAt)) {
+			return null;
+		}
+		long lifetime = Duration.between(issuedAt, expiresAt).toMillis();
+		double fraction = this.refreshThreshold - ThreadLocalRandom.current().nextDouble() * this.refreshJitter;
+		return issuedAt.plusMillis((long) (lifetime * fraction));
+	}
+
+	private static final class TrackedAuthorizedClient {
+
+		private final OAuth2AuthorizedClientId id;
+
+		private final OAuth2AuthorizedClient authorizedClient;
+
+		private final Authentication principal;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private final AtomicBoolean refreshedAhead;
+
+		private volatile Instant lastAccessedAt;
+
+		private volatile Instant refreshAt;
+
+		/**
+		 * Only updated by the refresh that holds {@link #refreshing}.
+		 */
+		private int consecutiveFailures;
+
+		private TrackedAuthorizedClient(OAuth2AuthorizedClientId id, OAuth2AuthorizedClient authorizedClient,
+				Authentication principal, Instant refreshAt, Instant lastAccessedAt, boolean refreshedAhead) {
+			this.id = id;
+			this.authorizedClient = authorizedClient;
+			this.principal = principal;
+			this.refreshAt = refreshAt;
+			this.lastAccessedAt = lastAccessedAt;
+			this.refreshedAhead = new AtomicBoolean(refreshedAhead);
+		}
+
+	}
+
+}
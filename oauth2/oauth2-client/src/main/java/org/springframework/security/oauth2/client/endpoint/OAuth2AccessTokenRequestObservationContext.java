@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client.endpoint;
+
+import io.micrometer.observation.Observation;
+
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Observation.Context} used while requesting an access token at the Token
+ * Endpoint
+ *
+ * @since 6.2
+ */
+public class OAuth2AccessTokenRequestObservationContext extends Observation.Context {
+
+	private final AbstractOAuth2AuthorizationGrantRequest authorizationGrantRequest;
+
+	private OAuth2AccessTokenResponse accessTokenResponse;
+
+	/**
+	 * Constructs an {@code OAuth2AccessTokenRequestObservationContext} using the provided
+	 * parameters.
+	 * @param authorizationGrantRequest the observed authorization grant request
+	 */
+	public OAuth2AccessTokenRequestObservationContext(
+			AbstractOAuth2AuthorizationGrantRequest authorizationGrantRequest) {
+		Assert.notNull(authorizationGrantRequest, "authorizationGrantRequest cannot be null");
+		this.authorizationGrantRequest = authorizationGrantRequest;
+	}
+
+	/**
+	 * Get the authorization grant request that was observed
+	 * @return the observed authorization grant request
+	 */
+	public AbstractOAuth2AuthorizationGrantRequest getAuthorizationGrantRequest() {
+		return this.authorizationGrantRequest;
+	}
+
+	/**
+	 * Get the {@link OAuth2AccessTokenResponse} that was observed
+	 *
+	 * <p>
+	 * Note that if the request failed, no response can be observed. In that case, this
+	 * returns {@code null}.
+	 * @return any observed {@link OAuth2AccessTokenResponse}, {@code null} otherwise
+	 */
+	public OAuth2AccessTokenResponse getAccessTokenResponse() {
+		return this.accessTokenResponse;
+	}
+
+	/**
+	 * Set the {@link OAuth2AccessTokenResponse} that was observed
+	 * @param accessTokenResponse the observed {@link OAuth2AccessTokenResponse}
+	 */
+	public void setAccessTokenResponse(OAuth2AccessTokenResponse accessTokenResponse) {
+		this.accessTokenResponse = accessTokenResponse;
+	}
+
+}
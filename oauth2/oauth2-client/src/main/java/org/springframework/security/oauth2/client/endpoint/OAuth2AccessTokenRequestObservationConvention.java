@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client.endpoint;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+
+/**
+ * An {@link ObservationConvention} for translating access token requests into
+ * {@link KeyValues}. The registration id is a low cardinality key, since there are as
+ * many values as configured client registrations.
+ *
+ * @since 6.2
+ */
+public final class OAuth2AccessTokenRequestObservationConvention
+		implements ObservationConvention<OAuth2AccessTokenRequestObservationContext> {
+
+	static final String OBSERVATION_NAME = "spring.security.oauth2.client.access.token.requests";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName() {
+		return OBSERVATION_NAME;
+	}
+
+	@Override
+	public String getContextualName(OAuth2AccessTokenRequestObservationContext context) {
+		return "request access token";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public KeyValues getLowCardinalityKeyValues(OAuth2AccessTokenRequestObservationContext context) {
+		AbstractOAuth2AuthorizationGrantRequest authorizationGrantRequest = context.getAuthorizationGrantRequest();
+		return KeyValues
+				.of("client.registration.id", authorizationGrantRequest.getClientRegistration().getRegistrationId())
+				.and("authorization.grant.type", authorizationGrantRequest.getGrantType().getValue())
+				.and("failure.type", getFailureType(context));
+	}
+
+	private String getFailureType(OAuth2AccessTokenRequestObservationContext context) {
+		if (context.getError() == null) {
+			return "n/a";
+		}
+		return context.getError().getClass().getSimpleName();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+		return context instanceof OAuth2AccessTokenRequestObservationContext;
+	}
+
+}
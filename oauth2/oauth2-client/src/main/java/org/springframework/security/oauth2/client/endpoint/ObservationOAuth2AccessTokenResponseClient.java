@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client.endpoint;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OAuth2AccessTokenResponseClient} that observes the access token requests of
+ * another {@link OAuth2AccessTokenResponseClient}, so that their response time and
+ * failures can be monitored per registration.
+ *
+ * @param <T> the type of authorization grant request
+ * @since 6.2
+ * @see OAuth2AccessTokenRequestObservationConvention
+ */
+public final class ObservationOAuth2AccessTokenResponseClient<T extends AbstractOAuth2AuthorizationGrantRequest>
+		implements OAuth2AccessTokenResponseClient<T> {
+
+	private final ObservationRegistry registry;
+
+	private final OAuth2AccessTokenResponseClient<T> delegate;
+
+	private ObservationConvention<OAuth2AccessTokenRequestObservationContext> convention = new OAuth2AccessTokenRequestObservationConvention();
+
+	/**
+	 * Constructs an {@code ObservationOAuth2AccessTokenResponseClient} using the provided
+	 * parameters.
+	 * @param registry the {@link ObservationRegistry} to use
+	 * @param delegate the client that requests the access tokens
+	 */
+	public ObservationOAuth2AccessTokenResponseClient(ObservationRegistry registry,
+			OAuth2AccessTokenResponseClient<T> delegate) {
+		Assert.notNull(registry, "registry cannot be null");
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.registry = registry;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public OAuth2AccessTokenResponse getTokenResponse(T authorizationGrantRequest) {
+		Assert.notNull(authorizationGrantRequest, "authorizationGrantRequest cannot be null");
+		OAuth2AccessTokenRequestObservationContext context = new OAuth2AccessTokenRequestObservationContext(
+				authorizationGrantRequest);
+		return Observation.createNotStarted(this.convention, () -> context, this.registry).observe(() -> {
+			OAuth2AccessTokenResponse accessTokenResponse = this.delegate.getTokenResponse(authorizationGrantRequest);
+			context.setAccessTokenResponse(accessTokenResponse);
+			return accessTokenResponse;
+		});
+	}
+
+	/**
+	 * Use the provided convention for reporting observation data
+	 * @param convention The provided convention
+	 */
+	public void setObservationConvention(ObservationConvention<OAuth2AccessTokenRequestObservationContext> convention) {
+		Assert.notNull(convention, "convention cannot be null");
+		this.convention = convention;
+	}
+
+}
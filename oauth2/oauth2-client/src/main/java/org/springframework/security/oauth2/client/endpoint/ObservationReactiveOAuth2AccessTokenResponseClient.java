@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client.endpoint;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveOAuth2AccessTokenResponseClient} that observes the access token
+ * requests of another {@link ReactiveOAuth2AccessTokenResponseClient}, so that their
+ * response time and failures can be monitored per registration.
+ *
+ * @param <T> the type of authorization grant request
+ * @since 6.2
+ * @see OAuth2AccessTokenRequestObservationConvention
+ */
+public final class ObservationReactiveOAuth2AccessTokenResponseClient<T extends AbstractOAuth2AuthorizationGrantRequest>
+		implements ReactiveOAuth2AccessTokenResponseClient<T> {
+
+	private final ObservationRegistry registry;
+
+	private final ReactiveOAuth2AccessTokenResponseClient<T> delegate;
+
+	private ObservationConvention<OAuth2AccessTokenRequestObservationContext> convention = new OAuth2AccessTokenRequestObservationConvention();
+
+	/**
+	 * Constructs an {@code ObservationReactiveOAuth2AccessTokenResponseClient} using the
+	 * provided parameters.
+	 * @param registry the {@link ObservationRegistry} to use
+	 * @param delegate the client that requests the access tokens
+	 */
+	public ObservationReactiveOAuth2AccessTokenResponseClient(ObservationRegistry registry,
+			ReactiveOAuth2AccessTokenResponseClient<T> delegate) {
+		Assert.notNull(registry, "registry cannot be null");
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.registry = registry;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<OAuth2AccessTokenResponse> getTokenResponse(T authorizationGrantRequest) {
+		return Mono.deferContextual((contextView) -> {
+			Assert.notNull(authorizationGrantRequest, "authorizationGrantRequest cannot be null");
+			OAuth2AccessTokenRequestObservationContext context = new OAuth2AccessTokenRequestObservationContext(
+					authorizationGrantRequest);
+			Observation observation = Observation.createNotStarted(this.convention, () -> context, this.registry)
+					.parentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null)).start();
+			// @formatter:off
+			return this.delegate.getTokenResponse(authorizationGrantRequest)
+					.doOnSuccess((accessTokenResponse) -> {
+						context.setAccessTokenResponse(accessTokenResponse);
+						observation.stop();
+					})
+					.doOnCancel(observation::stop)
+					.doOnError((ex) -> {
+						observation.error(ex);
+						observation.stop();
+					});
+			// @formatter:on
+		});
+	}
+
+	/**
+	 * Use the provided convention for reporting observation data
+	 * @param convention The provided convention
+	 */
+	public void setObservationConvention(ObservationConvention<OAuth2AccessTokenRequestObservationContext> convention) {
+		Assert.notNull(convention, "convention cannot be null");
+		this.convention = convention;
+	}
+
+}
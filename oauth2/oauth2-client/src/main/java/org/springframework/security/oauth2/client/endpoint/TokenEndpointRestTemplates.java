@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.endpoint;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.security.oauth2.core.http.converter.StreamingOAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Creates {@link RestTemplate}s suitable for requesting access tokens at an
+ * Authorization Server's Token Endpoint with the {@code Default*TokenResponseClient}s.
+ *
+ * <p>
+ * The {@link RestTemplate}s are configured with the message converters and the error
+ * handler those clients require, and send requests through a {@link HttpClient} that
+ * keeps connections alive and reuses them, negotiates HTTP/2 over {@code https} when the
+ * Authorization Server supports it and enforces the provided connect and read timeouts.
+ * Plain {@code http} requests use HTTP/1.1, without attempting an upgrade to HTTP/2. By contrast, the
+ * clients create a {@link RestTemplate} using {@code HttpURLConnection} without any
+ * timeout by default. When Jackson is available, the Access Token Response is read with a
+ * {@link StreamingOAuth2AccessTokenResponseHttpMessageConverter}.
+ *
+ * <p>
+ * A single instance can be shared by all the clients of an application, for example:
+ *
+ * <pre>
+ * RestTemplate restTemplate = TokenEndpointRestTemplates.create(Duration.ofSeconds(2), Duration.ofSeconds(5));
+ * DefaultClientCredentialsTokenResponseClient clientCredentials = new DefaultClientCredentialsTokenResponseClient();
+ * clientCredentials.setRestOperations(restTemplate);
+ * DefaultRefreshTokenTokenResponseClient refreshToken = new DefaultRefreshTokenTokenResponseClient();
+ * refreshToken.setRestOperations(restTemplate);
+ * </pre>
+ *
+ * @since 6.2
+ * @see DefaultClientCredentialsTokenResponseClient#setRestOperations
+ * @see TokenEndpointWebClients
+ */
+public final class TokenEndpointRestTemplates {
+
+	private static final boolean jacksonPresent = ClassUtils.isPresent("com.fasterxml.jackson.core.JsonParser",
+			TokenEndpointRestTemplates.class.getClassLoader());
+
+	private TokenEndpointRestTemplates() {
+	}
+
+	/**
+	 * Creates a {@link RestTemplate} for requesting access tokens.
+	 * @param connectTimeout the maximum time to wait for a connection to the Token
+	 * Endpoint to be established
+	 * @param readTimeout the maximum time to wait for the response of the Token Endpoint
+	 * @return the {@link RestTemplate}
+	 */
+	public static RestTemplate create(Duration connectTimeout, Duration readTimeout) {
+		Assert.notNull(connectTimeout, "connectTimeout cannot be null");
+		Assert.notNull(readTimeout, "readTimeout cannot be null");
+		ClientHttpRequestFactory httpsRequestFactory = createRequestFactory(HttpClient.Version.HTTP_2, connectTimeout,
+				readTimeout);
+		ClientHttpRequestFactory httpRequestFactory = createRequestFactory(HttpClient.Version.HTTP_1_1,
+				connectTimeout, readTimeout);
+		ClientHttpRequestFactory requestFactory = (uri, httpMethod) -> "https".equalsIgnoreCase(uri.getScheme())
+				? httpsRequestFactory.createRequest(uri, httpMethod)
+				: httpRequestFactory.createRequest(uri, httpMethod);
+		OAuth2AccessTokenResponseHttpMessageConverter accessTokenResponseConverter = jacksonPresent
+				? new StreamingOAuth2AccessTokenResponseHttpMessageConverter()
+				: new OAuth2AccessTokenResponseHttpMessageConverter();
+		RestTemplate restTemplate = new RestTemplate(
+				Arrays.asList(new FormHttpMessageConverter(), accessTokenResponseConverter));
+		restTemplate.setRequestFactory(requestFactory);
+		restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+		return restTemplate;
+	}
+
+	private static ClientHttpRequestFactory createRequestFactory(HttpClient.Version version, Duration connectTimeout,
+			Duration readTimeout) {
+		// @formatter:off
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(version)
+				.connectTimeout(connectTimeout)
+				.build();
+		// @formatter:on
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+		requestFactory.setReadTimeout(readTimeout);
+		return requestFactory;
+	}
+
+}
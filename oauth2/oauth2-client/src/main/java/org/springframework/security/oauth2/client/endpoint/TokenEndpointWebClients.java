@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.endpoint;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Creates {@link WebClient}s suitable for requesting access tokens at an Authorization
+ * Server's Token Endpoint with the {@code WebClientReactive*TokenResponseClient}s.
+ *
+ * <p>
+ * The {@link WebClient}s send requests through a {@link HttpClient} that keeps
+ * connections alive and reuses them, negotiates HTTP/2 over {@code https} when the
+ * Authorization Server supports it and enforces the provided connect and read timeouts.
+ * Plain {@code http} requests use HTTP/1.1, without attempting an upgrade to HTTP/2. A single instance can
+ * be shared by all the clients of an application.
+ *
+ * @since 6.2
+ * @see AbstractWebClientReactiveOAuth2AccessTokenResponseClient#setWebClient(WebClient)
+ * @see TokenEndpointRestTemplates
+ */
+public final class TokenEndpointWebClients {
+
+	private TokenEndpointWebClients() {
+	}
+
+	/**
+	 * Creates a {@link WebClient} for requesting access tokens.
+	 * @param connectTimeout the maximum time to wait for a connection to the Token
+	 * Endpoint to be established
+	 * @param readTimeout the maximum time to wait for the response of the Token Endpoint
+	 * @return the {@link WebClient}
+	 */
+	public static WebClient create(Duration connectTimeout, Duration readTimeout) {
+		Assert.notNull(connectTimeout, "connectTimeout cannot be null");
+		Assert.notNull(readTimeout, "readTimeout cannot be null");
+		ClientHttpConnector httpsConnector = createConnector(HttpClient.Version.HTTP_2, connectTimeout);
+		ClientHttpConnector httpConnector = createConnector(HttpClient.Version.HTTP_1_1, connectTimeout);
+		ClientHttpConnector connector = (method, uri, requestCallback) -> "https".equalsIgnoreCase(uri.getScheme())
+				? httpsConnector.connect(method, uri, requestCallback)
+				: httpConnector.connect(method, uri, requestCallback);
+		// @formatter:off
+		return WebClient.builder()
+				.clientConnector(connector)
+				.filter((request, next) -> next.exchange(request).timeout(readTimeout))
+				.build();
+		// @formatter:on
+	}
+
+	private static ClientHttpConnector createConnector(HttpClient.Version version, Duration connectTimeout) {
+		// @formatter:off
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(version)
+				.connectTimeout(connectTimeout)
+				.build();
+		// @formatter:on
+		return new JdkClientHttpConnector(httpClient);
+	}
+
+}
@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
@@ -29,10 +31,20 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.security.oauth2.client.oidc.authentication.logout.LogoutTokenClaimNames;
 import org.springframework.security.oauth2.client.oidc.authentication.logout.OidcLogoutToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 
 /**
  * An in-memory implementation of {@link OidcSessionRegistry}
  *
+ * <p>
+ * Sessions are additionally indexed by issuer and OIDC Provider session id and by issuer
+ * and subject, so that removing the sessions referenced by an OIDC Logout Token does not
+ * require looking at every registered session. The indexes are updated whenever a
+ * session is saved or removed, including when a client session is removed because it
+ * expired. Index updates happen while the client session id's entry is locked, so a
+ * concurrent save and removal of the same client session cannot leave stale index
+ * entries behind.
+ *
  * @author Josh Cummings
  * @since 6.2
  */
@@ -42,14 +54,24 @@ public final class InMemoryOidcSessionRegistry implements OidcSessionRegistry {
 
 	private final Map<String, OidcSessionInformation> sessions = new ConcurrentHashMap<>();
 
+	private final Map<IndexKey, Set<String>> sessionIdsByProviderSessionId = new ConcurrentHashMap<>();
+
+	private final Map<IndexKey, Set<String>> sessionIdsBySubject = new ConcurrentHashMap<>();
+
 	@Override
 	public void saveSessionInformation(OidcSessionInformation info) {
-		this.sessions.put(info.getSessionId(), info);
+		this.sessions.compute(info.getSessionId(), (clientSessionId, previous) -> {
+			if (previous != null) {
+				unindex(previous);
+			}
+			index(info);
+			return info;
+		});
 	}
 
 	@Override
 	public OidcSessionInformation removeSessionInformation(String clientSessionId) {
-		OidcSessionInformation information = this.sessions.remove(clientSessionId);
+		OidcSessionInformation information = removeAndUnindex(clientSessionId, (candidate) -> true);
 		if (information != null) {
 			this.logger.trace("Removed client session");
 		}
@@ -74,14 +96,18 @@ public final class InMemoryOidcSessionRegistry implements OidcSessionRegistry {
 			}
 		}
 		int size = this.sessions.size();
+		Set<String> candidates = (providerSessionId != null)
+				? this.sessionIdsByProviderSessionId.get(new IndexKey(issuer, providerSessionId))
+				: this.sessionIdsBySubject.get(new IndexKey(issuer, subject));
 		Set<OidcSessionInformation> infos = new HashSet<>();
-		this.sessions.values().removeIf((info) -> {
-			boolean result = matcher.test(info);
-			if (result) {
-				infos.add(info);
+		if (candidates != null) {
+			for (String clientSessionId : List.copyOf(candidates)) {
+				OidcSessionInformation info = removeAndUnindex(clientSessionId, matcher);
+				if (info != null) {
+					infos.add(info);
+				}
 			}
-			return result;
-		});
+		}
 		if (infos.isEmpty()) {
 			this.logger.debug("Failed to remove any sessions since none matched");
 		}
@@ -92,6 +118,69 @@ public final class InMemoryOidcSessionRegistry implements OidcSessionRegistry {
 		return infos;
 	}
 
+	private OidcSessionInformation removeAndUnindex(String clientSessionId,
+			Predicate<OidcSessionInformation> matcher) {
+		AtomicReference<OidcSessionInformation> removed = new AtomicReference<>();
+		this.sessions.computeIfPresent(clientSessionId, (k, info) -> {
+			if (!matcher.test(info)) {
+				return info;
+			}
+			unindex(info);
+			removed.set(info);
+			return null;
+		});
+		return removed.get();
+	}
+
+	private void index(OidcSessionInformation info) {
+		OidcUser user = info.getPrincipal();
+		if (user.getIssuer() == null) {
+			return;
+		}
+		String issuer = user.getIssuer().toString();
+		String providerSessionId = user.getClaimAsString(LogoutTokenClaimNames.SID);
+		if (providerSessionId != null) {
+			add(this.sessionIdsByProviderSessionId, new IndexKey(issuer, providerSessionId), info.getSessionId());
+		}
+		if (user.getSubject() != null) {
+			add(this.sessionIdsBySubject, new IndexKey(issuer, user.getSubject()), info.getSessionId());
+		}
+	}
+
+	private void unindex(OidcSessionInformation info) {
+		OidcUser user = info.getPrincipal();
+		if (user.getIssuer() == null) {
+			return;
+		}
+		String issuer = user.getIssuer().toString();
+		String providerSessionId = user.getClaimAsString(LogoutTokenClaimNames.SID);
+		if (providerSessionId != null) {
+			remove(this.sessionIdsByProviderSessionId, new IndexKey(issuer, providerSessionId), info.getSessionId());
+		}
+		if (user.getSubject() != null) {
+			remove(this.sessionIdsBySubject, new IndexKey(issuer, user.getSubject()), info.getSessionId());
+		}
+	}
+
+	private static void add(Map<IndexKey, Set<String>> index, IndexKey key, String clientSessionId) {
+		index.compute(key, (k, clientSessionIds) -> {
+			Set<String> result = (clientSessionIds != null) ? clientSessionIds : ConcurrentHashMap.newKeySet();
+			result.add(clientSessionId);
+			return result;
+		});
+	}
+
+	private static void remove(Map<IndexKey, Set<String>> index, IndexKey key, String clientSessionId) {
+		index.computeIfPresent(key, (k, clientSessionIds) -> {
+			clientSessionIds.remove(clientSessionId);
+			return clientSessionIds.isEmpty() ? null : clientSessionIds;
+		});
+	}
+
+	int indexSize() {
+		return this.sessionIdsByProviderSessionId.size() + this.sessionIdsBySubject.size();
+	}
+
 	private static Predicate<OidcSessionInformation> sessionIdMatcher(List<String> audience, String issuer,
 			String sessionId) {
 		return (session) -> {
@@ -120,4 +209,33 @@ public final class InMemoryOidcSessionRegistry implements OidcSessionRegistry {
 		};
 	}
 
+	private static final class IndexKey {
+
+		private final String issuer;
+
+		private final String value;
+
+		private IndexKey(String issuer, String value) {
+			this.issuer = issuer;
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IndexKey other)) {
+				return false;
+			}
+			return this.issuer.equals(other.issuer) && Objects.equals(this.value, other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.issuer, this.value);
+		}
+
+	}
+
 }
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.registration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ClientRegistrationRepository} that holds an immutable snapshot of
+ * {@link ClientRegistration}(s) which can be reloaded at runtime, for example from a
+ * file or a database.
+ *
+ * <p>
+ * Each reload obtains the registrations, indexes them by
+ * {@link ClientRegistration#getRegistrationId() registration id} and then atomically
+ * replaces the current snapshot. Lookups never wait for a reload and always observe
+ * either the previous or the new registrations, never a mix of both. The registrations
+ * are loaded on threads owned by this repository, on first use unless a
+ * {@link #reload()} already succeeded; until then, a lookup only waits for the
+ * registration it asks for.
+ *
+ * <p>
+ * Registrations can be obtained either all at once from a {@code Supplier}, in which
+ * case a failing reload keeps all previous registrations, or one by one from their
+ * registration id, in which case a registration that fails to load keeps its previous
+ * value while the others are updated. The latter suits registrations that perform
+ * blocking work such as {@link ClientRegistrations#fromIssuerLocation(String)
+ * discovering} the provider configuration, since they are loaded in parallel, up to
+ * {@link #setMaxConcurrentLoads(int) maxConcurrentLoads} at a time, and one unreachable
+ * provider does not hold up the others:
+ *
+ * <pre>
+ * ReloadableClientRegistrationRepository repository = new ReloadableClientRegistrationRepository(
+ * 		tenants::findAllIds,
+ * 		(id) -&gt; {
+ * 			Tenant tenant = tenants.findById(id);
+ * 			return ClientRegistrations.fromIssuerLocation(tenant.getIssuer())
+ * 					.registrationId(id)
+ * 					.clientId(tenant.getClientId())
+ * 					.clientSecret(tenant.getClientSecret())
+ * 					.build();
+ * 		});
+ * repository.startBackgroundReload(Duration.ofMinutes(5));
+ * </pre>
+ *
+ * @since 6.2
+ * @see ClientRegistrationRepository
+ * @see ClientRegistration
+ */
+public final class ReloadableClientRegistrationRepository
+		implements ClientRegistrationRepository, Iterable<ClientRegistration>, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ReloadableClientRegistrationRepository.class);
+
+	private final RegistrationsLoader loader;
+
+	private final Object loadingMonitor = new Object();
+
+	private volatile Map<String, ClientRegistration> registrations;
+
+	private Loading loading;
+
+	private int maxConcurrentLoads = 4;
+
+	private ExecutorService ownedExecutor;
+
+	private ScheduledExecutorService scheduler;
+
+	private ScheduledExecutorService ownedScheduler;
+
+	private ScheduledFuture<?> scheduledReload;
+
+	/**
+	 * Constructs a {@code ReloadableClientRegistrationRepository} using the provided
+	 * parameters. Each reload replaces all registrations with the ones from the
+	 * supplier, or keeps all current ones if the supplier fails.
+	 * @param registrationsSupplier the supplier of all client registration(s)
+	 */
+	public ReloadableClientRegistrationRepository(
+			Supplier<? extends Iterable<ClientRegistration>> registrationsSupplier) {
+		Assert.notNull(registrationsSupplier, "registrationsSupplier cannot be null");
+		this.loader = (current, executor) -> load(registrationsSupplier);
+	}
+
+	/**
+	 * Constructs a {@code ReloadableClientRegistrationRepository} using the provided
+	 * parameters. Each reload obtains the registration ids and then loads each
+	 * registration. A registration that fails to load keeps its current value, if any.
+	 * @param registrationIdsSupplier the supplier of all registration ids
+	 * @param registrationLoader the function loading the client registration of a
+	 * registration id
+	 */
+	public ReloadableClientRegistrationRepository(Supplier<? extends Collection<String>> registrationIdsSupplier,
+			Function<String, ClientRegistration> registrationLoader) {
+		Assert.notNull(registrationIdsSupplier, "registrationIdsSupplier cannot be null");
+		Assert.notNull(registrationLoader, "registrationLoader cannot be null");
+		this.loader = (current, executor) -> load(current, registrationIdsSupplier, registrationLoader, executor);
+	}
+
+	@Override
+	public ClientRegistration findByRegistrationId(String registrationId) {
+		Assert.hasText(registrationId, "registrationId cannot be empty");
+		Map<String, ClientRegistration> registrations = this.registrations;
+		if (registrations != null) {
+			return registrations.get(registrationId);
+		}
+		CompletableFuture<ClientRegistration> registration = join(getInitialLoading().registrations)
+				.get(registrationId);
+		return (registration != null) ? join(registration) : null;
+	}
+
+	/**
+	 * Returns an {@code Iterator} of the current {@link ClientRegistration}(s).
+	 * @return an {@code Iterator<ClientRegistration>}
+	 */
+	@Override
+	public Iterator<ClientRegistration> iterator() {
+		Map<String, ClientRegistration> registrations = this.registrations;
+		if (registrations == null) {
+			registrations = join(getInitialLoading().result);
+		}
+		return registrations.values().iterator();
+	}
+
+	/**
+	 * Obtains the client registration(s) and replaces the current ones, waiting for a
+	 * reload that is already running to complete first. See the constructors for what is
+	 * kept when loading fails.
+	 */
+	public void reload() {
+		Loading loading;
+		while (true) {
+			synchronized (this.loadingMonitor) {
+				loading = this.loading;
+				if (loading == null || loading.result.isDone()) {
+					loading = startLoading();
+					break;
+				}
+			}
+			loading.result.exceptionally((ex) -> null).join();
+		}
+		join(loading.result);
+	}
+
+	/**
+	 * Reload the client registration(s) now and then every {@code reloadInterval}, on a
+	 * background thread. Failed reloads are logged and retried at the next interval.
+	 * @param reloadInterval the interval between two reloads
+	 */
+	public synchronized void startBackgroundReload(Duration reloadInterval) {
+		Assert.notNull(reloadInterval, "reloadInterval cannot be null");
+		Assert.isTrue(reloadInterval.toMillis() > 0, "reloadInterval must be positive");
+		stopBackgroundReload();
+		ScheduledExecutorService scheduler = this.scheduler;
+		if (scheduler == null) {
+			this.ownedScheduler = Executors.newSingleThreadScheduledExecutor((task) -> {
+				Thread thread = new Thread(task, "oauth2-client-registration-reload");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler = this.ownedScheduler;
+		}
+		this.scheduledReload = scheduler.scheduleWithFixedDelay(this::reloadInBackground, 0,
+				reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop reloading the client registration(s) in the background and shut down the
+	 * thread owned by this repository, if any. A reload that is already running is not
+	 * interrupted.
+	 */
+	public synchronized void stopBackgroundReload() {
+		if (this.scheduledReload != null) {
+			this.scheduledReload.cancel(false);
+			this.scheduledReload = null;
+		}
+		if (this.ownedScheduler != null) {
+			this.ownedScheduler.shutdown();
+			this.ownedScheduler = null;
+		}
+	}
+
+	/**
+	 * Stop reloading the client registration(s) in the background and shut down the
+	 * threads owned by this repository. A load that is already running is not
+	 * interrupted.
+	 */
+	@Override
+	public synchronized void destroy() {
+		stopBackgroundReload();
+		if (this.ownedExecutor != null) {
+			this.ownedExecutor.shutdown();
+			this.ownedExecutor = null;
+		}
+	}
+
+	/**
+	 * Sets the {@link ScheduledExecutorService} that reloads the client registration(s)
+	 * in the background. It is not shut down by this repository. By default, a daemon
+	 * thread owned by this repository is used.
+	 * @param scheduler the {@link ScheduledExecutorService} to use
+	 */
+	public synchronized void setScheduler(ScheduledExecutorService scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Sets the maximum number of client registrations that are loaded at the same time,
+	 * when they are loaded one by one from their registration id. The default is
+	 * {@code 4}.
+	 * @param maxConcurrentLoads the maximum number of concurrent loads
+	 */
+	public synchronized void setMaxConcurrentLoads(int maxConcurrentLoads) {
+		Assert.isTrue(maxConcurrentLoads > 0, "maxConcurrentLoads must be positive");
+		Assert.state(this.ownedExecutor == null, "maxConcurrentLoads must be set before the first load");
+		this.maxConcurrentLoads = maxConcurrentLoads;
+	}
+
+	private Loading getInitialLoading() {
+		synchronized (this.loadingMonitor) {
+			Loading loading = this.loading;
+			if (loading == null || (loading.result.isCompletedExceptionally() && this.registrations == null)) {
+				// not loaded yet, or the last attempt failed
+				loading = startLoading();
+			}
+			return loading;
+		}
+	}
+
+	/**
+	 * Starts loading the client registration(s) on the threads owned by this repository,
+	 * and replaces the current ones once they are all loaded. Must be called while
+	 * holding the loading monitor, after the previous loading completed.
+	 */
+	private Loading startLoading() {
+		Map<String, ClientRegistration> current = this.registrations;
+		Map<String, ClientRegistration> previous = (current != null) ? current : Collections.emptyMap();
+		Executor executor = getExecutor();
+		CompletableFuture<Map<String, CompletableFuture<ClientRegistration>>> registrations = CompletableFuture
+				.supplyAsync(() -> this.loader.load(previous, executor), executor);
+		// @formatter:off
+		CompletableFuture<Map<String, ClientRegistration>> result = registrations
+				.thenCompose((loads) -> CompletableFuture.allOf(loads.values().toArray(new CompletableFuture<?>[0]))
+						.thenApply((unused) -> collect(loads)))
+				.thenApply((loaded) -> {
+					this.registrations = loaded;
+					return loaded;
+				});
+		// @formatter:on
+		Loading loading = new Loading(registrations, result);
+		this.loading = loading;
+		return loading;
+	}
+
+	private synchronized Executor getExecutor() {
+		if (this.ownedExecutor == null) {
+			AtomicInteger threadCount = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(this.maxConcurrentLoads, this.maxConcurrentLoads, 1,
+					TimeUnit.MINUTES, new LinkedBlockingQueue<>(), (task) -> {
+						Thread thread = new Thread(task,
+								"oauth2-client-registration-load-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			this.ownedExecutor = executor;
+		}
+		return this.ownedExecutor;
+	}
+
+	private void reloadInBackground() {
+		try {
+			reload();
+		}
+		catch (RuntimeException ex) {
+			logger.debug("Failed to reload client registrations, keeping the current ones", ex);
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw ex;
+		}
+	}
+
+	private static Map<String, ClientRegistration> collect(Map<String, CompletableFuture<ClientRegistration>> loads) {
+		Map<String, ClientRegistration> result = new LinkedHashMap<>();
+		loads.forEach((registrationId, load) -> {
+			ClientRegistration registration = load.join();
+			if (registration != null) {
+				result.put(registrationId, registration);
+			}
+		});
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static Map<String, CompletableFuture<ClientRegistration>> load(
+			Supplier<? extends Iterable<ClientRegistration>> registrationsSupplier) {
+		Iterable<ClientRegistration> registrations = registrationsSupplier.get();
+		Assert.notNull(registrations, "registrations cannot be null");
+		Map<String, CompletableFuture<ClientRegistration>> result = new LinkedHashMap<>();
+		for (ClientRegistration registration : registrations) {
+			Assert.state(!result.containsKey(registration.getRegistrationId()),
+					() -> String.format("Duplicate key %s", registration.getRegistrationId()));
+			result.put(registration.getRegistrationId(), CompletableFuture.completedFuture(registration));
+		}
+		return result;
+	}
+
+	private static Map<String, CompletableFuture<ClientRegistration>> load(Map<String, ClientRegistration> current,
+			Supplier<? extends Collection<String>> registrationIdsSupplier,
+			Function<String, ClientRegistration> registrationLoader, Executor executor) {
+		Collection<String> registrationIds = registrationIdsSupplier.get();
+		Assert.notNull(registrationIds, "registrationIds cannot be null");
+		Map<String, CompletableFuture<ClientRegistration>> result = new LinkedHashMap<>();
+		for (String registrationId : registrationIds) {
+			// @formatter:off
+			CompletableFuture<ClientRegistration> load = CompletableFuture
+					.supplyAsync(() -> load(registrationId, registrationLoader), executor)
+					.exceptionally((ex) -> {
+						ClientRegistration previous = current.get(registrationId);
+						logger.warn(LogMessage.format("Failed to load client registration %s, %s", registrationId,
+								(previous != null) ? "keeping the current one"
+										: "it is unavailable until the next reload"), ex);
+						return previous;
+					});
+			// @formatter:on
+			result.put(registrationId, load);
+		}
+		return result;
+	}
+
+	private static ClientRegistration load(String registrationId,
+			Function<String, ClientRegistration> registrationLoader) {
+		ClientRegistration registration = registrationLoader.apply(registrationId);
+		Assert.notNull(registration, () -> "No client registration loaded for " + registrationId);
+		Assert.state(registrationId.equals(registration.getRegistrationId()),
+				() -> "Loaded client registration " + registration.getRegistrationId() + " instead of "
+						+ registrationId);
+		return registration;
+	}
+
+	/**
+	 * Loads the client registration(s), possibly asynchronously on the given
+	 * {@link Executor}, falling back to the {@code current} ones as documented by the
+	 * constructors.
+	 */
+	@FunctionalInterface
+	private interface RegistrationsLoader {
+
+		Map<String, CompletableFuture<ClientRegistration>> load(Map<String, ClientRegistration> current,
+				Executor executor);
+
+	}
+
+	/**
+	 * A load of all client registration(s), whose individual registrations can be
+	 * waited for once their ids are known.
+	 */
+	private static final class Loading {
+
+		private final CompletableFuture<Map<String, CompletableFuture<ClientRegistration>>> registrations;
+
+		private final CompletableFuture<Map<String, ClientRegistration>> result;
+
+		private Loading(CompletableFuture<Map<String, CompletableFuture<ClientRegistration>>> registrations,
+				CompletableFuture<Map<String, ClientRegistration>> result) {
+			this.registrations = registrations;
+			this.result = result;
+		}
+
+	}
+
+}
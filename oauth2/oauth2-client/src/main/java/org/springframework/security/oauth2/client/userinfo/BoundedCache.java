@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.userinfo;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A size bounded cache backed by a {@link ConcurrentHashMap}. Reads do not take a lock
+ * nor reorder entries; once the maximum size is exceeded, about a tenth of the entries
+ * are evicted in no particular order, except for the entry that was just added.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 6.2
+ */
+final class BoundedCache<K, V> {
+
+	private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+	private final int maximumSize;
+
+	private final Consumer<V> evictionListener;
+
+	BoundedCache(int maximumSize) {
+		this(maximumSize, (value) -> {
+		});
+	}
+
+	BoundedCache(int maximumSize, Consumer<V> evictionListener) {
+		this.maximumSize = maximumSize;
+		this.evictionListener = evictionListener;
+	}
+
+	V get(K key) {
+		return this.entries.get(key);
+	}
+
+	void put(K key, V value) {
+		this.entries.put(key, value);
+		evictIfNecessary(key);
+	}
+
+	V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V value = this.entries.get(key);
+		if (value != null) {
+			return value;
+		}
+		value = this.entries.computeIfAbsent(key, mappingFunction);
+		evictIfNecessary(key);
+		return value;
+	}
+
+	V remove(K key) {
+		return this.entries.remove(key);
+	}
+
+	boolean remove(K key, V value) {
+		return this.entries.remove(key, value);
+	}
+
+	Set<K> keys() {
+		return this.entries.keySet();
+	}
+
+	int size() {
+		return this.entries.size();
+	}
+
+	void clear() {
+		this.entries.clear();
+	}
+
+	private void evictIfNecessary(K added) {
+		if (this.entries.size() <= this.maximumSize) {
+			return;
+		}
+		int target = this.maximumSize - this.maximumSize / 10;
+		Iterator<Map.Entry<K, V>> entries = this.entries.entrySet().iterator();
+		while (this.entries.size() > target && entries.hasNext()) {
+			Map.Entry<K, V> entry = entries.next();
+			if (!entry.getKey().equals(added) && this.entries.remove(entry.getKey(), entry.getValue())) {
+				this.evictionListener.accept(entry.getValue());
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,8 @@ public class DefaultOAuth2UserService implements OAuth2UserService<OAuth2UserReq
 
 	private RestOperations restOperations;
 
+	private UserInfoCache userInfoCache;
+
 	public DefaultOAuth2UserService() {
 		RestTemplate restTemplate = new RestTemplate();
 		restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
@@ -104,9 +106,9 @@ public class DefaultOAuth2UserService implements OAuth2UserService<OAuth2UserReq
 					null);
 			throw new OAuth2AuthenticationException(oauth2Error, oauth2Error.toString());
 		}
-		RequestEntity<?> request = this.requestEntityConverter.convert(userRequest);
-		ResponseEntity<Map<String, Object>> response = getResponse(userRequest, request);
-		Map<String, Object> userAttributes = response.getBody();
+		Map<String, Object> userAttributes = (this.userInfoCache != null)
+				? this.userInfoCache.get(userRequest, () -> getUserAttributes(userRequest))
+				: getUserAttributes(userRequest);
 		Set<GrantedAuthority> authorities = new LinkedHashSet<>();
 		authorities.add(new OAuth2UserAuthority(userAttributes));
 		OAuth2AccessToken token = userRequest.getAccessToken();
@@ -116,6 +118,12 @@ public class DefaultOAuth2UserService implements OAuth2UserService<OAuth2UserReq
 		return new DefaultOAuth2User(authorities, userAttributes, userNameAttributeName);
 	}
 
+	private Map<String, Object> getUserAttributes(OAuth2UserRequest userRequest) {
+		RequestEntity<?> request = this.requestEntityConverter.convert(userRequest);
+		ResponseEntity<Map<String, Object>> response = getResponse(userRequest, request);
+		return response.getBody();
+	}
+
 	private ResponseEntity<Map<String, Object>> getResponse(OAuth2UserRequest userRequest, RequestEntity<?> request) {
 		try {
 			return this.restOperations.exchange(request, PARAMETERIZED_RESPONSE_TYPE);
@@ -185,4 +193,15 @@ public class DefaultOAuth2UserService implements OAuth2UserService<OAuth2UserReq
 		this.restOperations = restOperations;
 	}
 
+	/**
+	 * Sets the {@link UserInfoCache} used to remember the UserInfo responses obtained for
+	 * an access token. There is no cache by default.
+	 * @param userInfoCache the {@link UserInfoCache} to use
+	 * @since 6.2
+	 */
+	public final void setUserInfoCache(UserInfoCache userInfoCache) {
+		Assert.notNull(userInfoCache, "userInfoCache cannot be null");
+		this.userInfoCache = userInfoCache;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.security.oauth2.client.userinfo;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.nimbusds.oauth2.sdk.ErrorObject;
 import com.nimbusds.openid.connect.sdk.UserInfoErrorResponse;
@@ -78,8 +80,12 @@ public class DefaultReactiveOAuth2UserService implements ReactiveOAuth2UserServi
 	private static final ParameterizedTypeReference<Map<String, String>> STRING_STRING_MAP = new ParameterizedTypeReference<Map<String, String>>() {
 	};
 
+	private final Map<UserInfoCache.Key, Mono<Map<String, Object>>> userInfoLoads = new ConcurrentHashMap<>();
+
 	private WebClient webClient = WebClient.create();
 
+	private UserInfoCache userInfoCache;
+
 	@Override
 	public Mono<OAuth2User> loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
 		return Mono.defer(() -> {
@@ -118,6 +124,9 @@ public class DefaultReactiveOAuth2UserService implements ReactiveOAuth2UserServi
 							})
 					)
 					.bodyToMono(DefaultReactiveOAuth2UserService.STRING_OBJECT_MAP);
+			if (this.userInfoCache != null) {
+				userAttributes = getCachedUserAttributes(userRequest, userAttributes);
+			}
 			return userAttributes.map((attrs) -> {
 				GrantedAuthority authority = new OAuth2UserAuthority(attrs);
 				Set<GrantedAuthority> authorities = new HashSet<>();
@@ -157,6 +166,28 @@ public class DefaultReactiveOAuth2UserService implements ReactiveOAuth2UserServi
 		// @formatter:on
 	}
 
+	private Mono<Map<String, Object>> getCachedUserAttributes(OAuth2UserRequest userRequest,
+			Mono<Map<String, Object>> userAttributes) {
+		UserInfoCache.Key key = new UserInfoCache.Key(userRequest);
+		Map<String, Object> cached = this.userInfoCache.get(key);
+		if (cached != null) {
+			return Mono.just(cached);
+		}
+		AtomicReference<Mono<Map<String, Object>>> load = new AtomicReference<>();
+		// @formatter:off
+		load.set(userAttributes
+				.doOnNext((attrs) -> this.userInfoCache.put(key, attrs, userRequest.getAccessToken()))
+				.doFinally((signal) -> this.userInfoLoads.remove(key, load.get()))
+				.cache());
+		// @formatter:on
+		Mono<Map<String, Object>> inFlight = this.userInfoLoads.putIfAbsent(key, load.get());
+		if (inFlight != null) {
+			this.userInfoCache.coalesced();
+			return inFlight;
+		}
+		return load.get();
+	}
+
 	private WebClient.RequestHeadersSpec<?> getRequestHeaderSpec(OAuth2UserRequest userRequest, String userInfoUri,
 			AuthenticationMethod authenticationMethod) {
 		if (AuthenticationMethod.FORM.equals(authenticationMethod)) {
@@ -187,6 +218,17 @@ public class DefaultReactiveOAuth2UserService implements ReactiveOAuth2UserServi
 		this.webClient = webClient;
 	}
 
+	/**
+	 * Sets the {@link UserInfoCache} used to remember the UserInfo responses obtained for
+	 * an access token. There is no cache by default.
+	 * @param userInfoCache the {@link UserInfoCache} to use
+	 * @since 6.2
+	 */
+	public void setUserInfoCache(UserInfoCache userInfoCache) {
+		Assert.notNull(userInfoCache, "userInfoCache cannot be null");
+		this.userInfoCache = userInfoCache;
+	}
+
 	private static Mono<UserInfoErrorResponse> parse(ClientResponse httpResponse) {
 		String wwwAuth = httpResponse.headers().asHttpHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE);
 		if (StringUtils.hasLength(wwwAuth)) {
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.userinfo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of UserInfo responses, so that a user who logs in again with the same
+ * access token, for example when a mobile application refreshes its session, does not
+ * cause another call to the UserInfo Endpoint.
+ *
+ * <p>
+ * Entries are keyed by the {@link OAuth2UserRequest#getClientRegistration() registration
+ * id} and a SHA-256 hash of the access token, which identifies the subject the UserInfo
+ * response is about. They are kept until the access token expires or until the
+ * configured time to live elapses, whichever comes first. Lookups do not take a lock;
+ * once the maximum size is exceeded, about a tenth of the entries are evicted in no
+ * particular order. Concurrent requests for an entry that is not cached yet share a
+ * single call to the UserInfo Endpoint.
+ *
+ * <p>
+ * The hit, miss and coalesced request counts are available for monitoring.
+ *
+ * <p>
+ * {@code OidcUserService} and {@code OidcReactiveOAuth2UserService} call the UserInfo
+ * Endpoint through their {@link DefaultOAuth2UserService} and
+ * {@link DefaultReactiveOAuth2UserService} delegates, so the cache applies to them once
+ * it is configured on the delegate.
+ *
+ * @since 6.2
+ * @see DefaultOAuth2UserService#setUserInfoCache(UserInfoCache)
+ * @see DefaultReactiveOAuth2UserService#setUserInfoCache(UserInfoCache)
+ */
+public final class UserInfoCache {
+
+	private final Duration timeToLive;
+
+	private final BoundedCache<Key, CachedUserInfo> cache;
+
+	private final Map<Key, CompletableFuture<Map<String, Object>>> loading = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder coalescedRequests = new LongAdder();
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Constructs a {@code UserInfoCache} using the provided parameters.
+	 * @param maximumSize the maximum number of UserInfo responses to keep
+	 * @param timeToLive the maximum amount of time to keep a UserInfo response, even if
+	 * the access token has not expired yet
+	 */
+	public UserInfoCache(int maximumSize, Duration timeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+		this.cache = new BoundedCache<>(maximumSize);
+	}
+
+	/**
+	 * Use this {@link Clock} to determine when entries expire
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns the number of times a cached UserInfo response was returned
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the number of times a UserInfo response was not cached, including the
+	 * requests that shared a call to the UserInfo Endpoint
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the ratio of requests that were served from the cache
+	 * @return the hit ratio, between {@code 0} and {@code 1}
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total != 0) ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Returns the number of cache misses that shared the call to the UserInfo Endpoint of
+	 * a concurrent request instead of making their own
+	 * @return the number of coalesced requests
+	 */
+	public long getCoalescedRequestCount() {
+		return this.coalescedRequests.sum();
+	}
+
+	/**
+	 * Returns the number of UserInfo responses currently cached
+	 * @return the number of cached UserInfo responses
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Removes all the cached UserInfo responses
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	Map<String, Object> get(OAuth2UserRequest userRequest, Supplier<Map<String, Object>> userInfoLoader) {
+		Key key = new Key(userRequest);
+		Map<String, Object> cached = get(key);
+		if (cached != null) {
+			return cached;
+		}
+		CompletableFuture<Map<String, Object>> load = new CompletableFuture<>();
+		CompletableFuture<Map<String, Object>> inFlight = this.loading.putIfAbsent(key, load);
+		if (inFlight != null) {
+			this.coalescedRequests.increment();
+			return await(inFlight);
+		}
+		try {
+			Map<String, Object> userAttributes = userInfoLoader.get();
+			put(key, userAttributes, userRequest.getAccessToken());
+			load.complete(userAttributes);
+			return userAttributes;
+		}
+		catch (RuntimeException ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.loading.remove(key, load);
+		}
+	}
+
+	Map<String, Object> get(Key key) {
+		CachedUserInfo cached = this.cache.get(key);
+		if (cached == null) {
+			this.misses.increment();
+			return null;
+		}
+		if (!cached.expiresAt.isAfter(Instant.now(this.clock))) {
+			this.cache.remove(key, cached);
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return cached.userAttributes;
+	}
+
+	void put(Key key, Map<String, Object> userAttributes, OAuth2AccessToken accessToken) {
+		if (userAttributes == null) {
+			return;
+		}
+		Instant expiresAt = Instant.now(this.clock).plus(this.timeToLive);
+		if (accessToken.getExpiresAt() != null && accessToken.getExpiresAt().isBefore(expiresAt)) {
+			expiresAt = accessToken.getExpiresAt();
+		}
+		CachedUserInfo cached = new CachedUserInfo(userAttributes, expiresAt);
+		this.cache.put(key, cached);
+	}
+
+	void coalesced() {
+		this.coalescedRequests.increment();
+	}
+
+	private static Map<String, Object> await(CompletableFuture<Map<String, Object>> load) {
+		try {
+			return load.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw ex;
+		}
+	}
+
+	static final class Key {
+
+		private final String registrationId;
+
+		private final TokenHash accessTokenHash;
+
+		private final int hashCode;
+
+		Key(OAuth2UserRequest userRequest) {
+			this.registrationId = userRequest.getClientRegistration().getRegistrationId();
+			this.accessTokenHash = new TokenHash(userRequest.getAccessToken().getTokenValue());
+			this.hashCode = 31 * this.registrationId.hashCode() + this.accessTokenHash.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return this.registrationId.equals(other.registrationId)
+					&& this.accessTokenHash.equals(other.accessTokenHash);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+	private static final class CachedUserInfo {
+
+		private final Map<String, Object> userAttributes;
+
+		private final Instant expiresAt;
+
+		private CachedUserInfo(Map<String, Object> userAttributes, Instant expiresAt) {
+			this.userAttributes = userAttributes;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -220,6 +220,11 @@ public final class DefaultOAuth2AuthorizationRequestResolver implements OAuth2Au
 	 */
 	private static String expandRedirectUri(HttpServletRequest request, ClientRegistration clientRegistration,
 			String action) {
+		String redirectUri = clientRegistration.getRedirectUri();
+		if (redirectUri.indexOf('{') == -1) {
+			// nothing to expand, so avoid parsing the current request URL
+			return redirectUri;
+		}
 		Map<String, String> uriVariables = new HashMap<>();
 		uriVariables.put("registrationId", clientRegistration.getRegistrationId());
 		// @formatter:off
@@ -245,8 +250,7 @@ public final class DefaultOAuth2AuthorizationRequestResolver implements OAuth2Au
 		uriVariables.put("basePath", (path != null) ? path : "");
 		uriVariables.put("baseUrl", uriComponents.toUriString());
 		uriVariables.put("action", (action != null) ? action : "");
-		return UriComponentsBuilder.fromUriString(clientRegistration.getRedirectUri()).buildAndExpand(uriVariables)
-				.toUriString();
+		return UriComponentsBuilder.fromUriString(redirectUri).buildAndExpand(uriVariables).toUriString();
 	}
 
 	/**
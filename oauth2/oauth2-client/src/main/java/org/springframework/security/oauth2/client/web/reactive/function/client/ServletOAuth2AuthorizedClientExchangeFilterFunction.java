@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.stream.Stream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
@@ -114,6 +115,22 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
  * will <em>NOT</em> be configured automatically. It is recommended that you configure one
  * via {@link #setAuthorizationFailureHandler(OAuth2AuthorizationFailureHandler)}.
  *
+ * <h3>Blocking Authorization</h3>
+ *
+ * <p>
+ * The {@link OAuth2AuthorizedClientManager} blocks while it loads, saves or retrieves a
+ * token, so it is invoked on {@link Schedulers#boundedElastic()} by default. Under high
+ * outbound fan-out, this pool may be exhausted; on Java 21 and later,
+ * {@link #setAuthorizationScheduler(Scheduler)} can be used to run authorizations on
+ * virtual threads instead.
+ *
+ * <p>
+ * The {@code HttpServletRequest}, {@code HttpServletResponse} and
+ * {@link Authentication} used to authorize are resolved once per exchange, from the
+ * request attributes or else from the Reactor context, and shared by the
+ * re-authorization and the authorization of that exchange. They are not cached across
+ * exchanges, nor added to the attributes of the request that is sent.
+ *
  * @author Rob Winch
  * @author Joe Grandja
  * @author Roman Matiushchenko
@@ -157,6 +174,8 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 
 	private ClientResponseHandler clientResponseHandler;
 
+	private Scheduler authorizationScheduler = Schedulers.boundedElastic();
+
 	public ServletOAuth2AuthorizedClientExchangeFilterFunction() {
 	}
 
@@ -258,6 +277,26 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 		this.securityContextHolderStrategy = securityContextHolderStrategy;
 	}
 
+	/**
+	 * Sets the {@link Scheduler} on which the {@link OAuth2AuthorizedClientManager} and
+	 * the {@link OAuth2AuthorizationFailureHandler} are invoked, since they may block.
+	 * The default is {@link Schedulers#boundedElastic()}.
+	 *
+	 * <p>
+	 * On Java 21 and later, authorizations can run on virtual threads so that blocked
+	 * authorizations do not hold on to platform threads:
+	 *
+	 * <pre>
+	 * oauth2.setAuthorizationScheduler(Schedulers.fromExecutor(new VirtualThreadTaskExecutor("oauth2-")));
+	 * </pre>
+	 * @param authorizationScheduler the {@link Scheduler} to use
+	 * @since 6.2
+	 */
+	public void setAuthorizationScheduler(Scheduler authorizationScheduler) {
+		Assert.notNull(authorizationScheduler, "authorizationScheduler cannot be null");
+		this.authorizationScheduler = authorizationScheduler;
+	}
+
 	/**
 	 * Configures the builder with {@link #defaultRequest()} and adds this as a
 	 * {@link ExchangeFilterFunction}
@@ -374,21 +413,27 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
 		// @formatter:off
 		return mergeRequestAttributesIfNecessary(request)
-				.filter((req) -> req.attribute(OAUTH2_AUTHORIZED_CLIENT_ATTR_NAME).isPresent())
-				.flatMap((req) -> reauthorizeClient(getOAuth2AuthorizedClient(req.attributes()), req))
-				.switchIfEmpty(
-						Mono.defer(() ->
-							mergeRequestAttributesIfNecessary(request)
-								.filter((req) -> resolveClientRegistrationId(req) != null)
-								.flatMap((req) -> authorizeClient(resolveClientRegistrationId(req), req))
-						)
-				)
+				.flatMap(this::authorizeClient)
 				.map((authorizedClient) -> bearer(request, authorizedClient))
 				.flatMap((requestWithBearer) -> exchangeAndHandleResponse(requestWithBearer, next))
 				.switchIfEmpty(Mono.defer(() -> exchangeAndHandleResponse(request, next)));
 		// @formatter:on
 	}
 
+	private Mono<OAuth2AuthorizedClient> authorizeClient(ClientRequest request) {
+		// @formatter:off
+		Mono<OAuth2AuthorizedClient> authorize = Mono.defer(() -> {
+			String clientRegistrationId = resolveClientRegistrationId(request);
+			return (clientRegistrationId != null) ? authorizeClient(clientRegistrationId, request) : Mono.empty();
+		});
+		// @formatter:on
+		OAuth2AuthorizedClient authorizedClient = getOAuth2AuthorizedClient(request.attributes());
+		if (authorizedClient == null) {
+			return authorize;
+		}
+		return reauthorizeClient(authorizedClient, request).switchIfEmpty(authorize);
+	}
+
 	private Mono<ClientResponse> exchangeAndHandleResponse(ClientRequest request, ExchangeFunction next) {
 		return next.exchange(request)
 				.transform((responseMono) -> this.clientResponseHandler.handleResponse(request, responseMono));
@@ -404,10 +449,12 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 	}
 
 	private Mono<ClientRequest> mergeRequestAttributesFromContext(ClientRequest request) {
-		ClientRequest.Builder builder = ClientRequest.from(request);
-		return Mono.deferContextual(Mono::just).cast(Context.class)
-				.map((ctx) -> builder.attributes((attrs) -> populateRequestAttributes(attrs, ctx)))
-				.map(ClientRequest.Builder::build);
+		return Mono.deferContextual(Mono::just).cast(Context.class).map((ctx) -> {
+			if (!ctx.hasKey(SECURITY_REACTOR_CONTEXT_ATTRIBUTES_KEY)) {
+				return request;
+			}
+			return ClientRequest.from(request).attributes((attrs) -> populateRequestAttributes(attrs, ctx)).build();
+		});
 	}
 
 	private void populateRequestAttributes(Map<String, Object> attrs, Context ctx) {
@@ -480,10 +527,10 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 		builder.attributes((attributes) -> addToAttributes(attributes, servletRequest, servletResponse));
 		OAuth2AuthorizeRequest authorizeRequest = builder.build();
 		// NOTE: 'authorizedClientManager.authorize()' needs to be executed on a dedicated
-		// thread via subscribeOn(Schedulers.boundedElastic()) since it performs a
+		// thread via subscribeOn(authorizationScheduler) since it performs a
 		// blocking I/O operation using RestTemplate internally
 		return Mono.fromSupplier(() -> this.authorizedClientManager.authorize(authorizeRequest))
-				.subscribeOn(Schedulers.boundedElastic());
+				.subscribeOn(this.authorizationScheduler);
 	}
 
 	private Mono<OAuth2AuthorizedClient> reauthorizeClient(OAuth2AuthorizedClient authorizedClient,
@@ -503,10 +550,10 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 		builder.attributes((attributes) -> addToAttributes(attributes, servletRequest, servletResponse));
 		OAuth2AuthorizeRequest reauthorizeRequest = builder.build();
 		// NOTE: 'authorizedClientManager.authorize()' needs to be executed on a dedicated
-		// thread via subscribeOn(Schedulers.boundedElastic()) since it performs a
+		// thread via subscribeOn(authorizationScheduler) since it performs a
 		// blocking I/O operation using RestTemplate internally
 		return Mono.fromSupplier(() -> this.authorizedClientManager.authorize(reauthorizeRequest))
-				.subscribeOn(Schedulers.boundedElastic());
+				.subscribeOn(this.authorizationScheduler);
 	}
 
 	private void addToAttributes(Map<String, Object> attributes, HttpServletRequest servletRequest,
@@ -577,7 +624,7 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 	 *
 	 * @since 5.3
 	 */
-	private static final class AuthorizationFailureForwarder implements ClientResponseHandler {
+	private final class AuthorizationFailureForwarder implements ClientResponseHandler {
 
 		/**
 		 * A map of HTTP status code to OAuth 2.0 error code for HTTP status codes that
@@ -732,7 +779,7 @@ public final class ServletOAuth2AuthorizedClientExchangeFilterFunction implement
 					createAttributes(servletRequest, servletResponse));
 			// @formatter:off
 			return Mono.fromRunnable(runnable)
-					.subscribeOn(Schedulers.boundedElastic())
+					.subscribeOn(ServletOAuth2AuthorizedClientExchangeFilterFunction.this.authorizationScheduler)
 					.then();
 			// @formatter:on
 		}
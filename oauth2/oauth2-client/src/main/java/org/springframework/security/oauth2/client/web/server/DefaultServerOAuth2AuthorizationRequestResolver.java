@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -224,6 +224,11 @@ public class DefaultServerOAuth2AuthorizationRequestResolver implements ServerOA
 	 * @return expanded URI
 	 */
 	private static String expandRedirectUri(ServerHttpRequest request, ClientRegistration clientRegistration) {
+		String redirectUri = clientRegistration.getRedirectUri();
+		if (redirectUri.indexOf('{') == -1) {
+			// nothing to expand, so avoid parsing the current request URL
+			return redirectUri;
+		}
 		Map<String, String> uriVariables = new HashMap<>();
 		uriVariables.put("registrationId", clientRegistration.getRegistrationId());
 		// @formatter:off
@@ -254,7 +259,7 @@ public class DefaultServerOAuth2AuthorizationRequestResolver implements ServerOA
 		}
 		uriVariables.put("action", action);
 		// @formatter:off
-		return UriComponentsBuilder.fromUriString(clientRegistration.getRedirectUri())
+		return UriComponentsBuilder.fromUriString(redirectUri)
 				.buildAndExpand(uriVariables)
 				.toUriString();
 		// @formatter:on
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.security.oauth2.client;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -43,6 +44,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -364,4 +366,77 @@ public class AuthorizedClientServiceOAuth2AuthorizedClientManagerTests {
 		verifyNoInteractions(this.authorizedClientService);
 	}
 
+	@Test
+	public void authorizeWhenCoalesceAuthorizationsAndConcurrentRequestThenAuthorizedOnce() throws Exception {
+		given(this.clientRegistrationRepository.findByRegistrationId(eq(this.clientRegistration.getRegistrationId())))
+				.willReturn(this.clientRegistration);
+		// @formatter:off
+		OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest
+				.withClientRegistrationId(this.clientRegistration.getRegistrationId())
+				.principal(this.principal)
+				.build();
+		// @formatter:on
+		AtomicReference<OAuth2AuthorizedClient> concurrentResult = new AtomicReference<>();
+		Thread concurrentRequest = new Thread(
+				() -> concurrentResult.set(this.authorizedClientManager.authorize(authorizeRequest)));
+		given(this.authorizedClientProvider.authorize(any(OAuth2AuthorizationContext.class)))
+				.willAnswer((invocation) -> {
+					concurrentRequest.start();
+					awaitWaitingOrTerminated(concurrentRequest);
+					return this.authorizedClient;
+				});
+		this.authorizedClientManager.setCoalesceAuthorizations(true);
+		OAuth2AuthorizedClient authorizedClient = this.authorizedClientManager.authorize(authorizeRequest);
+		concurrentRequest.join();
+		assertThat(authorizedClient).isSameAs(this.authorizedClient);
+		assertThat(concurrentResult.get()).isSameAs(this.authorizedClient);
+		verify(this.authorizedClientProvider, times(1)).authorize(any(OAuth2AuthorizationContext.class));
+		verify(this.authorizedClientService, times(1)).saveAuthorizedClient(eq(this.authorizedClient),
+				eq(this.principal));
+	}
+
+	@Test
+	public void authorizeWhenCoalesceAuthorizationsAndConcurrentRequestFailsThenSameException() throws Exception {
+		given(this.clientRegistrationRepository.findByRegistrationId(eq(this.clientRegistration.getRegistrationId())))
+				.willReturn(this.clientRegistration);
+		ClientAuthorizationException authorizationException = new ClientAuthorizationException(
+				new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT, null, null),
+				this.clientRegistration.getRegistrationId());
+		// @formatter:off
+		OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest
+				.withClientRegistrationId(this.clientRegistration.getRegistrationId())
+				.principal(this.principal)
+				.build();
+		// @formatter:on
+		AtomicReference<Throwable> concurrentResult = new AtomicReference<>();
+		Thread concurrentRequest = new Thread(() -> {
+			try {
+				this.authorizedClientManager.authorize(authorizeRequest);
+			}
+			catch (Throwable ex) {
+				concurrentResult.set(ex);
+			}
+		});
+		given(this.authorizedClientProvider.authorize(any(OAuth2AuthorizationContext.class)))
+				.willAnswer((invocation) -> {
+					concurrentRequest.start();
+					awaitWaitingOrTerminated(concurrentRequest);
+					throw authorizationException;
+				});
+		this.authorizedClientManager.setCoalesceAuthorizations(true);
+		assertThatExceptionOfType(ClientAuthorizationException.class)
+				.isThrownBy(() -> this.authorizedClientManager.authorize(authorizeRequest))
+				.isEqualTo(authorizationException);
+		concurrentRequest.join();
+		assertThat(concurrentResult.get()).isSameAs(authorizationException);
+		verify(this.authorizedClientProvider, times(1)).authorize(any(OAuth2AuthorizationContext.class));
+		verify(this.authorizationFailureHandler, times(1)).onAuthorizationFailure(eq(authorizationException),
+				eq(this.principal), any());
+	}
+
+	private static void awaitWaitingOrTerminated(Thread thread) {
+		while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TERMINATED) {
+			Thread.onSpinWait();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.PublisherProbe;
 
@@ -46,6 +47,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -502,4 +504,56 @@ public class AuthorizedClientServiceReactiveOAuth2AuthorizedClientManagerTests {
 		assertThat(requestScopeAttribute).contains("read", "write");
 	}
 
+	@Test
+	public void authorizeWhenCoalesceAuthorizationsAndConcurrentRequestThenAuthorizedOnce() {
+		given(this.clientRegistrationRepository.findByRegistrationId(eq(this.clientRegistration.getRegistrationId())))
+				.willReturn(Mono.just(this.clientRegistration));
+		given(this.authorizedClientService.loadAuthorizedClient(any(), any())).willReturn(Mono.empty());
+		Sinks.One<OAuth2AuthorizedClient> tokenResponse = Sinks.one();
+		given(this.authorizedClientProvider.authorize(any(OAuth2AuthorizationContext.class)))
+				.willReturn(tokenResponse.asMono());
+		OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest
+				.withClientRegistrationId(this.clientRegistration.getRegistrationId()).principal(this.principal)
+				.build();
+		this.authorizedClientManager.setCoalesceAuthorizations(true);
+		StepVerifier first = StepVerifier.create(this.authorizedClientManager.authorize(authorizeRequest))
+				.expectNext(this.authorizedClient).expectComplete().verifyLater();
+		StepVerifier second = StepVerifier.create(this.authorizedClientManager.authorize(authorizeRequest))
+				.expectNext(this.authorizedClient).expectComplete().verifyLater();
+		tokenResponse.tryEmitValue(this.authorizedClient);
+		first.verify();
+		second.verify();
+		verify(this.authorizedClientProvider, times(1)).authorize(any(OAuth2AuthorizationContext.class));
+		verify(this.authorizedClientService, times(1)).saveAuthorizedClient(eq(this.authorizedClient),
+				eq(this.principal));
+		StepVerifier.create(this.authorizedClientManager.authorize(authorizeRequest))
+				.expectNext(this.authorizedClient).verifyComplete();
+		verify(this.authorizedClientProvider, times(2)).authorize(any(OAuth2AuthorizationContext.class));
+	}
+
+	@Test
+	public void authorizeWhenCoalesceAuthorizationsAndDifferentAttributesThenAuthorizedSeparately() {
+		given(this.clientRegistrationRepository.findByRegistrationId(eq(this.clientRegistration.getRegistrationId())))
+				.willReturn(Mono.just(this.clientRegistration));
+		given(this.authorizedClientService.loadAuthorizedClient(any(), any())).willReturn(Mono.empty());
+		Sinks.One<OAuth2AuthorizedClient> tokenResponse = Sinks.one();
+		given(this.authorizedClientProvider.authorize(any(OAuth2AuthorizationContext.class)))
+				.willReturn(tokenResponse.asMono());
+		OAuth2AuthorizeRequest readRequest = OAuth2AuthorizeRequest
+				.withClientRegistrationId(this.clientRegistration.getRegistrationId()).principal(this.principal)
+				.attribute(OAuth2AuthorizationContext.REQUEST_SCOPE_ATTRIBUTE_NAME, "read").build();
+		OAuth2AuthorizeRequest writeRequest = OAuth2AuthorizeRequest
+				.withClientRegistrationId(this.clientRegistration.getRegistrationId()).principal(this.principal)
+				.attribute(OAuth2AuthorizationContext.REQUEST_SCOPE_ATTRIBUTE_NAME, "write").build();
+		this.authorizedClientManager.setCoalesceAuthorizations(true);
+		StepVerifier first = StepVerifier.create(this.authorizedClientManager.authorize(readRequest))
+				.expectNext(this.authorizedClient).expectComplete().verifyLater();
+		StepVerifier second = StepVerifier.create(this.authorizedClientManager.authorize(writeRequest))
+				.expectNext(this.authorizedClient).expectComplete().verifyLater();
+		tokenResponse.tryEmitValue(this.authorizedClient);
+		first.verify();
+		second.verify();
+		verify(this.authorizedClientProvider, times(2)).authorize(any(OAuth2AuthorizationContext.class));
+	}
+
 }
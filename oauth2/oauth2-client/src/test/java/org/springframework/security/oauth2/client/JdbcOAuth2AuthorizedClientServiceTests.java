@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,20 +19,29 @@ package org.springframework.security.oauth2.client;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
@@ -56,12 +65,20 @@ import org.springframework.util.StringUtils;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -356,6 +373,297 @@ public class JdbcOAuth2AuthorizedClientServiceTests {
 		assertThat(authorizedClient).isNull();
 	}
 
+	@Test
+	public void setCacheTimeToLiveWhenNegativeThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.authorizedClientService.setCacheTimeToLive(Duration.ofSeconds(-1)))
+				.withMessage("cacheTimeToLive cannot be negative");
+	}
+
+	@Test
+	public void setCacheMaximumSizeWhenNotPositiveThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setCacheMaximumSize(0))
+				.withMessage("cacheMaximumSize must be positive");
+	}
+
+	@Test
+	public void setWriteBehindBatchSizeWhenNotPositiveThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setWriteBehindBatchSize(0))
+				.withMessage("writeBehindBatchSize must be positive");
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenCachedThenDatabaseNotQueried() {
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal);
+		deleteAll();
+		assertThat(this.authorizedClientService.loadAuthorizedClient(this.clientRegistration.getRegistrationId(),
+				principal.getName()))
+				.isSameAs(authorizedClient);
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenCachedAndRemovedThenReturnNull() {
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal);
+		this.authorizedClientService.removeAuthorizedClient(this.clientRegistration.getRegistrationId(),
+				principal.getName());
+		assertThat(this.authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(
+				this.clientRegistration.getRegistrationId(), principal.getName()))
+				.isNull();
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenLoadedFromDatabaseThenCached() {
+		Authentication principal = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		OAuth2AuthorizedClient loaded = this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName());
+		deleteAll();
+		assertThat(this.authorizedClientService.loadAuthorizedClient(this.clientRegistration.getRegistrationId(),
+				principal.getName()))
+				.isSameAs(loaded);
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenWriteBehindThenWrittenOnFlush() {
+		this.authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal);
+		assertThat(this.authorizedClientService.loadAuthorizedClient(this.clientRegistration.getRegistrationId(),
+				principal.getName()))
+				.isSameAs(authorizedClient);
+		assertThat(countAll()).isZero();
+		this.authorizedClientService.flush();
+		assertThat(countAll()).isEqualTo(1);
+		this.authorizedClientService.destroy();
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenWriteBehindAndRemovedThenNotWritten() {
+		this.authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		Authentication principal = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		this.authorizedClientService.removeAuthorizedClient(this.clientRegistration.getRegistrationId(),
+				principal.getName());
+		this.authorizedClientService.destroy();
+		assertThat(countAll()).isZero();
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenManySavesWithWriteBehindThenAllWritten() {
+		JdbcOAuth2AuthorizedClientService reader = new JdbcOAuth2AuthorizedClientService(this.jdbcOperations,
+				this.clientRegistrationRepository);
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		this.authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		this.authorizedClientService.setWriteBehindBatchSize(1000);
+		Authentication principal = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		this.authorizedClientService.flush();
+		for (int i = 0; i < 500; i++) {
+			Authentication other = createPrincipal();
+			this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(other, this.clientRegistration),
+					other);
+		}
+		OAuth2AuthorizedClient updated = createAuthorizedClient(principal, this.clientRegistration, true);
+		this.authorizedClientService.saveAuthorizedClient(updated, principal);
+		this.authorizedClientService.destroy();
+		assertThat(countAll()).isEqualTo(501);
+		OAuth2AuthorizedClient authorizedClient = reader
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName());
+		assertThat(authorizedClient.getAccessToken().getTokenValue())
+				.isEqualTo(updated.getAccessToken().getTokenValue());
+		assertThat(authorizedClient.getRefreshToken()).isNull();
+	}
+
+	@Test
+	public void setWriteBehindMaximumPendingWritesWhenNotPositiveThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.authorizedClientService.setWriteBehindMaximumPendingWrites(0))
+				.withMessage("writeBehindMaximumPendingWrites must be positive");
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenMaximumPendingWritesReachedThenWrittenImmediately() {
+		this.authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		this.authorizedClientService.setWriteBehindMaximumPendingWrites(1);
+		Authentication principal = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		Authentication other = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(other, this.clientRegistration),
+				other);
+		assertThat(countAll()).isEqualTo(1);
+		this.authorizedClientService.destroy();
+		assertThat(countAll()).isEqualTo(2);
+	}
+
+	@Test
+	public void flushWhenBatchFailsThenWrittenOneByOne() {
+		JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(this.db));
+		willThrow(new DataAccessResourceFailureException("batch failed")).given(jdbcTemplate)
+				.batchUpdate(startsWith("UPDATE"), any(BatchPreparedStatementSetter.class));
+		JdbcOAuth2AuthorizedClientService authorizedClientService = new JdbcOAuth2AuthorizedClientService(
+				jdbcTemplate, this.clientRegistrationRepository);
+		authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		for (int i = 0; i < 2; i++) {
+			Authentication principal = createPrincipal();
+			authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+					principal);
+		}
+		authorizedClientService.flush();
+		assertThat(countAll()).isEqualTo(2);
+		authorizedClientService.destroy();
+	}
+
+	@Test
+	public void flushWhenSaveKeepsFailingThenDropped() {
+		JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(this.db));
+		willThrow(new DataAccessResourceFailureException("batch failed")).given(jdbcTemplate)
+				.batchUpdate(startsWith("UPDATE"), any(BatchPreparedStatementSetter.class));
+		willThrow(new DataAccessResourceFailureException("insert failed")).given(jdbcTemplate)
+				.update(startsWith("INSERT"), any(PreparedStatementSetter.class));
+		JdbcOAuth2AuthorizedClientService authorizedClientService = new JdbcOAuth2AuthorizedClientService(
+				jdbcTemplate, this.clientRegistrationRepository);
+		authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		Authentication principal = createPrincipal();
+		authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		authorizedClientService.flush();
+		authorizedClientService.flush();
+		assertThat(authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(
+				this.clientRegistration.getRegistrationId(), principal.getName()))
+				.isNotNull();
+		authorizedClientService.flush();
+		authorizedClientService.flush();
+		verify(jdbcTemplate, times(3)).update(startsWith("INSERT"), any(PreparedStatementSetter.class));
+		assertThat(authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(
+				this.clientRegistration.getRegistrationId(), principal.getName()))
+				.isNull();
+		authorizedClientService.destroy();
+	}
+
+	@Test
+	public void loadAuthorizedClientsWhenSomeExistThenReturnedInRequestedOrder() {
+		ClientRegistration github = TestClientRegistrations.clientRegistration().registrationId("github").build();
+		given(this.clientRegistrationRepository.findByRegistrationId("github")).willReturn(github);
+		Authentication principal = createPrincipal();
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, github), principal);
+		Map<String, OAuth2AuthorizedClient> authorizedClients = this.authorizedClientService.loadAuthorizedClients(
+				Arrays.asList("github", "missing", this.clientRegistration.getRegistrationId()), principal.getName());
+		assertThat(authorizedClients).containsOnlyKeys("github", this.clientRegistration.getRegistrationId());
+		assertThat(authorizedClients.keySet()).containsExactly("github", this.clientRegistration.getRegistrationId());
+		assertThat(authorizedClients.get("github").getClientRegistration()).isEqualTo(github);
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenWriteBehindAndDriverReturnsSuccessNoInfoThenAllWritten() {
+		JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(this.db));
+		willAnswer((invocation) -> {
+			int[] updateCounts = (int[]) invocation.callRealMethod();
+			Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+			return updateCounts;
+		}).given(jdbcTemplate).batchUpdate(startsWith("UPDATE"), any(BatchPreparedStatementSetter.class));
+		JdbcOAuth2AuthorizedClientService authorizedClientService = new JdbcOAuth2AuthorizedClientService(
+				jdbcTemplate, this.clientRegistrationRepository);
+		authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		Authentication principal = createPrincipal();
+		authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+				principal);
+		authorizedClientService.flush();
+		OAuth2AuthorizedClient updated = createAuthorizedClient(principal, this.clientRegistration, true);
+		authorizedClientService.saveAuthorizedClient(updated, principal);
+		Authentication other = createPrincipal();
+		authorizedClientService.saveAuthorizedClient(createAuthorizedClient(other, this.clientRegistration), other);
+		authorizedClientService.destroy();
+		assertThat(countAll()).isEqualTo(2);
+		OAuth2AuthorizedClient authorizedClient = this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName());
+		assertThat(authorizedClient.getAccessToken().getTokenValue())
+				.isEqualTo(updated.getAccessToken().getTokenValue());
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenWriteBehindSchedulerProvidedThenNotShutDown() {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		ScheduledFuture<?> writeBehindFlush = mock(ScheduledFuture.class);
+		given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+				.willAnswer((invocation) -> writeBehindFlush);
+		this.authorizedClientService.setWriteBehindScheduler(scheduler);
+		this.authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+		assertThatIllegalStateException()
+				.isThrownBy(() -> this.authorizedClientService.setWriteBehindScheduler(scheduler));
+		this.authorizedClientService.destroy();
+		verify(writeBehindFlush).cancel(false);
+		verify(scheduler, never()).shutdown();
+	}
+
+	// Measures database round trips rather than wall-clock throughput, which would make
+	// for a flaky test
+	@Test
+	public void saveAuthorizedClientWhenWriteBehindOnH2ThenWrittenInBatches() {
+		// @formatter:off
+		EmbeddedDatabase h2 = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.setScriptEncoding("UTF-8")
+				.addScript(OAUTH2_CLIENT_SCHEMA_SQL_RESOURCE)
+				.build();
+		// @formatter:on
+		try {
+			JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(h2));
+			ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+			given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+					.willAnswer((invocation) -> mock(ScheduledFuture.class));
+			JdbcOAuth2AuthorizedClientService authorizedClientService = new JdbcOAuth2AuthorizedClientService(
+					jdbcTemplate, this.clientRegistrationRepository);
+			authorizedClientService.setWriteBehindScheduler(scheduler);
+			authorizedClientService.setWriteBehindInterval(Duration.ofHours(1));
+			authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+			List<Authentication> principals = new ArrayList<>();
+			for (int i = 0; i < 250; i++) {
+				Authentication principal = createPrincipal();
+				principals.add(principal);
+				authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration),
+						principal);
+			}
+			for (Authentication principal : principals) {
+				assertThat(authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(
+						this.clientRegistration.getRegistrationId(), principal.getName()))
+						.isNotNull();
+			}
+			authorizedClientService.destroy();
+			verify(jdbcTemplate, times(3)).batchUpdate(startsWith("UPDATE"), any(BatchPreparedStatementSetter.class));
+			verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT"), any(BatchPreparedStatementSetter.class));
+			verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+			assertThat(new JdbcTemplate(h2).queryForObject("SELECT COUNT(*) FROM oauth2_authorized_client",
+					Integer.class))
+					.isEqualTo(250);
+		}
+		finally {
+			h2.shutdown();
+		}
+	}
+
+	private void deleteAll() {
+		this.jdbcOperations.update("DELETE FROM oauth2_authorized_client");
+	}
+
+	private int countAll() {
+		return this.jdbcOperations.queryForObject("SELECT COUNT(*) FROM oauth2_authorized_client", Integer.class);
+	}
+
 	private static EmbeddedDatabase createDb() {
 		return createDb(OAUTH2_CLIENT_SCHEMA_SQL_RESOURCE);
 	}
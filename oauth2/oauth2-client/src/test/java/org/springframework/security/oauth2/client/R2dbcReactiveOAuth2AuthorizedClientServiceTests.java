@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,6 +332,103 @@ public class R2dbcReactiveOAuth2AuthorizedClientServiceTests {
 				.withMessageContaining("authorizedClientParametersMapper cannot be nul");
 	}
 
+	@Test
+	public void setCacheTimeToLiveWhenNegativeThenThrowIllegalArgumentException() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.authorizedClientService.setCacheTimeToLive(Duration.ofSeconds(-1)))
+				.withMessageContaining("cacheTimeToLive cannot be negative");
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenCachedThenDatabaseNotQueried() {
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal).as(StepVerifier::create)
+				.verifyComplete();
+		deleteAll();
+
+		this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName())
+				.as(StepVerifier::create).expectNext(authorizedClient).verifyComplete();
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenLoadedFromDatabaseThenCached() {
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal).as(StepVerifier::create)
+				.verifyComplete();
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		OAuth2AuthorizedClient loaded = this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName()).block();
+		deleteAll();
+
+		this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName())
+				.as(StepVerifier::create).expectNext(loaded).verifyComplete();
+	}
+
+	@Test
+	public void loadAuthorizedClientWhenCachedAndRemovedThenEmpty() {
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		Authentication principal = createPrincipal();
+		OAuth2AuthorizedClient authorizedClient = createAuthorizedClient(principal, this.clientRegistration);
+
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, principal).as(StepVerifier::create)
+				.verifyComplete();
+		this.authorizedClientService
+				.removeAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName())
+				.as(StepVerifier::create).verifyComplete();
+
+		this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), principal.getName())
+				.as(StepVerifier::create).expectNextCount(0).verifyComplete();
+	}
+
+	@Test
+	public void saveAuthorizedClientWhenManySavesThenAllWritten() {
+		this.authorizedClientService.setCacheTimeToLive(Duration.ofMinutes(5));
+		Flux.range(0, 200).map((i) -> createPrincipal())
+				.concatMap((principal) -> this.authorizedClientService
+						.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration), principal))
+				.as(StepVerifier::create).verifyComplete();
+
+		this.databaseClient.sql("SELECT COUNT(*) FROM oauth2_authorized_client")
+				.map((row) -> row.get(0, Long.class)).one().as(StepVerifier::create).expectNext(200L)
+				.verifyComplete();
+	}
+
+	@Test
+	public void loadAuthorizedClientsWhenSomeExistThenReturnedInRequestedOrder() {
+		ClientRegistration github = TestClientRegistrations.clientRegistration().registrationId("github").build();
+		given(this.clientRegistrationRepository.findByRegistrationId("github")).willReturn(Mono.just(github));
+		Authentication principal = createPrincipal();
+
+		this.authorizedClientService
+				.saveAuthorizedClient(createAuthorizedClient(principal, this.clientRegistration), principal)
+				.then(this.authorizedClientService.saveAuthorizedClient(createAuthorizedClient(principal, github),
+						principal))
+				.as(StepVerifier::create).verifyComplete();
+
+		this.authorizedClientService
+				.loadAuthorizedClients(
+						Arrays.asList("github", "missing", this.clientRegistration.getRegistrationId()),
+						principal.getName())
+				.as(StepVerifier::create).assertNext((authorizedClients) -> {
+					assertThat(authorizedClients.keySet()).containsExactly("github",
+							this.clientRegistration.getRegistrationId());
+					assertThat(authorizedClients.get("github").getClientRegistration()).isEqualTo(github);
+				}).verifyComplete();
+	}
+
+	private void deleteAll() {
+		this.databaseClient.sql("DELETE FROM oauth2_authorized_client").then().as(StepVerifier::create)
+				.verifyComplete();
+	}
+
 	private static ConnectionFactory createDb() {
 		ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("oauth-test");
 
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.TestClientRegistrations;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link RefreshAheadOAuth2AuthorizedClientService}.
+ */
+public class RefreshAheadOAuth2AuthorizedClientServiceTests {
+
+	private final Instant issuedAt = Instant.parse("2023-01-01T00:00:00Z");
+
+	private OAuth2AuthorizedClientService delegate;
+
+	private OAuth2AuthorizedClientProvider authorizedClientProvider;
+
+	private RefreshAheadOAuth2AuthorizedClientService authorizedClientService;
+
+	private ClientRegistration clientRegistration;
+
+	private Authentication principal;
+
+	@BeforeEach
+	public void setup() {
+		this.delegate = mock(OAuth2AuthorizedClientService.class);
+		this.authorizedClientProvider = mock(OAuth2AuthorizedClientProvider.class);
+		this.authorizedClientService = new RefreshAheadOAuth2AuthorizedClientService(this.delegate);
+		this.authorizedClientService.setAuthorizedClientProvider(this.authorizedClientProvider);
+		this.authorizedClientService.setExecutor(Runnable::run);
+		this.authorizedClientService.setRefreshJitter(0);
+		this.clientRegistration = TestClientRegistrations.clientCredentials().build();
+		this.principal = new TestingAuthenticationToken("principal", "password");
+	}
+
+	@Test
+	public void constructorWhenDelegateIsNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new RefreshAheadOAuth2AuthorizedClientService(null))
+				.withMessage("delegate cannot be null");
+	}
+
+	@Test
+	public void setRefreshThresholdWhenOutOfRangeThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setRefreshThreshold(0))
+				.withMessage("refreshThreshold must be in (0, 1]");
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setRefreshThreshold(1.5))
+				.withMessage("refreshThreshold must be in (0, 1]");
+	}
+
+	@Test
+	public void setRefreshThresholdWhenNotGreaterThanJitterThenThrowIllegalArgumentException() {
+		this.authorizedClientService.setRefreshJitter(0.1);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setRefreshThreshold(0.1))
+				.withMessage("refreshThreshold must be greater than refreshJitter");
+	}
+
+	@Test
+	public void setRefreshJitterWhenNotLessThanThresholdThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setRefreshJitter(0.8))
+				.withMessage("refreshJitter must be >= 0 and less than refreshThreshold");
+	}
+
+	@Test
+	public void setMaxConcurrentRefreshesWhenNotPositiveThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setMaxConcurrentRefreshes(0))
+				.withMessage("maxConcurrentRefreshes must be positive");
+	}
+
+	@Test
+	public void startBackgroundRefreshWhenNotPositiveThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.authorizedClientService.startBackgroundRefresh(Duration.ZERO))
+				.withMessage("checkInterval must be positive");
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenNotDueThenNotRefreshed() {
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(79)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verifyNoInteractions(this.authorizedClientProvider);
+		assertThat(this.authorizedClientService.getRefreshCount()).isZero();
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenDueThenRefreshedAndSaved() {
+		OAuth2AuthorizedClient authorizedClient = authorizedClient(this.issuedAt);
+		OAuth2AuthorizedClient refreshed = authorizedClient(this.issuedAt.plusSeconds(80));
+		given(this.authorizedClientProvider.authorize(any())).willReturn(refreshed);
+		given(this.delegate.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal"))
+				.willReturn(refreshed);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient, this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(80)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.delegate).saveAuthorizedClient(refreshed, this.principal);
+		assertThat(this.authorizedClientService.getRefreshCount()).isEqualTo(1);
+		OAuth2AuthorizedClient loaded = this.authorizedClientService
+				.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal");
+		this.authorizedClientService.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal");
+		assertThat(loaded).isSameAs(refreshed);
+		assertThat(this.authorizedClientService.getInlineRefreshAvoidedCount()).isEqualTo(1);
+		// the refreshed client is only due 80 seconds after it was issued
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(1)).authorize(any());
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenInvalidGrantThenNoLongerTracked() {
+		ClientAuthorizationException authorizationException = new ClientAuthorizationException(
+				new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT, null, null),
+				this.clientRegistration.getRegistrationId());
+		given(this.authorizedClientProvider.authorize(any())).willThrow(authorizationException);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(1)).authorize(any());
+		assertThat(this.authorizedClientService.getRefreshFailureCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenOtherFailureThenRetriedAfterBackoff() {
+		given(this.authorizedClientProvider.authorize(any())).willThrow(new IllegalStateException("unavailable"));
+		this.authorizedClientService.setRetryBackoff(Duration.ofSeconds(1));
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(80)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(1)).authorize(any());
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(81)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(2)).authorize(any());
+		// the delay doubles after each consecutive failure
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(82)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(2)).authorize(any());
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(83)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider, times(3)).authorize(any());
+		assertThat(this.authorizedClientService.getRefreshFailureCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenSavedByRequestDuringRefreshThenRefreshedClientNotSaved() {
+		OAuth2AuthorizedClient savedByRequest = authorizedClient(this.issuedAt.plusSeconds(85));
+		OAuth2AuthorizedClient refreshed = authorizedClient(this.issuedAt.plusSeconds(90));
+		given(this.authorizedClientProvider.authorize(any())).willAnswer((invocation) -> {
+			this.authorizedClientService.saveAuthorizedClient(savedByRequest, this.principal);
+			return refreshed;
+		});
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.delegate).saveAuthorizedClient(savedByRequest, this.principal);
+		verify(this.delegate, never()).saveAuthorizedClient(refreshed, this.principal);
+		assertThat(this.authorizedClientService.getRefreshCount()).isZero();
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenRemovedThenNotRefreshed() {
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.removeAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal");
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verifyNoInteractions(this.authorizedClientProvider);
+		verify(this.delegate).removeAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal");
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenNoIssuedAtThenNotTracked() {
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token", null,
+				this.issuedAt.plusSeconds(100));
+		this.authorizedClientService.saveAuthorizedClient(
+				new OAuth2AuthorizedClient(this.clientRegistration, "principal", accessToken), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verifyNoInteractions(this.authorizedClientProvider);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenMaxConcurrentRefreshesThenLimited() {
+		List<Runnable> refreshes = new ArrayList<>();
+		this.authorizedClientService.setExecutor(refreshes::add);
+		this.authorizedClientService.setMaxConcurrentRefreshes(1);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt),
+				new TestingAuthenticationToken("other", "password"));
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		assertThat(refreshes).hasSize(1);
+		refreshes.remove(0).run();
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		assertThat(refreshes).hasSize(1);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenNotClientCredentialsThenNotRefreshed() {
+		this.clientRegistration = TestClientRegistrations.clientRegistration().build();
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verifyNoInteractions(this.authorizedClientProvider);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenClientRegistrationPredicateMatchesThenRefreshed() {
+		this.clientRegistration = TestClientRegistrations.clientRegistration().build();
+		this.authorizedClientService.setClientRegistrationPredicate(
+				(clientRegistration) -> "registration-id".equals(clientRegistration.getRegistrationId()));
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider).authorize(any());
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenInactiveThenNoLongerTracked() {
+		this.authorizedClientService.setMaxInactivity(Duration.ofMinutes(1));
+		this.authorizedClientService.setClock(clockAt(this.issuedAt));
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verifyNoInteractions(this.authorizedClientProvider);
+	}
+
+	@Test
+	public void refreshDueAuthorizedClientsWhenLoadedRecentlyThenRefreshed() {
+		given(this.delegate.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal"))
+				.willReturn(authorizedClient(this.issuedAt));
+		this.authorizedClientService.setMaxInactivity(Duration.ofMinutes(1));
+		this.authorizedClientService.setClock(clockAt(this.issuedAt));
+		this.authorizedClientService.saveAuthorizedClient(authorizedClient(this.issuedAt), this.principal);
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(50)));
+		this.authorizedClientService.loadAuthorizedClient(this.clientRegistration.getRegistrationId(), "principal");
+		this.authorizedClientService.setClock(clockAt(this.issuedAt.plusSeconds(90)));
+		this.authorizedClientService.refreshDueAuthorizedClients();
+		verify(this.authorizedClientProvider).authorize(any());
+	}
+
+	@Test
+	public void stopBackgroundRefreshWhenSchedulerProvidedThenCancelsWithoutShuttingDown() {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		ScheduledFuture<?> scheduledRefresh = mock(ScheduledFuture.class);
+		given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+				.willAnswer((invocation) -> scheduledRefresh);
+		this.authorizedClientService.setScheduler(scheduler);
+		this.authorizedClientService.startBackgroundRefresh(Duration.ofMinutes(1));
+		this.authorizedClientService.destroy();
+		verify(scheduledRefresh).cancel(false);
+		verify(scheduler, never()).shutdown();
+	}
+
+	@Test
+	public void settersWhenInvalidThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.authorizedClientService.setClientRegistrationPredicate(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setMaxInactivity(null));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.authorizedClientService.setMaxInactivity(Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setScheduler(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.authorizedClientService.setRetryBackoff(null));
+	}
+
+	private OAuth2AuthorizedClient authorizedClient(Instant issuedAt) {
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token", issuedAt,
+				issuedAt.plusSeconds(100));
+		return new OAuth2AuthorizedClient(this.clientRegistration, "principal", accessToken);
+	}
+
+	private static Clock clockAt(Instant instant) {
+		return Clock.fixed(instant, ZoneOffset.UTC);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.oauth2.client.endpoint;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.TestClientRegistrations;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.TestOAuth2AccessTokenResponses;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ObservationOAuth2AccessTokenResponseClient}.
+ */
+public class ObservationOAuth2AccessTokenResponseClientTests {
+
+	private final ClientRegistration clientRegistration = TestClientRegistrations.clientCredentials().build();
+
+	private ObservationHandler<Observation.Context> handler;
+
+	private OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> delegate;
+
+	private ObservationOAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient;
+
+	@BeforeEach
+	public void setup() {
+		this.handler = mock(ObservationHandler.class);
+		given(this.handler.supportsContext(any())).willReturn(true);
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(this.handler);
+		this.delegate = mock(OAuth2AccessTokenResponseClient.class);
+		this.tokenResponseClient = new ObservationOAuth2AccessTokenResponseClient<>(registry, this.delegate);
+	}
+
+	@Test
+	public void constructorWhenNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ObservationOAuth2AccessTokenResponseClient<>(null, this.delegate));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new ObservationOAuth2AccessTokenResponseClient<>(ObservationRegistry.create(), null));
+	}
+
+	@Test
+	public void getTokenResponseWhenSuccessThenObserves() {
+		OAuth2AccessTokenResponse accessTokenResponse = TestOAuth2AccessTokenResponses.accessTokenResponse().build();
+		given(this.delegate.getTokenResponse(any())).willReturn(accessTokenResponse);
+		OAuth2ClientCredentialsGrantRequest grantRequest = new OAuth2ClientCredentialsGrantRequest(
+				this.clientRegistration);
+		assertThat(this.tokenResponseClient.getTokenResponse(grantRequest)).isSameAs(accessTokenResponse);
+		ArgumentCaptor<Observation.Context> captor = ArgumentCaptor.forClass(Observation.Context.class);
+		verify(this.handler).onStop(captor.capture());
+		assertThat(captor.getValue().getName())
+				.isEqualTo(OAuth2AccessTokenRequestObservationConvention.OBSERVATION_NAME);
+		assertThat(captor.getValue().getLowCardinalityKeyValue("client.registration.id").getValue())
+				.isEqualTo(this.clientRegistration.getRegistrationId());
+		assertThat(captor.getValue().getError()).isNull();
+		OAuth2AccessTokenRequestObservationContext context = (OAuth2AccessTokenRequestObservationContext) captor
+				.getValue();
+		assertThat(context.getAuthorizationGrantRequest()).isSameAs(grantRequest);
+		assertThat(context.getAccessTokenResponse()).isSameAs(accessTokenResponse);
+	}
+
+	@Test
+	public void getTokenResponseWhenFailureThenObservesError() {
+		given(this.delegate.getTokenResponse(any()))
+				.willThrow(new OAuth2AuthorizationException(new OAuth2Error("invalid_token_response")));
+		assertThatExceptionOfType(OAuth2AuthorizationException.class).isThrownBy(() -> this.tokenResponseClient
+				.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration)));
+		ArgumentCaptor<Observation.Context> captor = ArgumentCaptor.forClass(Observation.Context.class);
+		verify(this.handler).onStop(captor.capture());
+		assertThat(captor.getValue().getError()).isInstanceOf(OAuth2AuthorizationException.class);
+		assertThat(captor.getValue().getLowCardinalityKeyValue("failure.type").getValue())
+				.isEqualTo("OAuth2AuthorizationException");
+	}
+
+	@Test
+	public void setObservationConventionWhenNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.tokenResponseClient.setObservationConvention(null));
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.endpoint;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.TestClientRegistrations;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link TokenEndpointRestTemplates}.
+ */
+public class TokenEndpointRestTemplatesTests {
+
+	private DefaultClientCredentialsTokenResponseClient tokenResponseClient = new DefaultClientCredentialsTokenResponseClient();
+
+	private ClientRegistration clientRegistration;
+
+	private MockWebServer server;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		String tokenUri = this.server.url("/oauth2/token").toString();
+		this.clientRegistration = TestClientRegistrations.clientCredentials().tokenUri(tokenUri).build();
+		this.tokenResponseClient
+				.setRestOperations(TokenEndpointRestTemplates.create(Duration.ofSeconds(5), Duration.ofMillis(500)));
+	}
+
+	@AfterEach
+	public void cleanup() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void createWhenTimeoutNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> TokenEndpointRestTemplates.create(null, Duration.ofSeconds(5)));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> TokenEndpointRestTemplates.create(Duration.ofSeconds(5), null));
+	}
+
+	@Test
+	public void getTokenResponseWhenSuccessResponseThenReturnAccessTokenResponse() {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}"));
+		OAuth2AccessTokenResponse accessTokenResponse = this.tokenResponseClient
+				.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration));
+		assertThat(accessTokenResponse.getAccessToken().getTokenValue()).isEqualTo("access-token-1234");
+	}
+
+	@Test
+	public void getTokenResponseWhenHttpThenNoUpgradeToHttp2() throws Exception {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}"));
+		this.tokenResponseClient.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration));
+		assertThat(this.server.takeRequest().getHeader(HttpHeaders.UPGRADE)).isNull();
+	}
+
+	@Test
+	public void getTokenResponseWhenErrorResponseThenThrowOAuth2AuthorizationException() {
+		this.server.enqueue(jsonResponse("{\"error\": \"unauthorized_client\"}").setResponseCode(400));
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(() -> this.tokenResponseClient
+						.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration)))
+				.satisfies((ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo("unauthorized_client"));
+	}
+
+	@Test
+	public void getTokenResponseWhenResponseTooSlowThenThrowOAuth2AuthorizationException() {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}")
+				.setHeadersDelay(2, TimeUnit.SECONDS));
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(() -> this.tokenResponseClient
+						.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration)))
+				.satisfies((ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo("invalid_token_response"));
+	}
+
+	private MockResponse jsonResponse(String json) {
+		return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).setBody(json);
+	}
+
+}
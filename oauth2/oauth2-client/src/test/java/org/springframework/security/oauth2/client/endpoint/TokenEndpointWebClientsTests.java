@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.endpoint;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.TestClientRegistrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link TokenEndpointWebClients}.
+ */
+public class TokenEndpointWebClientsTests {
+
+	private WebClientReactiveClientCredentialsTokenResponseClient tokenResponseClient = new WebClientReactiveClientCredentialsTokenResponseClient();
+
+	private ClientRegistration clientRegistration;
+
+	private MockWebServer server;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		this.server = new MockWebServer();
+		this.server.start();
+		String tokenUri = this.server.url("/oauth2/token").toString();
+		this.clientRegistration = TestClientRegistrations.clientCredentials().tokenUri(tokenUri).build();
+		this.tokenResponseClient
+				.setWebClient(TokenEndpointWebClients.create(Duration.ofSeconds(5), Duration.ofMillis(500)));
+	}
+
+	@AfterEach
+	public void cleanup() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void createWhenTimeoutNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> TokenEndpointWebClients.create(null, Duration.ofSeconds(5)));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> TokenEndpointWebClients.create(Duration.ofSeconds(5), null));
+	}
+
+	@Test
+	public void getTokenResponseWhenSuccessResponseThenReturnAccessTokenResponse() {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}"));
+		// @formatter:off
+		StepVerifier.create(this.tokenResponseClient.getTokenResponse(
+						new OAuth2ClientCredentialsGrantRequest(this.clientRegistration)))
+				.assertNext((accessTokenResponse) -> assertThat(accessTokenResponse.getAccessToken().getTokenValue())
+						.isEqualTo("access-token-1234"))
+				.verifyComplete();
+		// @formatter:on
+	}
+
+	@Test
+	public void getTokenResponseWhenHttpThenNoUpgradeToHttp2() throws Exception {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}"));
+		this.tokenResponseClient.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(this.clientRegistration))
+				.block();
+		assertThat(this.server.takeRequest().getHeader(HttpHeaders.UPGRADE)).isNull();
+	}
+
+	@Test
+	public void getTokenResponseWhenResponseTooSlowThenError() {
+		this.server.enqueue(jsonResponse("{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}")
+				.setHeadersDelay(2, TimeUnit.SECONDS));
+		// @formatter:off
+		StepVerifier.create(this.tokenResponseClient.getTokenResponse(
+						new OAuth2ClientCredentialsGrantRequest(this.clientRegistration)))
+				.expectError()
+				.verify(Duration.ofSeconds(5));
+		// @formatter:on
+	}
+
+	private MockResponse jsonResponse(String json) {
+		return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).setBody(json);
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.security.oauth2.client.oidc.session;
 
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -99,4 +101,73 @@ public class InMemoryOidcSessionRegistryTests {
 		assertThat(infos).isEmpty();
 	}
 
+	@Test
+	public void removeWhenClientSessionRemovedThenLogoutTokenNoLongerMatches() {
+		InMemoryOidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
+		OidcIdToken idToken = TestOidcIdTokens.idToken().claim("sid", "provider").build();
+		OidcUser user = new DefaultOidcUser(AuthorityUtils.NO_AUTHORITIES, idToken);
+		OidcSessionInformation info = TestOidcSessionInformations.create("client", user);
+		sessionRegistry.saveSessionInformation(info);
+		assertThat(sessionRegistry.indexSize()).isEqualTo(2);
+		assertThat(sessionRegistry.removeSessionInformation("client")).isEqualTo(info);
+		assertThat(sessionRegistry.indexSize()).isZero();
+		OidcLogoutToken logoutToken = TestOidcLogoutTokens.withUser(user).build();
+		assertThat(sessionRegistry.removeSessionInformation(logoutToken)).isEmpty();
+	}
+
+	@Test
+	public void saveWhenClientSessionSavedAgainThenReindexes() {
+		InMemoryOidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
+		OidcIdToken idToken = TestOidcIdTokens.idToken().claim("sid", "providerOne").build();
+		OidcUser user = new DefaultOidcUser(AuthorityUtils.NO_AUTHORITIES, idToken);
+		sessionRegistry.saveSessionInformation(TestOidcSessionInformations.create("client", user));
+		idToken = TestOidcIdTokens.idToken().claim("sid", "providerTwo").build();
+		user = new DefaultOidcUser(AuthorityUtils.NO_AUTHORITIES, idToken);
+		OidcSessionInformation info = TestOidcSessionInformations.create("client", user);
+		sessionRegistry.saveSessionInformation(info);
+		String issuer = idToken.getIssuer().toString();
+		OidcLogoutToken logoutToken = TestOidcLogoutTokens.withSessionId(issuer, "providerOne").build();
+		assertThat(sessionRegistry.removeSessionInformation(logoutToken)).isEmpty();
+		logoutToken = TestOidcLogoutTokens.withSessionId(issuer, "providerTwo").build();
+		assertThat(sessionRegistry.removeSessionInformation(logoutToken)).containsExactly(info);
+		assertThat(sessionRegistry.indexSize()).isZero();
+	}
+
+	@Test
+	public void saveWhenConcurrentlyRemovedThenNoStaleIndexEntries() throws Exception {
+		InMemoryOidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
+		OidcIdToken idToken = TestOidcIdTokens.idToken().claim("sid", "provider").build();
+		OidcUser user = new DefaultOidcUser(AuthorityUtils.NO_AUTHORITIES, idToken);
+		OidcSessionInformation info = TestOidcSessionInformations.create("client", user);
+		Thread saver = new Thread(() -> {
+			for (int i = 0; i < 10000; i++) {
+				sessionRegistry.saveSessionInformation(info);
+			}
+		});
+		Thread remover = new Thread(() -> {
+			for (int i = 0; i < 10000; i++) {
+				sessionRegistry.removeSessionInformation("client");
+			}
+		});
+		saver.start();
+		remover.start();
+		saver.join();
+		remover.join();
+		sessionRegistry.removeSessionInformation("client");
+		assertThat(sessionRegistry.indexSize()).isZero();
+	}
+
+	@Test
+	public void unregisterWhenAudienceDoesNotMatchThenKeepsSession() {
+		InMemoryOidcSessionRegistry sessionRegistry = new InMemoryOidcSessionRegistry();
+		OidcIdToken idToken = TestOidcIdTokens.idToken().claim("sid", "provider").build();
+		OidcUser user = new DefaultOidcUser(AuthorityUtils.NO_AUTHORITIES, idToken);
+		OidcSessionInformation info = TestOidcSessionInformations.create("client", user);
+		sessionRegistry.saveSessionInformation(info);
+		OidcLogoutToken logoutToken = TestOidcLogoutTokens.withSessionId(idToken.getIssuer().toString(), "provider")
+				.audience(Collections.singleton("other-client")).build();
+		assertThat(sessionRegistry.removeSessionInformation(logoutToken)).isEmpty();
+		assertThat(sessionRegistry.removeSessionInformation("client")).isEqualTo(info);
+	}
+
 }
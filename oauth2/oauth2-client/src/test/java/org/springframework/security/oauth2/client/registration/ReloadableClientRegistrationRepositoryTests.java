@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.registration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.Assert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReloadableClientRegistrationRepository}.
+ */
+public class ReloadableClientRegistrationRepositoryTests {
+
+	private ClientRegistration registration = TestClientRegistrations.clientRegistration().build();
+
+	private ClientRegistration otherRegistration = TestClientRegistrations.clientRegistration2().build();
+
+	private AtomicReference<List<ClientRegistration>> source = new AtomicReference<>(
+			Collections.singletonList(this.registration));
+
+	private ReloadableClientRegistrationRepository clients = new ReloadableClientRegistrationRepository(
+			this.source::get);
+
+	@Test
+	public void constructorWhenSupplierNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ReloadableClientRegistrationRepository(null));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ReloadableClientRegistrationRepository(null, (id) -> this.registration));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ReloadableClientRegistrationRepository(Collections::emptyList, null));
+	}
+
+	@Test
+	public void findByRegistrationIdWhenNotReloadedThenLoadedOnFirstUse() {
+		assertThat(this.clients.findByRegistrationId(this.registration.getRegistrationId()))
+				.isEqualTo(this.registration);
+		assertThat(this.clients).containsExactly(this.registration);
+	}
+
+	@Test
+	public void findByRegistrationIdWhenFirstLoadFailsThenExceptionAndLoadedAgain() {
+		this.source.set(null);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.clients.findByRegistrationId(this.registration.getRegistrationId()));
+		this.source.set(Collections.singletonList(this.registration));
+		assertThat(this.clients.findByRegistrationId(this.registration.getRegistrationId()))
+				.isEqualTo(this.registration);
+	}
+
+	@Test
+	public void findByRegistrationIdWhenReloadedThenFound() {
+		this.clients.reload();
+		assertThat(this.clients.findByRegistrationId(this.registration.getRegistrationId()))
+				.isEqualTo(this.registration);
+		assertThat(this.clients).containsExactly(this.registration);
+	}
+
+	@Test
+	public void findByRegistrationIdWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.clients.findByRegistrationId(null));
+	}
+
+	@Test
+	public void reloadWhenRegistrationsChangedThenReplaced() {
+		this.clients.reload();
+		this.source.set(Collections.singletonList(this.otherRegistration));
+		this.clients.reload();
+		assertThat(this.clients.findByRegistrationId(this.registration.getRegistrationId())).isNull();
+		assertThat(this.clients.findByRegistrationId(this.otherRegistration.getRegistrationId()))
+				.isEqualTo(this.otherRegistration);
+	}
+
+	@Test
+	public void reloadWhenDuplicateIdThenIllegalStateExceptionAndCurrentRegistrationsKept() {
+		this.clients.reload();
+		this.source.set(Arrays.asList(this.otherRegistration, this.otherRegistration));
+		assertThatIllegalStateException().isThrownBy(this.clients::reload);
+		assertThat(this.clients).containsExactly(this.registration);
+	}
+
+	@Test
+	public void iteratorWhenReloadedDuringIterationThenIteratesPreviousRegistrations() {
+		this.source.set(new ArrayList<>(Arrays.asList(this.registration, this.otherRegistration)));
+		this.clients.reload();
+		List<ClientRegistration> iterated = new ArrayList<>();
+		for (ClientRegistration registration : this.clients) {
+			iterated.add(registration);
+			this.source.set(Collections.emptyList());
+			this.clients.reload();
+		}
+		assertThat(iterated).containsExactly(this.registration, this.otherRegistration);
+		assertThat(this.clients).isEmpty();
+	}
+
+	@Test
+	public void reloadWhenRegistrationFailsToLoadThenKeepsItsCurrentValue() {
+		String registrationId = this.registration.getRegistrationId();
+		String otherRegistrationId = this.otherRegistration.getRegistrationId();
+		ClientRegistration updated = TestClientRegistrations.clientRegistration().clientId("updated").build();
+		Map<String, Supplier<ClientRegistration>> loaders = new HashMap<>();
+		loaders.put(registrationId, () -> this.registration);
+		loaders.put(otherRegistrationId, () -> this.otherRegistration);
+		ReloadableClientRegistrationRepository clients = new ReloadableClientRegistrationRepository(
+				() -> List.of(registrationId, otherRegistrationId), (id) -> loaders.get(id).get());
+		clients.reload();
+		loaders.put(registrationId, () -> updated);
+		loaders.put(otherRegistrationId, () -> {
+			throw new IllegalStateException("unreachable");
+		});
+		clients.reload();
+		assertThat(clients).containsExactly(updated, this.otherRegistration);
+	}
+
+	@Test
+	public void reloadWhenRegistrationFailsToLoadInitiallyThenOthersAvailable() {
+		String registrationId = this.registration.getRegistrationId();
+		ReloadableClientRegistrationRepository clients = new ReloadableClientRegistrationRepository(
+				() -> List.of(registrationId, "unreachable"), (id) -> {
+					Assert.state(registrationId.equals(id), "unreachable");
+					return this.registration;
+				});
+		assertThat(clients.findByRegistrationId(registrationId)).isEqualTo(this.registration);
+		assertThat(clients.findByRegistrationId("unreachable")).isNull();
+	}
+
+	@Test
+	public void findByRegistrationIdWhenOtherRegistrationStillLoadingThenNotWaitingForIt() throws Exception {
+		String registrationId = this.registration.getRegistrationId();
+		String otherRegistrationId = this.otherRegistration.getRegistrationId();
+		CountDownLatch otherLoaded = new CountDownLatch(1);
+		ReloadableClientRegistrationRepository clients = new ReloadableClientRegistrationRepository(
+				() -> List.of(otherRegistrationId, registrationId), (id) -> {
+					if (id.equals(otherRegistrationId)) {
+						await(otherLoaded);
+						return this.otherRegistration;
+					}
+					return this.registration;
+				});
+		try {
+			assertThat(clients.findByRegistrationId(registrationId)).isEqualTo(this.registration);
+			CompletableFuture<ClientRegistration> other = CompletableFuture
+					.supplyAsync(() -> clients.findByRegistrationId(otherRegistrationId));
+			assertThat(other).isNotDone();
+			otherLoaded.countDown();
+			assertThat(other.get()).isEqualTo(this.otherRegistration);
+			assertThat(clients).containsExactly(this.otherRegistration, this.registration);
+		}
+		finally {
+			otherLoaded.countDown();
+			clients.destroy();
+		}
+	}
+
+	@Test
+	public void setMaxConcurrentLoadsWhenNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.clients.setMaxConcurrentLoads(0));
+	}
+
+	@Test
+	public void reloadWhenRegistrationIdRemovedThenRemoved() {
+		List<String> registrationIds = new ArrayList<>(List.of(this.registration.getRegistrationId()));
+		ReloadableClientRegistrationRepository clients = new ReloadableClientRegistrationRepository(
+				() -> registrationIds, (id) -> this.registration);
+		clients.reload();
+		registrationIds.clear();
+		clients.reload();
+		assertThat(clients).isEmpty();
+	}
+
+	@Test
+	public void stopBackgroundReloadWhenSchedulerProvidedThenCancelsWithoutShuttingDown() {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		ScheduledFuture<?> scheduledReload = mock(ScheduledFuture.class);
+		given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+				.willAnswer((invocation) -> scheduledReload);
+		this.clients.setScheduler(scheduler);
+		this.clients.startBackgroundReload(Duration.ofMinutes(5));
+		this.clients.destroy();
+		verify(scheduledReload).cancel(false);
+		verify(scheduler, never()).shutdown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
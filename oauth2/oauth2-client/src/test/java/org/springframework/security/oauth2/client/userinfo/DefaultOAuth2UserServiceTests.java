@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.security.oauth2.client.userinfo;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -99,6 +100,11 @@ public class DefaultOAuth2UserServiceTests {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.userService.setRestOperations(null));
 	}
 
+	@Test
+	public void setUserInfoCacheWhenNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.userService.setUserInfoCache(null));
+	}
+
 	@Test
 	public void loadUserWhenUserRequestIsNullThenThrowIllegalArgumentException() {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.userService.loadUser(null));
@@ -361,6 +367,23 @@ public class DefaultOAuth2UserServiceTests {
 								+ "from '" + userInfoUri + "': response contains invalid content type 'text/plain'.");
 	}
 
+	@Test
+	public void loadUserWhenUserInfoCachedThenUserInfoEndpointCalledOnce() {
+		UserInfoCache userInfoCache = new UserInfoCache(10, Duration.ofMinutes(5));
+		this.userService.setUserInfoCache(userInfoCache);
+		this.server.enqueue(jsonResponse("{\"user-name\": \"user1\"}"));
+		String userInfoUri = this.server.url("/user").toString();
+		ClientRegistration clientRegistration = this.clientRegistrationBuilder.userInfoUri(userInfoUri)
+				.userInfoAuthenticationMethod(AuthenticationMethod.HEADER).userNameAttributeName("user-name").build();
+		OAuth2UserRequest userRequest = new OAuth2UserRequest(clientRegistration, this.accessToken);
+		OAuth2User user = this.userService.loadUser(userRequest);
+		OAuth2User cachedUser = this.userService.loadUser(userRequest);
+		assertThat(cachedUser.getName()).isEqualTo("user1");
+		assertThat(cachedUser.getAttributes()).isEqualTo(user.getAttributes());
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		assertThat(userInfoCache.getHitCount()).isEqualTo(1);
+	}
+
 	private DefaultOAuth2UserService withMockResponse(Map<String, Object> response) {
 		ResponseEntity<Map<String, Object>> responseEntity = new ResponseEntity<>(response, HttpStatus.OK);
 		Converter<OAuth2UserRequest, RequestEntity<?>> requestEntityConverter = mock(Converter.class);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -287,6 +287,35 @@ public class DefaultReactiveOAuth2UserServiceTests {
 								+ "': " + "response contains invalid content type 'text/plain'");
 	}
 
+	@Test
+	public void loadUserWhenUserInfoCachedThenUserInfoEndpointCalledOnce() {
+		UserInfoCache userInfoCache = new UserInfoCache(10, Duration.ofMinutes(5));
+		this.userService.setUserInfoCache(userInfoCache);
+		enqueueApplicationJsonBody("{\"id\": \"user1\"}");
+		OAuth2UserRequest userRequest = oauth2UserRequest();
+		OAuth2User user = this.userService.loadUser(userRequest).block();
+		OAuth2User cachedUser = this.userService.loadUser(userRequest).block();
+		assertThat(cachedUser.getName()).isEqualTo("user1");
+		assertThat(cachedUser.getAttributes()).isEqualTo(user.getAttributes());
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		assertThat(userInfoCache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void loadUserWhenConcurrentRequestsThenUserInfoEndpointCalledOnce() {
+		UserInfoCache userInfoCache = new UserInfoCache(10, Duration.ofMinutes(5));
+		this.userService.setUserInfoCache(userInfoCache);
+		enqueueApplicationJsonBody("{\"id\": \"user1\"}");
+		OAuth2UserRequest userRequest = oauth2UserRequest();
+		Mono<OAuth2User> first = this.userService.loadUser(userRequest);
+		Mono<OAuth2User> second = this.userService.loadUser(userRequest);
+		StepVerifier.create(Mono.zip(first, second))
+				.assertNext((users) -> assertThat(users.getT2().getName()).isEqualTo(users.getT1().getName()))
+				.verifyComplete();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		assertThat(userInfoCache.getCoalescedRequestCount()).isEqualTo(1);
+	}
+
 	private DefaultReactiveOAuth2UserService withMockResponse(Map<String, Object> body) {
 		WebClient real = WebClient.builder().build();
 		WebClient.RequestHeadersUriSpec spec = spy(real.post());
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.userinfo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.TestClientRegistrations;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link UserInfoCache}.
+ */
+public class UserInfoCacheTests {
+
+	private static final Instant NOW = Instant.parse("2023-08-01T10:00:00Z");
+
+	private final ClientRegistration clientRegistration = TestClientRegistrations.clientRegistration().build();
+
+	private final Map<String, Object> userAttributes = Collections.singletonMap("id", "user1");
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	public void constructorWhenMaximumSizeNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new UserInfoCache(0, Duration.ofMinutes(5)));
+	}
+
+	@Test
+	public void constructorWhenTimeToLiveNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new UserInfoCache(10, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> new UserInfoCache(10, Duration.ZERO));
+	}
+
+	@Test
+	public void getWhenCachedThenUserInfoLoadedOnce() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofHours(1)));
+		assertThat(cache.get(userRequest, this::load)).isEqualTo(this.userAttributes);
+		assertThat(cache.get(userRequest, this::load)).isEqualTo(this.userAttributes);
+		assertThat(this.loads).hasValue(1);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void getWhenOtherAccessTokenThenUserInfoLoadedAgain() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		cache.get(userRequest("access-token", NOW.plus(Duration.ofHours(1))), this::load);
+		cache.get(userRequest("other-access-token", NOW.plus(Duration.ofHours(1))), this::load);
+		assertThat(this.loads).hasValue(2);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void getWhenTimeToLiveElapsedThenUserInfoLoadedAgain() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofHours(1)));
+		cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		cache.get(userRequest, this::load);
+		cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		cache.get(userRequest, this::load);
+		assertThat(this.loads).hasValue(2);
+	}
+
+	@Test
+	public void getWhenAccessTokenExpiredThenUserInfoLoadedAgain() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofMinutes(1)));
+		cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		cache.get(userRequest, this::load);
+		cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+		cache.get(userRequest, this::load);
+		assertThat(this.loads).hasValue(2);
+	}
+
+	@Test
+	public void getWhenMaximumSizeReachedThenOtherEntryEvicted() {
+		UserInfoCache cache = new UserInfoCache(1, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofHours(1)));
+		cache.get(userRequest, this::load);
+		cache.get(userRequest("other-access-token", NOW.plus(Duration.ofHours(1))), this::load);
+		cache.get(userRequest, this::load);
+		assertThat(this.loads).hasValue(3);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void getWhenLoadFailsThenNotCached() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofHours(1)));
+		assertThatIllegalStateException().isThrownBy(() -> cache.get(userRequest, () -> {
+			throw new IllegalStateException("failed");
+		}));
+		assertThat(cache.get(userRequest, this::load)).isEqualTo(this.userAttributes);
+		assertThat(this.loads).hasValue(1);
+	}
+
+	@Test
+	public void getWhenConcurrentThenUserInfoLoadedOnce() throws Exception {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		OAuth2UserRequest userRequest = userRequest("access-token", NOW.plus(Duration.ofHours(1)));
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Map<String, Object>> first = CompletableFuture
+				.supplyAsync(() -> cache.get(userRequest, () -> {
+					loading.countDown();
+					await(release);
+					return load();
+				}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Map<String, Object>> second = CompletableFuture
+				.supplyAsync(() -> cache.get(userRequest, this::load));
+		while (cache.getCoalescedRequestCount() == 0 && !second.isDone()) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(this.userAttributes);
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(this.userAttributes);
+		assertThat(this.loads).hasValue(1);
+		assertThat(cache.getCoalescedRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void clearWhenCachedThenEmpty() {
+		UserInfoCache cache = new UserInfoCache(10, Duration.ofMinutes(5));
+		cache.get(userRequest("access-token", NOW.plus(Duration.ofHours(1))), this::load);
+		cache.clear();
+		assertThat(cache.size()).isZero();
+	}
+
+	private Map<String, Object> load() {
+		this.loads.incrementAndGet();
+		return this.userAttributes;
+	}
+
+	private OAuth2UserRequest userRequest(String tokenValue, Instant expiresAt) {
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+				expiresAt.minus(Duration.ofHours(2)), expiresAt);
+		return new OAuth2UserRequest(this.clientRegistration, accessToken);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -39,6 +40,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
 import org.springframework.core.codec.ByteBufferEncoder;
@@ -71,6 +74,7 @@ import org.springframework.security.oauth2.client.JwtBearerOAuth2AuthorizedClien
 import org.springframework.security.oauth2.client.OAuth2AuthorizationContext;
 import org.springframework.security.oauth2.client.OAuth2AuthorizationFailureHandler;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProvider;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
 import org.springframework.security.oauth2.client.RefreshTokenOAuth2AuthorizedClientProvider;
@@ -220,6 +224,45 @@ public class ServletOAuth2AuthorizedClientExchangeFilterFunctionTests {
 				.isThrownBy(() -> new ServletOAuth2AuthorizedClientExchangeFilterFunction(null));
 	}
 
+	@Test
+	public void setAuthorizationSchedulerWhenNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.function.setAuthorizationScheduler(null))
+				.withMessage("authorizationScheduler cannot be null");
+	}
+
+	@Test
+	public void filterWhenAuthorizationSchedulerSetThenAuthorizeOnScheduler() {
+		OAuth2AuthorizedClientManager authorizedClientManager = mock(OAuth2AuthorizedClientManager.class);
+		OAuth2AuthorizedClient authorizedClient = new OAuth2AuthorizedClient(this.registration, "principalName",
+				this.accessToken);
+		AtomicReference<String> authorizationThread = new AtomicReference<>();
+		given(authorizedClientManager.authorize(any())).willAnswer((invocation) -> {
+			authorizationThread.set(Thread.currentThread().getName());
+			return authorizedClient;
+		});
+		Scheduler authorizationScheduler = Schedulers.newSingle("oauth2-authorization");
+		try {
+			this.function = new ServletOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+			this.function.setAuthorizationScheduler(authorizationScheduler);
+			ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://example.com"))
+					.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction
+							.clientRegistrationId(this.registration.getRegistrationId()))
+					.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction.authentication(this.authentication))
+					.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction
+							.httpServletRequest(new MockHttpServletRequest()))
+					.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction
+							.httpServletResponse(new MockHttpServletResponse()))
+					.build();
+			this.function.filter(request, this.exchange).block();
+		}
+		finally {
+			authorizationScheduler.dispose();
+		}
+		assertThat(authorizationThread.get()).startsWith("oauth2-authorization");
+		assertThat(this.exchange.getRequest().headers().getFirst(HttpHeaders.AUTHORIZATION))
+				.isEqualTo("Bearer token-0");
+	}
+
 	@Test
 	public void defaultRequestRequestResponseWhenNullRequestContextThenRequestAndResponseNull() {
 		Map<String, Object> attrs = getDefaultRequestAttributes();
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.endpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads an OAuth 2.0 Access Token Response from its JSON representation with a Jackson
+ * {@link JsonParser}, populating an {@link OAuth2AccessTokenResponse.Builder} while the
+ * content is parsed instead of first reading all the parameters into a {@code Map}.
+ *
+ * <p>
+ * The parameters are interpreted like {@link DefaultMapOAuth2AccessTokenResponseConverter}
+ * does. Parameters that are not defined by RFC 6749 are only collected, into
+ * {@link OAuth2AccessTokenResponse#getAdditionalParameters()}, when the response contains
+ * some. An Error Response is reported as an {@link OAuth2AuthorizationException}.
+ *
+ * @since 6.2
+ * @see DefaultMapOAuth2AccessTokenResponseConverter
+ * @see <a target="_blank" href=
+ * "https://tools.ietf.org/html/rfc6749#section-5.1">Section 5.1 Successful Response</a>
+ * @see <a target="_blank" href=
+ * "https://tools.ietf.org/html/rfc6749#section-5.2">Section 5.2 Error Response</a>
+ */
+public final class StreamingOAuth2AccessTokenResponseReader {
+
+	private static final String INVALID_TOKEN_RESPONSE_ERROR_CODE = "invalid_token_response";
+
+	private final JsonFactory jsonFactory;
+
+	/**
+	 * Constructs a {@code StreamingOAuth2AccessTokenResponseReader} using a default
+	 * {@link JsonFactory}.
+	 */
+	public StreamingOAuth2AccessTokenResponseReader() {
+		this(new JsonFactory());
+	}
+
+	/**
+	 * Constructs a {@code StreamingOAuth2AccessTokenResponseReader} using the provided
+	 * parameters.
+	 * @param jsonFactory the {@link JsonFactory} used to create the {@link JsonParser}s
+	 */
+	public StreamingOAuth2AccessTokenResponseReader(JsonFactory jsonFactory) {
+		Assert.notNull(jsonFactory, "jsonFactory cannot be null");
+		this.jsonFactory = jsonFactory;
+	}
+
+	/**
+	 * Reads an OAuth 2.0 Access Token Response. The stream is not closed.
+	 * @param inputStream the JSON representation of the response
+	 * @return the {@link OAuth2AccessTokenResponse}
+	 * @throws IOException if the content is not valid JSON or cannot be read
+	 * @throws OAuth2AuthorizationException if the content is an Error Response or is not
+	 * a JSON object
+	 */
+	public OAuth2AccessTokenResponse read(InputStream inputStream) throws IOException {
+		Assert.notNull(inputStream, "inputStream cannot be null");
+		try (JsonParser parser = this.jsonFactory.createParser(inputStream)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			return read(parser);
+		}
+	}
+
+	/**
+	 * Reads an OAuth 2.0 Access Token Response.
+	 * @param content the JSON representation of the response
+	 * @return the {@link OAuth2AccessTokenResponse}
+	 * @throws IOException if the content is not valid JSON
+	 * @throws OAuth2AuthorizationException if the content is an Error Response or is not
+	 * a JSON object
+	 */
+	public OAuth2AccessTokenResponse read(byte[] content) throws IOException {
+		Assert.notNull(content, "content cannot be null");
+		try (JsonParser parser = this.jsonFactory.createParser(content)) {
+			return read(parser);
+		}
+	}
+
+	private static OAuth2AccessTokenResponse read(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			OAuth2Error oauth2Error = new OAuth2Error(INVALID_TOKEN_RESPONSE_ERROR_CODE,
+					"The OAuth 2.0 Access Token Response must be a JSON object", null);
+			throw new OAuth2AuthorizationException(oauth2Error);
+		}
+		String accessToken = null;
+		OAuth2AccessToken.TokenType accessTokenType = null;
+		long expiresIn = 0;
+		Set<String> scopes = Collections.emptySet();
+		String refreshToken = null;
+		Map<String, Object> additionalParameters = null;
+		String name;
+		while ((name = parser.nextFieldName()) != null) {
+			parser.nextToken();
+			switch (name) {
+				case OAuth2ParameterNames.ACCESS_TOKEN:
+					accessToken = readString(parser);
+					break;
+				case OAuth2ParameterNames.TOKEN_TYPE:
+					accessTokenType = OAuth2AccessToken.TokenType.BEARER.getValue()
+							.equalsIgnoreCase(readString(parser)) ? OAuth2AccessToken.TokenType.BEARER : null;
+					break;
+				case OAuth2ParameterNames.EXPIRES_IN:
+					expiresIn = readLong(parser);
+					break;
+				case OAuth2ParameterNames.SCOPE:
+					String scope = readString(parser);
+					scopes = new LinkedHashSet<>(Arrays.asList(StringUtils.delimitedListToStringArray(scope, " ")));
+					break;
+				case OAuth2ParameterNames.REFRESH_TOKEN:
+					refreshToken = readString(parser);
+					break;
+				default:
+					if (additionalParameters == null) {
+						additionalParameters = new LinkedHashMap<>();
+					}
+					additionalParameters.put(name, readValue(parser));
+			}
+		}
+		if (accessToken == null && additionalParameters != null
+				&& additionalParameters.containsKey(OAuth2ParameterNames.ERROR)) {
+			throw new OAuth2AuthorizationException(getOAuth2Error(additionalParameters));
+		}
+		// @formatter:off
+		return OAuth2AccessTokenResponse.withToken(accessToken)
+				.tokenType(accessTokenType)
+				.expiresIn(expiresIn)
+				.scopes(scopes)
+				.refreshToken(refreshToken)
+				.additionalParameters(additionalParameters)
+				.build();
+		// @formatter:on
+	}
+
+	private static OAuth2Error getOAuth2Error(Map<String, Object> parameters) {
+		Object errorCode = parameters.get(OAuth2ParameterNames.ERROR);
+		Object description = parameters.get(OAuth2ParameterNames.ERROR_DESCRIPTION);
+		Object uri = parameters.get(OAuth2ParameterNames.ERROR_URI);
+		return new OAuth2Error((errorCode != null) ? errorCode.toString() : OAuth2ErrorCodes.SERVER_ERROR,
+				(description != null) ? description.toString() : null, (uri != null) ? uri.toString() : null);
+	}
+
+	private static String readString(JsonParser parser) throws IOException {
+		if (parser.currentToken().isScalarValue()) {
+			return (parser.currentToken() != JsonToken.VALUE_NULL) ? parser.getText() : null;
+		}
+		return readValue(parser).toString();
+	}
+
+	private static long readLong(JsonParser parser) throws IOException {
+		JsonToken token = parser.currentToken();
+		if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+			return parser.getLongValue();
+		}
+		if (token == JsonToken.VALUE_STRING) {
+			try {
+				return Long.parseLong(parser.getText());
+			}
+			catch (NumberFormatException ex) {
+				return 0;
+			}
+		}
+		parser.skipChildren();
+		return 0;
+	}
+
+	private static Object readValue(JsonParser parser) throws IOException {
+		switch (parser.currentToken()) {
+			case START_OBJECT:
+				Map<String, Object> object = new LinkedHashMap<>();
+				String name;
+				while ((name = parser.nextFieldName()) != null) {
+					parser.nextToken();
+					object.put(name, readValue(parser));
+				}
+				return object;
+			case START_ARRAY:
+				List<Object> array = new ArrayList<>();
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					array.add(readValue(parser));
+				}
+				return array;
+			case VALUE_STRING:
+				return parser.getText();
+			case VALUE_NUMBER_INT:
+				return parser.getNumberValue();
+			case VALUE_NUMBER_FLOAT:
+				return parser.getDoubleValue();
+			case VALUE_TRUE:
+				return Boolean.TRUE;
+			case VALUE_FALSE:
+				return Boolean.FALSE;
+			default:
+				return null;
+		}
+	}
+
+}
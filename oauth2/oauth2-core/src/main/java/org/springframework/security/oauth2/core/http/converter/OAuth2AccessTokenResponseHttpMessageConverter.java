@@ -58,6 +58,8 @@ public class OAuth2AccessTokenResponseHttpMessageConverter
 
 	private Converter<OAuth2AccessTokenResponse, Map<String, Object>> accessTokenResponseParametersConverter = new DefaultOAuth2AccessTokenResponseMapConverter();
 
+	private boolean customAccessTokenResponseConverter;
+
 	public OAuth2AccessTokenResponseHttpMessageConverter() {
 		super(DEFAULT_CHARSET, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
 	}
@@ -109,6 +111,11 @@ public class OAuth2AccessTokenResponseHttpMessageConverter
 			Converter<Map<String, Object>, OAuth2AccessTokenResponse> accessTokenResponseConverter) {
 		Assert.notNull(accessTokenResponseConverter, "accessTokenResponseConverter cannot be null");
 		this.accessTokenResponseConverter = accessTokenResponseConverter;
+		this.customAccessTokenResponseConverter = true;
+	}
+
+	boolean isCustomAccessTokenResponseConverter() {
+		return this.customAccessTokenResponseConverter;
 	}
 
 	/**
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.http.converter;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.StreamingOAuth2AccessTokenResponseReader;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OAuth2AccessTokenResponseHttpMessageConverter} that reads the OAuth 2.0
+ * Access Token Response directly from the response body with a
+ * {@link StreamingOAuth2AccessTokenResponseReader}, instead of reading the parameters
+ * into a {@code Map} with a generic JSON converter first. If an
+ * {@link #setAccessTokenResponseConverter(org.springframework.core.convert.converter.Converter)
+ * accessTokenResponseConverter} is set, the response is read into a {@code Map} and
+ * converted with it instead, as in {@link OAuth2AccessTokenResponseHttpMessageConverter}.
+ * Writing is unchanged.
+ *
+ * @since 6.2
+ * @see StreamingOAuth2AccessTokenResponseReader
+ */
+public class StreamingOAuth2AccessTokenResponseHttpMessageConverter
+		extends OAuth2AccessTokenResponseHttpMessageConverter {
+
+	private StreamingOAuth2AccessTokenResponseReader accessTokenResponseReader = new StreamingOAuth2AccessTokenResponseReader();
+
+	@Override
+	protected OAuth2AccessTokenResponse readInternal(Class<? extends OAuth2AccessTokenResponse> clazz,
+			HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+		if (isCustomAccessTokenResponseConverter()) {
+			return super.readInternal(clazz, inputMessage);
+		}
+		try {
+			return this.accessTokenResponseReader.read(inputMessage.getBody());
+		}
+		catch (Exception ex) {
+			throw new HttpMessageNotReadableException(
+					"An error occurred reading the OAuth 2.0 Access Token Response: " + ex.getMessage(), ex,
+					inputMessage);
+		}
+	}
+
+	/**
+	 * Sets the {@link StreamingOAuth2AccessTokenResponseReader} used for reading the
+	 * OAuth 2.0 Access Token Response.
+	 * @param accessTokenResponseReader the {@link StreamingOAuth2AccessTokenResponseReader}
+	 * to use
+	 */
+	public final void setAccessTokenResponseReader(StreamingOAuth2AccessTokenResponseReader accessTokenResponseReader) {
+		Assert.notNull(accessTokenResponseReader, "accessTokenResponseReader cannot be null");
+		this.accessTokenResponseReader = accessTokenResponseReader;
+	}
+
+}
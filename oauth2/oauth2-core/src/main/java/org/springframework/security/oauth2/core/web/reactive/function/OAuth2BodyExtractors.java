@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.http.ReactiveHttpInputMessage;
 import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.StreamingOAuth2AccessTokenResponseReader;
+import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.BodyExtractor;
 
 /**
@@ -38,6 +40,30 @@ public abstract class OAuth2BodyExtractors {
 		return new OAuth2AccessTokenResponseBodyExtractor();
 	}
 
+	/**
+	 * Extractor to decode an {@link OAuth2AccessTokenResponse} with a
+	 * {@link StreamingOAuth2AccessTokenResponseReader}, which populates the response
+	 * while the body is parsed rather than converting an intermediate {@code Map}
+	 * @return a BodyExtractor for {@link OAuth2AccessTokenResponse}
+	 * @since 6.2
+	 */
+	public static BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> streamingOAuth2AccessTokenResponse() {
+		return streamingOAuth2AccessTokenResponse(new StreamingOAuth2AccessTokenResponseReader());
+	}
+
+	/**
+	 * Extractor to decode an {@link OAuth2AccessTokenResponse} with the provided
+	 * {@link StreamingOAuth2AccessTokenResponseReader}
+	 * @param accessTokenResponseReader the reader to use
+	 * @return a BodyExtractor for {@link OAuth2AccessTokenResponse}
+	 * @since 6.2
+	 */
+	public static BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> streamingOAuth2AccessTokenResponse(
+			StreamingOAuth2AccessTokenResponseReader accessTokenResponseReader) {
+		Assert.notNull(accessTokenResponseReader, "accessTokenResponseReader cannot be null");
+		return new StreamingOAuth2AccessTokenResponseBodyExtractor(accessTokenResponseReader);
+	}
+
 	private OAuth2BodyExtractors() {
 	}
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.web.reactive.function;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.StreamingOAuth2AccessTokenResponseReader;
+import org.springframework.web.reactive.function.BodyExtractor;
+
+/**
+ * Provides a way to create an {@link OAuth2AccessTokenResponse} from a
+ * {@link ReactiveHttpInputMessage} with a
+ * {@link StreamingOAuth2AccessTokenResponseReader}.
+ *
+ * @since 6.2
+ */
+class StreamingOAuth2AccessTokenResponseBodyExtractor
+		implements BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> {
+
+	private static final String INVALID_TOKEN_RESPONSE_ERROR_CODE = "invalid_token_response";
+
+	private final StreamingOAuth2AccessTokenResponseReader accessTokenResponseReader;
+
+	StreamingOAuth2AccessTokenResponseBodyExtractor(
+			StreamingOAuth2AccessTokenResponseReader accessTokenResponseReader) {
+		this.accessTokenResponseReader = accessTokenResponseReader;
+	}
+
+	@Override
+	public Mono<OAuth2AccessTokenResponse> extract(ReactiveHttpInputMessage inputMessage, Context context) {
+		// @formatter:off
+		return DataBufferUtils.join(inputMessage.getBody())
+				.map(this::read)
+				.onErrorMap((ex) -> !(ex instanceof OAuth2AuthorizationException), (ex) ->
+						new OAuth2AuthorizationException(invalidTokenResponse(
+								"An error occurred parsing the Access Token response: " + ex.getMessage()), ex))
+				.switchIfEmpty(Mono.error(() -> new OAuth2AuthorizationException(
+						invalidTokenResponse("Empty OAuth 2.0 Access Token Response"))));
+		// @formatter:on
+	}
+
+	private OAuth2AccessTokenResponse read(DataBuffer dataBuffer) {
+		try (InputStream body = dataBuffer.asInputStream(true)) {
+			return this.accessTokenResponseReader.read(body);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex.getMessage(), ex);
+		}
+	}
+
+	private static OAuth2Error invalidTokenResponse(String message) {
+		return new OAuth2Error(INVALID_TOKEN_RESPONSE_ERROR_CODE, message, null);
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.endpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link StreamingOAuth2AccessTokenResponseReader}.
+ */
+public class StreamingOAuth2AccessTokenResponseReaderTests {
+
+	private final StreamingOAuth2AccessTokenResponseReader reader = new StreamingOAuth2AccessTokenResponseReader();
+
+	@Test
+	public void constructorWhenJsonFactoryNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new StreamingOAuth2AccessTokenResponseReader(null));
+	}
+
+	@Test
+	public void readWhenSuccessfulTokenResponseThenReadOAuth2AccessTokenResponse() throws Exception {
+		// @formatter:off
+		String tokenResponse = "{\n"
+			+ "   \"access_token\": \"access-token-1234\",\n"
+			+ "   \"token_type\": \"bearer\",\n"
+			+ "   \"expires_in\": \"3600\",\n"
+			+ "   \"scope\": \"read write\",\n"
+			+ "   \"refresh_token\": \"refresh-token-1234\",\n"
+			+ "   \"custom_parameter_1\": \"custom-value-1\",\n"
+			+ "   \"custom_parameter_2\": \"custom-value-2\"\n"
+			+ "}\n";
+		// @formatter:on
+		Instant expiresAtBefore = Instant.now().plusSeconds(3600);
+		OAuth2AccessTokenResponse accessTokenResponse = this.reader.read(bytes(tokenResponse));
+		assertThat(accessTokenResponse.getAccessToken().getTokenValue()).isEqualTo("access-token-1234");
+		assertThat(accessTokenResponse.getAccessToken().getTokenType()).isEqualTo(OAuth2AccessToken.TokenType.BEARER);
+		assertThat(accessTokenResponse.getAccessToken().getExpiresAt()).isAfterOrEqualTo(expiresAtBefore);
+		assertThat(accessTokenResponse.getAccessToken().getScopes()).containsExactly("read", "write");
+		assertThat(accessTokenResponse.getRefreshToken().getTokenValue()).isEqualTo("refresh-token-1234");
+		assertThat(accessTokenResponse.getAdditionalParameters()).containsExactly(
+				entry("custom_parameter_1", "custom-value-1"), entry("custom_parameter_2", "custom-value-2"));
+	}
+
+	@Test
+	public void readWhenAdditionalParametersHaveStructuredValuesThenReadAsMapsAndLists() throws Exception {
+		// @formatter:off
+		String tokenResponse = "{\n"
+			+ "   \"access_token\": \"access-token-1234\",\n"
+			+ "   \"token_type\": \"Bearer\",\n"
+			+ "   \"expires_in\": 3600,\n"
+			+ "   \"custom_object\": {\"name\": \"value\", \"nested\": [1, 2.5, true, null]},\n"
+			+ "   \"custom_array\": [\"value1\", \"value2\"],\n"
+			+ "   \"custom_number\": 10000000000\n"
+			+ "}\n";
+		// @formatter:on
+		Map<String, Object> customObject = new LinkedHashMap<>();
+		customObject.put("name", "value");
+		customObject.put("nested", Arrays.asList(1, 2.5, true, null));
+		OAuth2AccessTokenResponse accessTokenResponse = this.reader.read(bytes(tokenResponse));
+		assertThat(accessTokenResponse.getAccessToken().getTokenType()).isEqualTo(OAuth2AccessToken.TokenType.BEARER);
+		assertThat(accessTokenResponse.getAdditionalParameters()).containsExactly(entry("custom_object", customObject),
+				entry("custom_array", Arrays.asList("value1", "value2")), entry("custom_number", 10000000000L));
+	}
+
+	@Test
+	public void readWhenNoAdditionalParametersThenEmpty() throws Exception {
+		String tokenResponse = "{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\", \"scope\": null}";
+		OAuth2AccessTokenResponse accessTokenResponse = this.reader.read(bytes(tokenResponse));
+		assertThat(accessTokenResponse.getAccessToken().getScopes()).isEmpty();
+		assertThat(accessTokenResponse.getRefreshToken()).isNull();
+		assertThat(accessTokenResponse.getAdditionalParameters()).isEmpty();
+	}
+
+	@Test
+	public void readWhenErrorResponseThenThrowOAuth2AuthorizationException() {
+		String tokenResponse = "{\"error\": \"invalid_grant\", \"error_description\": \"Expired\"}";
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(() -> this.reader.read(bytes(tokenResponse)))
+				.satisfies((ex) -> {
+					assertThat(ex.getError().getErrorCode()).isEqualTo("invalid_grant");
+					assertThat(ex.getError().getDescription()).isEqualTo("Expired");
+				});
+	}
+
+	@Test
+	public void readWhenNotJsonObjectThenThrowOAuth2AuthorizationException() {
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(() -> this.reader.read(bytes("[\"access_token\"]")))
+				.satisfies((ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo("invalid_token_response"));
+	}
+
+	@Test
+	public void readWhenInvalidJsonThenThrowIOException() {
+		assertThatExceptionOfType(IOException.class)
+				.isThrownBy(() -> this.reader.read(bytes("{\"access_token\": \"access-token-1234\"")));
+	}
+
+	@Test
+	public void readWhenInputStreamThenNotClosed() throws Exception {
+		String tokenResponse = "{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}";
+		boolean[] closed = new boolean[1];
+		InputStream inputStream = new ByteArrayInputStream(bytes(tokenResponse)) {
+
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+
+		};
+		OAuth2AccessTokenResponse accessTokenResponse = this.reader.read(inputStream);
+		assertThat(accessTokenResponse.getAccessToken().getTokenValue()).isEqualTo("access-token-1234");
+		assertThat(closed[0]).isFalse();
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.http.converter;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link StreamingOAuth2AccessTokenResponseHttpMessageConverter}.
+ */
+public class StreamingOAuth2AccessTokenResponseHttpMessageConverterTests {
+
+	private final StreamingOAuth2AccessTokenResponseHttpMessageConverter messageConverter = new StreamingOAuth2AccessTokenResponseHttpMessageConverter();
+
+	@Test
+	public void setAccessTokenResponseReaderWhenNullThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.messageConverter.setAccessTokenResponseReader(null));
+	}
+
+	@Test
+	public void readInternalWhenSuccessfulTokenResponseThenReadOAuth2AccessTokenResponse() {
+		// @formatter:off
+		String tokenResponse = "{\n"
+			+ "   \"access_token\": \"access-token-1234\",\n"
+			+ "   \"token_type\": \"bearer\",\n"
+			+ "   \"expires_in\": 3600,\n"
+			+ "   \"scope\": \"read write\",\n"
+			+ "   \"custom_parameter_1\": \"custom-value-1\"\n"
+			+ "}\n";
+		// @formatter:on
+		MockClientHttpResponse response = new MockClientHttpResponse(
+				tokenResponse.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+		OAuth2AccessTokenResponse accessTokenResponse = this.messageConverter
+				.readInternal(OAuth2AccessTokenResponse.class, response);
+		assertThat(accessTokenResponse.getAccessToken().getTokenValue()).isEqualTo("access-token-1234");
+		assertThat(accessTokenResponse.getAccessToken().getTokenType()).isEqualTo(OAuth2AccessToken.TokenType.BEARER);
+		assertThat(accessTokenResponse.getAccessToken().getScopes()).containsExactly("read", "write");
+		assertThat(accessTokenResponse.getAdditionalParameters())
+				.containsExactly(entry("custom_parameter_1", "custom-value-1"));
+	}
+
+	@Test
+	public void readInternalWhenAccessTokenResponseConverterSetThenUsed() {
+		OAuth2AccessTokenResponse customResponse = OAuth2AccessTokenResponse.withToken("custom-token-1234")
+				.tokenType(OAuth2AccessToken.TokenType.BEARER).build();
+		this.messageConverter.setAccessTokenResponseConverter((parameters) -> {
+			assertThat(parameters).containsEntry("access_token", "access-token-1234");
+			return customResponse;
+		});
+		String tokenResponse = "{\"access_token\": \"access-token-1234\", \"token_type\": \"bearer\"}";
+		MockClientHttpResponse response = new MockClientHttpResponse(
+				tokenResponse.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+		OAuth2AccessTokenResponse accessTokenResponse = this.messageConverter
+				.readInternal(OAuth2AccessTokenResponse.class, response);
+		assertThat(accessTokenResponse).isSameAs(customResponse);
+	}
+
+	@Test
+	public void readInternalWhenMissingAccessTokenThenThrowHttpMessageNotReadableException() {
+		MockClientHttpResponse response = new MockClientHttpResponse("{}".getBytes(StandardCharsets.UTF_8),
+				HttpStatus.OK);
+		assertThatExceptionOfType(HttpMessageNotReadableException.class)
+				.isThrownBy(() -> this.messageConverter.readInternal(OAuth2AccessTokenResponse.class, response))
+				.withMessageContaining("An error occurred reading the OAuth 2.0 Access Token Response");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -163,4 +163,72 @@ public class OAuth2BodyExtractorsTests {
 		assertThat(result.getAdditionalParameters().get("list")).isInstanceOfAny(List.class);
 	}
 
+	@Test
+	public void streamingOAuth2AccessTokenResponseWhenValidThenCreated() {
+		BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> extractor = OAuth2BodyExtractors
+				.streamingOAuth2AccessTokenResponse();
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		// @formatter:off
+		response.setBody(
+				"{\n"
+			+ "       \"access_token\":\"2YotnFZFEjr1zCsicMWpAA\",\n"
+			+ "       \"token_type\":\"Bearer\",\n"
+			+ "       \"expires_in\":3600,\n"
+			+ "       \"refresh_token\":\"tGzv3JOkF0XG5Qx2TlKWIA\",\n"
+			+ "       \"example_parameter\":\"example_value\"\n"
+			+ "     }");
+		// @formatter:on
+		Instant now = Instant.now();
+		OAuth2AccessTokenResponse result = extractor.extract(response, this.context).block();
+		assertThat(result.getAccessToken().getTokenValue()).isEqualTo("2YotnFZFEjr1zCsicMWpAA");
+		assertThat(result.getAccessToken().getTokenType()).isEqualTo(OAuth2AccessToken.TokenType.BEARER);
+		assertThat(result.getAccessToken().getExpiresAt()).isBetween(now.plusSeconds(3600), now.plusSeconds(3600 + 2));
+		assertThat(result.getRefreshToken().getTokenValue()).isEqualTo("tGzv3JOkF0XG5Qx2TlKWIA");
+		assertThat(result.getAdditionalParameters()).containsEntry("example_parameter", "example_value");
+	}
+
+	@Test
+	public void streamingOAuth2AccessTokenResponseWhenInvalidJsonThenException() {
+		BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> extractor = OAuth2BodyExtractors
+				.streamingOAuth2AccessTokenResponse();
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		response.setBody("{");
+		Mono<OAuth2AccessTokenResponse> result = extractor.extract(response, this.context);
+		// @formatter:off
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(result::block)
+				.withMessageContaining("An error occurred parsing the Access Token response");
+		// @formatter:on
+	}
+
+	@Test
+	public void streamingOAuth2AccessTokenResponseWhenEmptyThenException() {
+		BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> extractor = OAuth2BodyExtractors
+				.streamingOAuth2AccessTokenResponse();
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+		Mono<OAuth2AccessTokenResponse> result = extractor.extract(response, this.context);
+		// @formatter:off
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(result::block)
+				.withMessageContaining("Empty OAuth 2.0 Access Token Response");
+		// @formatter:on
+	}
+
+	@Test
+	public void streamingOAuth2AccessTokenResponseWhenErrorResponseThenException() {
+		BodyExtractor<Mono<OAuth2AccessTokenResponse>, ReactiveHttpInputMessage> extractor = OAuth2BodyExtractors
+				.streamingOAuth2AccessTokenResponse();
+		MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.BAD_REQUEST);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		response.setBody("{\"error\": \"invalid_grant\"}");
+		Mono<OAuth2AccessTokenResponse> result = extractor.extract(response, this.context);
+		// @formatter:off
+		assertThatExceptionOfType(OAuth2AuthorizationException.class)
+				.isThrownBy(result::block)
+				.satisfies((ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo("invalid_grant"));
+		// @formatter:on
+	}
+
 }
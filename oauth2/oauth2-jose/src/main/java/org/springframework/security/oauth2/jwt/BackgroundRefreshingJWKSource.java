@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link JWKSource} that retrieves a remote JWK Set and keeps it up to date in the
+ * background:
+ *
+ * <ul>
+ * <li>when a refresh interval is configured, the JWK Set is retrieved on a scheduler
+ * right away and then periodically, so that requests do not wait for it</li>
+ * <li>when retrieving the JWK Set fails, the previously retrieved keys keep being
+ * used</li>
+ * <li>concurrent retrievals are coalesced into a single request</li>
+ * <li>retrievals caused by tokens that refer to an unknown key id are rate-limited</li>
+ * </ul>
+ *
+ * <p>
+ * The background refresh runs until {@link #close()} is called.
+ *
+ * @since 6.2
+ */
+final class BackgroundRefreshingJWKSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+	private static final Log logger = LogFactory.getLog(BackgroundRefreshingJWKSource.class);
+
+	private final URL jwkSetUrl;
+
+	private final ResourceRetriever jwkSetRetriever;
+
+	private final UnknownKidRefreshLimiter unknownKidRefreshLimiter;
+
+	private final JwkSetRefreshMetrics metrics;
+
+	private final AtomicReference<CompletableFuture<JWKSet>> inFlight = new AtomicReference<>();
+
+	private volatile JWKSet jwkSet;
+
+	private ScheduledFuture<?> scheduledRefresh;
+
+	private ScheduledExecutorService ownedScheduler;
+
+	private Runnable jwkSetChangeListener = () -> {
+	};
+
+	BackgroundRefreshingJWKSource(URL jwkSetUrl, ResourceRetriever jwkSetRetriever,
+			Duration unknownKidRefreshInterval, JwkSetRefreshMetrics metrics) {
+		Assert.notNull(jwkSetUrl, "jwkSetUrl cannot be null");
+		Assert.notNull(jwkSetRetriever, "jwkSetRetriever cannot be null");
+		Assert.notNull(unknownKidRefreshInterval, "unknownKidRefreshInterval cannot be null");
+		Assert.notNull(metrics, "metrics cannot be null");
+		this.jwkSetUrl = jwkSetUrl;
+		this.jwkSetRetriever = jwkSetRetriever;
+		this.unknownKidRefreshLimiter = new UnknownKidRefreshLimiter(unknownKidRefreshInterval);
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Retrieve the JWK Set on a background thread now and then every
+	 * {@code refreshInterval}, using a single-thread scheduler dedicated to this source.
+	 * @param refreshInterval the interval between two retrievals
+	 */
+	synchronized void startBackgroundRefresh(Duration refreshInterval) {
+		Assert.isTrue(refreshInterval.toMillis() > 0, "refreshInterval must be positive");
+		Assert.state(this.scheduledRefresh == null, "background refresh is already started");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((task) -> {
+			Thread thread = new Thread(task, "jwk-set-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		startBackgroundRefresh(refreshInterval, scheduler);
+		this.ownedScheduler = scheduler;
+	}
+
+	/**
+	 * Retrieve the JWK Set on the given scheduler now and then every
+	 * {@code refreshInterval}. The scheduler is not shut down by {@link #close()}.
+	 * @param refreshInterval the interval between two retrievals
+	 * @param scheduler the scheduler to use
+	 */
+	synchronized void startBackgroundRefresh(Duration refreshInterval, ScheduledExecutorService scheduler) {
+		Assert.isTrue(refreshInterval.toMillis() > 0, "refreshInterval must be positive");
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		Assert.state(this.scheduledRefresh == null, "background refresh is already started");
+		this.scheduledRefresh = scheduler.scheduleWithFixedDelay(this::refreshInBackground, 0,
+				refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop retrieving the JWK Set in the background.
+	 */
+	synchronized void stopBackgroundRefresh() {
+		if (this.scheduledRefresh != null) {
+			this.scheduledRefresh.cancel(false);
+		}
+		if (this.ownedScheduler != null) {
+			this.ownedScheduler.shutdownNow();
+			this.ownedScheduler = null;
+		}
+	}
+
+	/**
+	 * Stop retrieving the JWK Set in the background.
+	 */
+	@Override
+	public void close() {
+		stopBackgroundRefresh();
+	}
+
+	/**
+	 * Run the given listener whenever a retrieval finds keys that differ from the
+	 * previously retrieved ones.
+	 * @param jwkSetChangeListener the listener to run
+	 */
+	void setJwkSetChangeListener(Runnable jwkSetChangeListener) {
+		Assert.notNull(jwkSetChangeListener, "jwkSetChangeListener cannot be null");
+		this.jwkSetChangeListener = jwkSetChangeListener;
+	}
+
+	@Override
+	public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+		JWKSet jwkSet = this.jwkSet;
+		if (jwkSet == null) {
+			return jwkSelector.select(refresh());
+		}
+		List<JWK> matches = jwkSelector.select(jwkSet);
+		if (!matches.isEmpty()) {
+			return matches;
+		}
+		String soughtKeyID = ReactiveRemoteJWKSource.getFirstSpecifiedKeyID(jwkSelector.getMatcher());
+		if (soughtKeyID == null || jwkSet.getKeyByKeyId(soughtKeyID) != null) {
+			return Collections.emptyList();
+		}
+		if (!this.unknownKidRefreshLimiter.tryAcquire()) {
+			this.metrics.recordRateLimitedUnknownKid();
+			logger.trace("Not refreshing the JWK Set for an unknown key id since it was refreshed recently");
+			return Collections.emptyList();
+		}
+		this.metrics.recordUnknownKidRefresh();
+		try {
+			return jwkSelector.select(refresh());
+		}
+		catch (KeySourceException ex) {
+			logger.debug("Failed to refresh the JWK Set, using the previously retrieved keys", ex);
+			return Collections.emptyList();
+		}
+	}
+
+	private void refreshInBackground() {
+		try {
+			refresh();
+		}
+		catch (Exception ex) {
+			logger.debug("Failed to refresh the JWK Set in the background, using the previously retrieved keys", ex);
+		}
+	}
+
+	private JWKSet refresh() throws KeySourceException {
+		CompletableFuture<JWKSet> refresh = new CompletableFuture<>();
+		CompletableFuture<JWKSet> inFlight = this.inFlight.compareAndExchange(null, refresh);
+		if (inFlight != null) {
+			return await(inFlight);
+		}
+		JWKSet jwkSet;
+		JWKSet previous;
+		try {
+			jwkSet = retrieve();
+			previous = this.jwkSet;
+			this.jwkSet = jwkSet;
+			refresh.complete(jwkSet);
+		}
+		catch (KeySourceException | RuntimeException ex) {
+			refresh.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.compareAndSet(refresh, null);
+		}
+		if (previous != null && !previous.getKeys().equals(jwkSet.getKeys())) {
+			notifyJwkSetChanged();
+		}
+		return jwkSet;
+	}
+
+	private void notifyJwkSetChanged() {
+		try {
+			this.jwkSetChangeListener.run();
+		}
+		catch (RuntimeException ex) {
+			logger.debug("Failed to notify that the JWK Set changed", ex);
+		}
+	}
+
+	private JWKSet retrieve() throws KeySourceException {
+		long start = System.nanoTime();
+		try {
+			Resource resource = this.jwkSetRetriever.retrieveResource(this.jwkSetUrl);
+			JWKSet jwkSet = JWKSet.parse(resource.getContent());
+			this.metrics.recordRefresh(System.nanoTime() - start, true);
+			return jwkSet;
+		}
+		catch (ParseException ex) {
+			this.metrics.recordRefresh(System.nanoTime() - start, false);
+			throw new RemoteKeySourceException("Couldn't parse remote JWK set: " + ex.getMessage(), ex);
+		}
+		catch (Exception ex) {
+			this.metrics.recordRefresh(System.nanoTime() - start, false);
+			throw new RemoteKeySourceException("Couldn't retrieve remote JWK set: " + ex.getMessage(), ex);
+		}
+	}
+
+	private static JWKSet await(CompletableFuture<JWKSet> refresh) throws KeySourceException {
+		try {
+			return refresh.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof KeySourceException keySourceException) {
+				throw keySourceException;
+			}
+			throw new RemoteKeySourceException("Couldn't retrieve remote JWK set: " + ex.getMessage(), ex);
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.security.Key;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link JWSVerifierFactory} that keeps the verifiers it creates, keyed by key id,
+ * algorithm and key, so that a JWT signed with a known key is verified without building
+ * a new verifier. The verifiers are created by a {@link DefaultJWSVerifierFactory}.
+ *
+ * <p>
+ * The number of verifiers is bounded; once full, a tenth of them are discarded in no
+ * particular order. Since the key is part of the cache key, a key id that is reused for a different
+ * key never matches a stale verifier; {@link #invalidate()} additionally releases the
+ * verifiers of keys that were removed from the JWK Set.
+ *
+ * @since 6.2
+ */
+final class CachingJWSVerifierFactory implements JWSVerifierFactory {
+
+	private final JWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+
+	private final BoundedCache<VerifierKey, JWSVerifier> verifiers;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	CachingJWSVerifierFactory(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		this.verifiers = new BoundedCache<>(maximumSize);
+	}
+
+	@Override
+	public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+		VerifierKey verifierKey = new VerifierKey(header.getKeyID(), header.getAlgorithm(), key);
+		JWSVerifier verifier = this.verifiers.get(verifierKey);
+		if (verifier != null) {
+			this.hits.increment();
+			return verifier;
+		}
+		this.misses.increment();
+		verifier = this.verifierFactory.createJWSVerifier(header, key);
+		this.verifiers.put(verifierKey, verifier);
+		return verifier;
+	}
+
+	/**
+	 * Discard all verifiers, for example because the JWK Set has changed.
+	 */
+	void invalidate() {
+		this.verifiers.clear();
+	}
+
+	int size() {
+		return this.verifiers.size();
+	}
+
+	long getHitCount() {
+		return this.hits.sum();
+	}
+
+	long getMissCount() {
+		return this.misses.sum();
+	}
+
+	@Override
+	public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+		return this.verifierFactory.supportedJWSAlgorithms();
+	}
+
+	@Override
+	public JCAContext getJCAContext() {
+		return this.verifierFactory.getJCAContext();
+	}
+
+	private static final class VerifierKey {
+
+		private final String keyId;
+
+		private final JWSAlgorithm algorithm;
+
+		private final Key key;
+
+		private VerifierKey(String keyId, JWSAlgorithm algorithm, Key key) {
+			this.keyId = keyId;
+			this.algorithm = algorithm;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof VerifierKey other)) {
+				return false;
+			}
+			return Objects.equals(this.keyId, other.keyId) && this.algorithm.equals(other.algorithm)
+					&& this.key.equals(other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.keyId, this.algorithm, this.key);
+		}
+
+	}
+
+}
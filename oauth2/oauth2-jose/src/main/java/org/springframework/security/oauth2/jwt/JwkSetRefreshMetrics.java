@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics about the retrieval of a
+ * <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a> by a
+ * {@link NimbusJwtDecoder} or {@link NimbusReactiveJwtDecoder}, for example to expose
+ * them through a monitoring system.
+ *
+ * @since 6.2
+ * @see NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder#jwkSetRefreshMetrics(JwkSetRefreshMetrics)
+ * @see NimbusReactiveJwtDecoder.JwkSetUriReactiveJwtDecoderBuilder#jwkSetRefreshMetrics(JwkSetRefreshMetrics)
+ */
+public final class JwkSetRefreshMetrics {
+
+	private final LongAdder refreshes = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	private final LongAdder unknownKidRefreshes = new LongAdder();
+
+	private final LongAdder rateLimitedUnknownKids = new LongAdder();
+
+	private final LongAdder refreshNanos = new LongAdder();
+
+	private volatile long lastRefreshNanos;
+
+	private volatile Instant lastSuccessfulRefresh;
+
+	/**
+	 * Returns the number of times the JWK Set was retrieved, successfully or not
+	 * @return the number of retrievals
+	 */
+	public long getRefreshCount() {
+		return this.refreshes.sum();
+	}
+
+	/**
+	 * Returns the number of times retrieving the JWK Set failed
+	 * @return the number of failed retrievals
+	 */
+	public long getRefreshFailureCount() {
+		return this.failures.sum();
+	}
+
+	/**
+	 * Returns the number of times the JWK Set was retrieved because a token referred to
+	 * an unknown key id
+	 * @return the number of retrievals caused by an unknown key id
+	 */
+	public long getUnknownKidRefreshCount() {
+		return this.unknownKidRefreshes.sum();
+	}
+
+	/**
+	 * Returns the number of times the JWK Set was not retrieved, even though a token
+	 * referred to an unknown key id, because it had been retrieved for that reason too
+	 * recently
+	 * @return the number of rate-limited retrievals
+	 */
+	public long getRateLimitedUnknownKidCount() {
+		return this.rateLimitedUnknownKids.sum();
+	}
+
+	/**
+	 * Returns how long the last retrieval of the JWK Set took
+	 * @return the duration of the last retrieval
+	 */
+	public Duration getLastRefreshDuration() {
+		return Duration.ofNanos(this.lastRefreshNanos);
+	}
+
+	/**
+	 * Returns how long a retrieval of the JWK Set took on average
+	 * @return the average duration of a retrieval
+	 */
+	public Duration getAverageRefreshDuration() {
+		long refreshes = getRefreshCount();
+		return (refreshes != 0) ? Duration.ofNanos(this.refreshNanos.sum() / refreshes) : Duration.ZERO;
+	}
+
+	/**
+	 * Returns when the JWK Set was last retrieved successfully
+	 * @return the time of the last successful retrieval or {@code null} if the JWK Set
+	 * was never retrieved
+	 */
+	public Instant getLastSuccessfulRefresh() {
+		return this.lastSuccessfulRefresh;
+	}
+
+	void recordRefresh(long nanos, boolean success) {
+		this.refreshes.increment();
+		this.refreshNanos.add(nanos);
+		this.lastRefreshNanos = nanos;
+		if (success) {
+			this.lastSuccessfulRefresh = Instant.now();
+		}
+		else {
+			this.failures.increment();
+		}
+	}
+
+	void recordUnknownKidRefresh() {
+		this.unknownKidRefreshes.increment();
+	}
+
+	void recordRateLimitedUnknownKid() {
+		this.rateLimitedUnknownKids.increment();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -68,7 +68,8 @@ public class Jwt extends AbstractOAuth2Token implements JwtClaimAccessor {
 		Assert.notEmpty(headers, "headers cannot be empty");
 		Assert.notEmpty(claims, "claims cannot be empty");
 		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
-		this.claims = Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+		this.claims = (claims instanceof LazyConvertedClaims) ? claims
+				: Collections.unmodifiableMap(new LinkedHashMap<>(claims));
 	}
 
 	/**
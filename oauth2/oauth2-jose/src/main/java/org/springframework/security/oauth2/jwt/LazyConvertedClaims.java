@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * An unmodifiable view over a JWT claim set that converts each claim the first time it
+ * is read and remembers the result. Claims without a converter are read straight from
+ * the underlying claim set. Operations that need every claim, like iterating or
+ * comparing, convert all remaining claims once.
+ *
+ * <p>
+ * The registered claims are converted upfront, so that a JWT with a malformed
+ * registered claim is still rejected when it is decoded. The resulting claims are the
+ * same as the ones returned by an eager {@link MappedJwtClaimSetConverter}, except that
+ * errors converting any other claim are reported when that claim is read.
+ *
+ * @since 6.2
+ * @see MappedJwtClaimSetConverter#setLazyConversion(boolean)
+ */
+final class LazyConvertedClaims extends AbstractMap<String, Object> implements Serializable {
+
+	private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+	private static final Object ABSENT = new Object();
+
+	private static final List<String> REGISTERED_CLAIM_NAMES = List.of(JwtClaimNames.ISS, JwtClaimNames.SUB,
+			JwtClaimNames.AUD, JwtClaimNames.EXP, JwtClaimNames.NBF, JwtClaimNames.IAT, JwtClaimNames.JTI);
+
+	private final transient Map<String, Object> claims;
+
+	private final transient Map<String, Converter<Object, ?>> claimTypeConverters;
+
+	private final transient Map<String, Object> convertedClaims = new ConcurrentHashMap<>();
+
+	private transient volatile Set<Entry<String, Object>> entrySet;
+
+	LazyConvertedClaims(Map<String, Object> claims, Map<String, Converter<Object, ?>> claimTypeConverters) {
+		this.claims = claims;
+		this.claimTypeConverters = claimTypeConverters;
+		for (String name : REGISTERED_CLAIM_NAMES) {
+			get(name);
+		}
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (!(key instanceof String name)) {
+			return null;
+		}
+		if (!isConverted(name)) {
+			return this.claims.get(name);
+		}
+		Object value = this.convertedClaims.get(name);
+		if (value == null) {
+			Object resolved = resolve(name);
+			value = (resolved != null) ? resolved : ABSENT;
+			Object previous = this.convertedClaims.putIfAbsent(name, value);
+			value = (previous != null) ? previous : value;
+		}
+		return (value != ABSENT) ? value : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (key instanceof String name && !isConverted(name)) {
+			return this.claims.containsKey(name);
+		}
+		return get(key) != null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (String name : this.claims.keySet()) {
+			if (!isConverted(name)) {
+				return false;
+			}
+		}
+		return entrySet().isEmpty();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		Set<Entry<String, Object>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = Collections.unmodifiableMap(convertAll()).entrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Create a {@link Jwt} that uses these claims as they are, without copying them.
+	 * @param tokenValue the token value
+	 * @param headers the JOSE header(s)
+	 * @return the {@link Jwt}
+	 */
+	Jwt toJwt(String tokenValue, Map<String, Object> headers) {
+		return new Jwt(tokenValue, toInstant(get(JwtClaimNames.IAT)), toInstant(get(JwtClaimNames.EXP)), headers,
+				this);
+	}
+
+	private static Instant toInstant(Object timestamp) {
+		if (timestamp != null) {
+			Assert.isInstanceOf(Instant.class, timestamp, "timestamps must be of type Instant");
+		}
+		return (Instant) timestamp;
+	}
+
+	private Map<String, Object> convertAll() {
+		Map<String, Object> convertedClaims = new LinkedHashMap<>();
+		for (String name : this.claims.keySet()) {
+			if (containsKey(name)) {
+				convertedClaims.put(name, get(name));
+			}
+		}
+		for (String name : this.claimTypeConverters.keySet()) {
+			putIfConverted(convertedClaims, name);
+		}
+		putIfConverted(convertedClaims, JwtClaimNames.IAT);
+		return convertedClaims;
+	}
+
+	private void putIfConverted(Map<String, Object> convertedClaims, String name) {
+		if (!convertedClaims.containsKey(name)) {
+			Object value = get(name);
+			if (value != null) {
+				convertedClaims.put(name, value);
+			}
+		}
+	}
+
+	private boolean isConverted(String name) {
+		return this.claimTypeConverters.get(name) != null || JwtClaimNames.IAT.equals(name);
+	}
+
+	private Object resolve(String name) {
+		Converter<Object, ?> converter = this.claimTypeConverters.get(name);
+		Object claim = this.claims.get(name);
+		Object value = (converter != null) ? converter.convert(claim) : claim;
+		if (value == null && JwtClaimNames.IAT.equals(name)) {
+			// Same defaulting as MappedJwtClaimSetConverter#convert
+			Instant expiresAt = (Instant) get(JwtClaimNames.EXP);
+			return (expiresAt != null) ? expiresAt.minusSeconds(1) : null;
+		}
+		return value;
+	}
+
+	private Object writeReplace() {
+		return Collections.unmodifiableMap(new LinkedHashMap<>(this));
+	}
+
+}
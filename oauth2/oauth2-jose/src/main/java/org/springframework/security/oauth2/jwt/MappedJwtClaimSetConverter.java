@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,8 @@ public final class MappedJwtClaimSetConverter implements Converter<Map<String, O
 
 	private final Map<String, Converter<Object, ?>> claimTypeConverters;
 
+	private boolean lazyConversion;
+
 	/**
 	 * Constructs a {@link MappedJwtClaimSetConverter} with the provided arguments
 	 *
@@ -145,9 +147,32 @@ public final class MappedJwtClaimSetConverter implements Converter<Map<String, O
 		return (String) CONVERSION_SERVICE.convert(source, OBJECT_TYPE_DESCRIPTOR, STRING_TYPE_DESCRIPTOR);
 	}
 
+	/**
+	 * Use {@code true} to convert each claim only when it is first read, instead of
+	 * converting the whole claim set upfront. The returned claim set is then an
+	 * unmodifiable view over the provided claims, which {@link NimbusJwtDecoder} and
+	 * {@link NimbusReactiveJwtDecoder} use as the {@link Jwt#getClaims() Jwt claims}
+	 * without copying them. This is useful when tokens carry many claims and only a few
+	 * of them are read.
+	 *
+	 * <p>
+	 * Note that in this mode, the registered claims, like {@code iss}, {@code aud} or
+	 * {@code exp}, are still converted upfront, while any other claim that cannot be
+	 * converted is reported when it is read instead of when the JWT is decoded. The
+	 * default is {@code false}.
+	 * @param lazyConversion whether to convert each claim when it is first read
+	 * @since 6.2
+	 */
+	public void setLazyConversion(boolean lazyConversion) {
+		this.lazyConversion = lazyConversion;
+	}
+
 	@Override
 	public Map<String, Object> convert(Map<String, Object> claims) {
 		Assert.notNull(claims, "claims cannot be null");
+		if (this.lazyConversion) {
+			return new LazyConvertedClaims(claims, this.claimTypeConverters);
+		}
 		Map<String, Object> mappedClaims = new HashMap<>(claims);
 		for (Map.Entry<String, Converter<Object, ?>> entry : this.claimTypeConverters.entrySet()) {
 			String claimName = entry.getKey();
@@ -21,6 +21,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -82,7 +84,7 @@ import org.springframework.web.client.RestTemplate;
  * @author Mykyta Bezverkhyi
  * @since 5.2
  */
-public final class NimbusJwtDecoder implements JwtDecoder {
+public final class NimbusJwtDecoder implements JwtDecoder, AutoCloseable {
 
 	private final Log logger = LogFactory.getLog(getClass());
 
@@ -95,13 +97,23 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 
 	private OAuth2TokenValidator<Jwt> jwtValidator = JwtValidators.createDefault();
 
+	private VerifiedJwtCache verifiedJwtCache;
+
+	private final Runnable closeAction;
+
 	/**
 	 * Configures a {@link NimbusJwtDecoder} with the given parameters
 	 * @param jwtProcessor - the {@link JWTProcessor} to use
 	 */
 	public NimbusJwtDecoder(JWTProcessor<SecurityContext> jwtProcessor) {
+		this(jwtProcessor, () -> {
+		});
+	}
+
+	private NimbusJwtDecoder(JWTProcessor<SecurityContext> jwtProcessor, Runnable closeAction) {
 		Assert.notNull(jwtProcessor, "jwtProcessor cannot be null");
 		this.jwtProcessor = jwtProcessor;
+		this.closeAction = closeAction;
 	}
 
 	/**
@@ -122,6 +134,29 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 		this.claimSetConverter = claimSetConverter;
 	}
 
+	/**
+	 * Use this {@link VerifiedJwtCache} to remember the {@link Jwt}s that have been
+	 * successfully decoded, so that their signature is not verified again when they are
+	 * presented again. There is no cache by default.
+	 * @param verifiedJwtCache the {@link VerifiedJwtCache} to use
+	 * @since 6.2
+	 */
+	public void setVerifiedJwtCache(VerifiedJwtCache verifiedJwtCache) {
+		Assert.notNull(verifiedJwtCache, "verifiedJwtCache cannot be null");
+		this.verifiedJwtCache = verifiedJwtCache;
+	}
+
+	/**
+	 * Stop retrieving the JWK Set in the background, if this decoder was built with
+	 * {@link JwkSetUriJwtDecoderBuilder#backgroundRefresh(Duration) background refresh}.
+	 * Otherwise, this does nothing.
+	 * @since 6.2
+	 */
+	@Override
+	public void close() {
+		this.closeAction.run();
+	}
+
 	/**
 	 * Decode and validate the JWT from its compact claims representation format
 	 * @param token the JWT value
@@ -130,6 +165,20 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 	 */
 	@Override
 	public Jwt decode(String token) throws JwtException {
+		if (this.verifiedJwtCache == null) {
+			return decodeAndValidate(token);
+		}
+		Jwt cached = this.verifiedJwtCache.get(token);
+		if (cached != null) {
+			return cached;
+		}
+		long start = System.nanoTime();
+		Jwt jwt = decodeAndValidate(token);
+		this.verifiedJwtCache.put(token, jwt, System.nanoTime() - start);
+		return jwt;
+	}
+
+	private Jwt decodeAndValidate(String token) {
 		JWT jwt = parse(token);
 		if (jwt instanceof PlainJWT) {
 			this.logger.trace("Failed to decode unsigned token");
@@ -155,6 +204,9 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 			JWTClaimsSet jwtClaimsSet = this.jwtProcessor.process(parsedJwt, null);
 			Map<String, Object> headers = new LinkedHashMap<>(parsedJwt.getHeader().toJSONObject());
 			Map<String, Object> claims = this.claimSetConverter.convert(jwtClaimsSet.getClaims());
+			if (claims instanceof LazyConvertedClaims lazyClaims) {
+				return lazyClaims.toJwt(token, headers);
+			}
 			// @formatter:off
 			return Jwt.withTokenValue(token)
 					.headers((h) -> h.putAll(headers))
@@ -261,6 +313,10 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 	 */
 	public static final class JwkSetUriJwtDecoderBuilder {
 
+		private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+
+		private static final Duration DEFAULT_UNKNOWN_KID_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
 		private Function<RestOperations, String> jwkSetUri;
 
 		private Function<JWKSource<SecurityContext>, Set<JWSAlgorithm>> defaultAlgorithms = (source) -> Set
@@ -272,6 +328,16 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 
 		private Cache cache;
 
+		private Duration refreshInterval;
+
+		private Duration unknownKidRefreshInterval;
+
+		private JwkSetRefreshMetrics jwkSetRefreshMetrics;
+
+		private ScheduledExecutorService refreshScheduler;
+
+		private int verifierCacheSize;
+
 		private Consumer<ConfigurableJWTProcessor<SecurityContext>> jwtProcessorCustomizer;
 
 		private JwkSetUriJwtDecoderBuilder(String jwkSetUri) {
@@ -346,6 +412,101 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * on a background thread, right away and then every {@code refreshInterval}, so
+		 * that requests do not wait for it. If a retrieval fails, the previously retrieved
+		 * keys keep being used. Concurrent retrievals are coalesced into a single request
+		 * and retrievals caused by an unknown key id are rate-limited, see
+		 * {@link #unknownKidRefreshInterval(Duration)}.
+		 *
+		 * <p>
+		 * When background refresh is enabled, the {@link #cache(Cache) cache} is not used.
+		 * Each built {@link NimbusJwtDecoder} then retrieves the JWK Set on a thread of its
+		 * own until {@link NimbusJwtDecoder#close()} is called.
+		 * @param refreshInterval the interval between two retrievals of the JWK Set
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriJwtDecoderBuilder backgroundRefresh(Duration refreshInterval) {
+			Assert.notNull(refreshInterval, "refreshInterval cannot be null");
+			Assert.isTrue(refreshInterval.toMillis() > 0, "refreshInterval must be positive");
+			this.refreshInterval = refreshInterval;
+			return this;
+		}
+
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * in the background like {@link #backgroundRefresh(Duration)}, using the given
+		 * {@link ScheduledExecutorService}. This allows several decoders to share a
+		 * scheduler whose lifecycle is managed by the application.
+		 * {@link NimbusJwtDecoder#close()} stops the retrievals of the decoder but does not
+		 * shut down the scheduler.
+		 * @param refreshInterval the interval between two retrievals of the JWK Set
+		 * @param scheduler the {@link ScheduledExecutorService} to retrieve the JWK Set on
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriJwtDecoderBuilder backgroundRefresh(Duration refreshInterval,
+				ScheduledExecutorService scheduler) {
+			Assert.notNull(scheduler, "scheduler cannot be null");
+			backgroundRefresh(refreshInterval);
+			this.refreshScheduler = scheduler;
+			return this;
+		}
+
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * at most once per {@code unknownKidRefreshInterval} because a token refers to a
+		 * key id that is not in the JWK Set. Tokens with an unknown key id that are
+		 * received in between are rejected without contacting the JWK Set endpoint. The
+		 * default is 30 seconds.
+		 *
+		 * <p>
+		 * This enables {@link #backgroundRefresh(Duration) background refresh}, every 5
+		 * minutes unless configured otherwise.
+		 * @param unknownKidRefreshInterval the minimum interval between two retrievals
+		 * caused by an unknown key id
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriJwtDecoderBuilder unknownKidRefreshInterval(Duration unknownKidRefreshInterval) {
+			Assert.notNull(unknownKidRefreshInterval, "unknownKidRefreshInterval cannot be null");
+			Assert.isTrue(!unknownKidRefreshInterval.isNegative(), "unknownKidRefreshInterval cannot be negative");
+			this.unknownKidRefreshInterval = unknownKidRefreshInterval;
+			return this;
+		}
+
+		/**
+		 * Record metrics about the retrievals of the
+		 * <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a> in the given
+		 * {@link JwkSetRefreshMetrics}. This enables {@link #backgroundRefresh(Duration)
+		 * background refresh}, every 5 minutes unless configured otherwise.
+		 * @param jwkSetRefreshMetrics the {@link JwkSetRefreshMetrics} to use
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriJwtDecoderBuilder jwkSetRefreshMetrics(JwkSetRefreshMetrics jwkSetRefreshMetrics) {
+			Assert.notNull(jwkSetRefreshMetrics, "jwkSetRefreshMetrics cannot be null");
+			this.jwkSetRefreshMetrics = jwkSetRefreshMetrics;
+			return this;
+		}
+
+		/**
+		 * Keep up to {@code maximumSize} ready-to-use signature verifiers, one per key id,
+		 * algorithm and key, instead of creating a new verifier for each JWT. RSA and EC
+		 * verifiers also reuse one {@link java.security.Signature} per thread. The
+		 * verifiers are discarded when a JWK Set retrieval finds different keys.
+		 * @param maximumSize the maximum number of verifiers to keep
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriJwtDecoderBuilder verifierCacheSize(int maximumSize) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			this.verifierCacheSize = maximumSize;
+			return this;
+		}
+
 		/**
 		 * Use the given {@link Consumer} to customize the {@link JWTProcessor
 		 * ConfigurableJWTProcessor} before passing it to the build
@@ -374,6 +535,10 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 		}
 
 		JWKSource<SecurityContext> jwkSource(ResourceRetriever jwkSetRetriever, String jwkSetUri) {
+			if (this.refreshInterval != null || this.unknownKidRefreshInterval != null
+					|| this.jwkSetRefreshMetrics != null) {
+				return backgroundRefreshingJwkSource(jwkSetRetriever, jwkSetUri);
+			}
 			if (this.cache == null) {
 				return new RemoteJWKSet<>(toURL(jwkSetUri), jwkSetRetriever);
 			}
@@ -381,12 +546,45 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 			return new RemoteJWKSet<>(toURL(jwkSetUri), jwkSetRetriever, jwkSetCache);
 		}
 
-		JWTProcessor<SecurityContext> processor() {
+		private JWKSource<SecurityContext> backgroundRefreshingJwkSource(ResourceRetriever jwkSetRetriever,
+				String jwkSetUri) {
+			Duration unknownKidRefreshInterval = (this.unknownKidRefreshInterval != null)
+					? this.unknownKidRefreshInterval : DEFAULT_UNKNOWN_KID_REFRESH_INTERVAL;
+			JwkSetRefreshMetrics metrics = (this.jwkSetRefreshMetrics != null) ? this.jwkSetRefreshMetrics
+					: new JwkSetRefreshMetrics();
+			BackgroundRefreshingJWKSource jwkSource = new BackgroundRefreshingJWKSource(toURL(jwkSetUri),
+					jwkSetRetriever, unknownKidRefreshInterval, metrics);
+			Duration refreshInterval = (this.refreshInterval != null) ? this.refreshInterval
+					: DEFAULT_REFRESH_INTERVAL;
+			if (this.refreshScheduler != null) {
+				jwkSource.startBackgroundRefresh(refreshInterval, this.refreshScheduler);
+			}
+			else {
+				jwkSource.startBackgroundRefresh(refreshInterval);
+			}
+			return jwkSource;
+		}
+
+		private JWKSource<SecurityContext> jwkSource() {
 			ResourceRetriever jwkSetRetriever = new RestOperationsResourceRetriever(this.restOperations);
 			String jwkSetUri = this.jwkSetUri.apply(this.restOperations);
-			JWKSource<SecurityContext> jwkSource = jwkSource(jwkSetRetriever, jwkSetUri);
+			return jwkSource(jwkSetRetriever, jwkSetUri);
+		}
+
+		JWTProcessor<SecurityContext> processor() {
+			return processor(jwkSource());
+		}
+
+		private JWTProcessor<SecurityContext> processor(JWKSource<SecurityContext> jwkSource) {
 			ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
 			jwtProcessor.setJWSKeySelector(jwsKeySelector(jwkSource));
+			if (this.verifierCacheSize > 0) {
+				CachingJWSVerifierFactory verifierFactory = new CachingJWSVerifierFactory(this.verifierCacheSize);
+				if (jwkSource instanceof BackgroundRefreshingJWKSource backgroundRefreshingJwkSource) {
+					backgroundRefreshingJwkSource.setJwkSetChangeListener(verifierFactory::invalidate);
+				}
+				jwtProcessor.setJWSVerifierFactory(verifierFactory);
+			}
 			// Spring Security validates the claim set independent from Nimbus
 			jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
 			});
@@ -399,7 +597,12 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 		 * @return the configured {@link NimbusJwtDecoder}
 		 */
 		public NimbusJwtDecoder build() {
-			return new NimbusJwtDecoder(processor());
+			JWKSource<SecurityContext> jwkSource = jwkSource();
+			JWTProcessor<SecurityContext> jwtProcessor = processor(jwkSource);
+			if (jwkSource instanceof BackgroundRefreshingJWKSource backgroundRefreshingJwkSource) {
+				return new NimbusJwtDecoder(jwtProcessor, backgroundRefreshingJwkSource::close);
+			}
+			return new NimbusJwtDecoder(jwtProcessor);
 		}
 
 		private static URL toURL(String url) {
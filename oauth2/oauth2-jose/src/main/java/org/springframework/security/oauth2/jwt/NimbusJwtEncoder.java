@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,11 @@ package org.springframework.security.oauth2.jwt;
 
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +35,7 @@ import com.nimbusds.jose.JOSEObjectType;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.Payload;
 import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKMatcher;
@@ -82,10 +86,19 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 
 	private static final JWSSignerFactory JWS_SIGNER_FACTORY = new DefaultJWSSignerFactory();
 
+	private static final int MAX_CACHED_ENTRIES = 256;
+
 	private final Map<JWK, JWSSigner> jwsSigners = new ConcurrentHashMap<>();
 
+	private final BoundedCache<List<String>, SelectedJwk> selectedJwks = new BoundedCache<>(MAX_CACHED_ENTRIES);
+
+	private final BoundedCache<Map<String, Object>, SerializedHeader> serializedHeaders = new BoundedCache<>(
+			MAX_CACHED_ENTRIES);
+
 	private final JWKSource<SecurityContext> jwkSource;
 
+	private Duration cacheTimeToLive;
+
 	/**
 	 * Constructs a {@code NimbusJwtEncoder} using the provided parameters.
 	 * @param jwkSource the {@code com.nimbusds.jose.jwk.source.JWKSource}
@@ -105,14 +118,52 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 		}
 		JwtClaimsSet claims = parameters.getClaims();
 
-		JWK jwk = selectJwk(headers);
+		JWK jwk = (this.cacheTimeToLive != null) ? selectCachedJwk(headers) : selectJwk(headers);
 		headers = addKeyIdentifierHeadersIfNecessary(headers, jwk);
 
-		String jws = serialize(headers, claims, jwk);
+		String jws = (this.cacheTimeToLive != null) ? serializeWithCachedHeader(headers, claims, jwk)
+				: serialize(headers, claims, jwk);
 
 		return new Jwt(jws, claims.getIssuedAt(), claims.getExpiresAt(), headers.getHeaders(), claims.getClaims());
 	}
 
+	/**
+	 * Enable a signing path for high volumes of JWTs:
+	 *
+	 * <ul>
+	 * <li>the JWK selected for a given algorithm, key id and X.509 thumbprint is reused
+	 * for {@code cacheTimeToLive} instead of being selected from the {@link JWKSource}
+	 * for each JWT</li>
+	 * <li>the JOSE header is converted and serialized once per distinct set of
+	 * headers</li>
+	 * </ul>
+	 *
+	 * <p>
+	 * Keys that are rotated in the {@link JWKSource} are picked up once
+	 * {@code cacheTimeToLive} has elapsed.
+	 * @param cacheTimeToLive how long to reuse a selected JWK
+	 * @since 6.2
+	 */
+	public void setCacheTimeToLive(Duration cacheTimeToLive) {
+		Assert.notNull(cacheTimeToLive, "cacheTimeToLive cannot be null");
+		Assert.isTrue(!cacheTimeToLive.isNegative() && !cacheTimeToLive.isZero(), "cacheTimeToLive must be positive");
+		this.cacheTimeToLive = cacheTimeToLive;
+	}
+
+	private JWK selectCachedJwk(JwsHeader headers) {
+		List<String> selection = Arrays.asList(headers.getAlgorithm().getName(), headers.getKeyId(),
+				headers.getX509SHA256Thumbprint());
+		long now = System.nanoTime();
+		SelectedJwk selected = this.selectedJwks.get(selection);
+		if (selected != null && now - selected.expiresAt < 0) {
+			return selected.jwk;
+		}
+
+		JWK jwk = selectJwk(headers);
+		this.selectedJwks.put(selection, new SelectedJwk(jwk, now + this.cacheTimeToLive.toNanos()));
+		return jwk;
+	}
+
 	private JWK selectJwk(JwsHeader headers) {
 		List<JWK> jwks;
 		try {
@@ -141,7 +192,7 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 		JWSHeader jwsHeader = convert(headers);
 		JWTClaimsSet jwtClaimsSet = convert(claims);
 
-		JWSSigner jwsSigner = this.jwsSigners.computeIfAbsent(jwk, NimbusJwtEncoder::createSigner);
+		JWSSigner jwsSigner = this.jwsSigners.computeIfAbsent(jwk, this::createSigner);
 
 		SignedJWT signedJwt = new SignedJWT(jwsHeader, jwtClaimsSet);
 		try {
@@ -154,6 +205,32 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 		return signedJwt.serialize();
 	}
 
+	private String serializeWithCachedHeader(JwsHeader headers, JwtClaimsSet claims, JWK jwk) {
+		SerializedHeader header = this.serializedHeaders.get(headers.getHeaders());
+		if (header == null) {
+			JWSHeader jwsHeader = convert(headers);
+			header = new SerializedHeader(jwsHeader, jwsHeader.toBase64URL().toString());
+			this.serializedHeaders.put(headers.getHeaders(), header);
+		}
+		String payload = new Payload(convert(claims).toJSONObject()).toBase64URL().toString();
+		String signingInput = header.encoded + "." + payload;
+
+		JWSSigner jwsSigner = this.jwsSigners.computeIfAbsent(jwk, this::createSigner);
+		JWSAlgorithm jwsAlgorithm = header.jwsHeader.getAlgorithm();
+		if (!jwsSigner.supportedJWSAlgorithms().contains(jwsAlgorithm)) {
+			throw new JwtEncodingException(String.format(ENCODING_ERROR_MESSAGE_TEMPLATE,
+					"Failed to sign the JWT -> The " + jwsAlgorithm + " algorithm is not supported by the JWS signer"));
+		}
+		try {
+			byte[] signingInputBytes = signingInput.getBytes(StandardCharsets.US_ASCII);
+			return signingInput + "." + jwsSigner.sign(header.jwsHeader, signingInputBytes);
+		}
+		catch (JOSEException ex) {
+			throw new JwtEncodingException(
+					String.format(ENCODING_ERROR_MESSAGE_TEMPLATE, "Failed to sign the JWT -> " + ex.getMessage()), ex);
+		}
+	}
+
 	private static JWKMatcher createJwkMatcher(JwsHeader headers) {
 		JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(headers.getAlgorithm().getName());
 
@@ -203,7 +280,7 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 		return headersBuilder.build();
 	}
 
-	private static JWSSigner createSigner(JWK jwk) {
+	private JWSSigner createSigner(JWK jwk) {
 		try {
 			return JWS_SIGNER_FACTORY.createJWSSigner(jwk);
 		}
@@ -349,4 +426,30 @@ public final class NimbusJwtEncoder implements JwtEncoder {
 		}
 	}
 
+	private static final class SelectedJwk {
+
+		private final JWK jwk;
+
+		private final long expiresAt;
+
+		private SelectedJwk(JWK jwk, long expiresAt) {
+			this.jwk = jwk;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+	private static final class SerializedHeader {
+
+		private final JWSHeader jwsHeader;
+
+		private final String encoded;
+
+		private SerializedHeader(JWSHeader jwsHeader, String encoded) {
+			this.jwsHeader = jwsHeader;
+			this.encoded = encoded;
+		}
+
+	}
+
 }
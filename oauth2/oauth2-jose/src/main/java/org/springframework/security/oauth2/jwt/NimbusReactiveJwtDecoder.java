@@ -54,6 +54,8 @@ import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.nimbusds.jwt.proc.JWTProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -89,7 +91,7 @@ import org.springframework.web.reactive.function.client.WebClient;
  * @see <a target="_blank" href="https://connect2id.com/products/nimbus-jose-jwt">Nimbus
  * JOSE + JWT SDK</a>
  */
-public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
+public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder, AutoCloseable {
 
 	private final Converter<JWT, Mono<JWTClaimsSet>> jwtProcessor;
 
@@ -98,6 +100,11 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 	private Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = MappedJwtClaimSetConverter
 			.withDefaults(Collections.emptyMap());
 
+	private VerifiedJwtCache verifiedJwtCache;
+
+	private Runnable closeAction = () -> {
+	};
+
 	/**
 	 * Constructs a {@code NimbusReactiveJwtDecoder} using the provided parameters.
 	 * @param jwkSetUrl the JSON Web Key (JWK) Set {@code URL}
@@ -125,6 +132,22 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		this.jwtProcessor = jwtProcessor;
 	}
 
+	private NimbusReactiveJwtDecoder(Converter<JWT, Mono<JWTClaimsSet>> jwtProcessor, Runnable closeAction) {
+		this.jwtProcessor = jwtProcessor;
+		this.closeAction = closeAction;
+	}
+
+	/**
+	 * Stop retrieving the JWK Set in the background, if this decoder was built with
+	 * {@link JwkSetUriReactiveJwtDecoderBuilder#backgroundRefresh(Duration) background
+	 * refresh}. Otherwise, this does nothing.
+	 * @since 6.2
+	 */
+	@Override
+	public void close() {
+		this.closeAction.run();
+	}
+
 	/**
 	 * Use the provided {@link OAuth2TokenValidator} to validate incoming {@link Jwt}s.
 	 * @param jwtValidator the {@link OAuth2TokenValidator} to use
@@ -143,8 +166,36 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		this.claimSetConverter = claimSetConverter;
 	}
 
+	/**
+	 * Use this {@link VerifiedJwtCache} to remember the {@link Jwt}s that have been
+	 * successfully decoded, so that their signature is not verified again when they are
+	 * presented again. There is no cache by default.
+	 * @param verifiedJwtCache the {@link VerifiedJwtCache} to use
+	 * @since 6.2
+	 */
+	public void setVerifiedJwtCache(VerifiedJwtCache verifiedJwtCache) {
+		Assert.notNull(verifiedJwtCache, "verifiedJwtCache cannot be null");
+		this.verifiedJwtCache = verifiedJwtCache;
+	}
+
 	@Override
 	public Mono<Jwt> decode(String token) throws JwtException {
+		if (this.verifiedJwtCache == null) {
+			return decodeAndValidate(token);
+		}
+		VerifiedJwtCache verifiedJwtCache = this.verifiedJwtCache;
+		return Mono.defer(() -> {
+			Jwt cached = verifiedJwtCache.get(token);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			long start = System.nanoTime();
+			return decodeAndValidate(token)
+					.doOnNext((jwt) -> verifiedJwtCache.put(token, jwt, System.nanoTime() - start));
+		});
+	}
+
+	private Mono<Jwt> decodeAndValidate(String token) {
 		JWT jwt = parse(token);
 		if (jwt instanceof PlainJWT) {
 			throw new BadJwtException("Unsupported algorithm of " + jwt.getHeader().getAlgorithm());
@@ -183,6 +234,9 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		try {
 			Map<String, Object> headers = new LinkedHashMap<>(parsedJwt.getHeader().toJSONObject());
 			Map<String, Object> claims = this.claimSetConverter.convert(jwtClaimsSet.getClaims());
+			if (claims instanceof LazyConvertedClaims lazyClaims) {
+				return lazyClaims.toJwt(parsedJwt.getParsedString(), headers);
+			}
 			return Jwt.withTokenValue(parsedJwt.getParsedString()).headers((h) -> h.putAll(headers))
 					.claims((c) -> c.putAll(claims)).build();
 		}
@@ -309,6 +363,10 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 
 		private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
 
+		private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+
+		private static final Duration DEFAULT_UNKNOWN_KID_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
 		private Function<WebClient, Mono<String>> jwkSetUri;
 
 		private Function<ReactiveRemoteJWKSource, Mono<Set<JWSAlgorithm>>> defaultAlgorithms = (source) -> Mono
@@ -318,6 +376,16 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 
 		private WebClient webClient = WebClient.create();
 
+		private Duration refreshInterval;
+
+		private Duration unknownKidRefreshInterval;
+
+		private JwkSetRefreshMetrics jwkSetRefreshMetrics;
+
+		private Scheduler refreshScheduler = Schedulers.parallel();
+
+		private int verifierCacheSize;
+
 		private BiFunction<ReactiveRemoteJWKSource, ConfigurableJWTProcessor<JWKSecurityContext>, Mono<ConfigurableJWTProcessor<JWKSecurityContext>>> jwtProcessorCustomizer;
 
 		private JwkSetUriReactiveJwtDecoderBuilder(String jwkSetUri) {
@@ -377,6 +445,98 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * in the background, right away and then every {@code refreshInterval}, so that
+		 * requests do not wait for it. If a retrieval fails, the previously retrieved keys
+		 * keep being used. Concurrent retrievals are coalesced into a single request and
+		 * retrievals caused by an unknown key id are rate-limited, see
+		 * {@link #unknownKidRefreshInterval(Duration)}.
+		 *
+		 * <p>
+		 * Each built {@link NimbusReactiveJwtDecoder} keeps retrieving the JWK Set until
+		 * {@link NimbusReactiveJwtDecoder#close()} is called.
+		 * @param refreshInterval the interval between two retrievals of the JWK Set
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder backgroundRefresh(Duration refreshInterval) {
+			Assert.notNull(refreshInterval, "refreshInterval cannot be null");
+			Assert.isTrue(refreshInterval.toMillis() > 0, "refreshInterval must be positive");
+			this.refreshInterval = refreshInterval;
+			return this;
+		}
+
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * in the background like {@link #backgroundRefresh(Duration)}, timed on the given
+		 * {@link Scheduler} instead of {@link Schedulers#parallel()}.
+		 * {@link NimbusReactiveJwtDecoder#close()} stops the retrievals of the decoder but
+		 * does not dispose the scheduler.
+		 * @param refreshInterval the interval between two retrievals of the JWK Set
+		 * @param scheduler the {@link Scheduler} to use
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder backgroundRefresh(Duration refreshInterval, Scheduler scheduler) {
+			Assert.notNull(scheduler, "scheduler cannot be null");
+			backgroundRefresh(refreshInterval);
+			this.refreshScheduler = scheduler;
+			return this;
+		}
+
+		/**
+		 * Retrieve the <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a>
+		 * at most once per {@code unknownKidRefreshInterval} because a token refers to a
+		 * key id that is not in the JWK Set. Tokens with an unknown key id that are
+		 * received in between are rejected without contacting the JWK Set endpoint. The
+		 * default is 30 seconds.
+		 *
+		 * <p>
+		 * This enables {@link #backgroundRefresh(Duration) background refresh}, every 5
+		 * minutes unless configured otherwise.
+		 * @param unknownKidRefreshInterval the minimum interval between two retrievals
+		 * caused by an unknown key id
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder unknownKidRefreshInterval(Duration unknownKidRefreshInterval) {
+			Assert.notNull(unknownKidRefreshInterval, "unknownKidRefreshInterval cannot be null");
+			Assert.isTrue(!unknownKidRefreshInterval.isNegative(), "unknownKidRefreshInterval cannot be negative");
+			this.unknownKidRefreshInterval = unknownKidRefreshInterval;
+			return this;
+		}
+
+		/**
+		 * Record metrics about the retrievals of the
+		 * <a href="https://tools.ietf.org/html/rfc7517#section-5">JWK Set</a> in the given
+		 * {@link JwkSetRefreshMetrics}. This enables {@link #backgroundRefresh(Duration)
+		 * background refresh}, every 5 minutes unless configured otherwise.
+		 * @param jwkSetRefreshMetrics the {@link JwkSetRefreshMetrics} to use
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder jwkSetRefreshMetrics(JwkSetRefreshMetrics jwkSetRefreshMetrics) {
+			Assert.notNull(jwkSetRefreshMetrics, "jwkSetRefreshMetrics cannot be null");
+			this.jwkSetRefreshMetrics = jwkSetRefreshMetrics;
+			return this;
+		}
+
+		/**
+		 * Keep up to {@code maximumSize} ready-to-use signature verifiers, one per key id,
+		 * algorithm and key, instead of creating a new verifier for each JWT. RSA and EC
+		 * verifiers also reuse one {@link java.security.Signature} per thread. The
+		 * verifiers are discarded when a JWK Set retrieval finds different keys.
+		 * @param maximumSize the maximum number of verifiers to keep
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.2
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder verifierCacheSize(int maximumSize) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			this.verifierCacheSize = maximumSize;
+			return this;
+		}
+
 		/**
 		 * Use the given {@link Consumer} to customize the {@link JWTProcessor
 		 * ConfigurableJWTProcessor} before passing it to the build
@@ -407,7 +567,8 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		 * @return the configured {@link NimbusReactiveJwtDecoder}
 		 */
 		public NimbusReactiveJwtDecoder build() {
-			return new NimbusReactiveJwtDecoder(processor());
+			ReactiveRemoteJWKSource source = source();
+			return new NimbusReactiveJwtDecoder(processor(source), source::close);
 		}
 
 		Mono<JWSKeySelector<JWKSecurityContext>> jwsKeySelector(ReactiveRemoteJWKSource source) {
@@ -424,12 +585,40 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 			return Mono.just(new JWSVerificationKeySelector<>(jwsAlgorithms, jwkSource));
 		}
 
+		private void configureBackgroundRefresh(ReactiveRemoteJWKSource source) {
+			source.setUnknownKidRefreshInterval((this.unknownKidRefreshInterval != null)
+					? this.unknownKidRefreshInterval : DEFAULT_UNKNOWN_KID_REFRESH_INTERVAL);
+			if (this.jwkSetRefreshMetrics != null) {
+				source.setMetrics(this.jwkSetRefreshMetrics);
+			}
+			source.startBackgroundRefresh(
+					(this.refreshInterval != null) ? this.refreshInterval : DEFAULT_REFRESH_INTERVAL,
+					this.refreshScheduler);
+		}
+
+		private ReactiveRemoteJWKSource source() {
+			ReactiveRemoteJWKSource source = new ReactiveRemoteJWKSource(this.jwkSetUri.apply(this.webClient));
+			source.setWebClient(this.webClient);
+			if (this.refreshInterval != null || this.unknownKidRefreshInterval != null
+					|| this.jwkSetRefreshMetrics != null) {
+				configureBackgroundRefresh(source);
+			}
+			return source;
+		}
+
 		Converter<JWT, Mono<JWTClaimsSet>> processor() {
+			return processor(source());
+		}
+
+		private Converter<JWT, Mono<JWTClaimsSet>> processor(ReactiveRemoteJWKSource source) {
 			DefaultJWTProcessor<JWKSecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
 			jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
 			});
-			ReactiveRemoteJWKSource source = new ReactiveRemoteJWKSource(this.jwkSetUri.apply(this.webClient));
-			source.setWebClient(this.webClient);
+			if (this.verifierCacheSize > 0) {
+				CachingJWSVerifierFactory verifierFactory = new CachingJWSVerifierFactory(this.verifierCacheSize);
+				source.setJwkSetChangeListener(verifierFactory::invalidate);
+				jwtProcessor.setJWSVerifierFactory(verifierFactory);
+			}
 			Mono<JWSKeySelector<JWKSecurityContext>> jwsKeySelector = jwsKeySelector(source);
 			Mono<Tuple2<ConfigurableJWTProcessor<JWKSecurityContext>, Function<JWSAlgorithm, Boolean>>> jwtProcessorMono = jwsKeySelector
 					.flatMap((selector) -> {
@@ -17,6 +17,7 @@
 package org.springframework.security.oauth2.jwt;
 
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -27,7 +28,13 @@ import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKMatcher;
 import com.nimbusds.jose.jwk.JWKSelector;
 import com.nimbusds.jose.jwk.JWKSet;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -36,7 +43,9 @@ import org.springframework.web.reactive.function.client.WebClient;
  * @author Rob Winch
  * @since 5.1
  */
-class ReactiveRemoteJWKSource implements ReactiveJWKSource {
+class ReactiveRemoteJWKSource implements ReactiveJWKSource, AutoCloseable {
+
+	private static final Log logger = LogFactory.getLog(ReactiveRemoteJWKSource.class);
 
 	/**
 	 * The cached JWK set.
@@ -47,6 +56,22 @@ class ReactiveRemoteJWKSource implements ReactiveJWKSource {
 
 	private final Mono<String> jwkSetURL;
 
+	/**
+	 * The JWK set retrieval in progress, if any.
+	 */
+	private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+
+	private UnknownKidRefreshLimiter unknownKidRefreshLimiter = new UnknownKidRefreshLimiter(Duration.ZERO);
+
+	private JwkSetRefreshMetrics metrics = new JwkSetRefreshMetrics();
+
+	private Disposable backgroundRefresh;
+
+	private volatile JWKSet lastJWKSet;
+
+	private Runnable jwkSetChangeListener = () -> {
+	};
+
 	ReactiveRemoteJWKSource(String jwkSetURL) {
 		Assert.hasText(jwkSetURL, "jwkSetURL cannot be empty");
 		this.jwkSetURL = Mono.just(jwkSetURL);
@@ -89,29 +114,116 @@ class ReactiveRemoteJWKSource implements ReactiveJWKSource {
 				// failed for some other reason, return no matches
 				return Mono.just(Collections.emptyList());
 			}
-			return Mono.empty();
+			if (!this.unknownKidRefreshLimiter.tryAcquire()) {
+				// The JWK set was refreshed recently, do not refresh it again
+				this.metrics.recordRateLimitedUnknownKid();
+				return Mono.just(Collections.emptyList());
+			}
+			this.metrics.recordUnknownKidRefresh();
+			if (this.backgroundRefresh == null) {
+				return Mono.empty();
+			}
+			// Keep using the cached JWK set if the refresh fails
+			return getJWKSet().map(jwkSelector::select).onErrorResume((ex) -> {
+				logger.debug("Failed to refresh the JWK Set, using the previously retrieved keys", ex);
+				return Mono.just(Collections.emptyList());
+			});
 		});
 	}
 
 	/**
-	 * Updates the cached JWK set from the configured URL.
+	 * Updates the cached JWK set from the configured URL. Concurrent updates are
+	 * coalesced into a single retrieval.
 	 * @return The updated JWK set.
 	 * @throws RemoteKeySourceException If JWK retrieval failed.
 	 */
 	private Mono<JWKSet> getJWKSet() {
+		return Mono.defer(() -> {
+			Mono<JWKSet> inFlight = this.inFlight.get();
+			if (inFlight != null) {
+				return inFlight;
+			}
+			Mono<JWKSet> retrieval = retrieveJWKSet().cache();
+			inFlight = this.inFlight.compareAndExchange(null, retrieval);
+			if (inFlight != null) {
+				return inFlight;
+			}
+			return retrieval.doFinally((signal) -> this.inFlight.compareAndSet(retrieval, null));
+		});
+	}
+
+	private Mono<JWKSet> retrieveJWKSet() {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			// @formatter:off
+			return this.jwkSetURL.flatMap((jwkSetURL) -> this.webClient.get()
+					.uri(jwkSetURL)
+					.retrieve()
+					.bodyToMono(String.class))
+					.map(this::parse)
+					.doOnNext((jwkSet) -> {
+						this.metrics.recordRefresh(System.nanoTime() - start, true);
+						this.cachedJWKSet.set(Mono.just(jwkSet));
+						JWKSet previous = this.lastJWKSet;
+						this.lastJWKSet = jwkSet;
+						if (previous != null && !previous.getKeys().equals(jwkSet.getKeys())) {
+							this.jwkSetChangeListener.run();
+						}
+					})
+					.doOnError((ex) -> this.metrics.recordRefresh(System.nanoTime() - start, false));
+			// @formatter:on
+		});
+	}
+
+	/**
+	 * Retrieve the JWK set right away and then every {@code refreshInterval}. Once
+	 * started, a failing retrieval caused by an unknown key id no longer fails the
+	 * lookup; the previously retrieved keys keep being used instead.
+	 * @param refreshInterval the interval between two retrievals
+	 */
+	void startBackgroundRefresh(Duration refreshInterval) {
+		startBackgroundRefresh(refreshInterval, Schedulers.parallel());
+	}
+
+	/**
+	 * Retrieve the JWK set right away and then every {@code refreshInterval}, timed on
+	 * the given {@link Scheduler}. The refresh runs until {@link #close()} is called.
+	 * @param refreshInterval the interval between two retrievals
+	 * @param scheduler the {@link Scheduler} to use
+	 */
+	synchronized void startBackgroundRefresh(Duration refreshInterval, Scheduler scheduler) {
+		Assert.isTrue(refreshInterval.toMillis() > 0, "refreshInterval must be positive");
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		Assert.state(this.backgroundRefresh == null, "background refresh is already started");
 		// @formatter:off
-		return this.jwkSetURL.flatMap((jwkSetURL) -> this.webClient.get()
-				.uri(jwkSetURL)
-				.retrieve()
-				.bodyToMono(String.class))
-				.map(this::parse)
-				.doOnNext((jwkSet) -> this.cachedJWKSet
-						.set(Mono.just(jwkSet))
-				)
-				.cache();
+		this.backgroundRefresh = Flux.interval(Duration.ZERO, refreshInterval, scheduler)
+				.onBackpressureDrop()
+				.concatMap((tick) -> getJWKSet()
+						.onErrorResume((ex) -> {
+							logger.debug("Failed to refresh the JWK Set in the background", ex);
+							return Mono.empty();
+						}))
+				.subscribe();
 		// @formatter:on
 	}
 
+	/**
+	 * Stop retrieving the JWK set in the background.
+	 */
+	synchronized void stopBackgroundRefresh() {
+		if (this.backgroundRefresh != null) {
+			this.backgroundRefresh.dispose();
+		}
+	}
+
+	/**
+	 * Stop retrieving the JWK set in the background.
+	 */
+	@Override
+	public void close() {
+		stopBackgroundRefresh();
+	}
+
 	private JWKSet parse(String body) {
 		try {
 			return JWKSet.parse(body);
@@ -143,4 +255,21 @@ class ReactiveRemoteJWKSource implements ReactiveJWKSource {
 		this.webClient = webClient;
 	}
 
+	void setUnknownKidRefreshInterval(Duration unknownKidRefreshInterval) {
+		this.unknownKidRefreshLimiter = new UnknownKidRefreshLimiter(unknownKidRefreshInterval);
+	}
+
+	void setMetrics(JwkSetRefreshMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Run the given listener whenever a retrieval finds keys that differ from the
+	 * previously retrieved ones.
+	 * @param jwkSetChangeListener the listener to run
+	 */
+	void setJwkSetChangeListener(Runnable jwkSetChangeListener) {
+		this.jwkSetChangeListener = jwkSetChangeListener;
+	}
+
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often a JWK Set is retrieved because a token refers to an unknown key id,
+ * so that a burst of tokens with a forged or not yet published key id does not result
+ * in a burst of requests to the JWK Set endpoint.
+ *
+ * @since 6.2
+ */
+final class UnknownKidRefreshLimiter {
+
+	private final long minimumIntervalNanos;
+
+	private final AtomicLong lastRefresh;
+
+	UnknownKidRefreshLimiter(Duration minimumInterval) {
+		this.minimumIntervalNanos = minimumInterval.toNanos();
+		this.lastRefresh = new AtomicLong(System.nanoTime() - this.minimumIntervalNanos);
+	}
+
+	/**
+	 * Whether a refresh may happen now, in which case the next one is only allowed once
+	 * the minimum interval has elapsed
+	 * @return {@code true} if the JWK Set may be retrieved
+	 */
+	boolean tryAcquire() {
+		if (this.minimumIntervalNanos <= 0) {
+			return true;
+		}
+		long now = System.nanoTime();
+		long last = this.lastRefresh.get();
+		return now - last >= this.minimumIntervalNanos && this.lastRefresh.compareAndSet(last, now);
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of {@link Jwt}s that have already been verified and validated by a
+ * {@link NimbusJwtDecoder} or {@link NimbusReactiveJwtDecoder}, so that a token which is
+ * presented several times does not have its signature verified and its claims converted
+ * and validated each time.
+ *
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the compact serialization of the token and are
+ * kept until the token expires or until the configured time to live elapses, whichever
+ * comes first. When a cached {@link Jwt} is returned, only the timestamp validator is run
+ * again; if it fails, the entry is evicted and the token is decoded as usual, so that
+ * the same error is reported as without a cache. Once the maximum size is exceeded, a
+ * tenth of the entries are evicted in no particular order, so that looking up a token
+ * never takes a lock.
+ *
+ * <p>
+ * Since the cache only remembers the outcome of a successful decode, an instance must
+ * not be shared between decoders that are configured differently, for example with
+ * different keys or validators.
+ *
+ * <p>
+ * The hit and miss counts as well as an estimate of the decoding time saved are
+ * available for monitoring.
+ *
+ * @since 6.2
+ * @see NimbusJwtDecoder#setVerifiedJwtCache(VerifiedJwtCache)
+ * @see NimbusReactiveJwtDecoder#setVerifiedJwtCache(VerifiedJwtCache)
+ */
+public final class VerifiedJwtCache {
+
+	private final Duration timeToLive;
+
+	private final BoundedCache<TokenHash, CachedJwt> cache;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder decodes = new LongAdder();
+
+	private final LongAdder decodeNanos = new LongAdder();
+
+	private OAuth2TokenValidator<Jwt> timestampValidator = new JwtTimestampValidator();
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Constructs a {@code VerifiedJwtCache} using the provided parameters.
+	 * @param maximumSize the maximum number of {@link Jwt}s to keep
+	 * @param timeToLive the maximum amount of time to keep a {@link Jwt}, even if it has
+	 * not expired yet
+	 */
+	public VerifiedJwtCache(int maximumSize, Duration timeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+		this.cache = new BoundedCache<>(maximumSize);
+	}
+
+	/**
+	 * Use this validator to re-validate cached {@link Jwt}s. It should only perform cheap
+	 * checks that depend on the current time. The default is
+	 * {@link JwtTimestampValidator}, which should be replaced when the decoder uses a
+	 * {@link JwtTimestampValidator} with a custom clock skew.
+	 * @param timestampValidator the {@link OAuth2TokenValidator} to use
+	 */
+	public void setTimestampValidator(OAuth2TokenValidator<Jwt> timestampValidator) {
+		Assert.notNull(timestampValidator, "timestampValidator cannot be null");
+		this.timestampValidator = timestampValidator;
+	}
+
+	/**
+	 * Use this {@link Clock} to determine when entries expire
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns the number of times a cached {@link Jwt} was returned
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the number of times a token had to be decoded
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the ratio of requests that were served from the cache
+	 * @return the hit ratio, between {@code 0} and {@code 1}
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total != 0) ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Returns an estimate of the time spent decoding tokens that was saved by the cache,
+	 * computed from the number of hits and the average time it took to decode a token
+	 * that was not cached.
+	 * @return the estimated time saved
+	 */
+	public Duration getEstimatedDecodeTimeSaved() {
+		long decodes = this.decodes.sum();
+		if (decodes == 0) {
+			return Duration.ZERO;
+		}
+		return Duration.ofNanos(getHitCount() * (this.decodeNanos.sum() / decodes));
+	}
+
+	/**
+	 * Returns the number of {@link Jwt}s currently cached
+	 * @return the number of cached {@link Jwt}s
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Removes all the cached {@link Jwt}s
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	Jwt get(String token) {
+		TokenHash key = new TokenHash(token);
+		CachedJwt cached = this.cache.get(key);
+		if (cached == null) {
+			this.misses.increment();
+			return null;
+		}
+		if (!cached.expiresAt.isAfter(Instant.now(this.clock))
+				|| this.timestampValidator.validate(cached.jwt).hasErrors()) {
+			this.cache.remove(key, cached);
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return cached.jwt;
+	}
+
+	void put(String token, Jwt jwt, long decodeNanos) {
+		this.decodes.increment();
+		this.decodeNanos.add(decodeNanos);
+		Instant expiresAt = Instant.now(this.clock).plus(this.timeToLive);
+		if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+			expiresAt = jwt.getExpiresAt();
+		}
+		CachedJwt cached = new CachedJwt(jwt, expiresAt);
+		this.cache.put(new TokenHash(token), cached);
+	}
+
+	private static final class CachedJwt {
+
+		private final Jwt jwt;
+
+		private final Instant expiresAt;
+
+		private CachedJwt(Jwt jwt, Instant expiresAt) {
+			this.jwt = jwt;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
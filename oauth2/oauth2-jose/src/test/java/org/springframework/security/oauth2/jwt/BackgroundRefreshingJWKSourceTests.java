@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.jose.TestJwks;
+import org.springframework.security.oauth2.jose.TestKeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Tests for {@link BackgroundRefreshingJWKSource}
+ */
+public class BackgroundRefreshingJWKSourceTests {
+
+	private static final String JWK_SET_URI = "https://issuer/.well-known/jwks.json";
+
+	private final ResourceRetriever retriever = mock(ResourceRetriever.class);
+
+	private final JwkSetRefreshMetrics metrics = new JwkSetRefreshMetrics();
+
+	private Resource jwkSetOne;
+
+	private Resource jwkSetTwo;
+
+	@BeforeEach
+	public void setup() {
+		this.jwkSetOne = jwkSet("one");
+		this.jwkSetTwo = jwkSet("two");
+	}
+
+	@Test
+	public void getWhenCalledTwiceThenRetrievesJwkSetOnce() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(this.jwkSetOne);
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		verify(this.retriever).retrieveResource(any());
+		assertThat(this.metrics.getRefreshCount()).isEqualTo(1);
+		assertThat(this.metrics.getLastSuccessfulRefresh()).isNotNull();
+	}
+
+	@Test
+	public void getWhenUnknownKidThenRefreshes() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(this.jwkSetOne, this.jwkSetTwo);
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		List<JWK> keys = source.get(selector("two"), null);
+		assertThat(keys).hasSize(1);
+		assertThat(keys.get(0).getKeyID()).isEqualTo("two");
+		assertThat(this.metrics.getUnknownKidRefreshCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getWhenUnknownKidRefreshedRecentlyThenDoesNotRefresh() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(this.jwkSetOne);
+		BackgroundRefreshingJWKSource source = source(Duration.ofHours(1));
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		assertThat(source.get(selector("unknown"), null)).isEmpty();
+		assertThat(source.get(selector("unknown"), null)).isEmpty();
+		verify(this.retriever, times(2)).retrieveResource(any());
+		assertThat(this.metrics.getUnknownKidRefreshCount()).isEqualTo(1);
+		assertThat(this.metrics.getRateLimitedUnknownKidCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getWhenRefreshFailsThenUsesPreviousKeys() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(this.jwkSetOne).willThrow(new IOException("down"));
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		assertThat(source.get(selector("two"), null)).isEmpty();
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		assertThat(this.metrics.getRefreshFailureCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getWhenJwkSetChangeListenerFailsThenUsesNewKeys() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(this.jwkSetOne, this.jwkSetTwo);
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		source.setJwkSetChangeListener(() -> {
+			throw new IllegalStateException("listener");
+		});
+		assertThat(source.get(selector("one"), null)).hasSize(1);
+		assertThat(source.get(selector("two"), null)).hasSize(1);
+		assertThat(source.get(selector("two"), null)).hasSize(1);
+		verify(this.retriever, times(2)).retrieveResource(any());
+	}
+
+	@Test
+	public void getWhenFirstRetrievalFailsThenRemoteKeySourceException() throws Exception {
+		given(this.retriever.retrieveResource(any())).willThrow(new IOException("down"));
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThatExceptionOfType(RemoteKeySourceException.class)
+				.isThrownBy(() -> source.get(selector("one"), null))
+				.withMessageContaining("Couldn't retrieve remote JWK set");
+	}
+
+	@Test
+	public void getWhenMalformedJwkSetThenRemoteKeySourceException() throws Exception {
+		given(this.retriever.retrieveResource(any())).willReturn(new Resource("malformed", "application/json"));
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThatExceptionOfType(RemoteKeySourceException.class)
+				.isThrownBy(() -> source.get(selector("one"), null))
+				.withMessageContaining("Couldn't parse remote JWK set");
+	}
+
+	@Test
+	public void startBackgroundRefreshWhenNotPositiveThenException() throws Exception {
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> source.startBackgroundRefresh(Duration.ZERO));
+	}
+
+	@Test
+	public void startBackgroundRefreshWhenAlreadyStartedThenException() throws Exception {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+				.willAnswer((invocation) -> mock(ScheduledFuture.class));
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		source.startBackgroundRefresh(Duration.ofMinutes(5), scheduler);
+		assertThatIllegalStateException()
+				.isThrownBy(() -> source.startBackgroundRefresh(Duration.ofMinutes(5), scheduler));
+	}
+
+	@Test
+	public void closeWhenBackgroundRefreshOnGivenSchedulerThenCancelsRefreshOnly() throws Exception {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		ScheduledFuture<?> refresh = mock(ScheduledFuture.class);
+		given(scheduler.scheduleWithFixedDelay(any(), eq(0L), eq(300000L), eq(TimeUnit.MILLISECONDS)))
+				.willAnswer((invocation) -> refresh);
+		BackgroundRefreshingJWKSource source = source(Duration.ZERO);
+		source.startBackgroundRefresh(Duration.ofMinutes(5), scheduler);
+		source.close();
+		verify(refresh).cancel(false);
+		verify(scheduler).scheduleWithFixedDelay(any(), eq(0L), eq(300000L), eq(TimeUnit.MILLISECONDS));
+		verifyNoMoreInteractions(scheduler);
+	}
+
+	private BackgroundRefreshingJWKSource source(Duration unknownKidRefreshInterval) throws Exception {
+		return new BackgroundRefreshingJWKSource(new URL(JWK_SET_URI), this.retriever, unknownKidRefreshInterval,
+				this.metrics);
+	}
+
+	private static JWKSelector selector(String kid) {
+		return new JWKSelector(new JWKMatcher.Builder().keyID(kid).build());
+	}
+
+	private static Resource jwkSet(String kid) {
+		JWK jwk = TestJwks.jwk(TestKeys.DEFAULT_PUBLIC_KEY, TestKeys.DEFAULT_PRIVATE_KEY).keyID(kid).build();
+		return new Resource(new JWKSet(jwk).toString(), "application/json");
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.Set;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.jose.TestKeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CachingJWSVerifierFactory}
+ */
+public class CachingJWSVerifierFactoryTests {
+
+	private static final byte[] SIGNING_INPUT = "header.payload".getBytes(StandardCharsets.US_ASCII);
+
+	private final CachingJWSVerifierFactory verifierFactory = new CachingJWSVerifierFactory(2);
+
+	@Test
+	public void constructorWhenMaximumSizeNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingJWSVerifierFactory(0));
+	}
+
+	@Test
+	public void createJWSVerifierWhenSameKeyThenReusesVerifier() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("one").build();
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_PUBLIC_KEY);
+		assertThat(this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_PUBLIC_KEY)).isSameAs(verifier);
+		assertThat(this.verifierFactory.getHitCount()).isEqualTo(1);
+		assertThat(this.verifierFactory.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void createJWSVerifierWhenSameKeyIdWithOtherKeyThenNewVerifier() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256).keyID("one").build();
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header,
+				TestKeys.DEFAULT_EC_KEY_PAIR.getPublic());
+		KeyPair other = TestKeys.generateEcKeyPair();
+		assertThat(this.verifierFactory.createJWSVerifier(header, other.getPublic())).isNotSameAs(verifier);
+	}
+
+	@Test
+	public void verifyWhenRsaSignatureThenVerifies() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("one").build();
+		Base64URL signature = sign(new RSASSASigner(TestKeys.DEFAULT_PRIVATE_KEY), header);
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_PUBLIC_KEY);
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isTrue();
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isTrue();
+		assertThat(verifier.verify(header, "tampered".getBytes(StandardCharsets.US_ASCII), signature)).isFalse();
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isTrue();
+	}
+
+	@Test
+	public void verifyWhenEcSignatureThenVerifies() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256).keyID("one").build();
+		KeyPair keyPair = TestKeys.DEFAULT_EC_KEY_PAIR;
+		Base64URL signature = sign(new ECDSASigner((ECPrivateKey) keyPair.getPrivate()), header);
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header, keyPair.getPublic());
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isTrue();
+		assertThat(verifier.verify(header, "tampered".getBytes(StandardCharsets.US_ASCII), signature)).isFalse();
+		assertThat(verifier.verify(header, SIGNING_INPUT, Base64URL.encode(new byte[64]))).isFalse();
+		assertThat(verifier.verify(header, SIGNING_INPUT, Base64URL.encode(new byte[10]))).isFalse();
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isTrue();
+	}
+
+	@Test
+	public void verifyWhenCriticalHeaderParameterThenFails() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).criticalParams(Set.of("exotic"))
+				.customParam("exotic", "value")
+				.build();
+		Base64URL signature = sign(new RSASSASigner(TestKeys.DEFAULT_PRIVATE_KEY), header);
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_PUBLIC_KEY);
+		assertThat(verifier.verify(header, SIGNING_INPUT, signature)).isFalse();
+	}
+
+	@Test
+	public void verifyWhenOtherThreadThenVerifies() throws Exception {
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).build();
+		Base64URL signature = sign(new RSASSASigner(TestKeys.DEFAULT_PRIVATE_KEY), header);
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_PUBLIC_KEY);
+		boolean[] verified = new boolean[1];
+		Thread thread = new Thread(() -> {
+			try {
+				verified[0] = verifier.verify(header, SIGNING_INPUT, signature);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertThat(verified[0]).isTrue();
+	}
+
+	@Test
+	public void createJWSVerifierWhenMaximumSizeReachedThenKeepsNewestVerifier() throws Exception {
+		ECPublicKey ecKey = (ECPublicKey) TestKeys.DEFAULT_EC_KEY_PAIR.getPublic();
+		this.verifierFactory.createJWSVerifier(new JWSHeader(JWSAlgorithm.RS256), TestKeys.DEFAULT_PUBLIC_KEY);
+		this.verifierFactory.createJWSVerifier(new JWSHeader(JWSAlgorithm.RS512), TestKeys.DEFAULT_PUBLIC_KEY);
+		JWSVerifier verifier = this.verifierFactory.createJWSVerifier(new JWSHeader(JWSAlgorithm.ES256), ecKey);
+		assertThat(this.verifierFactory.size()).isEqualTo(2);
+		assertThat(this.verifierFactory.createJWSVerifier(new JWSHeader(JWSAlgorithm.ES256), ecKey))
+				.isSameAs(verifier);
+		assertThat(this.verifierFactory.getMissCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void invalidateThenDiscardsVerifiers() throws Exception {
+		JWSHeader header = new JWSHeader(JWSAlgorithm.HS256);
+		this.verifierFactory.createJWSVerifier(header, TestKeys.DEFAULT_SECRET_KEY);
+		assertThat(this.verifierFactory.size()).isEqualTo(1);
+		this.verifierFactory.invalidate();
+		assertThat(this.verifierFactory.size()).isZero();
+	}
+
+	private static Base64URL sign(JWSSigner signer, JWSHeader header) throws Exception {
+		return signer.sign(header, SIGNING_INPUT);
+	}
+
+}
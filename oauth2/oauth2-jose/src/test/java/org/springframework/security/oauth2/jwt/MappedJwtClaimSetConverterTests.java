@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,11 +31,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.core.convert.converter.Converter;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * Tests for {@link MappedJwtClaimSetConverter}
@@ -217,4 +220,75 @@ public class MappedJwtClaimSetConverterTests {
 		assertThatIllegalArgumentException().isThrownBy(() -> MappedJwtClaimSetConverter.withDefaults(null));
 	}
 
+	@Test
+	public void convertWhenLazyConversionThenConvertsClaimOnceWhenFirstRead() {
+		Converter<Object, String> claimConverter = mock(Converter.class);
+		given(claimConverter.convert(any(Object.class))).willReturn("1234");
+		MappedJwtClaimSetConverter converter = MappedJwtClaimSetConverter
+				.withDefaults(Collections.singletonMap("tenant", claimConverter));
+		converter.setLazyConversion(true);
+		Map<String, Object> source = new HashMap<>();
+		source.put("tenant", 2345);
+		source.put("custom", "value");
+		Map<String, Object> target = converter.convert(source);
+		assertThat(target.get("custom")).isEqualTo("value");
+		verifyNoInteractions(claimConverter);
+		assertThat(target.get("tenant")).isEqualTo("1234");
+		assertThat(target.get("tenant")).isEqualTo("1234");
+		verify(claimConverter).convert(2345);
+	}
+
+	@Test
+	public void convertWhenLazyConversionAndBadRegisteredClaimThenIllegalStateException() {
+		MappedJwtClaimSetConverter converter = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		converter.setLazyConversion(true);
+		Map<String, Object> badIssuer = Collections.singletonMap(JwtClaimNames.ISS, "https://badly formed iss");
+		assertThatIllegalStateException().isThrownBy(() -> converter.convert(badIssuer));
+		Map<String, Object> badExpiresAt = Collections.singletonMap(JwtClaimNames.EXP, "badly-formed-exp");
+		assertThatIllegalStateException().isThrownBy(() -> converter.convert(badExpiresAt));
+		Map<String, Object> badNotBefore = Collections.singletonMap(JwtClaimNames.NBF, "badly-formed-nbf");
+		assertThatIllegalStateException().isThrownBy(() -> converter.convert(badNotBefore));
+	}
+
+	@Test
+	public void convertWhenLazyConversionThenSameClaimsAsEagerConversion() {
+		Map<String, Object> source = new HashMap<>();
+		source.put(JwtClaimNames.JTI, 1);
+		source.put(JwtClaimNames.AUD, "audience");
+		source.put(JwtClaimNames.EXP, 2000000000L);
+		source.put(JwtClaimNames.ISS, "https://any.url");
+		source.put(JwtClaimNames.NBF, 1000000000);
+		source.put(JwtClaimNames.SUB, 1234);
+		source.put("custom", "value");
+		MappedJwtClaimSetConverter eager = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		MappedJwtClaimSetConverter lazy = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		lazy.setLazyConversion(true);
+		Map<String, Object> target = lazy.convert(source);
+		assertThat(target).isEqualTo(eager.convert(source));
+		assertThat(target).containsEntry(JwtClaimNames.IAT, Instant.ofEpochSecond(2000000000L).minusSeconds(1));
+		assertThat(target).hasSize(8);
+	}
+
+	@Test
+	public void convertWhenLazyConversionAndConverterReturnsNullThenRemovesClaim() {
+		Converter<Object, String> claimConverter = mock(Converter.class);
+		MappedJwtClaimSetConverter converter = MappedJwtClaimSetConverter
+				.withDefaults(Collections.singletonMap(JwtClaimNames.SUB, claimConverter));
+		converter.setLazyConversion(true);
+		Map<String, Object> source = new HashMap<>();
+		source.put(JwtClaimNames.SUB, 2345);
+		source.put("custom", "value");
+		Map<String, Object> target = converter.convert(source);
+		assertThat(target.containsKey(JwtClaimNames.SUB)).isFalse();
+		assertThat(target).containsOnlyKeys("custom");
+	}
+
+	@Test
+	public void convertWhenLazyConversionThenUnmodifiable() {
+		MappedJwtClaimSetConverter converter = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		converter.setLazyConversion(true);
+		Map<String, Object> target = converter.convert(Collections.singletonMap("custom", "value"));
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> target.put("other", "value"));
+	}
+
 }
@@ -25,6 +25,7 @@ import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Base64;
@@ -32,6 +33,8 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 
 import javax.crypto.SecretKey;
 
@@ -81,9 +84,11 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -176,6 +181,39 @@ public class NimbusJwtDecoderTests {
 		this.jwtDecoder.decode(SIGNED_JWT);
 	}
 
+	@Test
+	public void decodeWhenVerifiedJwtCacheThenDecodesOnce() {
+		Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = mock(Converter.class);
+		given(claimSetConverter.convert(any(Map.class))).willReturn(Collections.singletonMap("custom", "value"));
+		this.jwtDecoder.setClaimSetConverter(claimSetConverter);
+		VerifiedJwtCache cache = new VerifiedJwtCache(10, Duration.ofMinutes(5));
+		this.jwtDecoder.setVerifiedJwtCache(cache);
+		Jwt jwt = this.jwtDecoder.decode(SIGNED_JWT);
+		assertThat(this.jwtDecoder.decode(SIGNED_JWT)).isSameAs(jwt);
+		assertThat(this.jwtDecoder.decode(RS256_SIGNED_JWT)).isNotSameAs(jwt);
+		verify(claimSetConverter, times(2)).convert(any(Map.class));
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void decodeWhenVerifiedJwtCacheAndInvalidThenNotCached() {
+		VerifiedJwtCache cache = new VerifiedJwtCache(10, Duration.ofMinutes(5));
+		this.jwtDecoder.setVerifiedJwtCache(cache);
+		this.jwtDecoder.setJwtValidator((jwt) -> OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid")));
+		assertThatExceptionOfType(JwtValidationException.class)
+				.isThrownBy(() -> this.jwtDecoder.decode(SIGNED_JWT));
+		assertThatExceptionOfType(JwtValidationException.class)
+				.isThrownBy(() -> this.jwtDecoder.decode(SIGNED_JWT));
+		assertThat(cache.size()).isZero();
+		assertThat(cache.getHitCount()).isZero();
+	}
+
+	@Test
+	public void setVerifiedJwtCacheWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.jwtDecoder.setVerifiedJwtCache(null));
+	}
+
 	// gh-5457
 	@Test
 	public void decodeWhenPlainJwtThenExceptionDoesNotMentionClass() {
@@ -252,6 +290,32 @@ public class NimbusJwtDecoderTests {
 		assertThat(jwt.getClaims()).containsEntry("custom", "value");
 	}
 
+	@Test
+	public void decodeWhenLazyClaimConversionThenConvertsClaimsWhenRead() {
+		MappedJwtClaimSetConverter claimSetConverter = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		claimSetConverter.setLazyConversion(true);
+		NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(withSigning(JWK_SET));
+		jwtDecoder.setClaimSetConverter(claimSetConverter);
+		Jwt jwt = jwtDecoder.decode(SIGNED_JWT);
+		assertThat(jwt.getExpiresAt()).isEqualTo(Instant.ofEpochSecond(4683897776L));
+		assertThat(jwt.getIssuedAt()).isEqualTo(Instant.ofEpochSecond(4683897775L));
+		assertThat(jwt.getSubject()).isEqualTo("test-subject");
+		assertThat(jwt.getClaims()).containsOnlyKeys(JwtClaimNames.SUB, JwtClaimNames.EXP, JwtClaimNames.IAT, "scp");
+	}
+
+	@Test
+	public void decodeWhenLazyClaimConversionAndRegisteredClaimFailsThenBadJwtException() {
+		Converter<Object, ?> expiresAtConverter = mock(Converter.class);
+		given(expiresAtConverter.convert(any())).willThrow(new IllegalStateException("bad exp"));
+		MappedJwtClaimSetConverter claimSetConverter = MappedJwtClaimSetConverter
+				.withDefaults(Collections.singletonMap(JwtClaimNames.EXP, expiresAtConverter));
+		claimSetConverter.setLazyConversion(true);
+		NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(withSigning(JWK_SET));
+		jwtDecoder.setClaimSetConverter(claimSetConverter);
+		assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(SIGNED_JWT))
+				.withMessageContaining("bad exp");
+	}
+
 	// gh-7885
 	@Test
 	public void decodeWhenClaimSetConverterFailsThenBadJwtException() {
@@ -361,6 +425,52 @@ public class NimbusJwtDecoderTests {
 		// @formatter:on
 	}
 
+	@Test
+	public void backgroundRefreshWhenNullOrNotPositiveThenThrowsException() {
+		NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.backgroundRefresh(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.backgroundRefresh(Duration.ZERO));
+	}
+
+	@Test
+	public void unknownKidRefreshIntervalWhenNullOrNegativeThenThrowsException() {
+		NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.unknownKidRefreshInterval(null));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> builder.unknownKidRefreshInterval(Duration.ofSeconds(-1)));
+	}
+
+	@Test
+	public void jwkSetRefreshMetricsWhenNullThenThrowsException() {
+		NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.jwkSetRefreshMetrics(null));
+	}
+
+	@Test
+	public void verifierCacheSizeWhenNotPositiveThenThrowsException() {
+		NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.verifierCacheSize(0));
+	}
+
+	@Test
+	public void decodeWhenVerifierCacheSizeThenVerifiesSignature() {
+		RestOperations restOperations = mock(RestOperations.class);
+		given(restOperations.exchange(any(RequestEntity.class), eq(String.class)))
+				.willReturn(new ResponseEntity<>(JWK_SET, HttpStatus.OK));
+		// @formatter:off
+		NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI)
+				.restOperations(restOperations)
+				.verifierCacheSize(10)
+				.build();
+		// @formatter:on
+		jwtDecoder.setJwtValidator((jwt) -> OAuth2TokenValidatorResult.success());
+		assertThat(jwtDecoder.decode(SIGNED_JWT).getSubject()).isEqualTo("test-subject");
+		assertThat(jwtDecoder.decode(SIGNED_JWT).getSubject()).isEqualTo("test-subject");
+		String[] signed = SIGNED_JWT.split("\\.");
+		String tampered = signed[0] + "." + RS256_SIGNED_JWT.split("\\.")[1] + "." + signed[2];
+		assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(tampered));
+	}
+
 	@Test
 	public void withPublicKeyWhenNullThenThrowsException() {
 		// @formatter:off
@@ -642,6 +752,41 @@ public class NimbusJwtDecoderTests {
 		assertThat(acceptHeader).contains(MediaType.APPLICATION_JSON, APPLICATION_JWK_SET_JSON);
 	}
 
+	@Test
+	public void decodeWhenBackgroundRefreshThenRecordsJwkSetRefreshMetrics() {
+		RestOperations restOperations = mock(RestOperations.class);
+		given(restOperations.exchange(any(RequestEntity.class), eq(String.class)))
+				.willReturn(new ResponseEntity<>(JWK_SET, HttpStatus.OK));
+		JwkSetRefreshMetrics metrics = new JwkSetRefreshMetrics();
+		// @formatter:off
+		NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI)
+				.restOperations(restOperations)
+				.backgroundRefresh(Duration.ofHours(1))
+				.jwkSetRefreshMetrics(metrics)
+				.build();
+		// @formatter:on
+		jwtDecoder.decode(SIGNED_JWT);
+		assertThat(metrics.getRefreshCount()).isPositive();
+		assertThat(metrics.getRefreshFailureCount()).isZero();
+	}
+
+	@Test
+	public void closeWhenBackgroundRefreshThenCancelsRefresh() {
+		ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+		ScheduledFuture<?> refresh = mock(ScheduledFuture.class);
+		given(scheduler.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+				.willAnswer((invocation) -> refresh);
+		// @formatter:off
+		NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri(JWK_SET_URI)
+				.restOperations(mock(RestOperations.class))
+				.backgroundRefresh(Duration.ofHours(1), scheduler)
+				.build();
+		// @formatter:on
+		jwtDecoder.close();
+		verify(refresh).cancel(false);
+		verify(scheduler, never()).shutdownNow();
+	}
+
 	@Test
 	public void decodeWhenCacheThenStoreRetrievedJwkSetToCache() {
 		Cache cache = new ConcurrentMapCache("test-jwk-set-cache");
@@ -18,12 +18,18 @@ package org.springframework.security.oauth2.jwt;
 
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSelector;
@@ -34,6 +40,7 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -41,6 +48,8 @@ import org.mockito.stubbing.Answer;
 
 import org.springframework.security.oauth2.jose.TestJwks;
 import org.springframework.security.oauth2.jose.TestKeys;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -290,6 +299,73 @@ public class NimbusJwtEncoderTests {
 		assertThat(jwk1.getKeyID()).isNotEqualTo(jwk2.getKeyID());
 	}
 
+	@Test
+	public void setCacheTimeToLiveWhenInvalidThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.jwtEncoder.setCacheTimeToLive(null))
+				.withMessage("cacheTimeToLive cannot be null");
+		assertThatIllegalArgumentException().isThrownBy(() -> this.jwtEncoder.setCacheTimeToLive(Duration.ZERO))
+				.withMessage("cacheTimeToLive must be positive");
+	}
+
+	@Test
+	public void encodeWhenCacheTimeToLiveThenJwkSelectedOnce() {
+		AtomicInteger selections = new AtomicInteger();
+		this.jwkList.add(TestJwks.DEFAULT_RSA_JWK);
+		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder((jwkSelector, securityContext) -> {
+			selections.incrementAndGet();
+			return this.jwkSource.get(jwkSelector, securityContext);
+		});
+		jwtEncoder.setCacheTimeToLive(Duration.ofMinutes(5));
+
+		JwsHeader jwsHeader = JwsHeader.with(SignatureAlgorithm.RS256).build();
+		JwtClaimsSet jwtClaimsSet = TestJwtClaimsSets.jwtClaimsSet().build();
+
+		jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet));
+		jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet));
+
+		assertThat(selections.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void encodeWhenCacheTimeToLiveAndRsaThenVerifies() throws Exception {
+		RSAKey rsaJwk = TestJwks.jwk(TestKeys.DEFAULT_PUBLIC_KEY, TestKeys.DEFAULT_PRIVATE_KEY).keyID("rsa").build();
+		this.jwkList.add(rsaJwk);
+
+		assertEncodedWithCacheThenVerifies(SignatureAlgorithm.RS256, new RSASSAVerifier(rsaJwk));
+		assertEncodedWithCacheThenVerifies(SignatureAlgorithm.RS512, new RSASSAVerifier(rsaJwk));
+	}
+
+	@Test
+	public void encodeWhenCacheTimeToLiveAndEcThenVerifies() throws Exception {
+		ECKey ecJwk = TestJwks.DEFAULT_EC_JWK;
+		this.jwkList.add(ecJwk);
+
+		assertEncodedWithCacheThenVerifies(SignatureAlgorithm.ES256, new ECDSAVerifier(ecJwk));
+	}
+
+	@Test
+	public void encodeWhenCacheTimeToLiveAndHmacThenVerifies() throws Exception {
+		OctetSequenceKey secretJwk = TestJwks.DEFAULT_SECRET_JWK;
+		this.jwkList.add(secretJwk);
+
+		assertEncodedWithCacheThenVerifies(MacAlgorithm.HS256, new MACVerifier(secretJwk));
+	}
+
+	private void assertEncodedWithCacheThenVerifies(JwsAlgorithm algorithm, JWSVerifier verifier) throws Exception {
+		this.jwtEncoder.setCacheTimeToLive(Duration.ofMinutes(5));
+		JwsHeader jwsHeader = JwsHeader.with(algorithm).type("JWT").build();
+
+		for (int i = 0; i < 3; i++) {
+			JwtClaimsSet jwtClaimsSet = TestJwtClaimsSets.jwtClaimsSet().id("id-" + i).build();
+			Jwt jwt = this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet));
+
+			SignedJWT signedJwt = SignedJWT.parse(jwt.getTokenValue());
+			assertThat(signedJwt.verify(verifier)).isTrue();
+			assertThat(signedJwt.getHeader().getAlgorithm().getName()).isEqualTo(algorithm.getName());
+			assertThat(signedJwt.getJWTClaimsSet().getJWTID()).isEqualTo("id-" + i);
+		}
+	}
+
 	private static final class JwkListResultCaptor implements Answer<List<JWK>> {
 
 		private List<JWK> result;
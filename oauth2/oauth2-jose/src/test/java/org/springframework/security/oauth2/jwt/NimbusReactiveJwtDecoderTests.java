@@ -24,6 +24,7 @@ import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Collections;
@@ -56,6 +57,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.convert.converter.Converter;
@@ -272,6 +274,46 @@ public class NimbusReactiveJwtDecoderTests {
 		verify(claimSetConverter).convert(any(Map.class));
 	}
 
+	@Test
+	public void decodeWhenLazyClaimConversionThenConvertsClaimsWhenRead() {
+		MappedJwtClaimSetConverter claimSetConverter = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+		claimSetConverter.setLazyConversion(true);
+		this.decoder.setClaimSetConverter(claimSetConverter);
+		Jwt jwt = this.decoder.decode(this.messageReadToken).block();
+		assertThat(jwt.getExpiresAt()).isInstanceOf(Instant.class);
+		assertThat(jwt.getIssuedAt()).isEqualTo(jwt.getExpiresAt().minusSeconds(1));
+		assertThat(jwt.getClaims()).containsEntry("scope", "message:read");
+	}
+
+	@Test
+	public void decodeWhenVerifiedJwtCacheThenDecodesOnce() {
+		Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = mock(Converter.class);
+		this.decoder.setClaimSetConverter(claimSetConverter);
+		given(claimSetConverter.convert(any(Map.class))).willReturn(Collections.singletonMap("custom", "value"));
+		VerifiedJwtCache cache = new VerifiedJwtCache(10, Duration.ofMinutes(5));
+		this.decoder.setVerifiedJwtCache(cache);
+		Jwt jwt = this.decoder.decode(this.messageReadToken).block();
+		assertThat(this.decoder.decode(this.messageReadToken).block()).isSameAs(jwt);
+		verify(claimSetConverter).convert(any(Map.class));
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void decodeWhenVerifiedJwtCacheThenLooksUpOnSubscribe() {
+		VerifiedJwtCache cache = new VerifiedJwtCache(10, Duration.ofMinutes(5));
+		this.decoder.setVerifiedJwtCache(cache);
+		Mono<Jwt> jwt = this.decoder.decode(this.messageReadToken);
+		assertThat(cache.getMissCount()).isZero();
+		jwt.block();
+		assertThat(cache.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void setVerifiedJwtCacheWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.decoder.setVerifiedJwtCache(null));
+	}
+
 	// gh-7885
 	@Test
 	public void decodeWhenClaimSetConverterFailsThenBadJwtException() {
@@ -312,6 +354,53 @@ public class NimbusReactiveJwtDecoderTests {
 		assertThatIllegalArgumentException().isThrownBy(() -> builder.jwsAlgorithm(null));
 	}
 
+	@Test
+	public void withJwkSetUriWhenBackgroundRefreshNullOrNotPositiveThenThrowsIllegalArgumentException() {
+		NimbusReactiveJwtDecoder.JwkSetUriReactiveJwtDecoderBuilder builder = NimbusReactiveJwtDecoder
+				.withJwkSetUri(this.jwkSetUri);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.backgroundRefresh(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.backgroundRefresh(Duration.ZERO));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> builder.backgroundRefresh(Duration.ofHours(1), null));
+	}
+
+	@Test
+	public void closeWhenBackgroundRefreshThenStopsRefresh() {
+		Scheduler scheduler = mock(Scheduler.class);
+		Scheduler.Worker worker = mock(Scheduler.Worker.class);
+		given(scheduler.createWorker()).willReturn(worker);
+		// @formatter:off
+		NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(this.jwkSetUri)
+				.webClient(mockJwkSetResponse(this.jwkSet))
+				.backgroundRefresh(Duration.ofHours(1), scheduler)
+				.build();
+		// @formatter:on
+		verify(scheduler).createWorker();
+		decoder.close();
+		verify(worker).dispose();
+	}
+
+	@Test
+	public void withJwkSetUriWhenUnknownKidRefreshIntervalNullThenThrowsIllegalArgumentException() {
+		NimbusReactiveJwtDecoder.JwkSetUriReactiveJwtDecoderBuilder builder = NimbusReactiveJwtDecoder
+				.withJwkSetUri(this.jwkSetUri);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.unknownKidRefreshInterval(null));
+	}
+
+	@Test
+	public void withJwkSetUriWhenJwkSetRefreshMetricsNullThenThrowsIllegalArgumentException() {
+		NimbusReactiveJwtDecoder.JwkSetUriReactiveJwtDecoderBuilder builder = NimbusReactiveJwtDecoder
+				.withJwkSetUri(this.jwkSetUri);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.jwkSetRefreshMetrics(null));
+	}
+
+	@Test
+	public void withJwkSetUriWhenVerifierCacheSizeNotPositiveThenThrowsIllegalArgumentException() {
+		NimbusReactiveJwtDecoder.JwkSetUriReactiveJwtDecoderBuilder builder = NimbusReactiveJwtDecoder
+				.withJwkSetUri(this.jwkSetUri);
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.verifierCacheSize(0));
+	}
+
 	@Test
 	public void withJwkSetUriWhenJwtProcessorCustomizerNullThenThrowsIllegalArgumentException() {
 		// @formatter:off
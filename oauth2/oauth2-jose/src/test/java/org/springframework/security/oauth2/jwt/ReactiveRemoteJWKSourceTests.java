@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.security.oauth2.jwt;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -156,4 +157,20 @@ public class ReactiveRemoteJWKSourceTests {
 		assertThat(this.source.get(this.selector).block()).isEmpty();
 	}
 
+	@Test
+	public void getWhenUnknownKidRefreshedRecentlyThenDoesNotRefresh() {
+		JwkSetRefreshMetrics metrics = new JwkSetRefreshMetrics();
+		this.source.setUnknownKidRefreshInterval(Duration.ofHours(1));
+		this.source.setMetrics(metrics);
+		this.server.enqueue(new MockResponse().setBody(this.keys2));
+		given(this.matcher.matches(any())).willReturn(false);
+		given(this.matcher.getKeyIDs()).willReturn(Collections.singleton("unknown"));
+		assertThat(this.source.get(this.selector).block()).isEmpty();
+		assertThat(this.source.get(this.selector).block()).isEmpty();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		assertThat(metrics.getRefreshCount()).isEqualTo(2);
+		assertThat(metrics.getUnknownKidRefreshCount()).isEqualTo(1);
+		assertThat(metrics.getRateLimitedUnknownKidCount()).isEqualTo(1);
+	}
+
 }
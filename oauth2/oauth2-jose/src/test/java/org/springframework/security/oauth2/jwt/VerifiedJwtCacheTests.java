@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link VerifiedJwtCache}.
+ */
+public class VerifiedJwtCacheTests {
+
+	private final Instant now = Instant.parse("2023-06-01T10:00:00Z");
+
+	@Test
+	public void constructorWhenInvalidParametersThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new VerifiedJwtCache(0, Duration.ofMinutes(1)));
+		assertThatIllegalArgumentException().isThrownBy(() -> new VerifiedJwtCache(1, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> new VerifiedJwtCache(1, Duration.ZERO));
+	}
+
+	@Test
+	public void getWhenPutThenReturnsJwt() {
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		Jwt jwt = jwt("one", this.now.plusSeconds(600));
+		assertThat(cache.get("one")).isNull();
+		cache.put("one", jwt, 1000);
+		assertThat(cache.get("one")).isSameAs(jwt);
+		assertThat(cache.get("two")).isNull();
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.getHitRatio()).isEqualTo(1.0 / 3);
+		assertThat(cache.getEstimatedDecodeTimeSaved()).isEqualTo(Duration.ofNanos(1000));
+	}
+
+	@Test
+	public void getWhenTimeToLiveElapsedThenNull() {
+		Jwt jwt = jwt("one", this.now.plusSeconds(600));
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		cache.put("one", jwt, 1000);
+		cache.setClock(Clock.fixed(this.now.plusSeconds(301), ZoneOffset.UTC));
+		assertThat(cache.get("one")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void getWhenJwtExpiredBeforeTimeToLiveThenNull() {
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		cache.put("one", jwt("one", this.now.plusSeconds(60)), 1000);
+		cache.setClock(Clock.fixed(this.now.plusSeconds(61), ZoneOffset.UTC));
+		assertThat(cache.get("one")).isNull();
+	}
+
+	@Test
+	public void getWhenTimestampValidatorFailsThenNull() {
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		cache.setTimestampValidator((jwt) -> OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token")));
+		cache.put("one", jwt("one", this.now.plusSeconds(600)), 1000);
+		assertThat(cache.get("one")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void putWhenMaximumSizeExceededThenEvicts() {
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		for (int i = 0; i < 11; i++) {
+			cache.put("token" + i, jwt("token" + i, this.now.plusSeconds(600)), 1000);
+		}
+		assertThat(cache.size()).isEqualTo(9);
+		Jwt last = jwt("last", this.now.plusSeconds(600));
+		cache.put("last", last, 1000);
+		assertThat(cache.size()).isEqualTo(10);
+		assertThat(cache.get("last")).isSameAs(last);
+	}
+
+	@Test
+	public void clearThenEmpty() {
+		VerifiedJwtCache cache = cache(10, Duration.ofMinutes(5));
+		cache.put("one", jwt("one", this.now.plusSeconds(600)), 1000);
+		cache.clear();
+		assertThat(cache.get("one")).isNull();
+	}
+
+	private VerifiedJwtCache cache(int maximumSize, Duration timeToLive) {
+		VerifiedJwtCache cache = new VerifiedJwtCache(maximumSize, timeToLive);
+		cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		cache.setTimestampValidator((jwt) -> OAuth2TokenValidatorResult.success());
+		return cache;
+	}
+
+	private Jwt jwt(String token, Instant expiresAt) {
+		return Jwt.withTokenValue(token).header("alg", "RS256").issuedAt(this.now).expiresAt(expiresAt).build();
+	}
+
+}
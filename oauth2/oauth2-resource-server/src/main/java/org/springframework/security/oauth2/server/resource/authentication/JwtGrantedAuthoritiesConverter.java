@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -55,6 +56,8 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 
 	private String authoritiesClaimName;
 
+	private BoundedCache<Object, Collection<GrantedAuthority>> authoritiesCache;
+
 	/**
 	 * Extract {@link GrantedAuthority}s from the given {@link Jwt}.
 	 * @param jwt The {@link Jwt} token
@@ -62,8 +65,26 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 	 */
 	@Override
 	public Collection<GrantedAuthority> convert(Jwt jwt) {
-		Collection<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-		for (String authority : getAuthorities(jwt)) {
+		BoundedCache<Object, Collection<GrantedAuthority>> authoritiesCache = this.authoritiesCache;
+		if (authoritiesCache == null) {
+			return toGrantedAuthorities(getAuthorities(jwt));
+		}
+		Object authorities = getAuthoritiesClaim(jwt);
+		if (!(authorities instanceof String) && !(authorities instanceof List)) {
+			return Collections.unmodifiableCollection(toGrantedAuthorities(getAuthorities(authorities)));
+		}
+		Collection<GrantedAuthority> grantedAuthorities = authoritiesCache.get(authorities);
+		if (grantedAuthorities == null) {
+			grantedAuthorities = Collections.unmodifiableList(toGrantedAuthorities(getAuthorities(authorities)));
+			Object key = (authorities instanceof String) ? authorities : new ArrayList<>((List<?>) authorities);
+			authoritiesCache.put(key, grantedAuthorities);
+		}
+		return grantedAuthorities;
+	}
+
+	private List<GrantedAuthority> toGrantedAuthorities(Collection<String> authorities) {
+		List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities.size());
+		for (String authority : authorities) {
 			grantedAuthorities.add(new SimpleGrantedAuthority(this.authorityPrefix + authority));
 		}
 		return grantedAuthorities;
@@ -79,6 +100,7 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 	public void setAuthorityPrefix(String authorityPrefix) {
 		Assert.notNull(authorityPrefix, "authorityPrefix cannot be null");
 		this.authorityPrefix = authorityPrefix;
+		clearAuthoritiesCache();
 	}
 
 	/**
@@ -91,6 +113,7 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 	public void setAuthoritiesClaimDelimiter(String authoritiesClaimDelimiter) {
 		Assert.notNull(authoritiesClaimDelimiter, "authoritiesClaimDelimiter cannot be null");
 		this.authoritiesClaimDelimiter = authoritiesClaimDelimiter;
+		clearAuthoritiesCache();
 	}
 
 	/**
@@ -105,6 +128,30 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 		this.authoritiesClaimName = authoritiesClaimName;
 	}
 
+	/**
+	 * Sets the number of distinct authorities claim values for which the resulting
+	 * {@link GrantedAuthority authorities} are remembered, so that tokens carrying the
+	 * same scopes share the same, unmodifiable, collection of authorities instead of
+	 * splitting the claim and creating new authorities on each request. When more
+	 * distinct values are seen, some of the remembered ones are forgotten.
+	 *
+	 * <p>
+	 * Defaults to {@code 0}, meaning that nothing is cached and that a new, modifiable,
+	 * collection is returned for each {@link Jwt}.
+	 * @param authoritiesCacheSize the maximum number of claim values to remember
+	 * @since 6.2
+	 */
+	public void setAuthoritiesCacheSize(int authoritiesCacheSize) {
+		Assert.isTrue(authoritiesCacheSize >= 0, "authoritiesCacheSize cannot be negative");
+		this.authoritiesCache = (authoritiesCacheSize > 0) ? new BoundedCache<>(authoritiesCacheSize) : null;
+	}
+
+	private void clearAuthoritiesCache() {
+		if (this.authoritiesCache != null) {
+			this.authoritiesCache.clear();
+		}
+	}
+
 	private String getAuthoritiesClaimName(Jwt jwt) {
 		if (this.authoritiesClaimName != null) {
 			return this.authoritiesClaimName;
@@ -117,16 +164,23 @@ public final class JwtGrantedAuthoritiesConverter implements Converter<Jwt, Coll
 		return null;
 	}
 
-	private Collection<String> getAuthorities(Jwt jwt) {
+	private Object getAuthoritiesClaim(Jwt jwt) {
 		String claimName = getAuthoritiesClaimName(jwt);
 		if (claimName == null) {
 			this.logger.trace("Returning no authorities since could not find any claims that might contain scopes");
-			return Collections.emptyList();
+			return null;
 		}
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace(LogMessage.format("Looking for scopes in claim %s", claimName));
 		}
-		Object authorities = jwt.getClaim(claimName);
+		return jwt.getClaim(claimName);
+	}
+
+	private Collection<String> getAuthorities(Jwt jwt) {
+		return getAuthorities(getAuthoritiesClaim(jwt));
+	}
+
+	private Collection<String> getAuthorities(Object authorities) {
 		if (authorities instanceof String) {
 			if (StringUtils.hasText((String) authorities)) {
 				return Arrays.asList(((String) authorities).split(this.authoritiesClaimDelimiter));
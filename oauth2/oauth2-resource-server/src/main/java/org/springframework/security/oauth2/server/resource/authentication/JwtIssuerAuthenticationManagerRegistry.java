@@ -0,0 +1,439 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationManagerResolver;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link AuthenticationManagerResolver} that keeps one JWT-based
+ * {@link AuthenticationManager} per trusted
+ * <a href="https://openid.net/specs/openid-connect-core-1_0.html#IssuerIdentifier">Issuer</a>,
+ * for resource servers that serve many tenants. Compared to
+ * {@link JwtIssuerAuthenticationManagerResolver#fromTrustedIssuers(Predicate)}, it can
+ *
+ * <ul>
+ * <li>discover the known issuers upfront, see {@link #preload(Collection)}, so that
+ * requests do not wait for the issuer's configuration to be retrieved</li>
+ * <li>be bounded in size, see {@link #setMaximumSize(int)}, forgetting some of the
+ * issuers once full</li>
+ * <li>discover each issuer again in the background, see
+ * {@link #setRediscoveryInterval(Duration)}, while requests keep using the current
+ * {@link AuthenticationManager}</li>
+ * </ul>
+ *
+ * An {@link AuthenticationManager} that is also {@link AutoCloseable}, like the default
+ * one when its {@link JwtDecoder} is, is closed once it is forgotten or replaced, as well
+ * as when this registry is {@link #close() closed}. This stops, for example, the
+ * background JWK Set refresh of a {@link NimbusJwtDecoder} built with
+ * {@link NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder#backgroundRefresh(Duration)}.
+ *
+ * For example:
+ *
+ * <pre>
+ * 	JwtIssuerAuthenticationManagerRegistry registry = new JwtIssuerAuthenticationManagerRegistry(trustedIssuers);
+ * 	registry.setMaximumSize(1000);
+ * 	registry.setRediscoveryInterval(Duration.ofHours(1));
+ * 	registry.preload(trustedIssuers);
+ * 	JwtIssuerAuthenticationManagerResolver resolver = new JwtIssuerAuthenticationManagerResolver(registry);
+ * </pre>
+ *
+ * @since 6.2
+ * @see JwtIssuerAuthenticationManagerResolver
+ */
+public final class JwtIssuerAuthenticationManagerRegistry
+		implements AuthenticationManagerResolver<String>, AutoCloseable {
+
+	private static final int REDISCOVERY_THREADS = 2;
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final Predicate<String> trustedIssuer;
+
+	private volatile BoundedCache<String, Tenant> tenants = new BoundedCache<>(Integer.MAX_VALUE, Tenant::close);
+
+	private Function<String, AuthenticationManager> authenticationManagerFactory = (issuer) -> {
+		JwtDecoder jwtDecoder = JwtDecoders.fromIssuerLocation(issuer);
+		return new JwtDecoderAuthenticationManager(jwtDecoder);
+	};
+
+	private Duration rediscoveryInterval;
+
+	private Executor executor;
+
+	private ExecutorService ownedExecutor;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Construct a {@link JwtIssuerAuthenticationManagerRegistry} using the provided
+	 * parameters
+	 * @param trustedIssuers a collection of trusted issuers
+	 */
+	public JwtIssuerAuthenticationManagerRegistry(Collection<String> trustedIssuers) {
+		Assert.notEmpty(trustedIssuers, "trustedIssuers cannot be empty");
+		this.trustedIssuer = Set.copyOf(trustedIssuers)::contains;
+	}
+
+	/**
+	 * Construct a {@link JwtIssuerAuthenticationManagerRegistry} using the provided
+	 * parameters
+	 * @param trustedIssuer a predicate to validate issuers
+	 */
+	public JwtIssuerAuthenticationManagerRegistry(Predicate<String> trustedIssuer) {
+		Assert.notNull(trustedIssuer, "trustedIssuer cannot be null");
+		this.trustedIssuer = trustedIssuer;
+	}
+
+	@Override
+	public AuthenticationManager resolve(String issuer) {
+		if (!this.trustedIssuer.test(issuer)) {
+			this.logger.debug("Did not resolve AuthenticationManager since issuer is not trusted");
+			return null;
+		}
+		Tenant tenant = getTenant(issuer);
+		AuthenticationManager authenticationManager = tenant.getAuthenticationManager();
+		while (authenticationManager == null) {
+			// the tenant was forgotten while being discovered
+			tenant = getTenant(issuer);
+			authenticationManager = tenant.getAuthenticationManager();
+		}
+		if (tenant.isStale()) {
+			tenant.rediscover();
+		}
+		this.logger.debug(LogMessage.format("Resolved AuthenticationManager for issuer '%s'", issuer));
+		return authenticationManager;
+	}
+
+	/**
+	 * Discover the given issuers now, typically on startup, so that the first request
+	 * of each issuer does not wait for its configuration to be retrieved. Issuers that
+	 * are not trusted are skipped and issuers that cannot be discovered are logged and
+	 * discovered again on their first request.
+	 * @param issuers the issuers to discover
+	 */
+	public void preload(Collection<String> issuers) {
+		Assert.notNull(issuers, "issuers cannot be null");
+		for (String issuer : issuers) {
+			if (!this.trustedIssuer.test(issuer)) {
+				this.logger.debug(LogMessage.format("Not preloading issuer '%s' since it is not trusted", issuer));
+				continue;
+			}
+			try {
+				getTenant(issuer).getAuthenticationManager();
+			}
+			catch (RuntimeException ex) {
+				this.logger.warn(LogMessage.format("Failed to preload issuer '%s'", issuer), ex);
+			}
+		}
+	}
+
+	/**
+	 * Forget the {@link AuthenticationManager} of the given issuer, so that it is
+	 * discovered again on its next request.
+	 * @param issuer the issuer to forget
+	 */
+	public void evict(String issuer) {
+		Tenant tenant = this.tenants.remove(issuer);
+		if (tenant != null) {
+			tenant.close();
+		}
+	}
+
+	/**
+	 * Forget all issuers and close their {@link AuthenticationManager}s that are
+	 * {@link AutoCloseable}. The threads used to discover issuers again are stopped,
+	 * unless they come from an {@link #setExecutor(Executor) executor} that was provided.
+	 */
+	@Override
+	public void close() {
+		for (String issuer : this.tenants.keys()) {
+			evict(issuer);
+		}
+		synchronized (this) {
+			if (this.ownedExecutor != null) {
+				this.ownedExecutor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Return the number of issuers currently known by this registry.
+	 * @return the number of issuers
+	 */
+	public int size() {
+		return this.tenants.size();
+	}
+
+	/**
+	 * Sets the maximum number of issuers to keep. When more issuers are resolved, some of
+	 * the known ones are forgotten, in no particular order, and discovered again on their
+	 * next request. Defaults to no limit. This should be set before any issuer is
+	 * resolved.
+	 * @param maximumSize the maximum number of issuers
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be positive");
+		this.tenants = new BoundedCache<>(maximumSize, Tenant::close);
+	}
+
+	/**
+	 * Discover each issuer again when it is resolved and it was discovered longer than
+	 * {@code rediscoveryInterval} ago, in order to pick up changes in its configuration.
+	 * Rediscovery happens on the {@link #setExecutor(Executor) executor} and the
+	 * current {@link AuthenticationManager} keeps being used until it succeeds. Defaults
+	 * to never discovering an issuer again.
+	 * @param rediscoveryInterval the time after which an issuer is discovered again
+	 */
+	public void setRediscoveryInterval(Duration rediscoveryInterval) {
+		Assert.notNull(rediscoveryInterval, "rediscoveryInterval cannot be null");
+		Assert.isTrue(!rediscoveryInterval.isNegative() && !rediscoveryInterval.isZero(),
+				"rediscoveryInterval must be positive");
+		this.rediscoveryInterval = rediscoveryInterval;
+	}
+
+	/**
+	 * Sets the {@link Executor} to discover issuers again on. Defaults to a pool of two
+	 * daemon threads that is shut down when this registry is {@link #close() closed}.
+	 * @param executor the {@link Executor} to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the strategy to create the {@link AuthenticationManager} of an issuer.
+	 * Defaults to a {@link JwtAuthenticationProvider} using
+	 * {@link JwtDecoders#fromIssuerLocation(String)}. If the returned
+	 * {@link AuthenticationManager} is {@link AutoCloseable}, it is closed once the
+	 * issuer is forgotten or discovered again.
+	 * @param authenticationManagerFactory the strategy to use
+	 */
+	public void setAuthenticationManagerFactory(Function<String, AuthenticationManager> authenticationManagerFactory) {
+		Assert.notNull(authenticationManagerFactory, "authenticationManagerFactory cannot be null");
+		this.authenticationManagerFactory = authenticationManagerFactory;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to decide whether an issuer should be discovered
+	 * again. Defaults to {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	private Tenant getTenant(String issuer) {
+		return this.tenants.computeIfAbsent(issuer, Tenant::new);
+	}
+
+	private synchronized Executor getExecutor() {
+		if (this.executor == null) {
+			// each issuer is discovered again at most once at a time, so the queue is
+			// bounded by the number of issuers
+			AtomicInteger threads = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(REDISCOVERY_THREADS, REDISCOVERY_THREADS, 1,
+					TimeUnit.MINUTES, new LinkedBlockingQueue<>(), (task) -> {
+						Thread thread = new Thread(task, "jwt-issuer-rediscovery-" + threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			this.ownedExecutor = executor;
+			this.executor = executor;
+		}
+		return this.executor;
+	}
+
+	/**
+	 * The {@link AuthenticationManager} of a single issuer. Each tenant is discovered
+	 * under its own lock, so that a slow issuer does not hold up the others. Once closed,
+	 * a tenant no longer installs any {@link AuthenticationManager}, so that one that is
+	 * discovered again after the tenant was forgotten is closed instead of leaked.
+	 */
+	private final class Tenant {
+
+		private final String issuer;
+
+		private final AtomicBoolean rediscovering = new AtomicBoolean();
+
+		private volatile AuthenticationManager authenticationManager;
+
+		private volatile Instant discoveredAt;
+
+		private boolean closed;
+
+		private Tenant(String issuer) {
+			this.issuer = issuer;
+		}
+
+		/**
+		 * Return the {@link AuthenticationManager}, discovering it if needed, or
+		 * {@code null} if this tenant was closed before it was discovered.
+		 */
+		private AuthenticationManager getAuthenticationManager() {
+			AuthenticationManager authenticationManager = this.authenticationManager;
+			if (authenticationManager != null) {
+				return authenticationManager;
+			}
+			synchronized (this) {
+				if (this.authenticationManager == null && !this.closed) {
+					install(create());
+				}
+				return this.authenticationManager;
+			}
+		}
+
+		private boolean isStale() {
+			Duration rediscoveryInterval = JwtIssuerAuthenticationManagerRegistry.this.rediscoveryInterval;
+			if (rediscoveryInterval == null || this.discoveredAt == null) {
+				return false;
+			}
+			Instant now = JwtIssuerAuthenticationManagerRegistry.this.clock.instant();
+			return now.isAfter(this.discoveredAt.plus(rediscoveryInterval));
+		}
+
+		private void rediscover() {
+			if (!this.rediscovering.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				getExecutor().execute(() -> {
+					try {
+						install(create());
+					}
+					catch (RuntimeException ex) {
+						JwtIssuerAuthenticationManagerRegistry.this.logger
+								.debug(LogMessage.format("Failed to discover issuer '%s' again", this.issuer), ex);
+					}
+					finally {
+						this.rediscovering.set(false);
+					}
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				this.rediscovering.set(false);
+				JwtIssuerAuthenticationManagerRegistry.this.logger
+						.debug(LogMessage.format("Did not discover issuer '%s' again", this.issuer), ex);
+			}
+		}
+
+		private AuthenticationManager create() {
+			JwtIssuerAuthenticationManagerRegistry registry = JwtIssuerAuthenticationManagerRegistry.this;
+			registry.logger.debug(LogMessage.format("Constructing AuthenticationManager for issuer '%s'", this.issuer));
+			return registry.authenticationManagerFactory.apply(this.issuer);
+		}
+
+		private void install(AuthenticationManager authenticationManager) {
+			AuthenticationManager previous;
+			synchronized (this) {
+				if (this.closed) {
+					previous = authenticationManager;
+				}
+				else {
+					previous = this.authenticationManager;
+					this.authenticationManager = authenticationManager;
+					this.discoveredAt = JwtIssuerAuthenticationManagerRegistry.this.clock.instant();
+				}
+			}
+			close(previous);
+		}
+
+		private void close() {
+			AuthenticationManager authenticationManager;
+			synchronized (this) {
+				if (this.closed) {
+					return;
+				}
+				this.closed = true;
+				authenticationManager = this.authenticationManager;
+			}
+			close(authenticationManager);
+		}
+
+		private void close(AuthenticationManager authenticationManager) {
+			if (!(authenticationManager instanceof AutoCloseable closeable)) {
+				return;
+			}
+			try {
+				closeable.close();
+			}
+			catch (Exception ex) {
+				JwtIssuerAuthenticationManagerRegistry.this.logger.debug(
+						LogMessage.format("Failed to close AuthenticationManager for issuer '%s'", this.issuer), ex);
+			}
+		}
+
+	}
+
+	/**
+	 * A {@link JwtAuthenticationProvider} that closes its {@link JwtDecoder}, if
+	 * {@link AutoCloseable}, when closed.
+	 */
+	private static final class JwtDecoderAuthenticationManager implements AuthenticationManager, AutoCloseable {
+
+		private final JwtDecoder jwtDecoder;
+
+		private final JwtAuthenticationProvider authenticationProvider;
+
+		private JwtDecoderAuthenticationManager(JwtDecoder jwtDecoder) {
+			this.jwtDecoder = jwtDecoder;
+			this.authenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+		}
+
+		@Override
+		public Authentication authenticate(Authentication authentication) {
+			return this.authenticationProvider.authenticate(authentication);
+		}
+
+		@Override
+		public void close() throws Exception {
+			if (this.jwtDecoder instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
-import com.nimbusds.jwt.JWTParser;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,6 +45,9 @@ import org.springframework.util.Assert;
  * "https://openid.net/specs/openid-connect-core-1_0.html#IssuerIdentifier">Issuer</a> in
  * a signed JWT (JWS).
  *
+ * To serve many issuers, consider a {@link JwtIssuerAuthenticationManagerRegistry},
+ * which can be preloaded, bounded in size and refreshed in the background.
+ *
  * To use, this class must be able to determine whether the `iss` claim is trusted. Recall
  * that anyone can stand up an authorization server and issue valid tokens to a resource
  * server. The simplest way to achieve this is to supply a set of trusted issuers in the
@@ -187,17 +189,7 @@ public final class JwtIssuerAuthenticationManagerResolver implements Authenticat
 
 		@Override
 		public String convert(@NonNull BearerTokenAuthenticationToken authentication) {
-			String token = authentication.getToken();
-			try {
-				String issuer = JWTParser.parse(token).getJWTClaimsSet().getIssuer();
-				if (issuer != null) {
-					return issuer;
-				}
-			}
-			catch (Exception ex) {
-				throw new InvalidBearerTokenException(ex.getMessage(), ex);
-			}
-			throw new InvalidBearerTokenException("Missing issuer");
+			return JwtIssuerParser.getIssuer(authentication.getToken());
 		}
 
 	}
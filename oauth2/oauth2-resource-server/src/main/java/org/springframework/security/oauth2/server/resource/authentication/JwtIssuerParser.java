@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Map;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTParser;
+
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+/**
+ * Reads the {@code iss} claim of a bearer token without verifying it. For a JWS or an
+ * unsecured JWT, only the payload is decoded, skipping the header and the signature.
+ * Encrypted JWTs are handed to {@link JWTParser}.
+ *
+ * @since 6.2
+ */
+final class JwtIssuerParser {
+
+	private JwtIssuerParser() {
+	}
+
+	/**
+	 * Return the {@code iss} claim of the given token.
+	 * @param token the bearer token
+	 * @return the issuer
+	 * @throws InvalidBearerTokenException if the token is malformed or has no issuer
+	 */
+	static String getIssuer(String token) {
+		String issuer;
+		try {
+			issuer = parseIssuer(token);
+		}
+		catch (Exception ex) {
+			throw new InvalidBearerTokenException(ex.getMessage(), ex);
+		}
+		if (issuer == null) {
+			throw new InvalidBearerTokenException("Missing issuer");
+		}
+		return issuer;
+	}
+
+	private static String parseIssuer(String token) throws ParseException {
+		int firstDot = token.indexOf('.');
+		int secondDot = (firstDot != -1) ? token.indexOf('.', firstDot + 1) : -1;
+		if (secondDot == -1) {
+			throw new ParseException("Invalid serialized unsecured/JWS/JWE object: Missing part delimiters", 0);
+		}
+		if (token.indexOf('.', secondDot + 1) != -1) {
+			// JWE, the payload is encrypted
+			return JWTParser.parse(token).getJWTClaimsSet().getIssuer();
+		}
+		byte[] payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot));
+		Map<String, Object> claims = JSONObjectUtils.parse(new String(payload, StandardCharsets.UTF_8));
+		return JSONObjectUtils.getString(claims, JwtClaimNames.ISS);
+	}
+
+}
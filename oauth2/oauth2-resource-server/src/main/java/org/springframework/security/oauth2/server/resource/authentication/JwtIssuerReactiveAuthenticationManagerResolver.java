@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,7 +23,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
-import com.nimbusds.jwt.JWTParser;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
@@ -192,14 +191,10 @@ public final class JwtIssuerReactiveAuthenticationManagerResolver
 		@Override
 		public Mono<String> convert(@NonNull BearerTokenAuthenticationToken token) {
 			try {
-				String issuer = JWTParser.parse(token.getToken()).getJWTClaimsSet().getIssuer();
-				if (issuer == null) {
-					throw new InvalidBearerTokenException("Missing issuer");
-				}
-				return Mono.just(issuer);
+				return Mono.just(JwtIssuerParser.getIssuer(token.getToken()));
 			}
-			catch (Exception ex) {
-				return Mono.error(() -> new InvalidBearerTokenException(ex.getMessage(), ex));
+			catch (InvalidBearerTokenException ex) {
+				return Mono.error(ex);
 			}
 		}
 
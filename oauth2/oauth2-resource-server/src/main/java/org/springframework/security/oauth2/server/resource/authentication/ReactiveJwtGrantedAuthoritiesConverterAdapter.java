@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,4 +52,12 @@ public final class ReactiveJwtGrantedAuthoritiesConverterAdapter implements Conv
 		return Flux.fromIterable(this.grantedAuthoritiesConverter.convert(jwt));
 	}
 
+	/**
+	 * Returns the adapted authorities as they are, which lets callers that need a
+	 * collection use them without collecting a {@link Flux}.
+	 */
+	Collection<GrantedAuthority> convertToCollection(Jwt jwt) {
+		return this.grantedAuthoritiesConverter.convert(jwt);
+	}
+
 }
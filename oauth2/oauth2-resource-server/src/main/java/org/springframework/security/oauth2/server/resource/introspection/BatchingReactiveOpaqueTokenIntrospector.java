@@ -0,0 +1,312 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveOpaqueTokenIntrospector} that gathers the introspection requests
+ * arriving within a short window and sends them to the authorization server as a single
+ * batch.
+ *
+ * <p>
+ * Batches are sent with a {@link ReactiveOpaqueTokenBatchIntrospector}. A batch holding
+ * a single token, as well as every token of a batch that fails as a whole, is instead
+ * introspected one by one with the given {@link ReactiveOpaqueTokenIntrospector}, for
+ * example a {@link SpringReactiveOpaqueTokenIntrospector} configured with a
+ * connection-pooled {@link org.springframework.web.reactive.function.client.WebClient}.
+ *
+ * <p>
+ * The number of batches in flight is bounded. While the endpoint is slow, further
+ * requests wait in a bounded queue; once that queue is full, requests fail immediately
+ * with an {@link OAuth2IntrospectionException} rather than piling up.
+ *
+ * @since 6.2
+ */
+public final class BatchingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+	private final ReactiveOpaqueTokenIntrospector introspector;
+
+	private final ReactiveOpaqueTokenBatchIntrospector batchIntrospector;
+
+	private final Object lock = new Object();
+
+	private final Deque<PendingIntrospection> pending = new ArrayDeque<>();
+
+	private Duration batchWindow = Duration.ofMillis(10);
+
+	private int maxBatchSize = 50;
+
+	private int maxConcurrentBatches = 4;
+
+	private int maxPendingIntrospections = 1000;
+
+	private Scheduler scheduler = Schedulers.parallel();
+
+	private int batchesInFlight;
+
+	private Disposable scheduledFlush;
+
+	/**
+	 * Constructs a {@code BatchingReactiveOpaqueTokenIntrospector} with the provided
+	 * parameters
+	 * @param introspector the introspector to use for single tokens and as a fallback
+	 * when a batch fails
+	 * @param batchIntrospector the introspector to use for batches of tokens
+	 */
+	public BatchingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector introspector,
+			ReactiveOpaqueTokenBatchIntrospector batchIntrospector) {
+		Assert.notNull(introspector, "introspector cannot be null");
+		Assert.notNull(batchIntrospector, "batchIntrospector cannot be null");
+		this.introspector = introspector;
+		this.batchIntrospector = batchIntrospector;
+	}
+
+	@Override
+	public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+		return Mono.create((sink) -> {
+			PendingIntrospection introspection = new PendingIntrospection(token, sink);
+			sink.onCancel(() -> cancel(introspection));
+			enqueue(introspection);
+		});
+	}
+
+	/**
+	 * Sets how long to wait for further requests before sending a batch that is not
+	 * full. The default is 10 milliseconds.
+	 * @param batchWindow the window to gather requests in
+	 */
+	public void setBatchWindow(Duration batchWindow) {
+		Assert.notNull(batchWindow, "batchWindow cannot be null");
+		Assert.isTrue(!batchWindow.isNegative() && !batchWindow.isZero(), "batchWindow must be positive");
+		this.batchWindow = batchWindow;
+	}
+
+	/**
+	 * Sets the maximum number of tokens sent in a single batch. The default is 50.
+	 * @param maxBatchSize the maximum batch size
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of batches awaiting a response at the same time. The
+	 * default is 4.
+	 * @param maxConcurrentBatches the maximum number of batches in flight
+	 */
+	public void setMaxConcurrentBatches(int maxConcurrentBatches) {
+		Assert.isTrue(maxConcurrentBatches > 0, "maxConcurrentBatches must be greater than 0");
+		this.maxConcurrentBatches = maxConcurrentBatches;
+	}
+
+	/**
+	 * Sets the maximum number of requests waiting to be sent, after which further
+	 * requests are rejected. The default is 1000.
+	 * @param maxPendingIntrospections the maximum number of waiting requests
+	 */
+	public void setMaxPendingIntrospections(int maxPendingIntrospections) {
+		Assert.isTrue(maxPendingIntrospections > 0, "maxPendingIntrospections must be greater than 0");
+		this.maxPendingIntrospections = maxPendingIntrospections;
+	}
+
+	/**
+	 * Sets the {@link Scheduler} used to send batches, both once their window has
+	 * elapsed and when they are full, so that requesting threads never send them. The
+	 * default is {@link Schedulers#parallel()}.
+	 * @param scheduler the {@link Scheduler} to use
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	private void enqueue(PendingIntrospection introspection) {
+		List<PendingIntrospection> batch = null;
+		boolean rejected = false;
+		synchronized (this.lock) {
+			if (introspection.cancelled) {
+				return;
+			}
+			if (this.pending.size() >= this.maxPendingIntrospections) {
+				rejected = true;
+			}
+			else {
+				this.pending.add(introspection);
+				if (this.pending.size() < this.maxBatchSize) {
+					scheduleFlush();
+					return;
+				}
+				batch = nextBatch();
+			}
+		}
+		if (rejected) {
+			// signalled outside of the lock, since subscribers may run arbitrary code
+			introspection.sink.error(new OAuth2IntrospectionException("Too many pending introspection requests"));
+			return;
+		}
+		send(batch);
+	}
+
+	private void cancel(PendingIntrospection introspection) {
+		introspection.cancelled = true;
+		synchronized (this.lock) {
+			this.pending.remove(introspection);
+		}
+	}
+
+	private void scheduleFlush() {
+		if (this.scheduledFlush == null) {
+			this.scheduledFlush = this.scheduler.schedule(this::flush, this.batchWindow.toNanos(),
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void flush() {
+		List<PendingIntrospection> batch;
+		synchronized (this.lock) {
+			this.scheduledFlush = null;
+			batch = nextBatch();
+			if (!this.pending.isEmpty() && batch != null) {
+				scheduleFlush();
+			}
+		}
+		send(batch);
+	}
+
+	/**
+	 * Takes the next batch off the queue, provided that fewer than the maximum number of
+	 * batches are in flight. Requests cancelled in the meantime are skipped. Must be
+	 * called while holding the lock.
+	 */
+	private List<PendingIntrospection> nextBatch() {
+		if (this.pending.isEmpty() || this.batchesInFlight >= this.maxConcurrentBatches) {
+			return null;
+		}
+		List<PendingIntrospection> batch = new ArrayList<>(Math.min(this.pending.size(), this.maxBatchSize));
+		while (batch.size() < this.maxBatchSize && !this.pending.isEmpty()) {
+			PendingIntrospection introspection = this.pending.poll();
+			if (!introspection.cancelled) {
+				batch.add(introspection);
+			}
+		}
+		if (batch.isEmpty()) {
+			return null;
+		}
+		this.batchesInFlight++;
+		return batch;
+	}
+
+	private void send(List<PendingIntrospection> batch) {
+		if (batch == null) {
+			return;
+		}
+		// @formatter:off
+		Mono<Void> introspection = (batch.size() == 1)
+				? introspectOneByOne(batch)
+				: introspectBatch(batch).onErrorResume((ex) -> introspectOneByOne(batch));
+		introspection
+				.doFinally((signal) -> onBatchCompleted())
+				.subscribeOn(this.scheduler)
+				.subscribe();
+		// @formatter:on
+	}
+
+	private Mono<Void> introspectBatch(List<PendingIntrospection> batch) {
+		List<String> tokens = new ArrayList<>(batch.size());
+		for (PendingIntrospection introspection : batch) {
+			tokens.add(introspection.token);
+		}
+		// @formatter:off
+		return this.batchIntrospector.introspect(tokens)
+				.defaultIfEmpty(Map.of())
+				.doOnNext((principals) -> {
+					for (PendingIntrospection introspection : batch) {
+						OAuth2AuthenticatedPrincipal principal = principals.get(introspection.token);
+						if (principal != null) {
+							introspection.sink.success(principal);
+						}
+						else {
+							introspection.sink.error(new BadOpaqueTokenException("Provided token isn't active"));
+						}
+					}
+				})
+				.then();
+		// @formatter:on
+	}
+
+	private Mono<Void> introspectOneByOne(List<PendingIntrospection> batch) {
+		List<Mono<OAuth2AuthenticatedPrincipal>> introspections = new ArrayList<>(batch.size());
+		for (PendingIntrospection introspection : batch) {
+			if (introspection.cancelled) {
+				continue;
+			}
+			// @formatter:off
+			introspections.add(Mono.defer(() -> this.introspector.introspect(introspection.token))
+					.doOnSuccess(introspection.sink::success)
+					.doOnError(introspection.sink::error)
+					.onErrorResume((ex) -> Mono.empty()));
+			// @formatter:on
+		}
+		return Mono.when(introspections);
+	}
+
+	private void onBatchCompleted() {
+		List<PendingIntrospection> batch;
+		synchronized (this.lock) {
+			this.batchesInFlight--;
+			if (this.scheduledFlush != null && this.pending.size() < this.maxBatchSize) {
+				return;
+			}
+			// requests left over while all batches were in flight have waited long enough
+			batch = nextBatch();
+		}
+		send(batch);
+	}
+
+	private static final class PendingIntrospection {
+
+		private final String token;
+
+		private final MonoSink<OAuth2AuthenticatedPrincipal> sink;
+
+		private volatile boolean cancelled;
+
+		private PendingIntrospection(String token, MonoSink<OAuth2AuthenticatedPrincipal> sink) {
+			this.token = token;
+			this.sink = sink;
+		}
+
+	}
+
+}
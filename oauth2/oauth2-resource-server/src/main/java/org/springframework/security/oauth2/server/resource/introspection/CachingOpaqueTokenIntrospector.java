@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OpaqueTokenIntrospector} that remembers the results of another
+ * {@link OpaqueTokenIntrospector} in an {@link OpaqueTokenIntrospectionCache}. When the
+ * same token is introspected concurrently, only one introspection request is made and
+ * its result is shared.
+ *
+ * <pre>
+ * 	OpaqueTokenIntrospector introspector = new CachingOpaqueTokenIntrospector(
+ * 			new SpringOpaqueTokenIntrospector(introspectionUri, clientId, clientSecret),
+ * 			new OpaqueTokenIntrospectionCache(10000, Duration.ofMinutes(5)));
+ * </pre>
+ *
+ * @since 6.2
+ * @see OpaqueTokenIntrospectionCache
+ */
+public final class CachingOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
+
+	private final OpaqueTokenIntrospector delegate;
+
+	private final OpaqueTokenIntrospectionCache cache;
+
+	private final Map<String, CompletableFuture<OAuth2AuthenticatedPrincipal>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a {@code CachingOpaqueTokenIntrospector} using the provided parameters.
+	 * @param delegate the {@link OpaqueTokenIntrospector} to introspect tokens with
+	 * @param cache the {@link OpaqueTokenIntrospectionCache} to remember results in
+	 */
+	public CachingOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate, OpaqueTokenIntrospectionCache cache) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(cache, "cache cannot be null");
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public OAuth2AuthenticatedPrincipal introspect(String token) {
+		OAuth2AuthenticatedPrincipal principal = this.cache.get(token);
+		if (principal != null) {
+			return principal;
+		}
+		CompletableFuture<OAuth2AuthenticatedPrincipal> introspection = new CompletableFuture<>();
+		CompletableFuture<OAuth2AuthenticatedPrincipal> inFlight = this.inFlight.putIfAbsent(token, introspection);
+		if (inFlight != null) {
+			return await(inFlight);
+		}
+		try {
+			principal = this.delegate.introspect(token);
+			this.cache.put(token, principal);
+			introspection.complete(principal);
+			return principal;
+		}
+		catch (BadOpaqueTokenException ex) {
+			this.cache.put(token, ex);
+			introspection.completeExceptionally(ex);
+			throw ex;
+		}
+		catch (RuntimeException ex) {
+			introspection.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.remove(token, introspection);
+		}
+	}
+
+	private static OAuth2AuthenticatedPrincipal await(CompletableFuture<OAuth2AuthenticatedPrincipal> introspection) {
+		try {
+			return introspection.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new OAuth2IntrospectionException(ex.getMessage(), ex);
+		}
+	}
+
+}
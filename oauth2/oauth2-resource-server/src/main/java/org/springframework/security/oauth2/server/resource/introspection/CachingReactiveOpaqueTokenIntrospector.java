@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveOpaqueTokenIntrospector} that remembers the results of another
+ * {@link ReactiveOpaqueTokenIntrospector} in an {@link OpaqueTokenIntrospectionCache}.
+ * When the same token is introspected concurrently, only one introspection request is
+ * made and its result is shared.
+ *
+ * <pre>
+ * 	ReactiveOpaqueTokenIntrospector introspector = new CachingReactiveOpaqueTokenIntrospector(
+ * 			new SpringReactiveOpaqueTokenIntrospector(introspectionUri, clientId, clientSecret),
+ * 			new OpaqueTokenIntrospectionCache(10000, Duration.ofMinutes(5)));
+ * </pre>
+ *
+ * @since 6.2
+ * @see OpaqueTokenIntrospectionCache
+ */
+public final class CachingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+	private final ReactiveOpaqueTokenIntrospector delegate;
+
+	private final OpaqueTokenIntrospectionCache cache;
+
+	private final Map<String, Mono<OAuth2AuthenticatedPrincipal>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a {@code CachingReactiveOpaqueTokenIntrospector} using the provided
+	 * parameters.
+	 * @param delegate the {@link ReactiveOpaqueTokenIntrospector} to introspect tokens
+	 * with
+	 * @param cache the {@link OpaqueTokenIntrospectionCache} to remember results in
+	 */
+	public CachingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate,
+			OpaqueTokenIntrospectionCache cache) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(cache, "cache cannot be null");
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+		return Mono.defer(() -> {
+			OAuth2AuthenticatedPrincipal principal = this.cache.get(token);
+			if (principal != null) {
+				return Mono.just(principal);
+			}
+			return this.inFlight.computeIfAbsent(token, this::introspectAndCache);
+		});
+	}
+
+	private Mono<OAuth2AuthenticatedPrincipal> introspectAndCache(String token) {
+		AtomicReference<Mono<OAuth2AuthenticatedPrincipal>> introspection = new AtomicReference<>();
+		// @formatter:off
+		introspection.set(this.delegate.introspect(token)
+				.doOnNext((principal) -> this.cache.put(token, principal))
+				.doOnError(BadOpaqueTokenException.class, (ex) -> this.cache.put(token, ex))
+				.doFinally((signal) -> this.inFlight.remove(token, introspection.get()))
+				.cache());
+		// @formatter:on
+		return introspection.get();
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of token introspection results, used by
+ * {@link CachingOpaqueTokenIntrospector} and
+ * {@link CachingReactiveOpaqueTokenIntrospector} so that a token which is presented
+ * several times is not introspected each time.
+ *
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the token. An active token is kept until its
+ * {@code exp} or until the configured time to live elapses, whichever comes first. A
+ * token reported as inactive or invalid, by a {@link BadOpaqueTokenException}, is kept
+ * for the shorter negative time to live, so that replayed invalid tokens do not reach
+ * the authorization server either. Other introspection errors are never cached. Once
+ * the maximum size is exceeded, a tenth of the entries are evicted in no particular
+ * order, so that looking up a token never takes a lock.
+ *
+ * <p>
+ * The hit and miss counts are available for monitoring.
+ *
+ * @since 6.2
+ */
+public final class OpaqueTokenIntrospectionCache {
+
+	private static final Duration DEFAULT_NEGATIVE_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+	private final Duration timeToLive;
+
+	private final BoundedCache<TokenHash, CachedResult> cache;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder negativeHits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private Duration negativeTimeToLive = DEFAULT_NEGATIVE_TIME_TO_LIVE;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Constructs an {@code OpaqueTokenIntrospectionCache} using the provided parameters.
+	 * @param maximumSize the maximum number of introspection results to keep
+	 * @param timeToLive the maximum amount of time to keep an active token, even if it
+	 * has not expired yet
+	 */
+	public OpaqueTokenIntrospectionCache(int maximumSize, Duration timeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+		this.cache = new BoundedCache<>(maximumSize);
+	}
+
+	/**
+	 * Use this amount of time to keep tokens that were reported as inactive or invalid.
+	 * Use {@link Duration#ZERO} to not cache them. The default is 10 seconds.
+	 * @param negativeTimeToLive the amount of time to keep an invalid token
+	 */
+	public void setNegativeTimeToLive(Duration negativeTimeToLive) {
+		Assert.notNull(negativeTimeToLive, "negativeTimeToLive cannot be null");
+		Assert.isTrue(!negativeTimeToLive.isNegative(), "negativeTimeToLive cannot be negative");
+		this.negativeTimeToLive = negativeTimeToLive;
+	}
+
+	/**
+	 * Use this {@link Clock} to determine when entries expire
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns the number of times a cached result was returned, including inactive or
+	 * invalid tokens
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the number of times a token was rejected because it was cached as inactive
+	 * or invalid
+	 * @return the number of negative cache hits
+	 */
+	public long getNegativeHitCount() {
+		return this.negativeHits.sum();
+	}
+
+	/**
+	 * Returns the number of times a token had to be introspected
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the ratio of requests that were served from the cache
+	 * @return the hit ratio, between {@code 0} and {@code 1}
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total != 0) ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Returns the number of introspection results currently cached
+	 * @return the number of cached results
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Removes all the cached introspection results
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	/**
+	 * Returns the cached principal of the given token.
+	 * @param token the token
+	 * @return the principal or {@code null} if the token is not cached
+	 * @throws BadOpaqueTokenException if the token is cached as inactive or invalid
+	 */
+	OAuth2AuthenticatedPrincipal get(String token) {
+		TokenHash key = new TokenHash(token);
+		CachedResult cached = this.cache.get(key);
+		if (cached == null) {
+			this.misses.increment();
+			return null;
+		}
+		if (!cached.expiresAt.isAfter(Instant.now(this.clock))) {
+			this.cache.remove(key, cached);
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		if (cached.failure != null) {
+			this.negativeHits.increment();
+			throw cached.failure;
+		}
+		return cached.principal;
+	}
+
+	void put(String token, OAuth2AuthenticatedPrincipal principal) {
+		Instant now = Instant.now(this.clock);
+		Instant expiresAt = now.plus(this.timeToLive);
+		Object exp = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+		if (exp instanceof Instant instant && instant.isBefore(expiresAt)) {
+			expiresAt = instant;
+		}
+		if (expiresAt.isAfter(now)) {
+			store(token, new CachedResult(principal, null, expiresAt));
+		}
+	}
+
+	void put(String token, BadOpaqueTokenException failure) {
+		if (!this.negativeTimeToLive.isZero()) {
+			store(token, new CachedResult(null, failure, Instant.now(this.clock).plus(this.negativeTimeToLive)));
+		}
+	}
+
+	private void store(String token, CachedResult cached) {
+		this.cache.put(new TokenHash(token), cached);
+	}
+
+	private static final class CachedResult {
+
+		private final OAuth2AuthenticatedPrincipal principal;
+
+		private final BadOpaqueTokenException failure;
+
+		private final Instant expiresAt;
+
+		private CachedResult(OAuth2AuthenticatedPrincipal principal, BadOpaqueTokenException failure,
+				Instant expiresAt) {
+			this.principal = principal;
+			this.failure = failure;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+
+/**
+ * A strategy for introspecting several tokens in a single exchange with an authorization
+ * server, used by {@link BatchingReactiveOpaqueTokenIntrospector}.
+ *
+ * <p>
+ * <a href="https://tools.ietf.org/html/rfc7662" target="_blank">RFC 7662</a> does not
+ * define a batch request, so implementations describe whatever protocol the
+ * authorization server offers.
+ *
+ * @since 6.2
+ * @see BatchingReactiveOpaqueTokenIntrospector
+ */
+@FunctionalInterface
+public interface ReactiveOpaqueTokenBatchIntrospector {
+
+	/**
+	 * Introspect the given tokens.
+	 *
+	 * <p>
+	 * The returned map contains an entry for each active token. Tokens that are absent
+	 * from the map are considered inactive. An error signal means that the batch as a
+	 * whole could not be introspected.
+	 * @param tokens the tokens to introspect, never empty
+	 * @return the principals of the active tokens, keyed by token
+	 */
+	Mono<Map<String, OAuth2AuthenticatedPrincipal>> introspect(List<String> tokens);
+
+}
@@ -16,9 +16,6 @@
 
 package org.springframework.security.oauth2.server.resource.web;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.http.HttpHeaders;
@@ -41,20 +38,20 @@ public final class DefaultBearerTokenResolver implements BearerTokenResolver {
 
 	private static final String ACCESS_TOKEN_PARAMETER_NAME = "access_token";
 
-	private static final Pattern authorizationPattern = Pattern.compile("^Bearer (?<token>[a-zA-Z0-9-._~+/]+=*)$",
-			Pattern.CASE_INSENSITIVE);
-
 	private boolean allowFormEncodedBodyParameter = false;
 
 	private boolean allowUriQueryParameter = false;
 
 	private String bearerTokenHeaderName = HttpHeaders.AUTHORIZATION;
 
+	private boolean inspectDisallowedParameters = true;
+
 	@Override
 	public String resolve(final HttpServletRequest request) {
 		final String authorizationHeaderToken = resolveFromAuthorizationHeader(request);
 		final String parameterToken = isParameterTokenSupportedForRequest(request)
-				? resolveFromRequestParameters(request) : null;
+				&& (this.inspectDisallowedParameters || isParameterTokenEnabledForRequest(request))
+						? resolveFromRequestParameters(request) : null;
 		if (authorizationHeaderToken != null) {
 			if (parameterToken != null) {
 				final BearerTokenError error = BearerTokenErrors
@@ -104,17 +101,33 @@ public final class DefaultBearerTokenResolver implements BearerTokenResolver {
 		this.bearerTokenHeaderName = bearerTokenHeaderName;
 	}
 
+	/**
+	 * Set if the {@code access_token} request parameter is read even when its transport
+	 * is not allowed, so that requests that also carry a bearer token in the header are
+	 * rejected. Defaults to {@code true}.
+	 *
+	 * Setting this to {@code false} avoids reading the request parameters, and thereby
+	 * parsing a form-encoded body, unless a parameter transport is allowed for the
+	 * request.
+	 * @param inspectDisallowedParameters if the request parameters are read when no
+	 * parameter transport is allowed
+	 * @since 6.2
+	 */
+	public void setInspectDisallowedParameters(boolean inspectDisallowedParameters) {
+		this.inspectDisallowedParameters = inspectDisallowedParameters;
+	}
+
 	private String resolveFromAuthorizationHeader(HttpServletRequest request) {
 		String authorization = request.getHeader(this.bearerTokenHeaderName);
 		if (!StringUtils.startsWithIgnoreCase(authorization, "bearer")) {
 			return null;
 		}
-		Matcher matcher = authorizationPattern.matcher(authorization);
-		if (!matcher.matches()) {
+		String token = BearerTokenHeaderScanner.scan(authorization);
+		if (token == null) {
 			BearerTokenError error = BearerTokenErrors.invalidToken("Bearer token is malformed");
 			throw new OAuth2AuthenticationException(error);
 		}
-		return matcher.group("token");
+		return token;
 	}
 
 	private static String resolveFromRequestParameters(HttpServletRequest request) {
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.web.server.authentication;
+
+/**
+ * Extracts the token of a {@code Bearer} authorization header value without a regular
+ * expression. This is the reactive counterpart of the scanner used by
+ * {@link org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver},
+ * kept package-private in both places so that it does not become public API.
+ *
+ * @since 6.2
+ * @see <a href="https://tools.ietf.org/html/rfc6750#section-2.1" target="_blank">RFC 6750
+ * Section 2.1: Authorization Request Header Field</a>
+ */
+final class BearerTokenHeaderScanner {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private BearerTokenHeaderScanner() {
+	}
+
+	/**
+	 * Extract the token of a {@code Bearer} authorization header value.
+	 * @param authorization the header value
+	 * @return the token or {@code null} if the value is not a well-formed bearer token
+	 */
+	static String scan(String authorization) {
+		int start = BEARER_PREFIX.length();
+		if (authorization == null || authorization.length() <= start
+				|| !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, start)) {
+			return null;
+		}
+		int padding = authorization.length();
+		while (padding > start && authorization.charAt(padding - 1) == '=') {
+			padding--;
+		}
+		if (padding == start) {
+			return null;
+		}
+		for (int i = start; i < padding; i++) {
+			if (!isToken68Character(authorization.charAt(i))) {
+				return null;
+			}
+		}
+		return authorization.substring(start);
+	}
+
+	private static boolean isToken68Character(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.'
+				|| c == '_' || c == '~' || c == '+' || c == '/';
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,6 @@
 package org.springframework.security.oauth2.server.resource.web.server.authentication;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import reactor.core.publisher.Mono;
 
@@ -47,13 +45,12 @@ import org.springframework.web.server.ServerWebExchange;
  */
 public class ServerBearerTokenAuthenticationConverter implements ServerAuthenticationConverter {
 
-	private static final Pattern authorizationPattern = Pattern.compile("^Bearer (?<token>[a-zA-Z0-9-._~+/]+=*)$",
-			Pattern.CASE_INSENSITIVE);
-
 	private boolean allowUriQueryParameter = false;
 
 	private String bearerTokenHeaderName = HttpHeaders.AUTHORIZATION;
 
+	private boolean inspectDisallowedParameters = true;
+
 	@Override
 	public Mono<Authentication> convert(ServerWebExchange exchange) {
 		return Mono.fromCallable(() -> token(exchange.getRequest())).map((token) -> {
@@ -67,7 +64,8 @@ public class ServerBearerTokenAuthenticationConverter implements ServerAuthentic
 
 	private String token(ServerHttpRequest request) {
 		String authorizationHeaderToken = resolveFromAuthorizationHeader(request.getHeaders());
-		String parameterToken = resolveAccessTokenFromRequest(request);
+		String parameterToken = (this.inspectDisallowedParameters || isParameterTokenSupportedForRequest(request))
+				? resolveAccessTokenFromRequest(request) : null;
 
 		if (authorizationHeaderToken != null) {
 			if (parameterToken != null) {
@@ -122,17 +120,32 @@ public class ServerBearerTokenAuthenticationConverter implements ServerAuthentic
 		this.bearerTokenHeaderName = bearerTokenHeaderName;
 	}
 
+	/**
+	 * Set if the {@code access_token} query parameter is read even when its transport is
+	 * not allowed, so that requests that also carry a bearer token in the header are
+	 * rejected. Defaults to {@code true}.
+	 *
+	 * Setting this to {@code false} avoids parsing the query parameters unless the URI
+	 * query parameter transport is allowed for the request.
+	 * @param inspectDisallowedParameters if the query parameters are read when the URI
+	 * query parameter transport is not allowed
+	 * @since 6.2
+	 */
+	public void setInspectDisallowedParameters(boolean inspectDisallowedParameters) {
+		this.inspectDisallowedParameters = inspectDisallowedParameters;
+	}
+
 	private String resolveFromAuthorizationHeader(HttpHeaders headers) {
 		String authorization = headers.getFirst(this.bearerTokenHeaderName);
 		if (!StringUtils.startsWithIgnoreCase(authorization, "bearer")) {
 			return null;
 		}
-		Matcher matcher = authorizationPattern.matcher(authorization);
-		if (!matcher.matches()) {
+		String token = BearerTokenHeaderScanner.scan(authorization);
+		if (token == null) {
 			BearerTokenError error = invalidTokenError();
 			throw new OAuth2AuthenticationException(error);
 		}
-		return matcher.group("token");
+		return token;
 	}
 
 	private static BearerTokenError invalidTokenError() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.security.oauth2.server.resource.authentication;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +29,7 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.TestJwts;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
@@ -270,4 +272,60 @@ public class JwtGrantedAuthoritiesConverterTests {
 				new SimpleGrantedAuthority("SCOPE_message:write"));
 	}
 
+	@Test
+	public void setAuthoritiesCacheSizeWhenNegativeThenException() {
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> jwtGrantedAuthoritiesConverter.setAuthoritiesCacheSize(-1));
+	}
+
+	@Test
+	public void convertWhenAuthoritiesCacheThenSameScopesShareAuthorities() {
+		Jwt one = TestJwts.jwt().claim("scope", "message:read message:write").build();
+		Jwt two = TestJwts.jwt().claim("scope", "message:read message:write").build();
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		jwtGrantedAuthoritiesConverter.setAuthoritiesCacheSize(10);
+		Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(one);
+		assertThat(authorities).containsExactly(new SimpleGrantedAuthority("SCOPE_message:read"),
+				new SimpleGrantedAuthority("SCOPE_message:write"));
+		assertThat(jwtGrantedAuthoritiesConverter.convert(two)).isSameAs(authorities);
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> authorities.add(new SimpleGrantedAuthority("SCOPE_message:delete")));
+	}
+
+	@Test
+	public void convertWhenAuthoritiesCacheAndScpListThenSameScopesShareAuthorities() {
+		Jwt one = TestJwts.jwt().claim("scp", List.of("message:read", "message:write")).build();
+		Jwt two = TestJwts.jwt().claim("scp", List.of("message:read", "message:write")).build();
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		jwtGrantedAuthoritiesConverter.setAuthoritiesCacheSize(10);
+		Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(one);
+		assertThat(authorities).containsExactly(new SimpleGrantedAuthority("SCOPE_message:read"),
+				new SimpleGrantedAuthority("SCOPE_message:write"));
+		assertThat(jwtGrantedAuthoritiesConverter.convert(two)).isSameAs(authorities);
+	}
+
+	@Test
+	public void convertWhenAuthoritiesCacheFullThenStillConverts() {
+		Jwt read = TestJwts.jwt().claim("scope", "message:read").build();
+		Jwt write = TestJwts.jwt().claim("scope", "message:write").build();
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		jwtGrantedAuthoritiesConverter.setAuthoritiesCacheSize(1);
+		Collection<GrantedAuthority> readAuthorities = jwtGrantedAuthoritiesConverter.convert(read);
+		Collection<GrantedAuthority> writeAuthorities = jwtGrantedAuthoritiesConverter.convert(write);
+		assertThat(jwtGrantedAuthoritiesConverter.convert(read)).isEqualTo(readAuthorities);
+		assertThat(jwtGrantedAuthoritiesConverter.convert(write)).isEqualTo(writeAuthorities);
+	}
+
+	@Test
+	public void convertWhenAuthoritiesCacheAndAuthorityPrefixChangedThenUsesNewPrefix() {
+		Jwt jwt = TestJwts.jwt().claim("scope", "message:read").build();
+		JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		jwtGrantedAuthoritiesConverter.setAuthoritiesCacheSize(10);
+		jwtGrantedAuthoritiesConverter.convert(jwt);
+		jwtGrantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
+		assertThat(jwtGrantedAuthoritiesConverter.convert(jwt))
+				.containsExactly(new SimpleGrantedAuthority("ROLE_message:read"));
+	}
+
 }
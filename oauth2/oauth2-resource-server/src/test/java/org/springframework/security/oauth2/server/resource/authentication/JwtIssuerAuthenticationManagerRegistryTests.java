@@ -0,0 +1,230 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.AuthenticationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link JwtIssuerAuthenticationManagerRegistry}
+ */
+public class JwtIssuerAuthenticationManagerRegistryTests {
+
+	private final AuthenticationManager one = mock(AuthenticationManager.class);
+
+	private final AuthenticationManager two = mock(AuthenticationManager.class);
+
+	private Function<String, AuthenticationManager> factory;
+
+	private JwtIssuerAuthenticationManagerRegistry registry;
+
+	@BeforeEach
+	public void setup() {
+		this.factory = mock(Function.class);
+		this.registry = new JwtIssuerAuthenticationManagerRegistry(Set.of("one", "two", "three"));
+		this.registry.setAuthenticationManagerFactory(this.factory);
+		this.registry.setExecutor(Runnable::run);
+	}
+
+	@Test
+	public void constructorWhenNullOrEmptyThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JwtIssuerAuthenticationManagerRegistry(Set.of()));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JwtIssuerAuthenticationManagerRegistry((Predicate<String>) null));
+	}
+
+	@Test
+	public void resolveWhenUntrustedIssuerThenNull() {
+		assertThat(this.registry.resolve("untrusted")).isNull();
+		verifyNoInteractions(this.factory);
+	}
+
+	@Test
+	public void resolveWhenTrustedIssuerThenCreatesAuthenticationManagerOnce() {
+		given(this.factory.apply("one")).willReturn(this.one);
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		verify(this.factory).apply("one");
+	}
+
+	@Test
+	public void preloadWhenIssuersThenCreatesAuthenticationManagersUpfront() {
+		given(this.factory.apply("one")).willReturn(this.one);
+		given(this.factory.apply("two")).willThrow(new IllegalArgumentException("unreachable"));
+		this.registry.preload(List.of("one", "two", "untrusted"));
+		verify(this.factory).apply("one");
+		verify(this.factory).apply("two");
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		verify(this.factory).apply("one");
+	}
+
+	@Test
+	public void resolveWhenFirstDiscoveryFailedThenDiscoversAgain() {
+		given(this.factory.apply("one")).willThrow(new IllegalArgumentException("unreachable")).willReturn(this.one);
+		this.registry.preload(List.of("one"));
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+	}
+
+	@Test
+	public void resolveWhenMaximumSizeReachedThenEvictsOtherIssuer() {
+		AuthenticationManager three = mock(AuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(this.one);
+		given(this.factory.apply("two")).willReturn(this.two);
+		given(this.factory.apply("three")).willReturn(three);
+		this.registry.setMaximumSize(2);
+		this.registry.resolve("one");
+		this.registry.resolve("two");
+		assertThat(this.registry.resolve("three")).isSameAs(three);
+		assertThat(this.registry.size()).isEqualTo(2);
+		assertThat(this.registry.resolve("three")).isSameAs(three);
+		verify(this.factory).apply("three");
+	}
+
+	@Test
+	public void resolveWhenRediscoveryIntervalElapsedThenDiscoversAgain() {
+		given(this.factory.apply("one")).willReturn(this.one, this.two);
+		Instant now = Instant.now();
+		this.registry.setClock(Clock.fixed(now, ZoneId.of("UTC")));
+		this.registry.setRediscoveryInterval(Duration.ofMinutes(5));
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		this.registry.setClock(Clock.fixed(now.plus(Duration.ofMinutes(6)), ZoneId.of("UTC")));
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		assertThat(this.registry.resolve("one")).isSameAs(this.two);
+		verify(this.factory, times(2)).apply("one");
+	}
+
+	@Test
+	public void resolveWhenRediscoveryFailsThenKeepsCurrentAuthenticationManager() {
+		given(this.factory.apply("one")).willReturn(this.one).willThrow(new IllegalArgumentException("unreachable"));
+		Instant now = Instant.now();
+		this.registry.setClock(Clock.fixed(now, ZoneId.of("UTC")));
+		this.registry.setRediscoveryInterval(Duration.ofMinutes(5));
+		this.registry.resolve("one");
+		this.registry.setClock(Clock.fixed(now.plus(Duration.ofMinutes(6)), ZoneId.of("UTC")));
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+		assertThat(this.registry.resolve("one")).isSameAs(this.one);
+	}
+
+	@Test
+	public void evictWhenIssuerThenDiscoveredAgain() {
+		given(this.factory.apply("one")).willReturn(this.one, this.two);
+		this.registry.resolve("one");
+		this.registry.evict("one");
+		assertThat(this.registry.resolve("one")).isSameAs(this.two);
+	}
+
+	@Test
+	public void evictWhenCloseableAuthenticationManagerThenCloses() throws Exception {
+		CloseableAuthenticationManager closeable = mock(CloseableAuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(closeable);
+		this.registry.resolve("one");
+		this.registry.evict("one");
+		verify(closeable).close();
+	}
+
+	@Test
+	public void resolveWhenMaximumSizeReachedThenClosesEvictedAuthenticationManager() throws Exception {
+		CloseableAuthenticationManager closeable = mock(CloseableAuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(closeable);
+		given(this.factory.apply("two")).willReturn(this.two);
+		this.registry.setMaximumSize(1);
+		this.registry.resolve("one");
+		verify(closeable, never()).close();
+		this.registry.resolve("two");
+		verify(closeable).close();
+	}
+
+	@Test
+	public void resolveWhenRediscoveredThenClosesPreviousAuthenticationManager() throws Exception {
+		CloseableAuthenticationManager closeable = mock(CloseableAuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(closeable, this.two);
+		Instant now = Instant.now();
+		this.registry.setClock(Clock.fixed(now, ZoneId.of("UTC")));
+		this.registry.setRediscoveryInterval(Duration.ofMinutes(5));
+		this.registry.resolve("one");
+		this.registry.setClock(Clock.fixed(now.plus(Duration.ofMinutes(6)), ZoneId.of("UTC")));
+		this.registry.resolve("one");
+		verify(closeable).close();
+	}
+
+	@Test
+	public void resolveWhenRediscoveredAfterEvictThenClosesRediscoveredAuthenticationManager() throws Exception {
+		CloseableAuthenticationManager rediscovered = mock(CloseableAuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(this.one, rediscovered, this.two);
+		List<Runnable> tasks = new ArrayList<>();
+		this.registry.setExecutor(tasks::add);
+		Instant now = Instant.now();
+		this.registry.setClock(Clock.fixed(now, ZoneId.of("UTC")));
+		this.registry.setRediscoveryInterval(Duration.ofMinutes(5));
+		this.registry.resolve("one");
+		this.registry.setClock(Clock.fixed(now.plus(Duration.ofMinutes(6)), ZoneId.of("UTC")));
+		this.registry.resolve("one");
+		this.registry.evict("one");
+		tasks.forEach(Runnable::run);
+		verify(rediscovered).close();
+		assertThat(this.registry.resolve("one")).isSameAs(this.two);
+	}
+
+	@Test
+	public void closeWhenCloseableAuthenticationManagersThenClosesAll() throws Exception {
+		CloseableAuthenticationManager closeable = mock(CloseableAuthenticationManager.class);
+		given(this.factory.apply("one")).willReturn(closeable);
+		given(this.factory.apply("two")).willReturn(this.two);
+		this.registry.preload(List.of("one", "two"));
+		this.registry.close();
+		verify(closeable).close();
+		assertThat(this.registry.size()).isZero();
+	}
+
+	@Test
+	public void settersWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setMaximumSize(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setRediscoveryInterval(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setRediscoveryInterval(Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setExecutor(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setAuthenticationManagerFactory(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.setClock(null));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.registry.preload(null));
+	}
+
+	private interface CloseableAuthenticationManager extends AuthenticationManager, AutoCloseable {
+
+	}
+
+}
@@ -51,6 +51,19 @@ public class ReactiveJwtAuthenticationConverterTests {
 				new SimpleGrantedAuthority("SCOPE_message:write"));
 	}
 
+	@Test
+	public void convertWhenAdaptedGrantedAuthoritiesConverterThenUsesItsAuthorities() {
+		Jwt jwt = TestJwts.jwt().claim("scope", "message:read message:write").build();
+		JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+		grantedAuthoritiesConverter.setAuthoritiesCacheSize(10);
+		Collection<GrantedAuthority> authorities = grantedAuthoritiesConverter.convert(jwt);
+		this.jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(
+				new ReactiveJwtGrantedAuthoritiesConverterAdapter(grantedAuthoritiesConverter));
+		AbstractAuthenticationToken authentication = this.jwtAuthenticationConverter.convert(jwt).block();
+		assertThat(authentication.getAuthorities()).containsExactlyElementsOf(authorities);
+		assertThat(authentication.getAuthorities().iterator().next()).isSameAs(authorities.iterator().next());
+	}
+
 	@Test
 	public void whenSettingNullGrantedAuthoritiesConverter() {
 		assertThatIllegalArgumentException()
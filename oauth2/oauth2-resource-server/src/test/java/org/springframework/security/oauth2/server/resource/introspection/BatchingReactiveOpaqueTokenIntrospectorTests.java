@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.TestOAuth2AuthenticatedPrincipals;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link BatchingReactiveOpaqueTokenIntrospector}
+ */
+public class BatchingReactiveOpaqueTokenIntrospectorTests {
+
+	private final ReactiveOpaqueTokenIntrospector introspector = mock(ReactiveOpaqueTokenIntrospector.class);
+
+	private final ReactiveOpaqueTokenBatchIntrospector batchIntrospector = mock(
+			ReactiveOpaqueTokenBatchIntrospector.class);
+
+	private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+	private BatchingReactiveOpaqueTokenIntrospector batching;
+
+	@BeforeEach
+	public void setup() {
+		this.batching = new BatchingReactiveOpaqueTokenIntrospector(this.introspector, this.batchIntrospector);
+		this.batching.setScheduler(this.scheduler);
+	}
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BatchingReactiveOpaqueTokenIntrospector(null, this.batchIntrospector));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BatchingReactiveOpaqueTokenIntrospector(this.introspector, null));
+	}
+
+	@Test
+	public void settersWhenInvalidThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.batching.setBatchWindow(Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.batching.setMaxBatchSize(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.batching.setMaxConcurrentBatches(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.batching.setMaxPendingIntrospections(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.batching.setScheduler(null));
+	}
+
+	@Test
+	public void introspectWhenWithinWindowThenSendsOneBatch() {
+		OAuth2AuthenticatedPrincipal one = TestOAuth2AuthenticatedPrincipals.active();
+		OAuth2AuthenticatedPrincipal two = TestOAuth2AuthenticatedPrincipals.active();
+		given(this.batchIntrospector.introspect(List.of("one", "two", "three")))
+				.willReturn(Mono.just(Map.of("one", one, "two", two)));
+		Mono<OAuth2AuthenticatedPrincipal> first = this.batching.introspect("one").cache();
+		Mono<OAuth2AuthenticatedPrincipal> second = this.batching.introspect("two").cache();
+		Mono<OAuth2AuthenticatedPrincipal> third = this.batching.introspect("three").cache();
+		first.subscribe();
+		second.subscribe();
+		third.onErrorResume((ex) -> Mono.empty()).subscribe();
+		verify(this.batchIntrospector, never()).introspect(anyList());
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		StepVerifier.create(first).expectNext(one).verifyComplete();
+		StepVerifier.create(second).expectNext(two).verifyComplete();
+		StepVerifier.create(third).expectError(BadOpaqueTokenException.class).verify();
+		verify(this.batchIntrospector).introspect(anyList());
+		verify(this.introspector, never()).introspect(any());
+	}
+
+	@Test
+	public void introspectWhenBatchFullThenSendsWithoutWaiting() {
+		this.batching.setMaxBatchSize(2);
+		given(this.batchIntrospector.introspect(anyList())).willReturn(Mono.just(Map.of()));
+		this.batching.introspect("one").onErrorResume((ex) -> Mono.empty()).subscribe();
+		this.batching.introspect("two").onErrorResume((ex) -> Mono.empty()).subscribe();
+		verify(this.batchIntrospector).introspect(List.of("one", "two"));
+	}
+
+	@Test
+	public void introspectWhenSingleTokenThenUsesIntrospector() {
+		OAuth2AuthenticatedPrincipal principal = TestOAuth2AuthenticatedPrincipals.active();
+		given(this.introspector.introspect("one")).willReturn(Mono.just(principal));
+		Mono<OAuth2AuthenticatedPrincipal> result = this.batching.introspect("one").cache();
+		result.subscribe();
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		StepVerifier.create(result).expectNext(principal).verifyComplete();
+		verify(this.batchIntrospector, never()).introspect(anyList());
+	}
+
+	@Test
+	public void introspectWhenBatchFailsThenFallsBackToIntrospector() {
+		OAuth2AuthenticatedPrincipal principal = TestOAuth2AuthenticatedPrincipals.active();
+		given(this.batchIntrospector.introspect(anyList()))
+				.willReturn(Mono.error(new OAuth2IntrospectionException("unsupported")));
+		given(this.introspector.introspect("one")).willReturn(Mono.just(principal));
+		given(this.introspector.introspect("two")).willReturn(Mono.error(new BadOpaqueTokenException("inactive")));
+		Mono<OAuth2AuthenticatedPrincipal> first = this.batching.introspect("one").cache();
+		Mono<OAuth2AuthenticatedPrincipal> second = this.batching.introspect("two").cache();
+		first.subscribe();
+		second.onErrorResume((ex) -> Mono.empty()).subscribe();
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		StepVerifier.create(first).expectNext(principal).verifyComplete();
+		StepVerifier.create(second).expectError(BadOpaqueTokenException.class).verify();
+	}
+
+	@Test
+	public void introspectWhenBatchesInFlightThenWaits() {
+		this.batching.setMaxBatchSize(2);
+		this.batching.setMaxConcurrentBatches(1);
+		Sinks.One<Map<String, OAuth2AuthenticatedPrincipal>> response = Sinks.one();
+		given(this.batchIntrospector.introspect(List.of("one", "two"))).willReturn(response.asMono());
+		given(this.batchIntrospector.introspect(List.of("three", "four"))).willReturn(Mono.just(Map.of()));
+		for (String token : List.of("one", "two", "three", "four")) {
+			this.batching.introspect(token).onErrorResume((ex) -> Mono.empty()).subscribe();
+		}
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		verify(this.batchIntrospector, times(1)).introspect(anyList());
+		response.tryEmitValue(Map.of());
+		verify(this.batchIntrospector).introspect(List.of("three", "four"));
+	}
+
+	@Test
+	public void introspectWhenTooManyPendingThenRejects() {
+		this.batching.setMaxPendingIntrospections(1);
+		this.batching.introspect("one").subscribe();
+		StepVerifier.create(this.batching.introspect("two"))
+				.expectError(OAuth2IntrospectionException.class)
+				.verify();
+	}
+
+	@Test
+	public void introspectWhenCancelledThenLeftOutOfBatch() {
+		given(this.batchIntrospector.introspect(anyList())).willReturn(Mono.just(Map.of()));
+		this.batching.introspect("one").onErrorResume((ex) -> Mono.empty()).subscribe();
+		Disposable two = this.batching.introspect("two").subscribe();
+		this.batching.introspect("three").onErrorResume((ex) -> Mono.empty()).subscribe();
+		two.dispose();
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		verify(this.batchIntrospector).introspect(List.of("one", "three"));
+	}
+
+	@Test
+	public void introspectWhenOnlyRequestCancelledThenNothingSent() {
+		this.batching.introspect("one").subscribe().dispose();
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		verify(this.batchIntrospector, never()).introspect(anyList());
+		verify(this.introspector, never()).introspect(any());
+	}
+
+	@Test
+	public void introspectWhenCancelledThenNoLongerCountsAsPending() {
+		OAuth2AuthenticatedPrincipal principal = TestOAuth2AuthenticatedPrincipals.active();
+		given(this.introspector.introspect("two")).willReturn(Mono.just(principal));
+		this.batching.setMaxPendingIntrospections(1);
+		this.batching.introspect("one").subscribe().dispose();
+		Mono<OAuth2AuthenticatedPrincipal> result = this.batching.introspect("two").cache();
+		result.subscribe();
+		this.scheduler.advanceTimeBy(Duration.ofMillis(10));
+		StepVerifier.create(result).expectNext(principal).verifyComplete();
+	}
+
+}
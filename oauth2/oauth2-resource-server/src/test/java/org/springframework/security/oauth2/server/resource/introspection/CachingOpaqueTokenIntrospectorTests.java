@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.core.TestOAuth2AuthenticatedPrincipals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingOpaqueTokenIntrospector}
+ */
+public class CachingOpaqueTokenIntrospectorTests {
+
+	private static final Instant NOW = Instant.parse("2023-06-01T00:00:00Z");
+
+	private final OpaqueTokenIntrospector delegate = mock(OpaqueTokenIntrospector.class);
+
+	private OpaqueTokenIntrospectionCache cache;
+
+	private CachingOpaqueTokenIntrospector introspector;
+
+	@BeforeEach
+	public void setup() {
+		this.cache = new OpaqueTokenIntrospectionCache(10, Duration.ofMinutes(5));
+		this.cache.setClock(Clock.fixed(NOW, ZoneId.of("UTC")));
+		this.introspector = new CachingOpaqueTokenIntrospector(this.delegate, this.cache);
+	}
+
+	@Test
+	public void constructorWhenNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingOpaqueTokenIntrospector(null, this.cache));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new CachingOpaqueTokenIntrospector(this.delegate, null));
+	}
+
+	@Test
+	public void introspectWhenActiveTokenThenCachedUntilExpiration() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plusSeconds(60));
+		given(this.delegate.introspect("token")).willReturn(principal);
+		assertThat(this.introspector.introspect("token")).isSameAs(principal);
+		assertThat(this.introspector.introspect("token")).isSameAs(principal);
+		verify(this.delegate).introspect("token");
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		this.cache.setClock(Clock.fixed(NOW.plusSeconds(61), ZoneId.of("UTC")));
+		this.introspector.introspect("token");
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenActiveTokenThenCachedAtMostTimeToLive() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+		given(this.delegate.introspect("token")).willReturn(principal);
+		this.introspector.introspect("token");
+		this.cache.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneId.of("UTC")));
+		this.introspector.introspect("token");
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenExpiredTokenThenNotCached() {
+		given(this.delegate.introspect("token")).willReturn(principal(NOW.minusSeconds(1)));
+		this.introspector.introspect("token");
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void introspectWhenBadTokenThenCachedBriefly() {
+		given(this.delegate.introspect("token")).willThrow(new BadOpaqueTokenException("inactive"));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+				.isThrownBy(() -> this.introspector.introspect("token"));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+				.isThrownBy(() -> this.introspector.introspect("token"));
+		verify(this.delegate).introspect("token");
+		assertThat(this.cache.getNegativeHitCount()).isEqualTo(1);
+		this.cache.setClock(Clock.fixed(NOW.plusSeconds(11), ZoneId.of("UTC")));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+				.isThrownBy(() -> this.introspector.introspect("token"));
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenIntrospectionFailsThenNotCached() {
+		given(this.delegate.introspect("token")).willThrow(new OAuth2IntrospectionException("unavailable"));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+				.isThrownBy(() -> this.introspector.introspect("token"));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+				.isThrownBy(() -> this.introspector.introspect("token"));
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenConcurrentThenIntrospectsOnce() throws Exception {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plusSeconds(60));
+		CountDownLatch introspecting = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		given(this.delegate.introspect("token")).willAnswer((invocation) -> {
+			introspecting.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return principal;
+		});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<OAuth2AuthenticatedPrincipal> first = executor.submit(() -> this.introspector.introspect("token"));
+			assertThat(introspecting.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread second = new Thread(() -> this.introspector.introspect("token"));
+			second.start();
+			Thread.sleep(50);
+			release.countDown();
+			second.join(5000);
+			assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(principal);
+			verify(this.delegate).introspect("token");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void cacheWhenMaximumSizeReachedThenEvictsOtherToken() {
+		OpaqueTokenIntrospectionCache cache = new OpaqueTokenIntrospectionCache(1, Duration.ofMinutes(5));
+		cache.setClock(Clock.fixed(NOW, ZoneId.of("UTC")));
+		CachingOpaqueTokenIntrospector introspector = new CachingOpaqueTokenIntrospector(this.delegate, cache);
+		given(this.delegate.introspect("one")).willReturn(principal(NOW.plusSeconds(60)));
+		given(this.delegate.introspect("two")).willReturn(principal(NOW.plusSeconds(60)));
+		introspector.introspect("one");
+		introspector.introspect("two");
+		introspector.introspect("one");
+		verify(this.delegate, times(2)).introspect("one");
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void cacheWhenInvalidArgumentsThenException() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new OpaqueTokenIntrospectionCache(0, Duration.ofMinutes(5)));
+		assertThatIllegalArgumentException().isThrownBy(() -> new OpaqueTokenIntrospectionCache(10, Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setNegativeTimeToLive(Duration.ofSeconds(-1)));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setClock(null));
+	}
+
+	private static OAuth2AuthenticatedPrincipal principal(Instant expiresAt) {
+		return TestOAuth2AuthenticatedPrincipals
+				.active((attributes) -> attributes.put(OAuth2TokenIntrospectionClaimNames.EXP, expiresAt));
+	}
+
+}
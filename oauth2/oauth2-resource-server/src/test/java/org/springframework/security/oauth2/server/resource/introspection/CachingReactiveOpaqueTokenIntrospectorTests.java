@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.core.TestOAuth2AuthenticatedPrincipals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingReactiveOpaqueTokenIntrospector}
+ */
+public class CachingReactiveOpaqueTokenIntrospectorTests {
+
+	private static final Instant NOW = Instant.parse("2023-06-01T00:00:00Z");
+
+	private final ReactiveOpaqueTokenIntrospector delegate = mock(ReactiveOpaqueTokenIntrospector.class);
+
+	private OpaqueTokenIntrospectionCache cache;
+
+	private CachingReactiveOpaqueTokenIntrospector introspector;
+
+	@BeforeEach
+	public void setup() {
+		this.cache = new OpaqueTokenIntrospectionCache(10, Duration.ofMinutes(5));
+		this.cache.setClock(Clock.fixed(NOW, ZoneId.of("UTC")));
+		this.introspector = new CachingReactiveOpaqueTokenIntrospector(this.delegate, this.cache);
+	}
+
+	@Test
+	public void introspectWhenActiveTokenThenCached() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plusSeconds(60));
+		given(this.delegate.introspect("token")).willReturn(Mono.just(principal));
+		assertThat(this.introspector.introspect("token").block()).isSameAs(principal);
+		assertThat(this.introspector.introspect("token").block()).isSameAs(principal);
+		verify(this.delegate).introspect("token");
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void introspectWhenBadTokenThenCachedBriefly() {
+		given(this.delegate.introspect("token")).willReturn(Mono.error(new BadOpaqueTokenException("inactive")));
+		StepVerifier.create(this.introspector.introspect("token")).expectError(BadOpaqueTokenException.class).verify();
+		StepVerifier.create(this.introspector.introspect("token")).expectError(BadOpaqueTokenException.class).verify();
+		verify(this.delegate).introspect("token");
+		assertThat(this.cache.getNegativeHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void introspectWhenIntrospectionFailsThenNotCached() {
+		given(this.delegate.introspect("token"))
+				.willReturn(Mono.error(new OAuth2IntrospectionException("unavailable")));
+		StepVerifier.create(this.introspector.introspect("token"))
+				.expectError(OAuth2IntrospectionException.class)
+				.verify();
+		StepVerifier.create(this.introspector.introspect("token"))
+				.expectError(OAuth2IntrospectionException.class)
+				.verify();
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenConcurrentThenIntrospectsOnce() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plusSeconds(60));
+		Sinks.One<OAuth2AuthenticatedPrincipal> response = Sinks.one();
+		given(this.delegate.introspect("token")).willReturn(response.asMono());
+		Mono<OAuth2AuthenticatedPrincipal> first = this.introspector.introspect("token").cache();
+		Mono<OAuth2AuthenticatedPrincipal> second = this.introspector.introspect("token").cache();
+		first.subscribe();
+		second.subscribe();
+		response.tryEmitValue(principal);
+		assertThat(first.block()).isSameAs(principal);
+		assertThat(second.block()).isSameAs(principal);
+		verify(this.delegate).introspect("token");
+	}
+
+	private static OAuth2AuthenticatedPrincipal principal(Instant expiresAt) {
+		return TestOAuth2AuthenticatedPrincipals
+				.active((attributes) -> attributes.put(OAuth2TokenIntrospectionClaimNames.EXP, expiresAt));
+	}
+
+}
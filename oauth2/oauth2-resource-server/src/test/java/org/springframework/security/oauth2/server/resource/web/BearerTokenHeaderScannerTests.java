@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BearerTokenHeaderScanner}
+ */
+public class BearerTokenHeaderScannerTests {
+
+	@Test
+	public void scanWhenWellFormedThenToken() {
+		assertThat(BearerTokenHeaderScanner.scan("Bearer abc-._~+/123==")).isEqualTo("abc-._~+/123==");
+		assertThat(BearerTokenHeaderScanner.scan("bEaReR token")).isEqualTo("token");
+	}
+
+	@Test
+	public void scanWhenMalformedThenNull() {
+		assertThat(BearerTokenHeaderScanner.scan(null)).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Bearer ")).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Bearer ==")).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Bearer to=ken")).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Bearer  token")).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Bearer tok%en")).isNull();
+		assertThat(BearerTokenHeaderScanner.scan("Basic token")).isNull();
+	}
+
+}
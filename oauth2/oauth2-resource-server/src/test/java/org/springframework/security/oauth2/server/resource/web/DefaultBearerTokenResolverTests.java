@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,10 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link DefaultBearerTokenResolver}.
@@ -127,6 +131,50 @@ public class DefaultBearerTokenResolverTests {
 				.withMessageContaining("Found multiple bearer tokens in the request");
 	}
 
+	@Test
+	public void resolveWhenInspectDisallowedParametersFalseThenParametersNotRead() {
+		this.resolver.setInspectDisallowedParameters(false);
+		MockHttpServletRequest request = spy(new MockHttpServletRequest());
+		request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+		request.setMethod("POST");
+		request.setContentType("application/x-www-form-urlencoded");
+		request.addParameter("access_token", TEST_TOKEN);
+		assertThat(this.resolver.resolve(request)).isEqualTo(TEST_TOKEN);
+		verify(request, never()).getParameterValues(any());
+	}
+
+	@Test
+	public void resolveWhenInspectDisallowedParametersFalseAndParameterAllowedThenParametersRead() {
+		this.resolver.setInspectDisallowedParameters(false);
+		this.resolver.setAllowFormEncodedBodyParameter(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + TEST_TOKEN);
+		request.setMethod("POST");
+		request.setContentType("application/x-www-form-urlencoded");
+		request.addParameter("access_token", TEST_TOKEN);
+		assertThatExceptionOfType(OAuth2AuthenticationException.class).isThrownBy(() -> this.resolver.resolve(request))
+				.withMessageContaining("Found multiple bearer tokens in the request");
+	}
+
+	@Test
+	public void resolveWhenHeaderIsMalformedThenAuthenticationExceptionIsThrown() {
+		for (String authorization : new String[] { "Bearer", "Bearer ", "Bearer ==", "Bearer a=b", "Bearer a b",
+				"Bearertoken", "Bearer token\n" }) {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader("Authorization", authorization);
+			assertThatExceptionOfType(OAuth2AuthenticationException.class)
+					.isThrownBy(() -> this.resolver.resolve(request))
+					.withMessageContaining(("Bearer token is malformed"));
+		}
+	}
+
+	@Test
+	public void resolveWhenHeaderHasAnyCaseSchemeAndPaddingThenTokenIsResolved() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "bEaReR a-b.c_d~e+f/g9==");
+		assertThat(this.resolver.resolve(request)).isEqualTo("a-b.c_d~e+f/g9==");
+	}
+
 	// gh-10326
 	@Test
 	public void resolveWhenRequestContainsTwoAccessTokenQueryParametersThenAuthenticationExceptionIsThrown() {
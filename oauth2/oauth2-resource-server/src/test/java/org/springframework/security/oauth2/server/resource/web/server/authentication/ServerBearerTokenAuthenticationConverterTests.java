@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -194,6 +194,28 @@ public class ServerBearerTokenAuthenticationConverterTests {
 		// @formatter:on
 	}
 
+	@Test
+	public void resolveWhenInspectDisallowedParametersFalseThenQueryParameterIgnored() {
+		this.converter.setInspectDisallowedParameters(false);
+		// @formatter:off
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/")
+				.queryParam("access_token", TEST_TOKEN)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + TEST_TOKEN);
+		// @formatter:on
+		assertThat(convertToToken(request).getToken()).isEqualTo(TEST_TOKEN);
+	}
+
+	@Test
+	public void resolveWhenHeaderIsMalformedThenAuthenticationExceptionIsThrown() {
+		for (String authorization : new String[] { "Bearer ==", "Bearer a=b", "Bearer a b", "Bearertoken" }) {
+			MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/")
+					.header(HttpHeaders.AUTHORIZATION, authorization);
+			assertThatExceptionOfType(OAuth2AuthenticationException.class)
+					.isThrownBy(() -> convertToToken(request))
+					.withMessageContaining("Bearer token is malformed");
+		}
+	}
+
 	@Test
 	public void resolveWhenQueryParameterIsPresentAndNotSupportedThenTokenIsNotResolved() {
 		// @formatter:off
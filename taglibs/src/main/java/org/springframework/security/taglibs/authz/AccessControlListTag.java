@@ -17,6 +17,8 @@
 package org.springframework.security.taglibs.authz;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +50,15 @@ import org.springframework.security.web.context.support.SecurityWebApplicationCo
  * {@code WebApplicationContextUtils} and attempt to locate the
  * {@code PermissionEvaluator} instance. There cannot be more than one of these present
  * for the tag to function.
+ * <p>
+ * When rendering many domain objects, such as the rows of a table, the
+ * {@code domainObjects} attribute can be used instead of {@code domainObject}. All the
+ * permissions are then evaluated for all the domain objects with a single
+ * {@link PermissionEvaluator#hasPermissions} call, and {@code var} is set to a
+ * {@code List} that holds, at the index of each domain object, whether all the
+ * permissions are granted for it. As with {@code domainObject}, access to a
+ * {@code null} domain object is always granted. One of {@code domainObject} and
+ * {@code domainObjects} must be specified.
  *
  * @author Ben Alex
  * @author Luke Taylor
@@ -64,6 +75,12 @@ public class AccessControlListTag extends TagSupport {
 
 	private Object domainObject;
 
+	private boolean domainObjectSet;
+
+	private Collection<?> domainObjects;
+
+	private boolean domainObjectsSet;
+
 	private PermissionEvaluator permissionEvaluator;
 
 	private String hasPermission = "";
@@ -75,7 +92,13 @@ public class AccessControlListTag extends TagSupport {
 		if ((null == this.hasPermission) || "".equals(this.hasPermission)) {
 			return skipBody();
 		}
+		if (!this.domainObjectSet && !this.domainObjectsSet) {
+			throw new JspException("One of domainObject or domainObjects must be specified");
+		}
 		initializeIfRequired();
+		if (this.domainObjects != null) {
+			return evaluateDomainObjects();
+		}
 		if (this.domainObject == null) {
 			logger.debug("domainObject resolved to null, so including tag body");
 			// Of course they have access to a null object!
@@ -95,6 +118,46 @@ public class AccessControlListTag extends TagSupport {
 		return evalBody();
 	}
 
+	private int evaluateDomainObjects() {
+		List<Object> domainObjects = new ArrayList<>(this.domainObjects.size());
+		for (Object domainObject : this.domainObjects) {
+			if (domainObject != null) {
+				domainObjects.add(domainObject);
+			}
+		}
+		BitSet all = hasAllPermissions(domainObjects);
+		List<Boolean> granted = new ArrayList<>(this.domainObjects.size());
+		int index = 0;
+		for (Object domainObject : this.domainObjects) {
+			// Of course they have access to a null object!
+			granted.add(domainObject == null || all.get(index++));
+		}
+		if (this.var != null) {
+			this.pageContext.setAttribute(this.var, granted, PageContext.PAGE_SCOPE);
+		}
+		return TagLibConfig.evalOrSkip(!granted.contains(Boolean.FALSE));
+	}
+
+	private BitSet hasAllPermissions(List<Object> domainObjects) {
+		BitSet all = new BitSet(domainObjects.size());
+		if (domainObjects.isEmpty()) {
+			return all;
+		}
+		Authentication authentication = this.securityContextHolderStrategy.getContext().getAuthentication();
+		if (authentication == null) {
+			logger.debug("SecurityContextHolder did not return a non-null Authentication object, so skipping tag body");
+			return all;
+		}
+		List<Object> requiredPermissions = parseHasPermission(this.hasPermission);
+		Map<Object, BitSet> permissions = this.permissionEvaluator.hasPermissions(authentication, domainObjects,
+				requiredPermissions);
+		all.set(0, domainObjects.size());
+		for (BitSet permission : permissions.values()) {
+			all.and(permission);
+		}
+		return all;
+	}
+
 	private List<Object> parseHasPermission(String hasPermission) {
 		String[] requiredPermissions = hasPermission.split(",");
 		List<Object> parsedPermissions = new ArrayList<>(requiredPermissions.length);
@@ -139,6 +202,10 @@ public class AccessControlListTag extends TagSupport {
 		return this.domainObject;
 	}
 
+	public Collection<?> getDomainObjects() {
+		return this.domainObjects;
+	}
+
 	public String getHasPermission() {
 		return this.hasPermission;
 	}
@@ -175,6 +242,17 @@ public class AccessControlListTag extends TagSupport {
 
 	public void setDomainObject(Object domainObject) {
 		this.domainObject = domainObject;
+		this.domainObjectSet = true;
+	}
+
+	/**
+	 * Sets the domain objects to evaluate the permissions for, in a single batch.
+	 * @param domainObjects the domain objects
+	 * @since 6.2
+	 */
+	public void setDomainObjects(Collection<?> domainObjects) {
+		this.domainObjects = domainObjects;
+		this.domainObjectsSet = true;
 	}
 
 	public void setHasPermission(String hasPermission) {
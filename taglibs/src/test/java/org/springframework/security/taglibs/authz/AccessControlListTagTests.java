@@ -16,10 +16,15 @@
 
 package org.springframework.security.taglibs.authz;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.servlet.ServletContext;
+import jakarta.servlet.jsp.JspException;
 import jakarta.servlet.jsp.tagext.Tag;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +44,7 @@ import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.GenericWebApplicationContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -201,4 +207,97 @@ public class AccessControlListTagTests {
 		assertThat((Boolean) this.pageContext.getAttribute("allowed")).isFalse();
 	}
 
+	@Test
+	public void doStartTagWhenNoDomainObjectThenException() {
+		this.tag.setHasPermission("READ");
+		this.tag.setVar("allowed");
+		assertThatExceptionOfType(JspException.class).isThrownBy(this.tag::doStartTag);
+		assertThat(this.pageContext.getAttribute("allowed")).isNull();
+		verifyNoMoreInteractions(this.pe);
+	}
+
+	@Test
+	public void bodyIsEvaluatedIfDomainObjectIsNull() throws Exception {
+		this.tag.setDomainObject(null);
+		this.tag.setHasPermission("READ");
+		this.tag.setVar("allowed");
+		assertThat(this.tag.doStartTag()).isEqualTo(Tag.EVAL_BODY_INCLUDE);
+		assertThat((Boolean) this.pageContext.getAttribute("allowed")).isTrue();
+	}
+
+	@Test
+	public void domainObjectsWhenBatchThenSingleHasPermissionsCall() throws Exception {
+		Object first = new Object();
+		Object second = new Object();
+		List<Object> domainObjects = Arrays.asList(first, second);
+		BitSet read = new BitSet();
+		read.set(0, 2);
+		BitSet write = new BitSet();
+		write.set(0);
+		Map<Object, BitSet> permissions = new LinkedHashMap<>();
+		permissions.put("READ", read);
+		permissions.put("WRITE", write);
+		given(this.pe.hasPermissions(this.bob, domainObjects, Arrays.asList("READ", "WRITE"))).willReturn(permissions);
+		this.tag.setDomainObjects(domainObjects);
+		this.tag.setHasPermission("READ,WRITE");
+		this.tag.setVar("allowed");
+		assertThat(this.tag.getDomainObjects()).isSameAs(domainObjects);
+		assertThat(this.tag.doStartTag()).isEqualTo(Tag.SKIP_BODY);
+		List<Boolean> allowed = (List<Boolean>) this.pageContext.getAttribute("allowed");
+		assertThat(allowed).containsExactly(true, false);
+		verify(this.pe).hasPermissions(this.bob, domainObjects, Arrays.asList("READ", "WRITE"));
+		verifyNoMoreInteractions(this.pe);
+	}
+
+	@Test
+	public void domainObjectsWhenAllGrantedThenBodyIsEvaluated() throws Exception {
+		Object domainObject = new Object();
+		List<Object> domainObjects = Arrays.asList(domainObject);
+		BitSet read = new BitSet();
+		read.set(0);
+		Map<Object, BitSet> permissions = new LinkedHashMap<>();
+		permissions.put("READ", read);
+		given(this.pe.hasPermissions(this.bob, domainObjects, Arrays.asList("READ"))).willReturn(permissions);
+		this.tag.setDomainObjects(domainObjects);
+		this.tag.setHasPermission("READ");
+		this.tag.setVar("allowed");
+		assertThat(this.tag.doStartTag()).isEqualTo(Tag.EVAL_BODY_INCLUDE);
+		List<Boolean> allowed = (List<Boolean>) this.pageContext.getAttribute("allowed");
+		assertThat(allowed).containsExactly(true);
+	}
+
+	@Test
+	public void domainObjectsWhenEqualObjectsThenResultPerIndex() throws Exception {
+		List<Object> domainObjects = Arrays.asList("same", "same");
+		BitSet read = new BitSet();
+		read.set(1);
+		Map<Object, BitSet> permissions = new LinkedHashMap<>();
+		permissions.put("READ", read);
+		given(this.pe.hasPermissions(this.bob, domainObjects, Arrays.asList("READ"))).willReturn(permissions);
+		this.tag.setDomainObjects(domainObjects);
+		this.tag.setHasPermission("READ");
+		this.tag.setVar("allowed");
+		assertThat(this.tag.doStartTag()).isEqualTo(Tag.SKIP_BODY);
+		List<Boolean> allowed = (List<Boolean>) this.pageContext.getAttribute("allowed");
+		assertThat(allowed).containsExactly(false, true);
+	}
+
+	@Test
+	public void domainObjectsWhenNullObjectThenGrantedLikeSingleDomainObject() throws Exception {
+		Object domainObject = new Object();
+		List<Object> domainObjects = Arrays.asList(null, domainObject);
+		BitSet read = new BitSet();
+		read.set(0);
+		Map<Object, BitSet> permissions = new LinkedHashMap<>();
+		permissions.put("READ", read);
+		given(this.pe.hasPermissions(this.bob, Arrays.asList(domainObject), Arrays.asList("READ")))
+				.willReturn(permissions);
+		this.tag.setDomainObjects(domainObjects);
+		this.tag.setHasPermission("READ");
+		this.tag.setVar("allowed");
+		assertThat(this.tag.doStartTag()).isEqualTo(Tag.EVAL_BODY_INCLUDE);
+		List<Boolean> allowed = (List<Boolean>) this.pageContext.getAttribute("allowed");
+		assertThat(allowed).containsExactly(true, true);
+	}
+
 }